@@ -0,0 +1,54 @@
+package io.github.compactrisc16.assembler;
+
+import io.github.compactrisc16.assembler.isa.instruction.AbstractInstruction;
+import io.github.compactrisc16.assembler.isa.instruction.Instructions;
+import io.github.compactrisc16.assembler.isa.instruction.exception.InstructionParseException;
+import io.github.compactrisc16.assembler.util.BasedNumberParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link InstructionEncodingBenchmark} benchmarks {@link AbstractInstruction#assemble(List)} for one instruction of
+ * each instruction type.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class InstructionEncodingBenchmark {
+
+    @Param({"ADD r1 r2", "ADDI r1 0x12", "LSHI r1 3", "JEQ r1", "BEQ -4", "CALL r14", "CALLD 100", "RET", "PUSH r3",
+            "POP r3", "NOP", "0x1234"})
+    private String line;
+
+    private AbstractInstruction instruction;
+    private List<String> lineWords;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        lineWords = Arrays.asList(line.split(" "));
+        instruction = Instructions.INSTRUCTIONS_OF_MNEMONICS.get(lineWords.get(0));
+    }
+
+    @Benchmark
+    public int assemble() throws InstructionParseException {
+        // Lines without a mnemonic are assembly numbers, which are encoded by parsing them
+        return instruction == null ? BasedNumberParser.parseInt(line) : instruction.assemble(lineWords);
+    }
+}
@@ -0,0 +1,91 @@
+package io.github.compactrisc16.assembler;
+
+import io.github.compactrisc16.assembler.argument.NumberBase;
+import io.github.compactrisc16.assembler.output.AbstractMachineCodeWriter;
+import io.github.compactrisc16.assembler.output.DatWriter;
+import io.github.compactrisc16.assembler.output.IntelHexWriter;
+import io.github.compactrisc16.assembler.output.MifWriter;
+import io.github.compactrisc16.assembler.output.RawBinaryWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link OutputBenchmark} benchmarks formatting and writing a full 64K word image with each {@link
+ * AbstractMachineCodeWriter}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OutputBenchmark {
+
+    private static final int WORD_COUNT = 1 << 16;
+
+    @Param({"DAT_BINARY", "DAT_DECIMAL", "DAT_HEX", "BIN_LE", "INTEL_HEX", "MIF_HEX"})
+    private String writer;
+
+    private Path outputFile;
+    private int[] words;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        outputFile = Files.createTempFile("output-benchmark", ".out");
+        final Random random = new Random(1);
+        words = new int[WORD_COUNT];
+        for (int index = 0; index < WORD_COUNT; index++) {
+            // Repeat some words so that the run-length ranges of MIF are exercised
+            words[index] = random.nextInt(4) == 0 && index > 0 ? words[index - 1] : random.nextInt(0x10000);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(outputFile);
+    }
+
+    @Benchmark
+    public void writeImage() throws IOException {
+        try (AbstractMachineCodeWriter machineCodeWriter = createWriter()) {
+            machineCodeWriter.writeImage(words, WORD_COUNT, 0);
+        }
+    }
+
+    private AbstractMachineCodeWriter createWriter() throws IOException {
+        switch (writer) {
+            case "DAT_BINARY":
+                return new DatWriter(outputFile, NumberBase.BINARY);
+            case "DAT_DECIMAL":
+                return new DatWriter(outputFile, NumberBase.DECIMAL);
+            case "DAT_HEX":
+                return new DatWriter(outputFile, NumberBase.HEX);
+            case "BIN_LE":
+                return new RawBinaryWriter(outputFile, ByteOrder.LITTLE_ENDIAN);
+            case "INTEL_HEX":
+                return new IntelHexWriter(outputFile);
+            case "MIF_HEX":
+                return new MifWriter(outputFile, NumberBase.HEX);
+            default:
+                throw new IllegalArgumentException(writer);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package io.github.compactrisc16.assembler;
+
+import io.github.compactrisc16.assembler.assembly.Line;
+import io.github.compactrisc16.assembler.assembly.exception.AssemblyParseException;
+import io.github.compactrisc16.assembler.generator.JumpDistribution;
+import io.github.compactrisc16.assembler.generator.ProgramGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * {@link PhaseBenchmark} benchmarks each phase of the {@link Assembler} pipeline separately on programs from the
+ * {@link ProgramGenerator}. Phases that modify their {@link Line}s get freshly prepared {@link Line}s for every
+ * invocation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PhaseBenchmark {
+
+    // The largest programs stop at about 47K lines, where they could fill the address space (see ProgramGenerator)
+    @Param({"1024", "4096", "16384", "65536"})
+    private int lineCount;
+
+    @Param({"0.1"})
+    private double labelDensity;
+
+    @Param({"16"})
+    private int defineCount;
+
+    @Param({"0.2"})
+    private double jumpRatio;
+
+    @Param({"NEAR", "FAR", "MIXED"})
+    private JumpDistribution jumpDistribution;
+
+    @Param({"0.05"})
+    private double dataWordRatio;
+
+    private Path temporaryDirectory;
+    private String program;
+    private Assembler assembler;
+    private List<Line> resolvedLines;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, AssemblyParseException {
+        final ProgramGenerator programGenerator = new ProgramGenerator();
+        programGenerator.setLineCount(lineCount);
+        programGenerator.setLabelDensity(labelDensity);
+        programGenerator.setDefineCount(defineCount);
+        programGenerator.setJumpRatio(jumpRatio);
+        programGenerator.setJumpDistribution(jumpDistribution);
+        programGenerator.setDataWordRatio(dataWordRatio);
+        program = programGenerator.generate();
+
+        temporaryDirectory = Files.createTempDirectory("phase-benchmark");
+        assembler = createAssembler();
+        resolvedLines = prepareLines(true, true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(temporaryDirectory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    /**
+     * Creates an {@link Assembler} with parsed arguments for the generated program that prints nothing.
+     *
+     * @return the {@link Assembler}
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    Assembler createAssembler() throws IOException {
+        final Path assemblyFile = temporaryDirectory.resolve("program.asm");
+        if (!Files.exists(assemblyFile)) {
+            Files.writeString(assemblyFile, program);
+        }
+        final PrintStream nullPrintStream = new PrintStream(OutputStream.nullOutputStream());
+        final Assembler assembler = new Assembler(new String[]{assemblyFile.toString()}, temporaryDirectory,
+                nullPrintStream, nullPrintStream);
+        if (!assembler.parseArguments()) {
+            throw new IllegalStateException("Could not parse benchmark arguments.");
+        }
+        return assembler;
+    }
+
+    /**
+     * Prepares {@link Line}s of the generated program up to the given phase.
+     *
+     * @param processDefines true to process defines
+     * @param processLabels  true to process labels
+     *
+     * @return the {@link List} of {@link Line}s
+     *
+     * @throws IOException            thrown for {@link IOException}s
+     * @throws AssemblyParseException thrown for {@link AssemblyParseException}s
+     */
+    List<Line> prepareLines(boolean processDefines, boolean processLabels) throws IOException,
+            AssemblyParseException {
+        final Assembler assembler = createAssembler();
+        final List<Line> lines = assembler.cleanAssembly(program);
+        if (processDefines) {
+            assembler.processDefines(lines);
+        }
+        if (processLabels) {
+            assembler.processLabels(lines);
+        }
+        return lines;
+    }
+
+    /**
+     * {@link CleanedLines} contains freshly cleaned {@link Line}s for every invocation.
+     */
+    @State(Scope.Thread)
+    public static class CleanedLines {
+
+        private Assembler assembler;
+        private List<Line> lines;
+
+        @Setup(Level.Invocation)
+        public void setUp(PhaseBenchmark phaseBenchmark) throws IOException, AssemblyParseException {
+            assembler = phaseBenchmark.createAssembler();
+            lines = phaseBenchmark.prepareLines(false, false);
+        }
+    }
+
+    /**
+     * {@link DefinedLines} contains freshly cleaned {@link Line}s with processed defines for every invocation.
+     */
+    @State(Scope.Thread)
+    public static class DefinedLines {
+
+        private Assembler assembler;
+        private List<Line> lines;
+
+        @Setup(Level.Invocation)
+        public void setUp(PhaseBenchmark phaseBenchmark) throws IOException, AssemblyParseException {
+            assembler = phaseBenchmark.createAssembler();
+            lines = phaseBenchmark.prepareLines(true, false);
+        }
+    }
+
+    @Benchmark
+    public List<Line> cleanAssembly() {
+        return assembler.cleanAssembly(program);
+    }
+
+    @Benchmark
+    public List<Line> processDefines(CleanedLines cleanedLines) throws AssemblyParseException {
+        cleanedLines.assembler.processDefines(cleanedLines.lines);
+        return cleanedLines.lines;
+    }
+
+    @Benchmark
+    public List<Line> processLabels(DefinedLines definedLines) throws AssemblyParseException {
+        definedLines.assembler.processLabels(definedLines.lines);
+        return definedLines.lines;
+    }
+
+    @Benchmark
+    public int[] assembleLines() throws AssemblyParseException {
+        return assembler.assembleLines(resolvedLines);
+    }
+}
@@ -0,0 +1,63 @@
+package io.github.compactrisc16.assembler;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RunBenchmark} benchmarks {@link Assembler#run()} end to end (including argument parsing and writing the
+ * output file) on <code>src/asm/test_all/all.asm</code>. The repository root is given by the
+ * <code>compactrisc16.root</code> system property.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RunBenchmark {
+
+    private String[] argumentStrings;
+    private Path outputFile;
+    private PrintStream nullPrintStream;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        final Path assemblyFile = Path.of(System.getProperty("compactrisc16.root", ".."), "src", "asm", "test_all",
+                "all.asm").toAbsolutePath();
+        outputFile = Files.createTempFile("run-benchmark", ".dat");
+        argumentStrings = new String[]{assemblyFile.toString(), "-o", outputFile.toString()};
+        nullPrintStream = new PrintStream(OutputStream.nullOutputStream());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(outputFile);
+    }
+
+    @Benchmark
+    public boolean run() {
+        final Assembler assembler = new Assembler(argumentStrings, Path.of("").toAbsolutePath(), nullPrintStream,
+                nullPrintStream);
+        if (!assembler.run()) {
+            throw new IllegalStateException("Could not assemble " + argumentStrings[0]);
+        }
+        return true;
+    }
+}
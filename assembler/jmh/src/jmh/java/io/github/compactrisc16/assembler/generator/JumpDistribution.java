@@ -0,0 +1,21 @@
+package io.github.compactrisc16.assembler.generator;
+
+/**
+ * {@link JumpDistribution} defines how the {@link ProgramGenerator} chooses the target label of a label reference.
+ */
+public enum JumpDistribution {
+
+    /**
+     * Targets are normally distributed around the reference, so most fit in a <code>B[condition]</code> displacement.
+     */
+    NEAR,
+    /**
+     * Targets are uniformly distributed over the whole program, so most need a <code>MOVIL</code>/<code>MOVIU</code>
+     * load.
+     */
+    FAR,
+    /**
+     * Half of the targets are {@link #NEAR} and half of them are {@link #FAR}.
+     */
+    MIXED
+}
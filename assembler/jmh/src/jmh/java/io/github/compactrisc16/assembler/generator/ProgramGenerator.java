@@ -0,0 +1,254 @@
+package io.github.compactrisc16.assembler.generator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * {@link ProgramGenerator} generates synthetic CR16 assembly programs for benchmarks. The same seed and parameters
+ * always generate the same program. A program consists of {@link #getDefineCount()} <code>`define</code>s followed
+ * by up to {@link #getLineCount()} instruction or data word lines, a fraction of which are preceded by a label. Lines
+ * are only generated while the program would fit into the 16-bit address space of the CR16 even if every label
+ * reference were assembled into {@link #MAX_LABEL_REFERENCE_WORD_COUNT} words, so large line counts generate fewer
+ * lines (e.g. about 47K of 64K lines with the default ratios).
+ */
+public class ProgramGenerator {
+
+    private static final String[] J_MNEMONICS = {"JEQ", "JNE", "JCS", "JCC", "JFS", "JFC", "JLT", "JLE", "JLO", "JLS",
+            "JGT", "JGE", "JHI", "JHS", "JUC"};
+    private static final String[] RDEST_RSRC_MNEMONICS = {"ADD", "ADDC", "SUB", "CMP", "AND", "OR", "XOR", "LSH",
+            "MOV"};
+    private static final String[] RDEST_IMM_MNEMONICS = {"ADDI", "SUBI", "CMPI", "ANDI", "ORI", "XORI", "MOVIL",
+            "MOVIU"};
+    private static final int NEAR_JUMP_STANDARD_DEVIATION = 32;
+    private static final int MAX_WORD_COUNT = 0x10000;
+    private static final int MAX_LABEL_REFERENCE_WORD_COUNT = 3; // 'MOVIL' and 'MOVIU' of the address, then the jump
+    private static final int REGISTER_COUNT = 13; // Leaves r13, r14 and rsp alone
+
+    private long seed = 1;
+    private int lineCount = 1024;
+    private double labelDensity = 0.1;
+    private int defineCount = 16;
+    private double jumpRatio = 0.2;
+    private JumpDistribution jumpDistribution = JumpDistribution.MIXED;
+    private double dataWordRatio = 0.05;
+
+    /**
+     * Generates a program.
+     *
+     * @return the assembly code {@link String}
+     */
+    public String generate() {
+        final Random random = new Random(seed);
+
+        // Choose the kinds of the lines up front, so that no label is placed on a line that doesn't fit
+        final double[] lineKinds = new double[lineCount];
+        int generatedLineCount = 0;
+        for (int maxWordCount = 0; generatedLineCount < lineCount; generatedLineCount++) {
+            final double lineKind = random.nextDouble();
+            maxWordCount += isLabelReference(lineKind) ? MAX_LABEL_REFERENCE_WORD_COUNT : 1;
+            if (maxWordCount > MAX_WORD_COUNT) {
+                break;
+            }
+            lineKinds[generatedLineCount] = lineKind;
+        }
+
+        final StringBuilder program = new StringBuilder(generatedLineCount * 24);
+        program.append("# Generated by ProgramGenerator: seed=").append(seed)
+                .append(", lineCount=").append(lineCount)
+                .append(", labelDensity=").append(labelDensity)
+                .append(", defineCount=").append(defineCount)
+                .append(", jumpRatio=").append(jumpRatio)
+                .append(", jumpDistribution=").append(jumpDistribution)
+                .append(", dataWordRatio=").append(dataWordRatio)
+                .append(" (").append(generatedLineCount).append(" lines)\n");
+
+        for (int define = 0; define < defineCount; define++) {
+            program.append("`define CONST_").append(define).append(" 0x")
+                    .append(Integer.toHexString(random.nextInt(128))).append('\n');
+        }
+
+        // Choose the labeled lines up front so references can target any of them (the first line is always labeled)
+        final List<Integer> labeledLineList = new ArrayList<>();
+        for (int line = 0; line < generatedLineCount; line++) {
+            if (line == 0 || random.nextDouble() < labelDensity) {
+                labeledLineList.add(line);
+            }
+        }
+        final int[] labeledLines = labeledLineList.stream().mapToInt(Integer::intValue).toArray();
+
+        int labelIndex = 0;
+        for (int line = 0; line < generatedLineCount; line++) {
+            if (labelIndex < labeledLines.length && labeledLines[labelIndex] == line) {
+                program.append(".L").append(line).append('\n');
+                labelIndex++;
+            }
+
+            final double lineKind = lineKinds[line];
+            program.append("    ");
+            if (lineKind < dataWordRatio) {
+                program.append(String.format("0x%04X", random.nextInt(0x10000)));
+            } else if (isLabelReference(lineKind)) {
+                appendLabelReference(program, random, line, labeledLines);
+            } else {
+                appendInstruction(program, random);
+            }
+            program.append('\n');
+        }
+        return program.toString();
+    }
+
+    /**
+     * Checks if a line of the given kind is a label reference.
+     *
+     * @param lineKind the line kind, uniformly distributed in <code>[0, 1)</code>
+     *
+     * @return <code>true</code> if it's a label reference
+     */
+    private boolean isLabelReference(double lineKind) {
+        return lineKind >= dataWordRatio && lineKind < dataWordRatio + jumpRatio;
+    }
+
+    /**
+     * Appends a <code>J[condition]</code>, <code>CALL</code>, or <code>MOV</code> label reference.
+     *
+     * @param program      the program {@link StringBuilder}
+     * @param random       the {@link Random}
+     * @param line         the current line
+     * @param labeledLines the sorted labeled lines
+     */
+    private void appendLabelReference(StringBuilder program, Random random, int line, int[] labeledLines) {
+        final boolean near = jumpDistribution == JumpDistribution.NEAR ||
+                (jumpDistribution == JumpDistribution.MIXED && random.nextBoolean());
+        final int targetLine;
+        if (near) {
+            int nearLine = line + (int) Math.round(random.nextGaussian() * NEAR_JUMP_STANDARD_DEVIATION);
+            int insertionIndex = Arrays.binarySearch(labeledLines, Math.max(0, nearLine));
+            insertionIndex = insertionIndex >= 0 ? insertionIndex : Math.min(-insertionIndex - 1,
+                    labeledLines.length - 1);
+            targetLine = labeledLines[insertionIndex];
+        } else {
+            targetLine = labeledLines[random.nextInt(labeledLines.length)];
+        }
+
+        final double referenceKind = random.nextDouble();
+        if (referenceKind < 0.7) {
+            program.append(J_MNEMONICS[random.nextInt(J_MNEMONICS.length)]).append(" .L").append(targetLine)
+                    .append("$r13");
+        } else if (referenceKind < 0.9) {
+            program.append("CALL .L").append(targetLine).append("$r14");
+        } else {
+            program.append("MOV r").append(random.nextInt(REGISTER_COUNT)).append(" .L").append(targetLine);
+        }
+    }
+
+    /**
+     * Appends a register or immediate ALU instruction. Immediates are sometimes the name of a <code>`define</code>.
+     *
+     * @param program the program {@link StringBuilder}
+     * @param random  the {@link Random}
+     */
+    private void appendInstruction(StringBuilder program, Random random) {
+        final int rdest = random.nextInt(REGISTER_COUNT);
+        if (random.nextBoolean()) {
+            program.append(RDEST_RSRC_MNEMONICS[random.nextInt(RDEST_RSRC_MNEMONICS.length)])
+                    .append(" r").append(rdest).append(" r").append(random.nextInt(REGISTER_COUNT));
+        } else {
+            program.append(RDEST_IMM_MNEMONICS[random.nextInt(RDEST_IMM_MNEMONICS.length)]).append(" r").append(rdest);
+            if (defineCount > 0 && random.nextBoolean()) {
+                program.append(" CONST_").append(random.nextInt(defineCount));
+            } else {
+                program.append(' ').append(random.nextInt(128));
+            }
+        }
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    public void setLineCount(int lineCount) {
+        this.lineCount = lineCount;
+    }
+
+    public double getLabelDensity() {
+        return labelDensity;
+    }
+
+    public void setLabelDensity(double labelDensity) {
+        this.labelDensity = labelDensity;
+    }
+
+    public int getDefineCount() {
+        return defineCount;
+    }
+
+    public void setDefineCount(int defineCount) {
+        this.defineCount = defineCount;
+    }
+
+    public double getJumpRatio() {
+        return jumpRatio;
+    }
+
+    public void setJumpRatio(double jumpRatio) {
+        this.jumpRatio = jumpRatio;
+    }
+
+    public JumpDistribution getJumpDistribution() {
+        return jumpDistribution;
+    }
+
+    public void setJumpDistribution(JumpDistribution jumpDistribution) {
+        this.jumpDistribution = jumpDistribution;
+    }
+
+    public double getDataWordRatio() {
+        return dataWordRatio;
+    }
+
+    public void setDataWordRatio(double dataWordRatio) {
+        this.dataWordRatio = dataWordRatio;
+    }
+
+    /**
+     * Prints a generated program to standard output.
+     *
+     * @param args <code>lineCount [seed [labelDensity [defineCount [jumpRatio [jumpDistribution
+     *             [dataWordRatio]]]]]]</code>
+     */
+    public static void main(String[] args) {
+        final ProgramGenerator programGenerator = new ProgramGenerator();
+        if (args.length > 0) {
+            programGenerator.setLineCount(Integer.parseInt(args[0]));
+        }
+        if (args.length > 1) {
+            programGenerator.setSeed(Long.parseLong(args[1]));
+        }
+        if (args.length > 2) {
+            programGenerator.setLabelDensity(Double.parseDouble(args[2]));
+        }
+        if (args.length > 3) {
+            programGenerator.setDefineCount(Integer.parseInt(args[3]));
+        }
+        if (args.length > 4) {
+            programGenerator.setJumpRatio(Double.parseDouble(args[4]));
+        }
+        if (args.length > 5) {
+            programGenerator.setJumpDistribution(JumpDistribution.valueOf(args[5].toUpperCase()));
+        }
+        if (args.length > 6) {
+            programGenerator.setDataWordRatio(Double.parseDouble(args[6]));
+        }
+        System.out.print(programGenerator.generate());
+    }
+}
@@ -0,0 +1,38 @@
+package io.github.compactrisc16.simulator;
+
+/**
+ * {@link HaltReason} defines why the {@link Simulator} stopped clocking the CR16.
+ */
+public enum HaltReason {
+
+    /**
+     * A conditional branch or jump was taken to its own address (e.g. <code>BUC -1</code>), so the CR16 would spin
+     * forever.
+     */
+    SPIN("spinning on a branch or jump to itself"),
+
+    /**
+     * An instruction was fetched from an address past the end of the loaded program.
+     */
+    END_OF_PROGRAM("fetching past the end of the program"),
+
+    /**
+     * The maximum number of cycles was clocked.
+     */
+    MAX_CYCLES("reaching the maximum number of cycles");
+
+    private final String description;
+
+    /**
+     * Instantiates a new {@link HaltReason}.
+     *
+     * @param description the description
+     */
+    HaltReason(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
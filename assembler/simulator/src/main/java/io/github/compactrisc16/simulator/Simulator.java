@@ -0,0 +1,277 @@
+package io.github.compactrisc16.simulator;
+
+import com.beust.jcommander.ParameterException;
+import io.github.compactrisc16.assembler.isa.register.Register;
+import io.github.compactrisc16.assembler.isa.register.Registers;
+import io.github.compactrisc16.simulator.argument.Arguments;
+import io.github.compactrisc16.simulator.argument.EngineType;
+import io.github.compactrisc16.simulator.cr16.ALU;
+import io.github.compactrisc16.simulator.cr16.CR16;
+import io.github.compactrisc16.simulator.cr16.State;
+import io.github.compactrisc16.simulator.engine.AbstractEngine;
+import io.github.compactrisc16.simulator.engine.CycleAccurateEngine;
+import io.github.compactrisc16.simulator.engine.InterpreterEngine;
+import io.github.compactrisc16.simulator.engine.TranslatorEngine;
+import io.github.compactrisc16.simulator.memory.BRAM;
+import io.github.compactrisc16.simulator.memory.DatReader;
+import io.github.compactrisc16.simulator.memory.device.ConsoleDevice;
+import io.github.compactrisc16.simulator.memory.exception.ImageParseException;
+import io.github.compactrisc16.simulator.trace.TraceWriter;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * {@link Simulator} is used to simulate the CompactRISC16 (CR16) CPU cycle by cycle, as it is implemented in
+ * <code>src/v/rtl/cr16/cr16.sv</code>, running a machine code image written by the assembler.
+ */
+public class Simulator {
+
+    /**
+     * The names of the status flags, indexed by the <code>STATUS_INDEX</code> constants of {@link ALU}.
+     */
+    public static final String STATUS_FLAG_NAMES = "CLFZN";
+    private static final List<Register> REGISTERS_BY_INDEX = Registers.REGISTERS.stream()
+            .sorted(Comparator.comparingInt(Register::getIndex))
+            .collect(Collectors.toUnmodifiableList());
+
+    private final String[] argumentStrings;
+    private final Path workingDirectory;
+    private final PrintStream out;
+    private final PrintStream err;
+    private Arguments arguments;
+    private AbstractEngine engine;
+
+    /**
+     * Instantiates a new {@link Simulator} that resolves relative paths against the current working directory and
+     * prints to {@link System#out} and {@link System#err}.
+     *
+     * @param argumentStrings the input argument {@link String}s
+     */
+    public Simulator(String[] argumentStrings) {
+        this(argumentStrings, Path.of("").toAbsolutePath(), System.out, System.err);
+    }
+
+    /**
+     * Instantiates a new {@link Simulator}.
+     *
+     * @param argumentStrings  the input argument {@link String}s
+     * @param workingDirectory the absolute {@link Path} that relative paths are resolved against
+     * @param out              the {@link PrintStream} for the usage and the simulation report
+     * @param err              the {@link PrintStream} for exceptions
+     */
+    public Simulator(String[] argumentStrings, Path workingDirectory, PrintStream out, PrintStream err) {
+        this.argumentStrings = argumentStrings;
+        this.workingDirectory = workingDirectory;
+        this.out = out;
+        this.err = err;
+    }
+
+    /**
+     * Parses the {@link Arguments}, loads the machine code image, simulates it until it halts, and prints a report of
+     * the final state and the cycle counts.
+     *
+     * @return <code>true</code> if the simulation ran successfully
+     */
+    public boolean run() {
+        arguments = new Arguments(argumentStrings, workingDirectory);
+        try {
+            arguments.parse();
+        } catch (ParameterException exception) {
+            StringBuilder usage = new StringBuilder();
+            exception.getJCommander().getUsageFormatter().usage(usage);
+            out.print(usage);
+            return false;
+        } catch (IllegalArgumentException exception) {
+            printException(exception);
+            return false;
+        }
+
+        try {
+            load();
+        } catch (Exception exception) {
+            printException(exception);
+            return false;
+        }
+
+        final long startNanoTime = System.nanoTime();
+        final HaltReason haltReason;
+        try {
+            haltReason = runEngine();
+        } catch (IOException | UncheckedIOException exception) {
+            printException(exception);
+            return false;
+        }
+        engine.getMemory().force();
+        engine.getExternalMemory().force();
+        printReport(haltReason, System.nanoTime() - startNanoTime);
+        return true;
+    }
+
+    /**
+     * Loads the machine code image into the main memory of a new {@link AbstractEngine} of the {@link
+     * Arguments#getEngineType()}.
+     *
+     * @throws IOException         thrown for {@link IOException}s
+     * @throws ImageParseException thrown for {@link ImageParseException}s
+     */
+    private void load() throws IOException, ImageParseException {
+        final int[] image = DatReader.read(arguments.getMachineCodeFile().toPath(), arguments.getNumberBase());
+        final BRAM memory = createMemory(arguments.getMemoryFile());
+        try {
+            memory.load(image);
+        } catch (IllegalArgumentException exception) {
+            throw new ImageParseException(exception.getMessage(), null);
+        }
+        final BRAM externalMemory = createMemory(arguments.getExternalMemoryFile());
+        if (arguments.getConsoleAddress() != null) {
+            externalMemory.mapDevice(arguments.getConsoleAddress(), 1, new ConsoleDevice(out));
+        }
+        engine = createEngine(arguments.getEngineType(), memory, externalMemory, image.length);
+    }
+
+    /**
+     * Runs the {@link AbstractEngine} for up to {@link Arguments#getMaxCycles()}, writing a binary trace to the {@link
+     * Arguments#getTraceFile()} if there is one.
+     *
+     * @return the {@link HaltReason}
+     *
+     * @throws IOException          thrown for {@link IOException}s
+     * @throws UncheckedIOException thrown for {@link IOException}s while the trace is written
+     */
+    private HaltReason runEngine() throws IOException, UncheckedIOException {
+        if (arguments.getTraceFile() == null) {
+            return engine.run(arguments.getMaxCycles());
+        }
+
+        final CR16 cr16 = ((CycleAccurateEngine) engine).getCR16();
+        try (TraceWriter traceWriter = new TraceWriter(
+                new BufferedOutputStream(new FileOutputStream(arguments.getTraceFile())))) {
+            cr16.setListener(traceWriter);
+            return engine.run(arguments.getMaxCycles());
+        } finally {
+            cr16.setListener(null);
+        }
+    }
+
+    /**
+     * Creates an {@link AbstractEngine} of the given {@link EngineType}.
+     *
+     * @param engineType     the {@link EngineType}
+     * @param memory         the main memory {@link BRAM} with the loaded program
+     * @param externalMemory the external (peripheral) memory {@link BRAM}
+     * @param programLength  the number of words in the loaded program
+     *
+     * @return the {@link AbstractEngine}
+     */
+    public static AbstractEngine createEngine(EngineType engineType, BRAM memory, BRAM externalMemory,
+            int programLength) {
+        switch (engineType) {
+            case CYCLE_ACCURATE:
+                return new CycleAccurateEngine(memory, externalMemory, programLength);
+            case INTERPRETER:
+                return new InterpreterEngine(memory, externalMemory, programLength);
+            case TRANSLATOR:
+                return new TranslatorEngine(memory, externalMemory, programLength);
+            default:
+                throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Creates a {@link BRAM} with the {@link Arguments#getAddressWidth()}.
+     *
+     * @param file the file to memory-map the {@link BRAM} to or <code>null</code>
+     *
+     * @return the {@link BRAM}
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    private BRAM createMemory(File file) throws IOException {
+        if (file == null) {
+            return new BRAM(arguments.getAddressWidth());
+        }
+        return BRAM.map(arguments.getAddressWidth(), file.toPath());
+    }
+
+    /**
+     * Prints the final state of the {@link AbstractEngine}, the number of translated blocks of a {@link
+     * TranslatorEngine}, and the cycle counts of each {@link State} of a {@link CycleAccurateEngine}.
+     *
+     * @param haltReason   the {@link HaltReason}
+     * @param elapsedNanos the elapsed wall time of the simulation in nanoseconds
+     */
+    private void printReport(HaltReason haltReason, long elapsedNanos) {
+        out.printf("Halted at 0x%04X after %s.%n", engine.getInstructionAddress(), haltReason.getDescription());
+        out.printf("Ran %d cycles for %d instructions (%.2f cycles per instruction) in %d ms.%n",
+                engine.getCycles(), engine.getInstructions(),
+                engine.getInstructions() == 0 ? 0d : (double) engine.getCycles() / engine.getInstructions(),
+                elapsedNanos / 1_000_000);
+
+        out.println("Registers:");
+        for (int index = 0; index < CR16.REGISTER_COUNT; index++) {
+            out.printf("  %-4s 0x%04X%s", REGISTERS_BY_INDEX.get(index).getName(), engine.getRegister(index),
+                    index % 4 == 3 ? System.lineSeparator() : "");
+        }
+
+        out.print("Status flags:");
+        for (int index = ALU.STATUS_FLAG_COUNT - 1; index >= 0; index--) {
+            out.printf(" %c=%d", STATUS_FLAG_NAMES.charAt(index), engine.getStatusFlags() >>> index & 1);
+        }
+        out.println();
+
+        if (engine instanceof TranslatorEngine) {
+            out.printf("Translated %d basic blocks.%n", ((TranslatorEngine) engine).getTranslatedBlockCount());
+        }
+        if (engine instanceof CycleAccurateEngine) {
+            final CR16 cr16 = ((CycleAccurateEngine) engine).getCR16();
+            out.println("Cycles per state:");
+            for (State state : State.values()) {
+                if (cr16.getCycles(state) != 0) {
+                    out.printf("  %-24s %d%n", state, cr16.getCycles(state));
+                }
+            }
+        }
+    }
+
+    /**
+     * Prints the given {@link Exception} or its stack trace in debug mode.
+     *
+     * @param exception the {@link Exception}
+     */
+    private void printException(Exception exception) {
+        if (arguments != null && arguments.isDebug()) {
+            exception.printStackTrace(err);
+        } else {
+            err.println(exception.getClass().getSimpleName() + ": " + exception.getMessage());
+        }
+    }
+
+    public Arguments getArguments() {
+        return arguments;
+    }
+
+    public AbstractEngine getEngine() {
+        return engine;
+    }
+
+    /**
+     * The entry point of application. Exits with a status of <code>1</code> if the simulation couldn't be run.
+     *
+     * @param args the input arguments
+     */
+    public static void main(String[] args) {
+        Simulator simulator = new Simulator(args);
+        if (!simulator.run()) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package io.github.compactrisc16.simulator.argument;
+
+import com.beust.jcommander.IStringConverter;
+import com.beust.jcommander.ParameterException;
+
+/**
+ * {@link AddressConverter} converts a decimal, hexadecimal (<code>0x</code> prefixed), or octal (<code>0</code>
+ * prefixed) memory address argument to an {@link Integer}.
+ */
+public class AddressConverter implements IStringConverter<Integer> {
+
+    @Override
+    public Integer convert(String value) {
+        try {
+            return Integer.decode(value);
+        } catch (NumberFormatException exception) {
+            throw new ParameterException("\"" + value + "\" is not a valid address.");
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package io.github.compactrisc16.simulator.argument;
+
+import com.beust.jcommander.JCommander;
+import com.beust.jcommander.Parameter;
+import com.beust.jcommander.ParameterException;
+import com.beust.jcommander.converters.FileConverter;
+import io.github.compactrisc16.assembler.argument.NumberBase;
+import io.github.compactrisc16.simulator.Simulator;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * {@link Arguments} contains the arguments parsed from the command line to be used for the {@link Simulator}.
+ */
+public class Arguments {
+
+    private final String[] argumentStrings;
+    private final Path workingDirectory;
+
+    @Parameter(description = "<machine code .dat file path>", converter = FileConverter.class, required = true)
+    private File machineCodeFile;
+
+    @Parameter(names = {"-b", "--number-base"}, description = "The number base of the machine code file.")
+    private NumberBase numberBase = NumberBase.HEX;
+
+    @Parameter(names = {"-a", "--address-width"},
+            description = "The address width of the main and external memories in bits. cr16_top uses 10 bits.")
+    private int addressWidth = 16;
+
+    @Parameter(names = {"-e", "--engine"}, description = "The engine to execute the program with.")
+    private EngineType engineType = EngineType.CYCLE_ACCURATE;
+
+    @Parameter(names = {"-m", "--max-cycles"}, description = "The maximum number of cycles to simulate.")
+    private long maxCycles = 100_000_000;
+
+    @Parameter(names = {"--memory-file"}, converter = FileConverter.class,
+            description = "The file to memory-map the main memory to, which is created if it doesn't exist.")
+    private File memoryFile;
+
+    @Parameter(names = {"--external-memory-file"}, converter = FileConverter.class,
+            description = "The file to memory-map the external memory to, which is created if it doesn't exist. " +
+                    "Existing words in the file are kept.")
+    private File externalMemoryFile;
+
+    @Parameter(names = {"-c", "--console-address"}, converter = AddressConverter.class,
+            description = "The external memory address of a console device that prints the characters stored to it.")
+    private Integer consoleAddress;
+
+    @Parameter(names = {"-t", "--trace"}, converter = FileConverter.class,
+            description = "The file to write a binary trace of the fetches and writes of every instruction to, which " +
+                    "can be compared with 'simulator-compare'. Requires the CYCLE_ACCURATE engine.")
+    private File traceFile;
+
+    @Parameter(names = {"-d", "--debug"}, description = "Turns on debug mode.")
+    private boolean debug = false;
+
+    /**
+     * Instantiates a new {@link Arguments}.
+     *
+     * @param argumentStrings  the input argument {@link String}s
+     * @param workingDirectory the absolute {@link Path} that relative paths are resolved against
+     */
+    public Arguments(String[] argumentStrings, Path workingDirectory) {
+        this.argumentStrings = argumentStrings;
+        this.workingDirectory = workingDirectory;
+    }
+
+    /**
+     * Parses the arguments.
+     *
+     * @throws ParameterException       thrown for {@link ParameterException}s from {@link JCommander}
+     * @throws IllegalArgumentException thrown for {@link IllegalArgumentException}s which occurs when parsing
+     *                                  succeeded, but the arguments parsed are illegal
+     */
+    public void parse() throws ParameterException, IllegalArgumentException {
+        JCommander.newBuilder()
+                .programName("simulator")
+                .addObject(this)
+                .build()
+                .parse(argumentStrings);
+
+        machineCodeFile = workingDirectory.resolve(machineCodeFile.toPath()).toFile();
+        checkArgument(machineCodeFile.isFile(), "%s is not a valid file.", machineCodeFile.getPath());
+        checkArgument(addressWidth > 0 && addressWidth <= 16, "The address width must be between 1 and 16 bits.");
+        checkArgument(maxCycles > 0, "The maximum number of cycles must be positive.");
+        if (memoryFile != null) {
+            memoryFile = workingDirectory.resolve(memoryFile.toPath()).toFile();
+        }
+        if (externalMemoryFile != null) {
+            externalMemoryFile = workingDirectory.resolve(externalMemoryFile.toPath()).toFile();
+        }
+        checkArgument(consoleAddress == null || consoleAddress >= 0 && consoleAddress < 1 << addressWidth,
+                "The console address must be within the external memory.");
+        if (traceFile != null) {
+            traceFile = workingDirectory.resolve(traceFile.toPath()).toFile();
+        }
+        checkArgument(traceFile == null || engineType == EngineType.CYCLE_ACCURATE,
+                "A trace can only be written with the %s engine.", EngineType.CYCLE_ACCURATE);
+    }
+
+    public String[] getArgumentStrings() {
+        return argumentStrings;
+    }
+
+    public Path getWorkingDirectory() {
+        return workingDirectory;
+    }
+
+    public File getMachineCodeFile() {
+        return machineCodeFile;
+    }
+
+    public NumberBase getNumberBase() {
+        return numberBase;
+    }
+
+    public int getAddressWidth() {
+        return addressWidth;
+    }
+
+    public EngineType getEngineType() {
+        return engineType;
+    }
+
+    public long getMaxCycles() {
+        return maxCycles;
+    }
+
+    public File getMemoryFile() {
+        return memoryFile;
+    }
+
+    public File getExternalMemoryFile() {
+        return externalMemoryFile;
+    }
+
+    public Integer getConsoleAddress() {
+        return consoleAddress;
+    }
+
+    public File getTraceFile() {
+        return traceFile;
+    }
+
+    public boolean isDebug() {
+        return debug;
+    }
+
+    @Override
+    public String toString() {
+        return "Arguments{" +
+                "argumentStrings=" + Arrays.toString(argumentStrings) +
+                ", workingDirectory=" + workingDirectory +
+                ", machineCodeFile=" + machineCodeFile +
+                ", numberBase=" + numberBase +
+                ", addressWidth=" + addressWidth +
+                ", engineType=" + engineType +
+                ", maxCycles=" + maxCycles +
+                ", memoryFile=" + memoryFile +
+                ", externalMemoryFile=" + externalMemoryFile +
+                ", consoleAddress=" + consoleAddress +
+                ", traceFile=" + traceFile +
+                ", debug=" + debug +
+                '}';
+    }
+}
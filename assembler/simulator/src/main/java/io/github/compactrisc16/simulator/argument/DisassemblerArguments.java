@@ -0,0 +1,105 @@
+package io.github.compactrisc16.simulator.argument;
+
+import com.beust.jcommander.JCommander;
+import com.beust.jcommander.Parameter;
+import com.beust.jcommander.ParameterException;
+import com.beust.jcommander.converters.FileConverter;
+import io.github.compactrisc16.assembler.argument.NumberBase;
+import io.github.compactrisc16.simulator.disassembler.Disassembler;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * {@link DisassemblerArguments} contains the arguments parsed from the command line to be used for the {@link
+ * Disassembler}.
+ */
+public class DisassemblerArguments {
+
+    private final String[] argumentStrings;
+    private final Path workingDirectory;
+
+    @Parameter(description = "<machine code .dat file path>", converter = FileConverter.class, required = true)
+    private File machineCodeFile;
+
+    @Parameter(names = {"-b", "--number-base"}, description = "The number base of the machine code file.")
+    private NumberBase numberBase = NumberBase.HEX;
+
+    @Parameter(names = {"-o", "--output"}, converter = FileConverter.class,
+            description = "The output assembly code file path. Defaults to printing the assembly code.")
+    private File outputFile;
+
+    @Parameter(names = {"-d", "--debug"}, description = "Turns on debug mode.")
+    private boolean debug = false;
+
+    /**
+     * Instantiates a new {@link DisassemblerArguments}.
+     *
+     * @param argumentStrings  the input argument {@link String}s
+     * @param workingDirectory the absolute {@link Path} that relative paths are resolved against
+     */
+    public DisassemblerArguments(String[] argumentStrings, Path workingDirectory) {
+        this.argumentStrings = argumentStrings;
+        this.workingDirectory = workingDirectory;
+    }
+
+    /**
+     * Parses the arguments.
+     *
+     * @throws ParameterException       thrown for {@link ParameterException}s from {@link JCommander}
+     * @throws IllegalArgumentException thrown for {@link IllegalArgumentException}s which occurs when parsing
+     *                                  succeeded, but the arguments parsed are illegal
+     */
+    public void parse() throws ParameterException, IllegalArgumentException {
+        JCommander.newBuilder()
+                .programName("simulator-disassemble")
+                .addObject(this)
+                .build()
+                .parse(argumentStrings);
+
+        machineCodeFile = workingDirectory.resolve(machineCodeFile.toPath()).toFile();
+        checkArgument(machineCodeFile.isFile(), "%s is not a valid file.", machineCodeFile.getPath());
+        if (outputFile != null) {
+            outputFile = workingDirectory.resolve(outputFile.toPath()).toFile();
+        }
+    }
+
+    public String[] getArgumentStrings() {
+        return argumentStrings;
+    }
+
+    public Path getWorkingDirectory() {
+        return workingDirectory;
+    }
+
+    public File getMachineCodeFile() {
+        return machineCodeFile;
+    }
+
+    public NumberBase getNumberBase() {
+        return numberBase;
+    }
+
+    public File getOutputFile() {
+        return outputFile;
+    }
+
+    public boolean isDebug() {
+        return debug;
+    }
+
+    @Override
+    public String toString() {
+        return "DisassemblerArguments{" +
+                "argumentStrings=" + Arrays.toString(argumentStrings) +
+                ", workingDirectory=" + workingDirectory +
+                ", machineCodeFile=" + machineCodeFile +
+                ", numberBase=" + numberBase +
+                ", outputFile=" + outputFile +
+                ", debug=" + debug +
+                '}';
+    }
+}
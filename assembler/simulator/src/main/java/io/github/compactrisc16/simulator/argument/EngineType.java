@@ -0,0 +1,22 @@
+package io.github.compactrisc16.simulator.argument;
+
+/**
+ * {@link EngineType} defines which engine the simulator executes a program with.
+ */
+public enum EngineType {
+
+    /**
+     * Clocks a model of every register of <code>cr16.sv</code> and counts the cycles of each FSM state.
+     */
+    CYCLE_ACCURATE,
+
+    /**
+     * Interprets predecoded instructions without modeling the FSM, adding up the cycles of each instruction.
+     */
+    INTERPRETER,
+
+    /**
+     * Interprets cold code like {@link #INTERPRETER} and translates hot basic blocks into JVM classes.
+     */
+    TRANSLATOR
+}
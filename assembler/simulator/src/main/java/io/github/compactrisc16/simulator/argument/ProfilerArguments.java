@@ -0,0 +1,124 @@
+package io.github.compactrisc16.simulator.argument;
+
+import com.beust.jcommander.JCommander;
+import com.beust.jcommander.Parameter;
+import com.beust.jcommander.ParameterException;
+import com.beust.jcommander.converters.FileConverter;
+import io.github.compactrisc16.simulator.profile.Profiler;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * {@link ProfilerArguments} contains the arguments parsed from the command line to be used for the {@link Profiler}.
+ */
+public class ProfilerArguments {
+
+    private final String[] argumentStrings;
+    private final Path workingDirectory;
+
+    @Parameter(description = "<assembly code file path>", converter = FileConverter.class, required = true)
+    private File assemblyFile;
+
+    @Parameter(names = {"-a", "--address-width"},
+            description = "The address width of the main and external memories in bits. cr16_top uses 10 bits.")
+    private int addressWidth = 16;
+
+    @Parameter(names = {"-m", "--max-cycles"}, description = "The maximum number of cycles to profile.")
+    private long maxCycles = 100_000_000;
+
+    @Parameter(names = {"-f", "--folded-stacks"}, converter = FileConverter.class,
+            description = "The file to write the folded stacks of the call tree to, as the input of flame graph " +
+                    "tools such as 'flamegraph.pl'.")
+    private File foldedStacksFile;
+
+    @Parameter(names = {"-n", "--top"}, description = "The number of hot loops and hot lines to report.")
+    private int topCount = 10;
+
+    @Parameter(names = {"-d", "--debug"}, description = "Turns on debug mode.")
+    private boolean debug = false;
+
+    /**
+     * Instantiates a new {@link ProfilerArguments}.
+     *
+     * @param argumentStrings  the input argument {@link String}s
+     * @param workingDirectory the absolute {@link Path} that relative paths are resolved against
+     */
+    public ProfilerArguments(String[] argumentStrings, Path workingDirectory) {
+        this.argumentStrings = argumentStrings;
+        this.workingDirectory = workingDirectory;
+    }
+
+    /**
+     * Parses the arguments.
+     *
+     * @throws ParameterException       thrown for {@link ParameterException}s from {@link JCommander}
+     * @throws IllegalArgumentException thrown for {@link IllegalArgumentException}s which occurs when parsing
+     *                                  succeeded, but the arguments parsed are illegal
+     */
+    public void parse() throws ParameterException, IllegalArgumentException {
+        JCommander.newBuilder()
+                .programName("simulator-profile")
+                .addObject(this)
+                .build()
+                .parse(argumentStrings);
+
+        assemblyFile = workingDirectory.resolve(assemblyFile.toPath()).toFile();
+        checkArgument(assemblyFile.isFile(), "%s is not a valid file.", assemblyFile.getPath());
+        checkArgument(addressWidth > 0 && addressWidth <= 16, "The address width must be between 1 and 16 bits.");
+        checkArgument(maxCycles > 0, "The maximum number of cycles must be positive.");
+        if (foldedStacksFile != null) {
+            foldedStacksFile = workingDirectory.resolve(foldedStacksFile.toPath()).toFile();
+        }
+        checkArgument(topCount >= 0, "The number of hot loops and hot lines cannot be negative.");
+    }
+
+    public String[] getArgumentStrings() {
+        return argumentStrings;
+    }
+
+    public Path getWorkingDirectory() {
+        return workingDirectory;
+    }
+
+    public File getAssemblyFile() {
+        return assemblyFile;
+    }
+
+    public int getAddressWidth() {
+        return addressWidth;
+    }
+
+    public long getMaxCycles() {
+        return maxCycles;
+    }
+
+    public File getFoldedStacksFile() {
+        return foldedStacksFile;
+    }
+
+    public int getTopCount() {
+        return topCount;
+    }
+
+    public boolean isDebug() {
+        return debug;
+    }
+
+    @Override
+    public String toString() {
+        return "ProfilerArguments{" +
+                "argumentStrings=" + Arrays.toString(argumentStrings) +
+                ", workingDirectory=" + workingDirectory +
+                ", assemblyFile=" + assemblyFile +
+                ", addressWidth=" + addressWidth +
+                ", maxCycles=" + maxCycles +
+                ", foldedStacksFile=" + foldedStacksFile +
+                ", topCount=" + topCount +
+                ", debug=" + debug +
+                '}';
+    }
+}
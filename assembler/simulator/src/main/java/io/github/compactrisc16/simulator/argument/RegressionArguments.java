@@ -0,0 +1,202 @@
+package io.github.compactrisc16.simulator.argument;
+
+import com.beust.jcommander.JCommander;
+import com.beust.jcommander.Parameter;
+import com.beust.jcommander.ParameterException;
+import io.github.compactrisc16.simulator.regression.RegressionRunner;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * {@link RegressionArguments} contains the arguments parsed from the command line to be used for the {@link
+ * RegressionRunner}.
+ */
+public class RegressionArguments {
+
+    private static final String ASSEMBLY_FILE_EXTENSION = ".asm";
+
+    private final String[] argumentStrings;
+    private final Path workingDirectory;
+
+    @Parameter(description = "<assembly code file or directory paths>")
+    private List<String> assemblyPaths;
+    private List<File> assemblyFiles;
+
+    @Parameter(names = {"-a", "--address-width"},
+            description = "The address width of the main and external memories in bits. cr16_top uses 10 bits.")
+    private int addressWidth = 10;
+
+    @Parameter(names = {"-e", "--engine"}, description = "The engine to execute the programs with.")
+    private EngineType engineType = EngineType.CYCLE_ACCURATE;
+
+    @Parameter(names = {"-m", "--max-cycles"},
+            description = "The cycle budget of the programs that don't declare one with '@cycles'.")
+    private long maxCycles = 1_000_000;
+
+    @Parameter(names = {"--peephole"}, description = "True to assemble the programs with the peephole optimizer, so " +
+            "that its rewrites are checked against the same expectations.")
+    private boolean peephole = false;
+
+    @Parameter(names = {"-r", "--random-images"},
+            description = "The number of random machine code images to run on every engine. The translator and " +
+                    "the batch engine lanes are compared with the interpreter, which is compared with the " +
+                    "cycle-accurate engine if the image halts within its cycle budget.")
+    private int randomImageCount = 0;
+
+    @Parameter(names = {"-s", "--seed"},
+            description = "The seed of the first random machine code image. The seed of each next image is one more.")
+    private long seed = 0;
+
+    @Parameter(names = {"-j", "--jobs"},
+            description = "The number of programs to run concurrently. Defaults to the number of processors.")
+    private int jobs = 0;
+
+    @Parameter(names = {"-d", "--debug"}, description = "Turns on debug mode.")
+    private boolean debug = false;
+
+    /**
+     * Instantiates a new {@link RegressionArguments}.
+     *
+     * @param argumentStrings  the input argument {@link String}s
+     * @param workingDirectory the absolute {@link Path} that relative paths are resolved against
+     */
+    public RegressionArguments(String[] argumentStrings, Path workingDirectory) {
+        this.argumentStrings = argumentStrings;
+        this.workingDirectory = workingDirectory;
+    }
+
+    /**
+     * Parses the arguments.
+     *
+     * @throws ParameterException       thrown for {@link ParameterException}s from {@link JCommander}
+     * @throws IllegalArgumentException thrown for {@link IllegalArgumentException}s which occurs when parsing
+     *                                  succeeded, but the arguments parsed are illegal
+     */
+    public void parse() throws ParameterException, IllegalArgumentException {
+        JCommander.newBuilder()
+                .programName("simulator-regression")
+                .addObject(this)
+                .build()
+                .parse(argumentStrings);
+
+        checkArgument(assemblyPaths != null || randomImageCount > 0,
+                "Either assembly code file or directory paths or random images must be given.");
+        assemblyFiles = assemblyPaths == null ? List.of() : expandAssemblyPaths();
+        checkArgument(randomImageCount >= 0, "The number of random images cannot be negative.");
+        checkArgument(addressWidth > 0 && addressWidth <= 16, "The address width must be between 1 and 16 bits.");
+        checkArgument(maxCycles > 0, "The maximum number of cycles must be positive.");
+        checkArgument(jobs >= 0, "The number of jobs cannot be negative.");
+        if (jobs == 0) {
+            jobs = Runtime.getRuntime().availableProcessors();
+        }
+    }
+
+    /**
+     * Expands {@link #assemblyPaths} into absolute assembly code {@link File}s. A directory is expanded into the
+     * <code>.asm</code> files under it, sorted by path. Duplicate files are only included once.
+     *
+     * @return the {@link List} of assembly code {@link File}s
+     *
+     * @throws IllegalArgumentException thrown when a path doesn't exist or a directory doesn't contain any assembly
+     *                                  code files
+     */
+    private List<File> expandAssemblyPaths() throws IllegalArgumentException {
+        final Set<File> expandedFiles = new LinkedHashSet<>();
+        for (String assemblyPath : assemblyPaths) {
+            final Path path = workingDirectory.resolve(assemblyPath);
+            if (Files.isRegularFile(path)) {
+                expandedFiles.add(path.toFile());
+                continue;
+            }
+            checkArgument(Files.isDirectory(path), "%s is not a valid file or directory.", assemblyPath);
+
+            final List<File> directoryFiles;
+            try (Stream<Path> paths = Files.walk(path)) {
+                directoryFiles = paths.filter(filePath -> Files.isRegularFile(filePath) &&
+                                filePath.getFileName().toString().endsWith(ASSEMBLY_FILE_EXTENSION))
+                        .sorted()
+                        .map(Path::toFile)
+                        .collect(Collectors.toList());
+            } catch (IOException exception) {
+                throw new IllegalArgumentException(String.format("Could not expand %s: %s", assemblyPath,
+                        exception.getMessage()), exception);
+            }
+            checkArgument(!directoryFiles.isEmpty(), "%s does not contain any assembly code files.", assemblyPath);
+            expandedFiles.addAll(directoryFiles);
+        }
+        return List.copyOf(expandedFiles);
+    }
+
+    public String[] getArgumentStrings() {
+        return argumentStrings;
+    }
+
+    public Path getWorkingDirectory() {
+        return workingDirectory;
+    }
+
+    public List<File> getAssemblyFiles() {
+        return assemblyFiles;
+    }
+
+    public int getAddressWidth() {
+        return addressWidth;
+    }
+
+    public EngineType getEngineType() {
+        return engineType;
+    }
+
+    public long getMaxCycles() {
+        return maxCycles;
+    }
+
+    public boolean isPeephole() {
+        return peephole;
+    }
+
+    public int getRandomImageCount() {
+        return randomImageCount;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getJobs() {
+        return jobs;
+    }
+
+    public boolean isDebug() {
+        return debug;
+    }
+
+    @Override
+    public String toString() {
+        return "RegressionArguments{" +
+                "argumentStrings=" + Arrays.toString(argumentStrings) +
+                ", workingDirectory=" + workingDirectory +
+                ", assemblyPaths=" + assemblyPaths +
+                ", assemblyFiles=" + assemblyFiles +
+                ", addressWidth=" + addressWidth +
+                ", engineType=" + engineType +
+                ", maxCycles=" + maxCycles +
+                ", peephole=" + peephole +
+                ", randomImageCount=" + randomImageCount +
+                ", seed=" + seed +
+                ", jobs=" + jobs +
+                ", debug=" + debug +
+                '}';
+    }
+}
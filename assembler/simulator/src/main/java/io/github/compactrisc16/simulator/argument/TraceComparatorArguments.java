@@ -0,0 +1,119 @@
+package io.github.compactrisc16.simulator.argument;
+
+import com.beust.jcommander.JCommander;
+import com.beust.jcommander.Parameter;
+import com.beust.jcommander.ParameterException;
+import io.github.compactrisc16.simulator.trace.TraceComparator;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * {@link TraceComparatorArguments} contains the arguments parsed from the command line to be used for the {@link
+ * TraceComparator}.
+ */
+public class TraceComparatorArguments {
+
+    private final String[] argumentStrings;
+    private final Path workingDirectory;
+
+    @Parameter(description = "<expected trace path> <actual trace path>", required = true)
+    private List<String> tracePaths;
+    private File expectedTraceFile;
+    private File actualTraceFile;
+
+    @Parameter(names = {"-c", "--context"},
+            description = "The number of matching instructions to print before a divergence.")
+    private int contextSize = 8;
+
+    @Parameter(names = {"-d", "--debug"}, description = "Turns on debug mode.")
+    private boolean debug = false;
+
+    /**
+     * Instantiates a new {@link TraceComparatorArguments}.
+     *
+     * @param argumentStrings  the input argument {@link String}s
+     * @param workingDirectory the absolute {@link Path} that relative paths are resolved against
+     */
+    public TraceComparatorArguments(String[] argumentStrings, Path workingDirectory) {
+        this.argumentStrings = argumentStrings;
+        this.workingDirectory = workingDirectory;
+    }
+
+    /**
+     * Parses the arguments.
+     *
+     * @throws ParameterException       thrown for {@link ParameterException}s from {@link JCommander}
+     * @throws IllegalArgumentException thrown for {@link IllegalArgumentException}s which occurs when parsing
+     *                                  succeeded, but the arguments parsed are illegal
+     */
+    public void parse() throws ParameterException, IllegalArgumentException {
+        JCommander.newBuilder()
+                .programName("simulator-compare")
+                .addObject(this)
+                .build()
+                .parse(argumentStrings);
+
+        checkArgument(tracePaths.size() == 2, "Exactly an expected and an actual trace path must be given.");
+        expectedTraceFile = resolveTraceFile(tracePaths.get(0));
+        actualTraceFile = resolveTraceFile(tracePaths.get(1));
+        checkArgument(contextSize >= 0, "The context size cannot be negative.");
+    }
+
+    /**
+     * Resolves the given trace path against {@link #workingDirectory}.
+     *
+     * @param tracePath the trace path
+     *
+     * @return the absolute trace {@link File}
+     *
+     * @throws IllegalArgumentException thrown when the path isn't a file
+     */
+    private File resolveTraceFile(String tracePath) throws IllegalArgumentException {
+        final Path path = workingDirectory.resolve(tracePath);
+        checkArgument(Files.isRegularFile(path), "%s is not a valid file.", tracePath);
+        return path.toFile();
+    }
+
+    public String[] getArgumentStrings() {
+        return argumentStrings;
+    }
+
+    public Path getWorkingDirectory() {
+        return workingDirectory;
+    }
+
+    public File getExpectedTraceFile() {
+        return expectedTraceFile;
+    }
+
+    public File getActualTraceFile() {
+        return actualTraceFile;
+    }
+
+    public int getContextSize() {
+        return contextSize;
+    }
+
+    public boolean isDebug() {
+        return debug;
+    }
+
+    @Override
+    public String toString() {
+        return "TraceComparatorArguments{" +
+                "argumentStrings=" + Arrays.toString(argumentStrings) +
+                ", workingDirectory=" + workingDirectory +
+                ", tracePaths=" + tracePaths +
+                ", expectedTraceFile=" + expectedTraceFile +
+                ", actualTraceFile=" + actualTraceFile +
+                ", contextSize=" + contextSize +
+                ", debug=" + debug +
+                '}';
+    }
+}
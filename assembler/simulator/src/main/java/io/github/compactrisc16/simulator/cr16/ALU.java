@@ -0,0 +1,170 @@
+package io.github.compactrisc16.simulator.cr16;
+
+/**
+ * {@link ALU} models the combinational <code>alu</code> module in <code>src/v/rtl/cr16/alu.v</code> with a width of 16
+ * bits. Operands and results are unsigned 16-bit values held in the lower bits of an int. Note that, like in
+ * <code>alu.v</code> (whose operands are unsigned), {@link #ARSH} does not sign-extend and {@link #ADDC} always adds
+ * one instead of the carry status flag.
+ */
+public final class ALU {
+
+    // Opcodes
+    public static final int ADD = 0;
+    public static final int ADDC = 1;
+    public static final int MUL = 2;
+    public static final int SUB = 3;
+    public static final int NOT = 4;
+    public static final int AND = 5;
+    public static final int OR = 6;
+    public static final int XOR = 7;
+    public static final int LSH = 8;
+    public static final int RSH = 9;
+    public static final int ALSH = 10;
+    public static final int ARSH = 11;
+    public static final int CLEAR = 12; // Pseudo opcode that represents the default case which outputs zero
+
+    // Status flag indices for one-hot encoding
+    public static final int STATUS_INDEX_CARRY = 0;
+    public static final int STATUS_INDEX_LOW = 1;
+    public static final int STATUS_INDEX_FLAG = 2;
+    public static final int STATUS_INDEX_ZERO = 3;
+    public static final int STATUS_INDEX_NEGATIVE = 4;
+    public static final int STATUS_FLAG_COUNT = 5;
+
+    private static final int MASK = 0xFFFF;
+    private static final int SIGN_BIT = 0x8000;
+
+    /**
+     * Gets the result (<code>O_C</code>) of the given <code>opcode</code>.
+     *
+     * @param opcode the opcode
+     * @param a      the first operand (<code>I_A</code>)
+     * @param b      the second operand (<code>I_B</code>)
+     *
+     * @return the unsigned 16-bit result
+     */
+    public static int getResult(int opcode, int a, int b) {
+        switch (opcode) {
+            case ADD:
+                return b + a & MASK;
+            case ADDC:
+                return b + a + 1 & MASK;
+            case MUL:
+                return b * a & MASK; // The lower bits of a signed and an unsigned product are the same
+            case SUB:
+                return b - a & MASK;
+            case NOT:
+                return ~a & MASK;
+            case AND:
+                return a & b;
+            case OR:
+                return a | b;
+            case XOR:
+                return a ^ b;
+            case LSH:
+            case ALSH:
+                return b << (a & 0xF) & MASK;
+            case RSH:
+            case ARSH:
+                return b >>> (a & 0xF);
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Gets the status flags (<code>O_STATUS</code>) of the given <code>opcode</code>.
+     *
+     * @param opcode the opcode
+     * @param a      the first operand (<code>I_A</code>)
+     * @param b      the second operand (<code>I_B</code>)
+     *
+     * @return the status flags, one-hot encoded with the <code>STATUS_INDEX</code> constants
+     */
+    public static int getStatus(int opcode, int a, int b) {
+        final int result = getResult(opcode, a, b);
+        final int zero = result == 0 ? 1 : 0;
+        final boolean aNegative = (a & SIGN_BIT) != 0;
+        final boolean bNegative = (b & SIGN_BIT) != 0;
+        final boolean resultNegative = (result & SIGN_BIT) != 0;
+
+        switch (opcode) {
+            case ADD:
+            case ADDC: {
+                final int carry = (b + a + (opcode == ADDC ? 1 : 0)) >>> 16;
+                final int low = b > a ? 1 : 0;
+                // Signed carry overflow occurs when the MSB of the result is flipped compared to the operands
+                final int flag = aNegative == bNegative && aNegative != resultNegative ? 1 : 0;
+                final int negative = aNegative != bNegative && resultNegative || aNegative && bNegative ? 1 : 0;
+                return carry << STATUS_INDEX_CARRY | low << STATUS_INDEX_LOW | flag << STATUS_INDEX_FLAG |
+                        zero << STATUS_INDEX_ZERO | negative << STATUS_INDEX_NEGATIVE;
+            }
+            case SUB: {
+                final int carryAndLow = b > a ? 1 : 0;
+                final int flag = aNegative != bNegative && aNegative == resultNegative ? 1 : 0;
+                // A comparator is used instead of the sign bit of the result so that overflows are handled
+                final int negative = (short) b > (short) a ? 1 : 0;
+                return carryAndLow << STATUS_INDEX_CARRY | carryAndLow << STATUS_INDEX_LOW |
+                        flag << STATUS_INDEX_FLAG | zero << STATUS_INDEX_ZERO | negative << STATUS_INDEX_NEGATIVE;
+            }
+            case NOT:
+            case AND:
+            case OR:
+            case XOR:
+            case LSH:
+            case RSH:
+            case ALSH:
+            case ARSH:
+                return zero << STATUS_INDEX_ZERO;
+            default: // The multiply instruction and the default case don't set flags
+                return 0;
+        }
+    }
+
+    /**
+     * Gets one status flag of the given <code>opcode</code>, like {@link #getStatus(int, int, int)}, without computing
+     * the other status flags.
+     *
+     * @param statusIndex the status flag index (one of the <code>STATUS_INDEX</code> constants)
+     * @param opcode      the opcode
+     * @param a           the first operand (<code>I_A</code>)
+     * @param b           the second operand (<code>I_B</code>)
+     *
+     * @return the status flag bit
+     */
+    public static int getStatusFlag(int statusIndex, int opcode, int a, int b) {
+        final boolean isAdd = opcode == ADD || opcode == ADDC;
+        if (!isAdd && opcode != SUB) {
+            // Only the zero flag is set by the logical and shift instructions and no flag is set by the others
+            return statusIndex == STATUS_INDEX_ZERO && opcode >= NOT && opcode <= ARSH &&
+                    getResult(opcode, a, b) == 0 ? 1 : 0;
+        }
+
+        switch (statusIndex) {
+            case STATUS_INDEX_CARRY:
+                return isAdd ? (b + a + (opcode == ADDC ? 1 : 0)) >>> 16 : b > a ? 1 : 0;
+            case STATUS_INDEX_LOW:
+                return b > a ? 1 : 0;
+            case STATUS_INDEX_FLAG: {
+                final boolean aNegative = (a & SIGN_BIT) != 0;
+                final boolean bNegative = (b & SIGN_BIT) != 0;
+                final boolean resultNegative = (getResult(opcode, a, b) & SIGN_BIT) != 0;
+                return isAdd ? aNegative == bNegative && aNegative != resultNegative ? 1 : 0 :
+                       aNegative != bNegative && aNegative == resultNegative ? 1 : 0;
+            }
+            case STATUS_INDEX_ZERO:
+                return getResult(opcode, a, b) == 0 ? 1 : 0;
+            case STATUS_INDEX_NEGATIVE: {
+                if (!isAdd) {
+                    return (short) b > (short) a ? 1 : 0;
+                }
+                final boolean aNegative = (a & SIGN_BIT) != 0;
+                final boolean bNegative = (b & SIGN_BIT) != 0;
+                final boolean resultNegative = (getResult(opcode, a, b) & SIGN_BIT) != 0;
+                return aNegative != bNegative && resultNegative || aNegative && bNegative ? 1 : 0;
+            }
+            default:
+                return 0;
+        }
+    }
+}
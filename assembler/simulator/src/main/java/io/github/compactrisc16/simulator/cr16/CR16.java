@@ -0,0 +1,829 @@
+package io.github.compactrisc16.simulator.cr16;
+
+import io.github.compactrisc16.simulator.memory.BRAM;
+
+/**
+ * {@link CR16} is a cycle-accurate model of the <code>cr16</code> module in <code>src/v/rtl/cr16/cr16.sv</code>. It
+ * holds every register of the FSM, the program counter (<code>pc.sv</code>), and the regfile
+ * (<code>regfile.sv</code>) and is connected to a main and an external (peripheral) memory {@link BRAM}. Each call to
+ * {@link #clock()} evaluates the combinational logic of the datapath and the memory interface from the current
+ * register values and then updates all registers at once, as a rising clock edge would. The fields and locals are named
+ * after the regs and wires of <code>cr16.sv</code>.
+ */
+public class CR16 {
+
+    // Opcodes with extensions
+    private static final int ADD = 0b0000_0000;
+    private static final int ADDC = 0b0000_0001;
+    private static final int MUL = 0b0000_0010;
+    private static final int SUB = 0b0000_0011;
+    private static final int CMP = 0b0000_0100;
+    private static final int NOT = 0b0000_0101;
+    private static final int AND = 0b0000_0110;
+    private static final int OR = 0b0000_0111;
+    private static final int XOR = 0b0000_1000;
+    private static final int LSH = 0b0000_1001;
+    private static final int LSHI = 0b0000_1010;
+    private static final int RSH = 0b0000_1011;
+    private static final int RSHI = 0b0000_1100;
+    private static final int ALSH = 0b0000_1101;
+    private static final int ALSHI = 0b0000_1110;
+    private static final int ARSH = 0b0000_1111;
+    private static final int ARSHI = 0b1111_0000;
+    private static final int MOV = 0b1111_0001;
+    private static final int J_COND = 0b1111_0010;
+    private static final int CALL = 0b1111_0011;
+    private static final int RET = 0b1111_0100;
+    private static final int LPC = 0b1111_0101;
+    private static final int LSF = 0b1111_0110;
+    private static final int SSF = 0b1111_0111;
+    private static final int PUSH = 0b1111_1000;
+    private static final int POP = 0b1111_1001;
+    private static final int LOAD = 0b1111_1010;
+    private static final int STORE = 0b1111_1011;
+    private static final int LOADX = 0b1111_1100;
+    private static final int STOREX = 0b1111_1101;
+
+    // Opcodes without extensions
+    private static final int ADDI = 0b0001;
+    private static final int ADDCI = 0b0010;
+    private static final int MULI = 0b0011;
+    private static final int SUBI = 0b0100;
+    private static final int CMPI = 0b0101;
+    private static final int NOTI = 0b0110;
+    private static final int ANDI = 0b0111;
+    private static final int ORI = 0b1000;
+    private static final int XORI = 0b1001;
+    private static final int MOVIL = 0b1010;
+    private static final int MOVIU = 0b1011;
+    private static final int B_COND = 0b1100;
+    private static final int CALLD = 0b1101;
+
+    // 'J_COND' and 'B_COND' condition bit patterns
+    public static final int COND_EQ = 0b0000; // Equal                    Z=1
+    public static final int COND_NE = 0b0001; // Not Equal                Z=0
+    public static final int COND_CS = 0b0010; // Carry Set                C=1
+    public static final int COND_CC = 0b0011; // Carry Clear              C=0
+    public static final int COND_FS = 0b0100; // Flag Set                 F=1
+    public static final int COND_FC = 0b0101; // Flag Clear               F=0
+    public static final int COND_LT = 0b0110; // Less Than                N=0 and Z=0
+    public static final int COND_LE = 0b0111; // Less than or Equal       N=0
+    public static final int COND_LO = 0b1000; // Lower than               L=0 and Z=0
+    public static final int COND_LS = 0b1001; // Lower than or Same as    L=0
+    public static final int COND_GT = 0b1010; // Greater Than             N=1
+    public static final int COND_GE = 0b1011; // Greater than or Equal    N=1 or Z=1
+    public static final int COND_HI = 0b1100; // Higher than              L=1
+    public static final int COND_HS = 0b1101; // Higher than or Same as   L=1 or Z=1
+    public static final int COND_UC = 0b1110; // Unconditional
+
+    public static final int REGISTER_COUNT = 16;
+    private static final int RSP = 15;
+    private static final int REGFILE_WRITE_ENABLE_RSP = 1 << RSP;
+    private static final State[] STATES = State.values();
+
+    private final BRAM memory;
+    private final BRAM externalMemory;
+    private final int[] registers;
+    private final long[] cyclesOfStates;
+
+    private State state;
+    private int instruction;
+    private int instructionAddress;
+    private int statusFlags;
+
+    private int pc;
+    private boolean pcEnable;
+    private int pcInputAddress;
+    private boolean pcAddressSelect;
+    private boolean pcAddressSelectDisplace;
+
+    private int regWriteEnable;
+    private int regASelect;
+    private int regBSelect;
+    private int immediate;
+    private boolean immediateSelect;
+    private int aluOpcode;
+    private int regfileData;
+    private boolean regfileDataSelect;
+
+    private long cycles;
+    private long instructions;
+
+    private CR16Listener listener;
+
+    /**
+     * Instantiates a new {@link CR16} and {@link #reset()}s it.
+     *
+     * @param memory         the main memory {@link BRAM}
+     * @param externalMemory the external (peripheral) memory {@link BRAM}
+     */
+    public CR16(BRAM memory, BRAM externalMemory) {
+        this.memory = memory;
+        this.externalMemory = externalMemory;
+        registers = new int[REGISTER_COUNT];
+        cyclesOfStates = new long[STATES.length];
+        reset();
+    }
+
+    /**
+     * Asserts the active-low reset of this {@link CR16}, which zeros all registers and counters, but not the memories.
+     * The memories are then clocked once with the reset memory interface outputs, like the cold clock cycles of
+     * <code>cr16_top</code>, so that the first instruction is on the memory output when the first {@link
+     * State#S_FETCH} is clocked.
+     */
+    public void reset() {
+        state = State.S_FETCH;
+        instruction = 0;
+        instructionAddress = 0;
+        statusFlags = 0;
+
+        pc = 0;
+        pcEnable = false;
+        pcInputAddress = 0;
+        pcAddressSelect = false;
+        pcAddressSelectDisplace = false;
+
+        regWriteEnable = 0;
+        regASelect = 0;
+        regBSelect = 0;
+        immediate = 0;
+        immediateSelect = false;
+        aluOpcode = 0;
+        regfileData = 0;
+        regfileDataSelect = false;
+
+        for (int index = 0; index < REGISTER_COUNT; index++) {
+            registers[index] = 0;
+        }
+        for (int index = 0; index < cyclesOfStates.length; index++) {
+            cyclesOfStates[index] = 0;
+        }
+        cycles = 0;
+        instructions = 0;
+
+        memory.clock(pc, 0, false);
+        externalMemory.clock(0, 0, false);
+    }
+
+    /**
+     * Clocks this {@link CR16} and its memories for one cycle.
+     */
+    public void clock() {
+        // General instruction decoding
+        final int instrOpcode = instruction >>> 12;
+        final int instrOpcodeExt = instruction >>> 4 & 0xF;
+        final int instrOpcodeAndExt = instrOpcode << 4 | instrOpcodeExt;
+        final int instrRdest = instruction >>> 8 & 0xF;
+        final int instrRsrc = instruction & 0xF;
+        final int instrImmhiImmlo = instruction & 0xFF;
+        final boolean instrHasOpcodeExt = instrOpcode == 0b0000 || instrOpcode == 0b1111;
+        final int regfileInstrDestReg = 1 << instrRdest;
+
+        // Datapath
+        final int a = registers[regASelect];
+        final int b = registers[regBSelect];
+        final int aluInputA = immediateSelect ? immediate : a;
+        final int resultBus = regfileDataSelect ? regfileData : ALU.getResult(aluOpcode, aluInputA, b);
+        final int iMemData = memory.getOutputData();
+        final int iExtMemData = externalMemory.getOutputData();
+        final int pcOAddress = pc;
+        final State currentState = state;
+
+        cycles++;
+        cyclesOfStates[currentState.ordinal()]++;
+
+        clockMemories(instrOpcodeAndExt, a, b, resultBus);
+
+        // Regfile
+        if (regWriteEnable != 0) {
+            for (int index = 0; index < REGISTER_COUNT; index++) {
+                if ((regWriteEnable >>> index & 1) != 0) {
+                    registers[index] = resultBus;
+                    if (listener != null) {
+                        listener.registerWritten(index, resultBus);
+                    }
+                }
+            }
+        }
+
+        // Program counter
+        if (pcEnable) {
+            if (pcAddressSelect) {
+                pc = (pcAddressSelectDisplace ? pc + pcInputAddress : pcInputAddress) & 0xFFFF;
+            } else {
+                pc = pc + 1 & 0xFFFF;
+            }
+        }
+
+        // FSM
+        switch (currentState) {
+            case S_FETCH:
+                state = State.S_DECODE;
+                instruction = iMemData;
+                instructionAddress = pcOAddress;
+                instructions++;
+                if (listener != null) {
+                    listener.fetched(pcOAddress, statusFlags);
+                }
+
+                pcEnable = true;
+                pcAddressSelect = false;
+                pcAddressSelectDisplace = false;
+
+                regWriteEnable = 0;
+                immediateSelect = false;
+                regfileDataSelect = false;
+                break;
+            case S_DECODE:
+                if (instrHasOpcodeExt) {
+                    decodeWithOpcodeExt(instrOpcodeAndExt, instrRdest, instrRsrc, regfileInstrDestReg, pcOAddress);
+                } else {
+                    decodeWithoutOpcodeExt(instrOpcode, instrRdest, instrRsrc, instrImmhiImmlo);
+                }
+                break;
+            case S_EXECUTE_ALU:
+                state = State.S_FETCH;
+
+                statusFlags = ALU.getStatus(aluOpcode, aluInputA, b);
+                if (instrOpcodeAndExt != CMP && instrOpcode != CMPI) {
+                    regWriteEnable = regfileInstrDestReg;
+                }
+                break;
+            case S_EXECUTE_MOV:
+                state = State.S_FETCH;
+
+                regWriteEnable = regfileInstrDestReg;
+                if (instrOpcodeAndExt == MOV) {
+                    regfileData = a;
+                } else if (instrOpcode == MOVIL) {
+                    regfileData = a & 0xFF00 | instrImmhiImmlo;
+                } else if (instrOpcode == MOVIU) {
+                    regfileData = instrImmhiImmlo << 8 | a & 0x00FF;
+                }
+                regfileDataSelect = true;
+                break;
+            case S_EXECUTE_J_COND:
+            case S_EXECUTE_CALL:
+                state = State.S_DISABLE_PC_FETCH_WAIT;
+
+                pcEnable = true;
+                pcInputAddress = a;
+                pcAddressSelect = true;
+
+                if (currentState == State.S_EXECUTE_CALL) {
+                    regWriteEnable = 0;
+                }
+                break;
+            case S_EXECUTE_CALLD:
+                state = State.S_FETCH_WAIT;
+                pcEnable = false;
+                regWriteEnable = 0;
+                break;
+            case S_EXECUTE_RET:
+                state = State.S_EXECUTE_RET_SET_PC;
+                regWriteEnable = 0;
+                break;
+            case S_EXECUTE_RET_SET_PC:
+                state = State.S_DISABLE_PC_FETCH_WAIT;
+
+                pcEnable = true;
+                pcInputAddress = iMemData;
+                pcAddressSelect = true;
+                break;
+            case S_EXECUTE_SSF:
+                state = State.S_FETCH;
+                statusFlags = a & 0b1_1111;
+                break;
+            case S_EXECUTE_PUSH:
+                state = State.S_FETCH_WAIT;
+                regWriteEnable = 0;
+                break;
+            case S_EXECUTE_POP:
+                state = State.S_EXECUTE_POP_REGFILE;
+                regWriteEnable = 0;
+                break;
+            case S_EXECUTE_POP_REGFILE:
+            case S_EXECUTE_LOAD_REGFILE:
+                state = State.S_FETCH;
+
+                regWriteEnable = regfileInstrDestReg;
+                regfileData = currentState == State.S_EXECUTE_LOAD_REGFILE && instrOpcodeAndExt == LOADX ?
+                        iExtMemData : iMemData;
+                regfileDataSelect = true;
+                break;
+            case S_EXECUTE_LOAD:
+                state = State.S_EXECUTE_LOAD_REGFILE;
+                break;
+            case S_EXECUTE_STORE:
+                state = State.S_FETCH_WAIT;
+                break;
+            case S_DISABLE_PC_FETCH_WAIT:
+                state = State.S_FETCH_WAIT;
+                pcEnable = false;
+                break;
+            case S_FETCH_WAIT:
+            default:
+                state = State.S_FETCH;
+                break;
+        }
+    }
+
+    /**
+     * Clocks the memories with the memory interface outputs, which are combinationally assigned from the current
+     * {@link #state} (which is the next state of the previous cycle).
+     *
+     * @param instrOpcodeAndExt the opcode and opcode extension of the {@link #instruction}
+     * @param a                 the 'A' register (Rsrc) of the datapath
+     * @param b                 the 'B' register (Rdest) of the datapath
+     * @param resultBus         the result bus of the datapath
+     */
+    private void clockMemories(int instrOpcodeAndExt, int a, int b, int resultBus) {
+        switch (state) {
+            case S_EXECUTE_CALL:
+            case S_EXECUTE_CALLD:
+                memory.clock(b, pc, true);
+                externalMemory.clock(0, 0, false);
+                notifyMemoryWritten(false, b, pc);
+                break;
+            case S_EXECUTE_PUSH:
+                memory.clock(b, a, true);
+                externalMemory.clock(0, 0, false);
+                notifyMemoryWritten(false, b, a);
+                break;
+            case S_EXECUTE_RET:
+            case S_EXECUTE_POP:
+                memory.clock(resultBus, 0, false);
+                externalMemory.clock(0, 0, false);
+                break;
+            case S_EXECUTE_LOAD:
+                if (instrOpcodeAndExt == LOAD) {
+                    memory.clock(a, 0, false);
+                    externalMemory.clock(0, 0, false);
+                } else {
+                    memory.clock(pc, 0, false);
+                    externalMemory.clock(a, 0, false);
+                }
+                break;
+            case S_EXECUTE_STORE:
+                if (instrOpcodeAndExt == STORE) {
+                    memory.clock(b, a, true);
+                    externalMemory.clock(0, 0, false);
+                    notifyMemoryWritten(false, b, a);
+                } else {
+                    memory.clock(0, 0, false);
+                    externalMemory.clock(b, a, true);
+                    notifyMemoryWritten(true, b, a);
+                }
+                break;
+            default:
+                memory.clock(pc, 0, false);
+                externalMemory.clock(0, 0, false);
+                break;
+        }
+    }
+
+    /**
+     * Calls {@link CR16Listener#memoryWritten(boolean, int, int)} of the {@link #listener}, if there is one.
+     *
+     * @param external <code>true</code> for the external memory
+     * @param address  the address
+     * @param word     the word
+     */
+    private void notifyMemoryWritten(boolean external, int address, int word) {
+        if (listener != null) {
+            listener.memoryWritten(external, address, word);
+        }
+    }
+
+    /**
+     * Handles {@link State#S_DECODE} for an {@link #instruction} with an opcode extension.
+     *
+     * @param instrOpcodeAndExt   the opcode and opcode extension
+     * @param instrRdest          the Rdest register index
+     * @param instrRsrc           the Rsrc register index
+     * @param regfileInstrDestReg the regfile write enable of the Rdest register
+     * @param pcOAddress          the current program counter
+     */
+    private void decodeWithOpcodeExt(int instrOpcodeAndExt, int instrRdest, int instrRsrc, int regfileInstrDestReg,
+            int pcOAddress) {
+        pcEnable = false;
+
+        switch (instrOpcodeAndExt) {
+            case ADD:
+            case ADDC:
+            case MUL:
+            case SUB:
+            case CMP:
+            case NOT:
+            case AND:
+            case OR:
+            case XOR:
+            case LSH:
+            case LSHI:
+            case RSH:
+            case RSHI:
+            case ALSH:
+            case ALSHI:
+            case ARSH:
+            case ARSHI:
+                state = State.S_EXECUTE_ALU;
+
+                regASelect = instrRsrc;
+                regBSelect = instrRdest;
+                setAluImmediateAndOpcode();
+                break;
+            case MOV:
+                state = State.S_EXECUTE_MOV;
+                regASelect = instrRsrc;
+                break;
+            case J_COND:
+                if (isConditionTrue(instrRdest, statusFlags)) {
+                    state = State.S_EXECUTE_J_COND;
+                    regASelect = instrRsrc;
+                } else {
+                    state = State.S_FETCH_WAIT;
+                }
+                break;
+            case CALL:
+            case PUSH:
+                state = instrOpcodeAndExt == CALL ? State.S_EXECUTE_CALL : State.S_EXECUTE_PUSH;
+
+                // Decrement 'RSP' by 1 using 'ALU_SUB'
+                regWriteEnable = REGFILE_WRITE_ENABLE_RSP;
+                regASelect = instrRsrc;
+                regBSelect = RSP;
+                immediate = 1;
+                immediateSelect = true;
+                aluOpcode = ALU.SUB;
+                break;
+            case RET:
+            case POP:
+                state = instrOpcodeAndExt == RET ? State.S_EXECUTE_RET : State.S_EXECUTE_POP;
+
+                // Increment 'RSP' by 1 using 'ALU_ADD'
+                regWriteEnable = REGFILE_WRITE_ENABLE_RSP;
+                regBSelect = RSP;
+                immediate = 1;
+                immediateSelect = true;
+                aluOpcode = ALU.ADD;
+                break;
+            case LPC:
+            case LSF:
+                state = State.S_FETCH_WAIT;
+
+                regWriteEnable = regfileInstrDestReg;
+                regfileData = instrOpcodeAndExt == LPC ? pcOAddress : statusFlags;
+                regfileDataSelect = true;
+                break;
+            case SSF:
+                state = State.S_EXECUTE_SSF;
+                regASelect = instrRsrc;
+                break;
+            case LOAD:
+            case LOADX:
+                state = State.S_EXECUTE_LOAD;
+                regASelect = instrRsrc;
+                break;
+            case STORE:
+            case STOREX:
+                state = State.S_EXECUTE_STORE;
+
+                regASelect = instrRsrc;
+                regBSelect = instrRdest;
+                break;
+            default:
+                state = State.S_FETCH_WAIT;
+                break;
+        }
+    }
+
+    /**
+     * Handles {@link State#S_DECODE} for an {@link #instruction} without an opcode extension.
+     *
+     * @param instrOpcode     the opcode
+     * @param instrRdest      the Rdest register index
+     * @param instrRsrc       the Rsrc register index
+     * @param instrImmhiImmlo the 8-bit immediate
+     */
+    private void decodeWithoutOpcodeExt(int instrOpcode, int instrRdest, int instrRsrc, int instrImmhiImmlo) {
+        switch (instrOpcode) {
+            case ADDI:
+            case ADDCI:
+            case MULI:
+            case SUBI:
+            case CMPI:
+            case NOTI:
+            case ANDI:
+            case ORI:
+            case XORI:
+                state = State.S_EXECUTE_ALU;
+
+                pcEnable = false;
+
+                regASelect = instrRsrc;
+                regBSelect = instrRdest;
+                setAluImmediateAndOpcode();
+                break;
+            case MOVIL:
+            case MOVIU:
+                state = State.S_EXECUTE_MOV;
+                pcEnable = false;
+                regASelect = instrRdest;
+                break;
+            case B_COND:
+                if (isConditionTrue(instrRdest, statusFlags)) {
+                    state = State.S_DISABLE_PC_FETCH_WAIT;
+
+                    pcEnable = true;
+                    pcInputAddress = (byte) instrImmhiImmlo & 0xFFFF; // Sign extend the displacement
+                    pcAddressSelect = true;
+                    pcAddressSelectDisplace = true;
+                } else {
+                    state = State.S_FETCH_WAIT;
+                    pcEnable = false;
+                }
+                break;
+            case CALLD:
+                state = State.S_EXECUTE_CALLD;
+
+                pcEnable = true;
+                pcInputAddress = (instruction << 20 >> 20) & 0xFFFF; // Sign extend the 12-bit displacement
+                pcAddressSelect = true;
+                pcAddressSelectDisplace = true;
+
+                // Decrement 'RSP' by 1 using 'ALU_SUB'
+                regWriteEnable = REGFILE_WRITE_ENABLE_RSP;
+                regBSelect = RSP;
+                immediate = 1;
+                immediateSelect = true;
+                aluOpcode = ALU.SUB;
+                break;
+            default:
+                state = State.S_FETCH_WAIT;
+                pcEnable = false;
+                break;
+        }
+    }
+
+    /**
+     * Sets the {@link #immediate}, {@link #immediateSelect}, and {@link #aluOpcode} of an ALU instruction, like the
+     * <code>instr_alu_immediate</code> and <code>instr_alu_opcode</code> mapping blocks of <code>cr16.sv</code>.
+     */
+    private void setAluImmediateAndOpcode() {
+        final int instrOpcode = instruction >>> 12;
+        final int instrOpcodeAndExt = instrOpcode << 4 | instruction >>> 4 & 0xF;
+        immediate = 0;
+        immediateSelect = false;
+        if (instrOpcode == 0b0000 || instrOpcode == 0b1111) {
+            switch (instrOpcodeAndExt) {
+                case LSHI:
+                case RSHI:
+                case ALSHI:
+                case ARSHI:
+                    // Zero extend immediates for bit shifting
+                    immediate = instruction & 0xF;
+                    immediateSelect = true;
+                    break;
+            }
+            switch (instrOpcodeAndExt) {
+                case ADD:
+                    aluOpcode = ALU.ADD;
+                    break;
+                case ADDC:
+                    aluOpcode = ALU.ADDC;
+                    break;
+                case MUL:
+                    aluOpcode = ALU.MUL;
+                    break;
+                case SUB:
+                case CMP:
+                    aluOpcode = ALU.SUB;
+                    break;
+                case NOT:
+                    aluOpcode = ALU.NOT;
+                    break;
+                case AND:
+                    aluOpcode = ALU.AND;
+                    break;
+                case OR:
+                    aluOpcode = ALU.OR;
+                    break;
+                case XOR:
+                    aluOpcode = ALU.XOR;
+                    break;
+                case LSH:
+                case LSHI:
+                    aluOpcode = ALU.LSH;
+                    break;
+                case RSH:
+                case RSHI:
+                    aluOpcode = ALU.RSH;
+                    break;
+                case ALSH:
+                case ALSHI:
+                    aluOpcode = ALU.ALSH;
+                    break;
+                case ARSH:
+                case ARSHI:
+                    aluOpcode = ALU.ARSH;
+                    break;
+                default:
+                    aluOpcode = ALU.CLEAR;
+                    break;
+            }
+        } else {
+            switch (instrOpcode) {
+                case ADDI:
+                case ADDCI:
+                case MULI:
+                case SUBI:
+                case CMPI:
+                    // Sign extend immediates for arithmetic instructions
+                    immediate = (byte) instruction & 0xFFFF;
+                    immediateSelect = true;
+                    break;
+                case NOTI:
+                case ANDI:
+                case ORI:
+                case XORI:
+                    // Zero extend immediates for boolean logic
+                    immediate = instruction & 0xFF;
+                    immediateSelect = true;
+                    break;
+            }
+            switch (instrOpcode) {
+                case ADDI:
+                    aluOpcode = ALU.ADD;
+                    break;
+                case ADDCI:
+                    aluOpcode = ALU.ADDC;
+                    break;
+                case MULI:
+                    aluOpcode = ALU.MUL;
+                    break;
+                case SUBI:
+                case CMPI:
+                    aluOpcode = ALU.SUB;
+                    break;
+                case NOTI:
+                    aluOpcode = ALU.NOT;
+                    break;
+                case ANDI:
+                    aluOpcode = ALU.AND;
+                    break;
+                case ORI:
+                    aluOpcode = ALU.OR;
+                    break;
+                case XORI:
+                    aluOpcode = ALU.XOR;
+                    break;
+                default:
+                    aluOpcode = ALU.CLEAR;
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Checks if the given <code>J_COND</code> or <code>B_COND</code> condition bit pattern matches the given status
+     * flags.
+     *
+     * @param condition   the condition bit pattern (one of the <code>COND</code> constants)
+     * @param statusFlags the status flags
+     *
+     * @return <code>true</code> if the condition is true
+     */
+    public static boolean isConditionTrue(int condition, int statusFlags) {
+        final boolean carry = (statusFlags >>> ALU.STATUS_INDEX_CARRY & 1) != 0;
+        final boolean low = (statusFlags >>> ALU.STATUS_INDEX_LOW & 1) != 0;
+        final boolean flag = (statusFlags >>> ALU.STATUS_INDEX_FLAG & 1) != 0;
+        final boolean zero = (statusFlags >>> ALU.STATUS_INDEX_ZERO & 1) != 0;
+        final boolean negative = (statusFlags >>> ALU.STATUS_INDEX_NEGATIVE & 1) != 0;
+
+        switch (condition) {
+            case COND_EQ:
+                return zero;
+            case COND_NE:
+                return !zero;
+            case COND_CS:
+                return carry;
+            case COND_CC:
+                return !carry;
+            case COND_FS:
+                return flag;
+            case COND_FC:
+                return !flag;
+            case COND_LT:
+                return !negative && !zero;
+            case COND_LE:
+                return !negative;
+            case COND_LO:
+                return !low && !zero;
+            case COND_LS:
+                return !low;
+            case COND_GT:
+                return negative;
+            case COND_GE:
+                return negative || zero;
+            case COND_HI:
+                return low;
+            case COND_HS:
+                return low || zero;
+            case COND_UC:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Checks if the latched {@link #getInstruction()} is a <code>J_COND</code> or <code>B_COND</code> instruction.
+     *
+     * @return <code>true</code> if it's a conditional jump or branch
+     */
+    public boolean isInstructionConditional() {
+        final int instrOpcode = instruction >>> 12;
+        return instrOpcode == B_COND || (instrOpcode << 4 | instruction >>> 4 & 0xF) == J_COND;
+    }
+
+    /**
+     * Gets the value of a register in the regfile.
+     *
+     * @param index the register index
+     *
+     * @return the unsigned 16-bit value
+     */
+    public int getRegister(int index) {
+        return registers[index];
+    }
+
+    /**
+     * Gets the number of cycles clocked in the given {@link State}.
+     *
+     * @param state the {@link State}
+     *
+     * @return the number of cycles
+     */
+    public long getCycles(State state) {
+        return cyclesOfStates[state.ordinal()];
+    }
+
+    public BRAM getMemory() {
+        return memory;
+    }
+
+    public BRAM getExternalMemory() {
+        return externalMemory;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public int getInstruction() {
+        return instruction;
+    }
+
+    /**
+     * Gets the address that the latched {@link #getInstruction()} was fetched from.
+     *
+     * @return the instruction address
+     */
+    public int getInstructionAddress() {
+        return instructionAddress;
+    }
+
+    public int getStatusFlags() {
+        return statusFlags;
+    }
+
+    public int getPC() {
+        return pc;
+    }
+
+    public long getCycles() {
+        return cycles;
+    }
+
+    /**
+     * Gets the number of instructions fetched, which is the number of cycles clocked in {@link State#S_FETCH}.
+     *
+     * @return the number of instructions
+     */
+    public long getInstructions() {
+        return instructions;
+    }
+
+    public CR16Listener getListener() {
+        return listener;
+    }
+
+    /**
+     * Sets the {@link CR16Listener} that is notified of the fetches and writes of each clock.
+     *
+     * @param listener the {@link CR16Listener} or <code>null</code> for none
+     */
+    public void setListener(CR16Listener listener) {
+        this.listener = listener;
+    }
+}
@@ -0,0 +1,35 @@
+package io.github.compactrisc16.simulator.cr16;
+
+/**
+ * {@link CR16Listener} observes the events of a {@link CR16} that the trace logger of
+ * <code>src/v/tb/cr16_top/cr16_top_tb.sv</code> samples on each rising clock edge. The events of a clock are reported
+ * in the order of the memory writes, the regfile writes, and then the fetch, so the writes that are reported before a
+ * fetch belong to the previous instruction.
+ */
+public interface CR16Listener {
+
+    /**
+     * Called when a word is written to the main or external memory.
+     *
+     * @param external <code>true</code> for the external memory
+     * @param address  the address (<code>O_MEM_ADDRESS</code> or <code>O_EXT_MEM_ADDRESS</code>)
+     * @param word     the unsigned 16-bit word
+     */
+    void memoryWritten(boolean external, int address, int word);
+
+    /**
+     * Called when the result bus is written to a register of the regfile.
+     *
+     * @param index the register index
+     * @param value the unsigned 16-bit value of the result bus
+     */
+    void registerWritten(int index, int value);
+
+    /**
+     * Called when an instruction is fetched in {@link State#S_FETCH}.
+     *
+     * @param instructionAddress the instruction address (<code>O_PC</code>)
+     * @param statusFlags        the status flags (<code>O_STATUS_FLAGS</code>), as left by the previous instruction
+     */
+    void fetched(int instructionAddress, int statusFlags);
+}
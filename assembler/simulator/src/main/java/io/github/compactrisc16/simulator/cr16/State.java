@@ -0,0 +1,28 @@
+package io.github.compactrisc16.simulator.cr16;
+
+/**
+ * {@link State} defines the states of the FSM of the <code>cr16</code> module in <code>src/v/rtl/cr16/cr16.sv</code>.
+ * The {@link #ordinal()} of each {@link State} is its encoding in <code>cr16.sv</code>.
+ */
+public enum State {
+
+    S_FETCH,
+    S_DECODE,
+    S_EXECUTE_ALU,
+    S_EXECUTE_MOV,
+    S_EXECUTE_J_COND,
+    S_EXECUTE_CALL,
+    S_EXECUTE_CALLD,
+    S_EXECUTE_RET,
+    S_EXECUTE_RET_SET_PC,
+    S_EXECUTE_SSF,
+    S_EXECUTE_PUSH,
+    S_EXECUTE_POP,
+    S_EXECUTE_POP_REGFILE,
+    S_EXECUTE_LOAD,
+    S_EXECUTE_LOAD_REGFILE,
+    S_EXECUTE_STORE,
+    // The following states are transitioned to for multiple 'S_EXECUTE' states
+    S_DISABLE_PC_FETCH_WAIT,
+    S_FETCH_WAIT
+}
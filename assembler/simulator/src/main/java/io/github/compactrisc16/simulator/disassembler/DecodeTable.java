@@ -0,0 +1,126 @@
+package io.github.compactrisc16.simulator.disassembler;
+
+import io.github.compactrisc16.assembler.isa.instruction.AbstractInstruction;
+import io.github.compactrisc16.assembler.isa.instruction.Instructions;
+import io.github.compactrisc16.assembler.isa.instruction.type.OpcodeExtInstruction;
+import io.github.compactrisc16.assembler.isa.instruction.type.cond.BInstruction;
+import io.github.compactrisc16.assembler.isa.instruction.type.cond.JInstruction;
+import io.github.compactrisc16.assembler.isa.instruction.type.imm.CalldInstruction;
+import io.github.compactrisc16.assembler.isa.instruction.type.imm.RdestImmInstruction;
+import io.github.compactrisc16.assembler.isa.instruction.type.imm.RdestImmLoInstruction;
+import io.github.compactrisc16.assembler.isa.instruction.type.pseudo.NOPInstruction;
+import io.github.compactrisc16.assembler.isa.instruction.type.r.CallInstruction;
+import io.github.compactrisc16.assembler.isa.instruction.type.r.RdestInstruction;
+import io.github.compactrisc16.assembler.isa.instruction.type.r.RdestRsrcInstruction;
+import io.github.compactrisc16.assembler.isa.instruction.type.r.RetInstruction;
+import io.github.compactrisc16.assembler.isa.instruction.type.r.RsrcInstruction;
+
+/**
+ * {@link DecodeTable} maps every possible 16-bit machine code word to the {@link AbstractInstruction} that assembles
+ * to it. The table is built once from {@link Instructions#INSTRUCTIONS} by enumerating the operand fields of each
+ * {@link AbstractInstruction} type, so decoding a word is a single array lookup. A word decodes to no {@link
+ * AbstractInstruction} if its opcode (and opcode extension) is unused, its condition is <code>1111</code>, or it sets
+ * bits that the {@link AbstractInstruction} doesn't assemble (e.g. a <code>RET</code> with a nonzero Rsrc field),
+ * since no assembly line would assemble to it.
+ */
+public final class DecodeTable {
+
+    /**
+     * The number of possible 16-bit machine code words.
+     */
+    public static final int WORD_COUNT = 1 << 16;
+
+    private static final AbstractInstruction[] INSTRUCTIONS_OF_WORDS = createInstructionsOfWords();
+
+    /**
+     * Creates {@link #INSTRUCTIONS_OF_WORDS}.
+     *
+     * @return the {@link AbstractInstruction}s indexed by word
+     */
+    private static AbstractInstruction[] createInstructionsOfWords() {
+        final AbstractInstruction[] instructionsOfWords = new AbstractInstruction[WORD_COUNT];
+        for (AbstractInstruction instruction : Instructions.INSTRUCTIONS) {
+            if (instruction instanceof NOPInstruction) { // Pseudo instructions are assembled as other instructions
+                continue;
+            }
+
+            final int fixedBits = getFixedBits(instruction);
+            final int operandMask = getOperandMask(instruction);
+            // Enumerate every subset of the bits of 'operandMask', ending with the empty subset
+            int operandBits = operandMask;
+            do {
+                final int word = fixedBits | operandBits;
+                if (instructionsOfWords[word] != null) {
+                    throw new IllegalStateException(String.format("%s and %s both assemble to 0x%04X.",
+                            instructionsOfWords[word].getMnemonic(), instruction.getMnemonic(), word));
+                }
+                instructionsOfWords[word] = instruction;
+                operandBits = (operandBits - 1) & operandMask;
+            } while (operandBits != operandMask);
+        }
+
+        // 'OR r0 r0' is written as 'NOP'
+        instructionsOfWords[Instructions.OR.getOpcode() << 12 | Instructions.OR.getOpcodeExtension() << 4] =
+                Instructions.NOP;
+        return instructionsOfWords;
+    }
+
+    /**
+     * Gets the machine code bits that are the same for every use of the given {@link AbstractInstruction}: the
+     * opcode, the opcode extension, and the condition.
+     *
+     * @param instruction the {@link AbstractInstruction}
+     *
+     * @return the fixed bits
+     */
+    private static int getFixedBits(AbstractInstruction instruction) {
+        int fixedBits = instruction.getOpcode() << 12;
+        if (instruction instanceof OpcodeExtInstruction) {
+            fixedBits |= ((OpcodeExtInstruction) instruction).getOpcodeExtension() << 4;
+        }
+        if (instruction instanceof JInstruction) {
+            fixedBits |= ((JInstruction) instruction).getCondition() << 8;
+        } else if (instruction instanceof BInstruction) {
+            fixedBits |= ((BInstruction) instruction).getCondition() << 8;
+        }
+        return fixedBits;
+    }
+
+    /**
+     * Gets the mask of the machine code bits that the operands of the given {@link AbstractInstruction} are assembled
+     * into.
+     *
+     * @param instruction the {@link AbstractInstruction}
+     *
+     * @return the operand mask
+     */
+    private static int getOperandMask(AbstractInstruction instruction) {
+        if (instruction instanceof RdestRsrcInstruction || instruction instanceof RdestImmLoInstruction) {
+            return 0x0F0F;
+        } else if (instruction instanceof RdestImmInstruction || instruction instanceof CalldInstruction) {
+            return 0x0FFF;
+        } else if (instruction instanceof BInstruction) {
+            return 0x00FF;
+        } else if (instruction instanceof JInstruction || instruction instanceof CallInstruction ||
+                instruction instanceof RsrcInstruction) {
+            return 0x000F;
+        } else if (instruction instanceof RdestInstruction) {
+            return 0x0F00;
+        } else if (instruction instanceof RetInstruction) {
+            return 0;
+        } else {
+            throw new UnsupportedOperationException("Unknown instruction type: " + instruction.getMnemonic());
+        }
+    }
+
+    /**
+     * Decodes the given machine code word.
+     *
+     * @param word the 16-bit machine code word
+     *
+     * @return the {@link AbstractInstruction} that assembles to the word or <code>null</code> if there is none
+     */
+    public static AbstractInstruction getInstruction(int word) {
+        return INSTRUCTIONS_OF_WORDS[word & 0xFFFF];
+    }
+}
@@ -0,0 +1,417 @@
+package io.github.compactrisc16.simulator.disassembler;
+
+import com.beust.jcommander.ParameterException;
+import io.github.compactrisc16.assembler.isa.instruction.AbstractInstruction;
+import io.github.compactrisc16.assembler.isa.instruction.Instructions;
+import io.github.compactrisc16.assembler.isa.instruction.type.cond.BInstruction;
+import io.github.compactrisc16.assembler.isa.instruction.type.cond.JInstruction;
+import io.github.compactrisc16.assembler.isa.instruction.type.imm.RdestImmInstruction;
+import io.github.compactrisc16.assembler.isa.instruction.type.imm.RdestImmLoInstruction;
+import io.github.compactrisc16.assembler.isa.instruction.type.r.CallInstruction;
+import io.github.compactrisc16.assembler.isa.instruction.type.r.RdestInstruction;
+import io.github.compactrisc16.assembler.isa.instruction.type.r.RdestRsrcInstruction;
+import io.github.compactrisc16.assembler.isa.instruction.type.r.RsrcInstruction;
+import io.github.compactrisc16.assembler.isa.register.Register;
+import io.github.compactrisc16.assembler.isa.register.Registers;
+import io.github.compactrisc16.simulator.argument.DisassemblerArguments;
+import io.github.compactrisc16.simulator.memory.DatReader;
+
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+/**
+ * {@link Disassembler} turns a <code>.dat</code> machine code image back into assembly code that the assembler
+ * assembles into the same image. Each word is decoded with the {@link DecodeTable}. Words that no assembly line
+ * assembles to are written as assembly numbers. Labels are synthesized for the targets of <code>B[condition]</code>
+ * and <code>CALLD</code> instructions, which are written as the equivalent <code>J[condition]</code> and
+ * <code>CALL</code> label references that the assembler displaces again, and for the targets of
+ * <code>J[condition]</code> and <code>CALL</code> instructions whose target register is loaded by the
+ * <code>MOVIL</code> and <code>MOVIU</code> instructions right before them, which are written as a <code>MOV</code>
+ * label reference.
+ */
+public class Disassembler {
+
+    private static final String INDENT = "    ";
+    private static final int MNEMONIC_WIDTH = 6;
+    private static final int OPERAND_WIDTH = 4;
+    private static final int COMMENT_COLUMN = 24;
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+    private static final String[] REGISTER_NAMES = createRegisterNames();
+    /**
+     * The {@link RdestImmInstruction}s whose immediate is sign extended, which are written in signed decimal instead
+     * of hex.
+     */
+    private static final Set<AbstractInstruction> SIGNED_IMMEDIATE_INSTRUCTIONS = Set.of(
+            Instructions.ADDI, Instructions.ADDCI, Instructions.MULI, Instructions.SUBI, Instructions.CMPI);
+
+    private final String[] argumentStrings;
+    private final Path workingDirectory;
+    private final PrintStream out;
+    private final PrintStream err;
+    private DisassemblerArguments arguments;
+
+    /**
+     * Instantiates a new {@link Disassembler} that resolves relative paths against the current working directory and
+     * prints to {@link System#out} and {@link System#err}.
+     *
+     * @param argumentStrings the input argument {@link String}s
+     */
+    public Disassembler(String[] argumentStrings) {
+        this(argumentStrings, Path.of("").toAbsolutePath(), System.out, System.err);
+    }
+
+    /**
+     * Instantiates a new {@link Disassembler}.
+     *
+     * @param argumentStrings  the input argument {@link String}s
+     * @param workingDirectory the absolute {@link Path} that relative paths are resolved against
+     * @param out              the {@link PrintStream} for the usage and the assembly code or summary
+     * @param err              the {@link PrintStream} for exceptions
+     */
+    public Disassembler(String[] argumentStrings, Path workingDirectory, PrintStream out, PrintStream err) {
+        this.argumentStrings = argumentStrings;
+        this.workingDirectory = workingDirectory;
+        this.out = out;
+        this.err = err;
+    }
+
+    /**
+     * Creates {@link #REGISTER_NAMES}.
+     *
+     * @return the {@link Register#getName()}s indexed by {@link Register#getIndex()}
+     */
+    private static String[] createRegisterNames() {
+        final String[] registerNames = new String[Registers.REGISTERS.size()];
+        for (Register register : Registers.REGISTERS) {
+            registerNames[register.getIndex()] = register.getName();
+        }
+        return registerNames;
+    }
+
+    /**
+     * Parses the {@link DisassemblerArguments}, reads the machine code image, and writes or prints its assembly code.
+     *
+     * @return <code>true</code> if the image was disassembled successfully
+     */
+    public boolean run() {
+        arguments = new DisassemblerArguments(argumentStrings, workingDirectory);
+        try {
+            arguments.parse();
+        } catch (ParameterException exception) {
+            StringBuilder usage = new StringBuilder();
+            exception.getJCommander().getUsageFormatter().usage(usage);
+            out.print(usage);
+            return false;
+        } catch (IllegalArgumentException exception) {
+            printException(exception);
+            return false;
+        }
+
+        try {
+            final long startNanoTime = System.nanoTime();
+            final int[] words = DatReader.read(arguments.getMachineCodeFile().toPath(), arguments.getNumberBase());
+            final String assembly = "# Disassembled from " + arguments.getMachineCodeFile().getName() + "\n" +
+                    disassemble(words);
+
+            if (arguments.getOutputFile() == null) {
+                out.print(assembly);
+            } else {
+                try (Writer writer = Files.newBufferedWriter(arguments.getOutputFile().toPath(),
+                        StandardCharsets.UTF_8)) {
+                    writer.write(assembly);
+                }
+                out.printf("Disassembled %d words into %s in %.1f ms.%n", words.length,
+                        arguments.getOutputFile().getPath(), (System.nanoTime() - startNanoTime) / 1e6);
+            }
+            return true;
+        } catch (Exception exception) {
+            printException(exception);
+            return false;
+        }
+    }
+
+    /**
+     * Disassembles the given machine code image into assembly code that assembles into the same image. Every line
+     * ends with a comment of its address and machine code word.
+     *
+     * @param words the 16-bit machine code words, starting at address <code>0</code>
+     *
+     * @return the assembly code {@link String}
+     */
+    public static String disassemble(int[] words) {
+        final int length = words.length;
+        final AbstractInstruction[] instructions = new AbstractInstruction[length];
+        for (int address = 0; address < length; address++) {
+            instructions[address] = DecodeTable.getInstruction(words[address]);
+        }
+
+        final String[] labelNames = new String[length];
+        for (int address = 0; address < length; address++) {
+            final int target = getDisplacementTarget(instructions[address], words[address], address);
+            if (target >= 0 && target < length) {
+                nameLabel(labelNames, target, instructions[address] == Instructions.CALLD);
+            }
+        }
+
+        // A 'MOVIL' and 'MOVIU' pair can only become a 'MOV' label reference if nothing jumps to its 'MOVIU', since
+        // the label of a 'MOV' label reference points to its 'MOVIL'
+        final int[] loadedTargets = new int[length];
+        final boolean[] isLoadedTarget = new boolean[length];
+        for (int address = 0; address < length; address++) {
+            loadedTargets[address] = getLoadedTarget(instructions, words, address);
+            if (loadedTargets[address] != -1) {
+                isLoadedTarget[loadedTargets[address]] = true;
+            }
+        }
+        for (int address = 0; address < length; address++) {
+            if (loadedTargets[address] != -1) {
+                if (labelNames[address + 1] == null && !isLoadedTarget[address + 1]) {
+                    nameLabel(labelNames, loadedTargets[address], instructions[address + 2] == Instructions.CALL);
+                } else {
+                    loadedTargets[address] = -1;
+                }
+            }
+        }
+
+        final StringBuilder assembly = new StringBuilder(length * 32);
+        for (int address = 0; address < length; address++) {
+            if (labelNames[address] != null) {
+                assembly.append(labelNames[address]).append('\n');
+            }
+
+            final int lineStart = assembly.length();
+            assembly.append(INDENT);
+            if (loadedTargets[address] != -1) {
+                appendMnemonic(assembly, lineStart, Instructions.MOV.getMnemonic());
+                appendOperand(assembly, lineStart, REGISTER_NAMES[words[address] >>> 8 & 0xF]);
+                assembly.append(labelNames[loadedTargets[address]]);
+                appendComment(assembly, lineStart, address, words[address]);
+                assembly.append(' ');
+                appendHex(assembly, words[address + 1], 4);
+                address++;
+            } else {
+                appendInstruction(assembly, lineStart, instructions[address], words[address], address, labelNames);
+                appendComment(assembly, lineStart, address, words[address]);
+            }
+            assembly.append('\n');
+        }
+        return assembly.toString();
+    }
+
+    /**
+     * Gets the target of the given <code>B[condition]</code> or <code>CALLD</code> instruction, which is the address
+     * after it plus its displacement.
+     *
+     * @param instruction the decoded {@link AbstractInstruction}
+     * @param word        the machine code word
+     * @param address     the address of the word
+     *
+     * @return the target address or <code>-1</code> if the word isn't a displacement instruction
+     */
+    private static int getDisplacementTarget(AbstractInstruction instruction, int word, int address) {
+        if (instruction instanceof BInstruction) {
+            return address + 1 + (byte) word;
+        } else if (instruction == Instructions.CALLD) {
+            return address + 1 + (word << 20 >> 20);
+        } else {
+            return -1;
+        }
+    }
+
+    /**
+     * Gets the target of the <code>J[condition]</code> or <code>CALL</code> instruction at <code>address + 2</code>
+     * if its target register is loaded by a <code>MOVIL</code> at <code>address</code> and a <code>MOVIU</code> at
+     * <code>address + 1</code>, like the assembler does for a label reference that is too far to be displaced.
+     *
+     * @param instructions the decoded {@link AbstractInstruction}s
+     * @param words        the machine code words
+     * @param address      the address of the <code>MOVIL</code>
+     *
+     * @return the target address or <code>-1</code> if there is no such target within the image
+     */
+    private static int getLoadedTarget(AbstractInstruction[] instructions, int[] words, int address) {
+        if (address + 2 >= words.length || instructions[address] != Instructions.MOVIL ||
+                instructions[address + 1] != Instructions.MOVIU ||
+                !(instructions[address + 2] instanceof JInstruction || instructions[address + 2] == Instructions.CALL)) {
+            return -1;
+        }
+
+        final int register = words[address] >>> 8 & 0xF;
+        if ((words[address + 1] >>> 8 & 0xF) != register || (words[address + 2] & 0xF) != register) {
+            return -1;
+        }
+        final int target = (words[address + 1] & 0xFF) << 8 | words[address] & 0xFF;
+        return target < words.length ? target : -1;
+    }
+
+    /**
+     * Names the label of the given target address. Subroutine labels take precedence over branch labels.
+     *
+     * @param labelNames   the label names indexed by address
+     * @param target       the target address
+     * @param isSubroutine <code>true</code> if the target is called
+     */
+    private static void nameLabel(String[] labelNames, int target, boolean isSubroutine) {
+        if (isSubroutine || labelNames[target] == null) {
+            final StringBuilder labelName = new StringBuilder(isSubroutine ? ".sub_" : ".L_");
+            appendHex(labelName, target, 4);
+            labelNames[target] = labelName.toString();
+        }
+    }
+
+    /**
+     * Appends the assembly line of the given decoded word, without the indent.
+     *
+     * @param assembly    the assembly {@link StringBuilder}
+     * @param lineStart   the index of the start of the line in <code>assembly</code>
+     * @param instruction the decoded {@link AbstractInstruction} or <code>null</code> to append an assembly number
+     * @param word        the machine code word
+     * @param address     the address of the word
+     * @param labelNames  the label names indexed by address
+     */
+    private static void appendInstruction(StringBuilder assembly, int lineStart, AbstractInstruction instruction,
+            int word, int address, String[] labelNames) {
+        if (instruction == null) {
+            assembly.append("0x");
+            appendHex(assembly, word, 4);
+            return;
+        }
+
+        final int target = getDisplacementTarget(instruction, word, address);
+        if (target >= 0 && target < labelNames.length) {
+            final AbstractInstruction labelInstruction = instruction == Instructions.CALLD ? Instructions.CALL :
+                    Instructions.J_INSTRUCTIONS.get(Instructions.B_INSTRUCTIONS.indexOf(instruction));
+            appendMnemonic(assembly, lineStart, labelInstruction.getMnemonic());
+            assembly.append(labelNames[target]);
+            return;
+        }
+
+        final String rdest = REGISTER_NAMES[word >>> 8 & 0xF];
+        final String rsrc = REGISTER_NAMES[word & 0xF];
+        appendMnemonic(assembly, lineStart, instruction.getMnemonic());
+        if (instruction instanceof RdestRsrcInstruction) {
+            appendOperand(assembly, lineStart, rdest);
+            assembly.append(rsrc);
+        } else if (instruction instanceof RdestImmInstruction) {
+            appendOperand(assembly, lineStart, rdest);
+            if (SIGNED_IMMEDIATE_INSTRUCTIONS.contains(instruction)) {
+                assembly.append((byte) word);
+            } else {
+                assembly.append("0x");
+                appendHex(assembly, word, 2);
+            }
+        } else if (instruction instanceof RdestImmLoInstruction) {
+            appendOperand(assembly, lineStart, rdest);
+            assembly.append(word & 0xF);
+        } else if (instruction instanceof JInstruction || instruction instanceof CallInstruction ||
+                instruction instanceof RsrcInstruction) {
+            assembly.append(rsrc);
+        } else if (instruction instanceof RdestInstruction) {
+            assembly.append(rdest);
+        } else if (instruction instanceof BInstruction) {
+            assembly.append((byte) word);
+        } else if (instruction == Instructions.CALLD) {
+            assembly.append(word << 20 >> 20);
+        }
+        // 'RET' and 'NOP' have no operands
+    }
+
+    /**
+     * Appends the given mnemonic and pads it to the operand column.
+     *
+     * @param assembly  the assembly {@link StringBuilder}
+     * @param lineStart the index of the start of the line in <code>assembly</code>
+     * @param mnemonic  the mnemonic
+     */
+    private static void appendMnemonic(StringBuilder assembly, int lineStart, String mnemonic) {
+        assembly.append(mnemonic);
+        pad(assembly, lineStart + INDENT.length() + MNEMONIC_WIDTH);
+    }
+
+    /**
+     * Appends the given operand, which isn't the last operand, and pads it to the next operand column.
+     *
+     * @param assembly  the assembly {@link StringBuilder}
+     * @param lineStart the index of the start of the line in <code>assembly</code>
+     * @param operand   the operand
+     */
+    private static void appendOperand(StringBuilder assembly, int lineStart, String operand) {
+        assembly.append(operand);
+        pad(assembly, lineStart + INDENT.length() + MNEMONIC_WIDTH + OPERAND_WIDTH);
+    }
+
+    /**
+     * Appends the comment of the address and machine code word of a line.
+     *
+     * @param assembly  the assembly {@link StringBuilder}
+     * @param lineStart the index of the start of the line in <code>assembly</code>
+     * @param address   the address
+     * @param word      the machine code word
+     */
+    private static void appendComment(StringBuilder assembly, int lineStart, int address, int word) {
+        pad(assembly, lineStart + COMMENT_COLUMN);
+        assembly.append("# 0x");
+        appendHex(assembly, address, 4);
+        assembly.append(": ");
+        appendHex(assembly, word, 4);
+    }
+
+    /**
+     * Appends spaces up to the given index of the given {@link StringBuilder}, or one space if it's already there.
+     *
+     * @param assembly the assembly {@link StringBuilder}
+     * @param index    the index to pad to
+     */
+    private static void pad(StringBuilder assembly, int index) {
+        do {
+            assembly.append(' ');
+        } while (assembly.length() < index);
+    }
+
+    /**
+     * Appends the given number of the lowest hex digits of the given value, since {@link String#format(String,
+     * Object...)} is too slow to call for every word of an image.
+     *
+     * @param builder the {@link StringBuilder}
+     * @param value   the value
+     * @param digits  the number of hex digits
+     */
+    private static void appendHex(StringBuilder builder, int value, int digits) {
+        for (int shift = (digits - 1) * 4; shift >= 0; shift -= 4) {
+            builder.append(HEX_DIGITS[value >>> shift & 0xF]);
+        }
+    }
+
+    /**
+     * Prints the given {@link Exception} or its stack trace in debug mode.
+     *
+     * @param exception the {@link Exception}
+     */
+    private void printException(Exception exception) {
+        if (arguments != null && arguments.isDebug()) {
+            exception.printStackTrace(err);
+        } else {
+            err.println(exception.getClass().getSimpleName() + ": " + exception.getMessage());
+        }
+    }
+
+    public DisassemblerArguments getArguments() {
+        return arguments;
+    }
+
+    /**
+     * The entry point of application. Exits with a status of <code>1</code> if the image couldn't be disassembled.
+     *
+     * @param args the input arguments
+     */
+    public static void main(String[] args) {
+        Disassembler disassembler = new Disassembler(args);
+        if (!disassembler.run()) {
+            System.exit(1);
+        }
+    }
+}
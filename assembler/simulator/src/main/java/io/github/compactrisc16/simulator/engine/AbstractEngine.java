@@ -0,0 +1,89 @@
+package io.github.compactrisc16.simulator.engine;
+
+import io.github.compactrisc16.simulator.HaltReason;
+import io.github.compactrisc16.simulator.memory.BRAM;
+
+/**
+ * {@link AbstractEngine} represents an engine that executes a program loaded into a main memory {@link BRAM} with the
+ * architectural behavior and the cycle counts of the <code>cr16</code> module in <code>src/v/rtl/cr16/cr16.sv</code>.
+ * Every engine halts under the same conditions (see {@link HaltReason}), which are checked after an instruction is
+ * fetched, so the fetch of the instruction that halts an engine is included in the cycle and instruction counts.
+ */
+public abstract class AbstractEngine {
+
+    protected final BRAM memory;
+    protected final BRAM externalMemory;
+    protected final int programLength;
+
+    /**
+     * Instantiates a new {@link AbstractEngine}.
+     *
+     * @param memory         the main memory {@link BRAM} with the loaded program
+     * @param externalMemory the external (peripheral) memory {@link BRAM}
+     * @param programLength  the number of words in the loaded program
+     */
+    public AbstractEngine(BRAM memory, BRAM externalMemory, int programLength) {
+        this.memory = memory;
+        this.externalMemory = externalMemory;
+        this.programLength = programLength;
+    }
+
+    /**
+     * Runs the program until it halts.
+     *
+     * @param maxCycles the maximum number of cycles to run
+     *
+     * @return the {@link HaltReason}
+     */
+    public abstract HaltReason run(long maxCycles);
+
+    /**
+     * Gets the value of a register in the regfile.
+     *
+     * @param index the register index
+     *
+     * @return the unsigned 16-bit value
+     */
+    public abstract int getRegister(int index);
+
+    /**
+     * Gets the status flags, one-hot encoded with the <code>STATUS_INDEX</code> constants of {@link
+     * io.github.compactrisc16.simulator.cr16.ALU}.
+     *
+     * @return the status flags
+     */
+    public abstract int getStatusFlags();
+
+    /**
+     * Gets the address that the last instruction was fetched from.
+     *
+     * @return the instruction address
+     */
+    public abstract int getInstructionAddress();
+
+    /**
+     * Gets the number of cycles run.
+     *
+     * @return the number of cycles
+     */
+    public abstract long getCycles();
+
+    /**
+     * Gets the number of instructions fetched.
+     *
+     * @return the number of instructions
+     */
+    public abstract long getInstructions();
+
+    public BRAM getMemory() {
+        return memory;
+    }
+
+    public BRAM getExternalMemory() {
+        return externalMemory;
+    }
+
+    public int getProgramLength() {
+        return programLength;
+    }
+}
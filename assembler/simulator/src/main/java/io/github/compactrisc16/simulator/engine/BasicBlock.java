@@ -0,0 +1,198 @@
+package io.github.compactrisc16.simulator.engine;
+
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.H_B_COND;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.H_CALL;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.H_CALLD;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.H_J_COND;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.H_LOAD;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.H_LOADX;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.H_POP;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.H_PUSH;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.H_RET;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.H_STORE;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.H_STOREX;
+
+/**
+ * {@link BasicBlock} is a sequence of predecoded instructions (see {@link InterpreterEngine#decode(int)}) that is only
+ * entered at its first instruction. A {@link BasicBlock} ends at the first <code>J[cond]</code>,
+ * <code>B[cond]</code>, <code>CALL</code>, <code>CALLD</code>, or <code>RET</code>, at the end of the program, or after
+ * {@link #MAX_LENGTH} instructions.
+ * <br>
+ * A {@link BasicBlock} is left through one of its exits, each of which runs a fixed number of instructions and cycles.
+ * Exit <code>i</code> (for <code>i &lt; length - 1</code>) leaves after instruction <code>i</code> wrote to the code of
+ * the {@link BasicBlock}, exit <code>length - 1</code> leaves after the last instruction without taking a conditional
+ * jump or branch, and exit <code>length</code> leaves after taking it.
+ */
+public class BasicBlock {
+
+    public static final int MAX_LENGTH = 64;
+
+    private final int startAddress;
+    private final int[] predecodedWords;
+    private final int[] exitInstructions;
+    private final int[] exitCycles;
+    private final int cyclesBeforeLastInstruction;
+    private final int maxCycles;
+    private int executions;
+    private TranslatedBlock translatedBlock;
+    private boolean invalidated;
+
+    /**
+     * Instantiates a new {@link BasicBlock}.
+     *
+     * @param startAddress    the address of the first instruction
+     * @param predecodedWords the predecoded words of the instructions
+     */
+    public BasicBlock(int startAddress, int[] predecodedWords) {
+        this.startAddress = startAddress;
+        this.predecodedWords = predecodedWords;
+
+        final int length = predecodedWords.length;
+        exitInstructions = new int[length + 1];
+        exitCycles = new int[length + 1];
+        int cycles = 0;
+        for (int index = 0; index < length; index++) {
+            exitInstructions[index] = index + 1;
+            exitCycles[index] = cycles + getCycles(getHandler(index), false);
+            if (index < length - 1) {
+                cycles = exitCycles[index];
+            }
+        }
+        cyclesBeforeLastInstruction = cycles;
+        exitInstructions[length] = length;
+        exitCycles[length] = cycles + getCycles(getHandler(length - 1), true);
+        maxCycles = Math.max(exitCycles[length - 1], exitCycles[length]);
+    }
+
+    /**
+     * Gets the number of cycles of an instruction, including {@link io.github.compactrisc16.simulator.cr16.State#S_FETCH},
+     * as it is executed by the FSM of <code>cr16.sv</code>.
+     *
+     * @param handler the handler index of the instruction
+     * @param taken   <code>true</code> if a conditional jump or branch is taken
+     *
+     * @return the number of cycles
+     */
+    public static int getCycles(int handler, boolean taken) {
+        switch (handler) {
+            case H_J_COND: // S_EXECUTE_J_COND, S_DISABLE_PC_FETCH_WAIT, and S_FETCH_WAIT if taken
+                return taken ? 5 : 3;
+            case H_B_COND: // S_DISABLE_PC_FETCH_WAIT and S_FETCH_WAIT if taken
+                return taken ? 4 : 3;
+            case H_CALL:
+                return 5;
+            case H_CALLD:
+                return 4;
+            case H_RET:
+                return 6;
+            case H_PUSH:
+            case H_POP:
+            case H_LOAD:
+            case H_LOADX:
+            case H_STORE:
+            case H_STOREX:
+                return 4;
+            default: // S_FETCH, S_DECODE, and one execute or wait state
+                return 3;
+        }
+    }
+
+    /**
+     * Checks if the given instruction ends a {@link BasicBlock}.
+     *
+     * @param handler the handler index of the instruction
+     *
+     * @return <code>true</code> if the instruction ends a {@link BasicBlock}
+     */
+    public static boolean isTerminator(int handler) {
+        return handler == H_J_COND || handler == H_B_COND || handler == H_CALL || handler == H_CALLD ||
+                handler == H_RET;
+    }
+
+    /**
+     * Gets the handler index of an instruction.
+     *
+     * @param index the index of the instruction in this {@link BasicBlock}
+     *
+     * @return the handler index
+     */
+    public int getHandler(int index) {
+        return predecodedWords[index] & 0xFF;
+    }
+
+    /**
+     * Increments the number of times that this {@link BasicBlock} was entered.
+     *
+     * @return the incremented number of executions
+     */
+    public int incrementExecutions() {
+        return ++executions;
+    }
+
+    /**
+     * Gets the number of instructions in this {@link BasicBlock}.
+     *
+     * @return the length
+     */
+    public int getLength() {
+        return predecodedWords.length;
+    }
+
+    /**
+     * Gets the number of instructions run by an exit.
+     *
+     * @param exitIndex the exit index
+     *
+     * @return the number of instructions
+     */
+    public int getExitInstructions(int exitIndex) {
+        return exitInstructions[exitIndex];
+    }
+
+    /**
+     * Gets the number of cycles run by an exit.
+     *
+     * @param exitIndex the exit index
+     *
+     * @return the number of cycles
+     */
+    public int getExitCycles(int exitIndex) {
+        return exitCycles[exitIndex];
+    }
+
+    public int getStartAddress() {
+        return startAddress;
+    }
+
+    public int[] getPredecodedWords() {
+        return predecodedWords;
+    }
+
+    public int getCyclesBeforeLastInstruction() {
+        return cyclesBeforeLastInstruction;
+    }
+
+    public int getMaxCycles() {
+        return maxCycles;
+    }
+
+    public int getExecutions() {
+        return executions;
+    }
+
+    public TranslatedBlock getTranslatedBlock() {
+        return translatedBlock;
+    }
+
+    public void setTranslatedBlock(TranslatedBlock translatedBlock) {
+        this.translatedBlock = translatedBlock;
+    }
+
+    public boolean isInvalidated() {
+        return invalidated;
+    }
+
+    public void setInvalidated(boolean invalidated) {
+        this.invalidated = invalidated;
+    }
+}
@@ -0,0 +1,787 @@
+package io.github.compactrisc16.simulator.engine;
+
+import io.github.compactrisc16.simulator.HaltReason;
+import io.github.compactrisc16.simulator.cr16.ALU;
+import io.github.compactrisc16.simulator.cr16.CR16;
+
+import java.util.Arrays;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.ALU_OPCODES_OF_HANDLERS;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.H_ADD;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.H_B_COND;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.H_CALL;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.H_CALLD;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.H_CMP;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.H_CMPI;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.H_J_COND;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.H_LOAD;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.H_LOADX;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.H_LPC;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.H_LSF;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.H_MOV;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.H_MOVIL;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.H_MOVIU;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.H_POP;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.H_PUSH;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.H_RET;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.H_RSHI;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.H_SSF;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.H_STORE;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.H_STOREX;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.IMMEDIATE_SHIFT;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.RDEST_SHIFT;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.RSP;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.RSRC_SHIFT;
+
+/**
+ * {@link BatchEngine} runs many instances (lanes) of the same program image in lockstep, each with its own registers,
+ * status flags, and memories, like the {@link InterpreterEngine} would run each of them. The state of the lanes is
+ * held in a struct-of-arrays layout: each register, counter, and status flag operand is an array indexed by lane.
+ * <br>
+ * Each step executes the group of lanes that are at the lowest PC and fetched the same word there, so lanes that
+ * diverged at a branch wait (are masked off) until the lanes behind them catch up and they reconverge. The fetch,
+ * decode, and dispatch of an instruction are done once per group instead of once per lane.
+ * <br>
+ * While every lane is running at the same PC and no lane has written to the program, the lanes are convergent: the PC,
+ * the instruction addresses, and the counters that are added since the lanes converged are held once for all of them,
+ * and the ALU and <code>MOV</code> instructions are executed with plain loops over the register arrays that the JIT
+ * compiler can vectorize. The lanes leave the convergent mode at a branch or jump that they don't all take to the same
+ * address, before an instruction that may halt them or exceed the maximum number of cycles, and after a write to the
+ * program.
+ */
+public class BatchEngine {
+
+    private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8; // Some JVMs reserve header words in arrays
+
+    private final int laneCount;
+    private final int depth;
+    private final int addressMask;
+    private final int programLength;
+
+    private final int[][] registers; // Indexed by register, then by lane
+    private final char[] memories; // Indexed by lane * depth + address
+    private final char[] externalMemories; // Indexed by lane * depth + address
+    private final int[] statusOpcodes;
+    private final int[] statusAs;
+    private final int[] statusBs;
+    private final int[] pcs;
+    private final int[] instructionAddresses;
+    private final int[] previousInstructionAddresses;
+    private final long[] cycles;
+    private final long[] instructions;
+    private final HaltReason[] haltReasons; // 'null' while a lane is running
+    private final int[] immediates;
+
+    private final int[] groupLanes;
+    private int groupSize;
+    private int groupPC;
+    private int groupWord;
+
+    private boolean programModified;
+    private boolean convergent;
+    private int convergentPC;
+    private int convergentInstructionAddress;
+    private long convergentCycles; // Added to the cycles of every lane when the lanes leave the convergent mode
+    private long convergentInstructions; // Added to the instructions of every lane when the lanes leave it
+    private long maxLaneCycles; // The most cycles of a lane, not counting 'convergentCycles'
+
+    /**
+     * Instantiates a new {@link BatchEngine} with the given program image loaded into the main memory of every lane
+     * and everything else cleared.
+     *
+     * @param image        the words of the program image
+     * @param addressWidth the address width of the main and external memories in bits (at most 16)
+     * @param laneCount    the number of lanes
+     */
+    public BatchEngine(int[] image, int addressWidth, int laneCount) {
+        checkArgument(addressWidth > 0 && addressWidth <= 16, "The address width must be between 1 and 16 bits.");
+        checkArgument(laneCount > 0, "The number of lanes must be positive.");
+        depth = 1 << addressWidth;
+        checkArgument(image.length <= depth, "The image of %s words doesn't fit into %s words of memory.",
+                image.length, depth);
+        checkArgument((long) laneCount * depth <= MAX_ARRAY_LENGTH,
+                "The memories of %s lanes of %s words each don't fit into an array.", laneCount, depth);
+        this.laneCount = laneCount;
+        addressMask = depth - 1;
+        programLength = image.length;
+
+        registers = new int[CR16.REGISTER_COUNT][laneCount];
+        memories = new char[laneCount * depth];
+        externalMemories = new char[laneCount * depth];
+        for (int lane = 0; lane < laneCount; lane++) {
+            for (int address = 0; address < image.length; address++) {
+                memories[lane * depth + address] = (char) image[address];
+            }
+        }
+        statusOpcodes = new int[laneCount];
+        Arrays.fill(statusOpcodes, LazyStatusFlags.LOADED);
+        statusAs = new int[laneCount];
+        statusBs = new int[laneCount];
+        pcs = new int[laneCount];
+        instructionAddresses = new int[laneCount];
+        previousInstructionAddresses = new int[laneCount];
+        Arrays.fill(previousInstructionAddresses, -1);
+        cycles = new long[laneCount];
+        instructions = new long[laneCount];
+        haltReasons = new HaltReason[laneCount];
+        immediates = new int[laneCount];
+        groupLanes = new int[laneCount];
+    }
+
+    /**
+     * Runs every lane until it halts or, at an instruction boundary, reaches the given number of cycles.
+     *
+     * @param maxCycles the number of cycles to stop at
+     *
+     * @return the number of lanes that haven't halted (that stopped at the maximum number of cycles)
+     */
+    public int run(long maxCycles) {
+        while (selectGroup(maxCycles)) {
+            step();
+        }
+
+        int runningLaneCount = 0;
+        for (HaltReason haltReason : haltReasons) {
+            runningLaneCount += haltReason == null ? 1 : 0;
+        }
+        return runningLaneCount;
+    }
+
+    /**
+     * Selects the group of lanes to execute the next instruction of. Outside of the convergent mode, this is the group
+     * of running lanes below the maximum number of cycles that are at the lowest PC and hold the same word at it as the
+     * first of them.
+     *
+     * @param maxCycles the number of cycles to stop at
+     *
+     * @return <code>false</code> if there are no such lanes
+     */
+    private boolean selectGroup(long maxCycles) {
+        if (convergent) {
+            // A fetch past the program or of an instruction right after itself (a spin) may halt the lanes
+            if (convergentPC < programLength && convergentPC != convergentInstructionAddress &&
+                    maxLaneCycles + convergentCycles < maxCycles) {
+                groupPC = convergentPC;
+                groupWord = memories[convergentPC & addressMask];
+                return true;
+            }
+            Arrays.fill(pcs, convergentPC);
+            leaveConvergentMode();
+        }
+
+        int leaderLane = -1;
+        int leaderPC = Integer.MAX_VALUE;
+        for (int lane = 0; lane < laneCount; lane++) {
+            if (haltReasons[lane] == null && cycles[lane] < maxCycles && pcs[lane] < leaderPC) {
+                leaderPC = pcs[lane];
+                leaderLane = lane;
+            }
+        }
+        if (leaderLane == -1) {
+            return false;
+        }
+
+        final int maskedPC = leaderPC & addressMask;
+        final int word = memories[leaderLane * depth + maskedPC];
+        int size = 0;
+        for (int lane = leaderLane; lane < laneCount; lane++) {
+            if (pcs[lane] == leaderPC && haltReasons[lane] == null && cycles[lane] < maxCycles &&
+                    memories[lane * depth + maskedPC] == word) {
+                groupLanes[size++] = lane;
+            }
+        }
+        groupSize = size;
+        groupPC = leaderPC;
+        groupWord = word;
+        return true;
+    }
+
+    /**
+     * Enters the convergent mode if the lanes are all at the same PC after every one of them executed the selected
+     * group's instruction.
+     */
+    private void tryToEnterConvergentMode() {
+        final int pc = pcs[0];
+        long maxCycles = 0;
+        for (int lane = 0; lane < laneCount; lane++) {
+            if (pcs[lane] != pc) {
+                return;
+            }
+            maxCycles = Math.max(maxCycles, cycles[lane]);
+        }
+        convergent = true;
+        convergentPC = pc;
+        convergentInstructionAddress = groupPC;
+        convergentCycles = 0;
+        convergentInstructions = 0;
+        maxLaneCycles = maxCycles;
+    }
+
+    /**
+     * Leaves the convergent mode by adding the convergent counters and instruction addresses to every lane. The PCs of
+     * the lanes must be set by the caller.
+     */
+    private void leaveConvergentMode() {
+        for (int lane = 0; lane < laneCount; lane++) {
+            cycles[lane] += convergentCycles;
+            instructions[lane] += convergentInstructions;
+            instructionAddresses[lane] = convergentInstructionAddress;
+            previousInstructionAddresses[lane] = convergentInstructionAddress;
+        }
+        convergent = false;
+    }
+
+    /**
+     * Executes the instruction of the selected group, like one iteration of {@link InterpreterEngine#run(long)}.
+     */
+    private void step() {
+        final int predecodedWord = InterpreterEngine.decode(groupWord);
+        final int handler = predecodedWord & 0xFF;
+        final int rdest = predecodedWord >>> RDEST_SHIFT & 0xF;
+        final int rsrc = predecodedWord >>> RSRC_SHIFT & 0xF;
+        final int immediate = predecodedWord >>> IMMEDIATE_SHIFT;
+        final int instructionAddress = groupPC;
+        final int nextPC = instructionAddress + 1 & 0xFFFF;
+        final int[] lanes = groupLanes;
+        final boolean controlFlow = handler >= H_J_COND && handler <= H_RET;
+
+        // Fetch
+        if (convergent) {
+            convergentCycles++;
+            convergentInstructions++;
+            convergentInstructionAddress = instructionAddress;
+            convergentPC = nextPC;
+            if (controlFlow) {
+                Arrays.fill(pcs, nextPC);
+            }
+        } else {
+            for (int index = 0; index < groupSize; index++) {
+                final int lane = lanes[index];
+                cycles[lane]++;
+                instructions[lane]++;
+                instructionAddresses[lane] = instructionAddress;
+            }
+            if (instructionAddress >= programLength) {
+                for (int index = 0; index < groupSize; index++) {
+                    haltReasons[lanes[index]] = HaltReason.END_OF_PROGRAM;
+                }
+                return;
+            }
+            if (handler == H_J_COND || handler == H_B_COND) {
+                removeSpinningLanes(instructionAddress);
+            }
+            for (int index = 0; index < groupSize; index++) {
+                final int lane = lanes[index];
+                previousInstructionAddresses[lane] = instructionAddress;
+                pcs[lane] = nextPC;
+            }
+        }
+        final int size = groupSize;
+        final boolean dense = size == laneCount;
+
+        // Execute and add the cycles of the states after 'S_FETCH'
+        final int[] destinations = registers[rdest];
+        final int[] sources = registers[rsrc];
+        final int[] stackPointers = registers[RSP];
+        int executeCycles = 2;
+        int takenLaneCount = 0;
+        if (handler >= H_ADD && handler <= H_RSHI && handler != H_CMP && handler != H_CMPI) {
+            final int aluOpcode = ALU_OPCODES_OF_HANDLERS[handler];
+            // The register forms have odd handler indices and the immediate forms have even ones
+            final boolean immediateForm = (handler & 1) == 0;
+            if (dense) {
+                if (immediateForm) {
+                    Arrays.fill(immediates, immediate);
+                }
+                executeDenseALU(aluOpcode, immediateForm ? immediates : sources, destinations);
+            } else {
+                for (int index = 0; index < size; index++) {
+                    final int lane = lanes[index];
+                    final int a = immediateForm ? immediate : sources[lane];
+                    final int b = destinations[lane];
+                    destinations[lane] = ALU.getResult(aluOpcode, a, b);
+                    statusOpcodes[lane] = aluOpcode;
+                    statusAs[lane] = a;
+                    statusBs[lane] = b;
+                }
+            }
+        } else {
+            switch (handler) {
+                case H_CMP:
+                case H_CMPI: // S_DECODE, S_EXECUTE_ALU
+                    for (int index = 0; index < size; index++) {
+                        final int lane = lanes[index];
+                        statusOpcodes[lane] = ALU.SUB;
+                        statusAs[lane] = handler == H_CMPI ? immediate : sources[lane];
+                        statusBs[lane] = destinations[lane];
+                    }
+                    break;
+                case H_MOV: // S_DECODE, S_EXECUTE_MOV
+                    if (dense) {
+                        System.arraycopy(sources, 0, destinations, 0, size);
+                    } else {
+                        for (int index = 0; index < size; index++) {
+                            destinations[lanes[index]] = sources[lanes[index]];
+                        }
+                    }
+                    break;
+                case H_MOVIL: // S_DECODE, S_EXECUTE_MOV
+                    if (dense) {
+                        for (int lane = 0; lane < size; lane++) {
+                            destinations[lane] = destinations[lane] & 0xFF00 | immediate;
+                        }
+                    } else {
+                        for (int index = 0; index < size; index++) {
+                            final int lane = lanes[index];
+                            destinations[lane] = destinations[lane] & 0xFF00 | immediate;
+                        }
+                    }
+                    break;
+                case H_MOVIU: // S_DECODE, S_EXECUTE_MOV
+                    if (dense) {
+                        for (int lane = 0; lane < size; lane++) {
+                            destinations[lane] = immediate << 8 | destinations[lane] & 0x00FF;
+                        }
+                    } else {
+                        for (int index = 0; index < size; index++) {
+                            final int lane = lanes[index];
+                            destinations[lane] = immediate << 8 | destinations[lane] & 0x00FF;
+                        }
+                    }
+                    break;
+                case H_J_COND:
+                    // Taken: S_DECODE, S_EXECUTE_J_COND, S_DISABLE_PC_FETCH_WAIT, S_FETCH_WAIT
+                    for (int index = 0; index < size; index++) {
+                        final int lane = lanes[index];
+                        if (LazyStatusFlags.isConditionTrue(rdest, statusOpcodes[lane], statusAs[lane],
+                                statusBs[lane])) {
+                            pcs[lane] = sources[lane];
+                            cycles[lane] += 2;
+                            takenLaneCount++;
+                        }
+                    }
+                    maxLaneCycles += takenLaneCount > 0 ? 2 : 0;
+                    break;
+                case H_B_COND:
+                    // Taken: S_DECODE, S_DISABLE_PC_FETCH_WAIT, S_FETCH_WAIT
+                    for (int index = 0; index < size; index++) {
+                        final int lane = lanes[index];
+                        if (LazyStatusFlags.isConditionTrue(rdest, statusOpcodes[lane], statusAs[lane],
+                                statusBs[lane])) {
+                            pcs[lane] = nextPC + immediate & 0xFFFF;
+                            cycles[lane]++;
+                            takenLaneCount++;
+                        }
+                    }
+                    maxLaneCycles += takenLaneCount > 0 ? 1 : 0;
+                    break;
+                case H_CALL: // S_DECODE, S_EXECUTE_CALL, S_DISABLE_PC_FETCH_WAIT, S_FETCH_WAIT
+                    for (int index = 0; index < size; index++) {
+                        final int lane = lanes[index];
+                        final int target = sources[lane];
+                        storeWord(lane, stackPointers[lane], nextPC);
+                        stackPointers[lane] = stackPointers[lane] - 1 & 0xFFFF;
+                        pcs[lane] = target;
+                    }
+                    takenLaneCount = size;
+                    executeCycles = 4;
+                    break;
+                case H_CALLD: // S_DECODE, S_EXECUTE_CALLD, S_FETCH_WAIT
+                    for (int index = 0; index < size; index++) {
+                        final int lane = lanes[index];
+                        storeWord(lane, stackPointers[lane], nextPC);
+                        stackPointers[lane] = stackPointers[lane] - 1 & 0xFFFF;
+                        pcs[lane] = nextPC + immediate & 0xFFFF;
+                    }
+                    takenLaneCount = size;
+                    executeCycles = 3;
+                    break;
+                case H_RET: // S_DECODE, S_EXECUTE_RET, S_EXECUTE_RET_SET_PC, S_DISABLE_PC_FETCH_WAIT, S_FETCH_WAIT
+                    for (int index = 0; index < size; index++) {
+                        final int lane = lanes[index];
+                        stackPointers[lane] = stackPointers[lane] + 1 & 0xFFFF;
+                        pcs[lane] = memories[lane * depth + (stackPointers[lane] & addressMask)];
+                    }
+                    takenLaneCount = size;
+                    executeCycles = 5;
+                    break;
+                case H_LPC: // S_DECODE, S_FETCH_WAIT
+                    for (int index = 0; index < size; index++) {
+                        destinations[lanes[index]] = instructionAddress;
+                    }
+                    break;
+                case H_LSF: // S_DECODE, S_FETCH_WAIT
+                    for (int index = 0; index < size; index++) {
+                        final int lane = lanes[index];
+                        destinations[lane] = LazyStatusFlags.getStatusFlags(statusOpcodes[lane], statusAs[lane],
+                                statusBs[lane]);
+                    }
+                    break;
+                case H_SSF: // S_DECODE, S_EXECUTE_SSF
+                    for (int index = 0; index < size; index++) {
+                        final int lane = lanes[index];
+                        statusOpcodes[lane] = LazyStatusFlags.LOADED;
+                        statusAs[lane] = sources[lane] & 0b1_1111;
+                    }
+                    break;
+                case H_PUSH: // S_DECODE, S_EXECUTE_PUSH, S_FETCH_WAIT
+                    for (int index = 0; index < size; index++) {
+                        final int lane = lanes[index];
+                        storeWord(lane, stackPointers[lane], sources[lane]);
+                        stackPointers[lane] = stackPointers[lane] - 1 & 0xFFFF;
+                    }
+                    executeCycles = 3;
+                    break;
+                case H_POP: // S_DECODE, S_EXECUTE_POP, S_EXECUTE_POP_REGFILE
+                    for (int index = 0; index < size; index++) {
+                        final int lane = lanes[index];
+                        stackPointers[lane] = stackPointers[lane] + 1 & 0xFFFF;
+                        destinations[lane] = memories[lane * depth + (stackPointers[lane] & addressMask)];
+                    }
+                    executeCycles = 3;
+                    break;
+                case H_LOAD: // S_DECODE, S_EXECUTE_LOAD, S_EXECUTE_LOAD_REGFILE
+                    for (int index = 0; index < size; index++) {
+                        final int lane = lanes[index];
+                        destinations[lane] = memories[lane * depth + (sources[lane] & addressMask)];
+                    }
+                    executeCycles = 3;
+                    break;
+                case H_LOADX: // S_DECODE, S_EXECUTE_LOAD, S_EXECUTE_LOAD_REGFILE
+                    for (int index = 0; index < size; index++) {
+                        final int lane = lanes[index];
+                        destinations[lane] = externalMemories[lane * depth + (sources[lane] & addressMask)];
+                    }
+                    executeCycles = 3;
+                    break;
+                case H_STORE: // S_DECODE, S_EXECUTE_STORE, S_FETCH_WAIT
+                    for (int index = 0; index < size; index++) {
+                        final int lane = lanes[index];
+                        storeWord(lane, destinations[lane], sources[lane]);
+                    }
+                    executeCycles = 3;
+                    break;
+                case H_STOREX: // S_DECODE, S_EXECUTE_STORE, S_FETCH_WAIT
+                    for (int index = 0; index < size; index++) {
+                        final int lane = lanes[index];
+                        externalMemories[lane * depth + (destinations[lane] & addressMask)] = (char) sources[lane];
+                    }
+                    executeCycles = 3;
+                    break;
+                default: // S_DECODE, S_FETCH_WAIT
+                    break;
+            }
+        }
+
+        if (convergent) {
+            convergentCycles += executeCycles;
+            if (controlFlow && !isConvergentControlFlow(takenLaneCount)) {
+                leaveConvergentMode();
+            } else if (programModified) {
+                Arrays.fill(pcs, convergentPC);
+                leaveConvergentMode();
+            }
+        } else {
+            if (dense) {
+                for (int lane = 0; lane < size; lane++) {
+                    cycles[lane] += executeCycles;
+                }
+            } else {
+                for (int index = 0; index < size; index++) {
+                    cycles[lanes[index]] += executeCycles;
+                }
+            }
+            if (dense && !programModified) {
+                tryToEnterConvergentMode();
+            }
+        }
+    }
+
+    /**
+     * Checks if a jump, branch, call, or return that was executed in the convergent mode was taken by every lane or by
+     * none of them, and to the same address, in which case the convergent PC is set to that address.
+     *
+     * @param takenLaneCount the number of lanes that took it
+     *
+     * @return <code>true</code> if the lanes are still convergent
+     */
+    private boolean isConvergentControlFlow(int takenLaneCount) {
+        if (takenLaneCount != 0 && takenLaneCount != laneCount) {
+            return false;
+        }
+        final int pc = pcs[0];
+        for (int lane = 1; lane < laneCount; lane++) {
+            if (pcs[lane] != pc) {
+                return false;
+            }
+        }
+        convergentPC = pc;
+        return true;
+    }
+
+    /**
+     * Writes a word to the main memory of a lane and records if the program was modified.
+     *
+     * @param lane    the lane
+     * @param address the address
+     * @param word    the 16-bit word
+     */
+    private void storeWord(int lane, int address, int word) {
+        final int maskedAddress = address & addressMask;
+        memories[lane * depth + maskedAddress] = (char) word;
+        if (maskedAddress < programLength) {
+            programModified = true;
+        }
+    }
+
+    /**
+     * Halts the lanes of the group that fetched the jump or branch at the given address right after executing it, and
+     * removes them from the group.
+     *
+     * @param instructionAddress the address of the jump or branch
+     */
+    private void removeSpinningLanes(int instructionAddress) {
+        int size = 0;
+        for (int index = 0; index < groupSize; index++) {
+            final int lane = groupLanes[index];
+            if (previousInstructionAddresses[lane] == instructionAddress) {
+                haltReasons[lane] = HaltReason.SPIN;
+            } else {
+                groupLanes[size++] = lane;
+            }
+        }
+        groupSize = size;
+    }
+
+    /**
+     * Executes an ALU instruction on every lane with one loop per {@link ALU} opcode, so that each loop is a plain
+     * loop over the register and status flag arrays.
+     *
+     * @param aluOpcode    the {@link ALU} opcode
+     * @param as           the first operand of every lane
+     * @param destinations the destination register of every lane, which is also the second operand
+     */
+    private void executeDenseALU(int aluOpcode, int[] as, int[] destinations) {
+        final int[] statusAs = this.statusAs;
+        final int[] statusBs = this.statusBs;
+        final int size = laneCount;
+        Arrays.fill(statusOpcodes, aluOpcode);
+        switch (aluOpcode) {
+            case ALU.ADD:
+                for (int lane = 0; lane < size; lane++) {
+                    final int a = as[lane];
+                    final int b = destinations[lane];
+                    statusAs[lane] = a;
+                    statusBs[lane] = b;
+                    destinations[lane] = b + a & 0xFFFF;
+                }
+                break;
+            case ALU.ADDC:
+                for (int lane = 0; lane < size; lane++) {
+                    final int a = as[lane];
+                    final int b = destinations[lane];
+                    statusAs[lane] = a;
+                    statusBs[lane] = b;
+                    destinations[lane] = b + a + 1 & 0xFFFF;
+                }
+                break;
+            case ALU.MUL:
+                for (int lane = 0; lane < size; lane++) {
+                    final int a = as[lane];
+                    final int b = destinations[lane];
+                    statusAs[lane] = a;
+                    statusBs[lane] = b;
+                    destinations[lane] = b * a & 0xFFFF;
+                }
+                break;
+            case ALU.SUB:
+                for (int lane = 0; lane < size; lane++) {
+                    final int a = as[lane];
+                    final int b = destinations[lane];
+                    statusAs[lane] = a;
+                    statusBs[lane] = b;
+                    destinations[lane] = b - a & 0xFFFF;
+                }
+                break;
+            case ALU.AND:
+                for (int lane = 0; lane < size; lane++) {
+                    final int a = as[lane];
+                    final int b = destinations[lane];
+                    statusAs[lane] = a;
+                    statusBs[lane] = b;
+                    destinations[lane] = a & b;
+                }
+                break;
+            case ALU.OR:
+                for (int lane = 0; lane < size; lane++) {
+                    final int a = as[lane];
+                    final int b = destinations[lane];
+                    statusAs[lane] = a;
+                    statusBs[lane] = b;
+                    destinations[lane] = a | b;
+                }
+                break;
+            case ALU.XOR:
+                for (int lane = 0; lane < size; lane++) {
+                    final int a = as[lane];
+                    final int b = destinations[lane];
+                    statusAs[lane] = a;
+                    statusBs[lane] = b;
+                    destinations[lane] = a ^ b;
+                }
+                break;
+            case ALU.LSH:
+                for (int lane = 0; lane < size; lane++) {
+                    final int a = as[lane];
+                    final int b = destinations[lane];
+                    statusAs[lane] = a;
+                    statusBs[lane] = b;
+                    destinations[lane] = b << (a & 0xF) & 0xFFFF;
+                }
+                break;
+            case ALU.RSH:
+                for (int lane = 0; lane < size; lane++) {
+                    final int a = as[lane];
+                    final int b = destinations[lane];
+                    statusAs[lane] = a;
+                    statusBs[lane] = b;
+                    destinations[lane] = b >>> (a & 0xF);
+                }
+                break;
+            default:
+                for (int lane = 0; lane < size; lane++) {
+                    final int a = as[lane];
+                    final int b = destinations[lane];
+                    statusAs[lane] = a;
+                    statusBs[lane] = b;
+                    destinations[lane] = ALU.getResult(aluOpcode, a, b);
+                }
+                break;
+        }
+    }
+
+    /**
+     * Sets a register of a lane.
+     *
+     * @param lane  the lane
+     * @param index the register index
+     * @param value the 16-bit value
+     */
+    public void setRegister(int lane, int index, int value) {
+        registers[index][lane] = value & 0xFFFF;
+    }
+
+    /**
+     * Gets a register of a lane.
+     *
+     * @param lane  the lane
+     * @param index the register index
+     *
+     * @return the unsigned 16-bit value
+     */
+    public int getRegister(int lane, int index) {
+        return registers[index][lane];
+    }
+
+    /**
+     * Sets the status flags of a lane, like <code>SSF</code>.
+     *
+     * @param lane        the lane
+     * @param statusFlags the status flags, one-hot encoded with the <code>STATUS_INDEX</code> constants of {@link
+     *                    ALU}
+     */
+    public void setStatusFlags(int lane, int statusFlags) {
+        statusOpcodes[lane] = LazyStatusFlags.LOADED;
+        statusAs[lane] = statusFlags & 0b1_1111;
+    }
+
+    /**
+     * Gets the status flags of a lane.
+     *
+     * @param lane the lane
+     *
+     * @return the status flags, one-hot encoded with the <code>STATUS_INDEX</code> constants of {@link ALU}
+     */
+    public int getStatusFlags(int lane) {
+        return LazyStatusFlags.getStatusFlags(statusOpcodes[lane], statusAs[lane], statusBs[lane]);
+    }
+
+    /**
+     * Reads a word of the main memory of a lane.
+     *
+     * @param lane    the lane
+     * @param address the address
+     *
+     * @return the unsigned 16-bit word
+     */
+    public int readMemory(int lane, int address) {
+        return memories[lane * depth + (address & addressMask)];
+    }
+
+    /**
+     * Writes a word to the main memory of a lane. Once the program of any lane is written, the lanes no longer enter
+     * the convergent mode.
+     *
+     * @param lane    the lane
+     * @param address the address
+     * @param word    the 16-bit word
+     */
+    public void writeMemory(int lane, int address, int word) {
+        storeWord(lane, address, word & 0xFFFF);
+    }
+
+    /**
+     * Reads a word of the external memory of a lane.
+     *
+     * @param lane    the lane
+     * @param address the address
+     *
+     * @return the unsigned 16-bit word
+     */
+    public int readExternalMemory(int lane, int address) {
+        return externalMemories[lane * depth + (address & addressMask)];
+    }
+
+    /**
+     * Writes a word to the external memory of a lane.
+     *
+     * @param lane    the lane
+     * @param address the address
+     * @param word    the 16-bit word
+     */
+    public void writeExternalMemory(int lane, int address, int word) {
+        externalMemories[lane * depth + (address & addressMask)] = (char) word;
+    }
+
+    public int getInstructionAddress(int lane) {
+        return instructionAddresses[lane];
+    }
+
+    public long getCycles(int lane) {
+        return cycles[lane];
+    }
+
+    public long getInstructions(int lane) {
+        return instructions[lane];
+    }
+
+    /**
+     * Gets the {@link HaltReason} of a lane.
+     *
+     * @param lane the lane
+     *
+     * @return the {@link HaltReason} or <code>null</code> if the lane hasn't halted
+     */
+    public HaltReason getHaltReason(int lane) {
+        return haltReasons[lane];
+    }
+
+    public int getLaneCount() {
+        return laneCount;
+    }
+
+    public int getProgramLength() {
+        return programLength;
+    }
+}
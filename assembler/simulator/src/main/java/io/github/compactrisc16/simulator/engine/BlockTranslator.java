@@ -0,0 +1,530 @@
+package io.github.compactrisc16.simulator.engine;
+
+import io.github.compactrisc16.simulator.cr16.ALU;
+import io.github.compactrisc16.simulator.cr16.CR16;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.ALU_OPCODES_OF_HANDLERS;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.H_B_COND;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.H_CALL;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.H_CALLD;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.H_CMP;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.H_CMPI;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.H_J_COND;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.H_LOAD;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.H_LOADX;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.H_LPC;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.H_LSF;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.H_MOV;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.H_MOVIL;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.H_MOVIU;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.H_POP;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.H_PUSH;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.H_RET;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.H_RSHI;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.H_SSF;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.H_STORE;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.H_STOREX;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.IMMEDIATE_SHIFT;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.RDEST_SHIFT;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.RSP;
+import static io.github.compactrisc16.simulator.engine.InterpreterEngine.RSRC_SHIFT;
+import static io.github.compactrisc16.simulator.engine.TranslatedBlock.EXIT_INDEX_SHIFT;
+
+/**
+ * {@link BlockTranslator} translates a {@link BasicBlock} into the bytecode of a {@link TranslatedBlock} subclass.
+ * The registers that the {@link BasicBlock} uses and its {@link LazyStatusFlags} are held in local variables from its
+ * entry to its exits. The {@link ALU} and condition functions are called with constant opcodes wherever the
+ * instruction that last set the status flags is known, so that the JIT compiler can inline and fold them into
+ * straight-line arithmetic.
+ * <br>
+ * Each generated class is defined in its own {@link ClassLoader} so that the class can be unloaded once its {@link
+ * BasicBlock} is invalidated, which is what a hidden class would provide on newer Java versions.
+ */
+public final class BlockTranslator {
+
+    private static final String ALU_NAME = Type.getInternalName(ALU.class);
+    private static final String ENGINE_NAME = Type.getInternalName(TranslatorEngine.class);
+    private static final String TRANSLATED_BLOCK_NAME = Type.getInternalName(TranslatedBlock.class);
+    private static final String LAZY_STATUS_FLAGS_NAME = Type.getInternalName(LazyStatusFlags.class);
+    private static final String EXECUTE_DESCRIPTOR = Type.getMethodDescriptor(Type.INT_TYPE, Type.getType(int[].class),
+            Type.getType(int[].class), Type.getType(TranslatorEngine.class));
+
+    // The local variable slots of 'execute'
+    private static final int REGISTERS_SLOT = 1;
+    private static final int LAZY_STATUS_FLAGS_SLOT = 2;
+    private static final int ENGINE_SLOT = 3;
+    private static final int FIRST_REGISTER_SLOT = 4;
+    private static final int STATUS_OPCODE_SLOT = FIRST_REGISTER_SLOT + CR16.REGISTER_COUNT;
+    private static final int STATUS_A_SLOT = STATUS_OPCODE_SLOT + 1;
+    private static final int STATUS_B_SLOT = STATUS_OPCODE_SLOT + 2;
+    private static final int TEMPORARY_SLOT = STATUS_OPCODE_SLOT + 3;
+
+    private static final int UNKNOWN_STATUS_OPCODE = Integer.MIN_VALUE;
+
+    private static int translatedBlockCount;
+
+    /**
+     * Translates the given {@link BasicBlock} and instantiates the generated class.
+     *
+     * @param basicBlock the {@link BasicBlock}
+     *
+     * @return the {@link TranslatedBlock}
+     */
+    public static TranslatedBlock translate(BasicBlock basicBlock) {
+        final String className = String.format("%s$0x%04X$%d", TRANSLATED_BLOCK_NAME, basicBlock.getStartAddress(),
+                translatedBlockCount++);
+        final byte[] classBytes = generateClass(basicBlock, className);
+        try {
+            return (TranslatedBlock) new BlockClassLoader().defineClass(className.replace('/', '.'), classBytes)
+                    .getConstructor().newInstance();
+        } catch (ReflectiveOperationException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    /**
+     * Generates the bytecode of a {@link TranslatedBlock} subclass.
+     *
+     * @param basicBlock the {@link BasicBlock}
+     * @param className  the internal name of the class
+     *
+     * @return the class file bytes
+     */
+    private static byte[] generateClass(BasicBlock basicBlock, String className) {
+        final ClassWriter classWriter = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
+        classWriter.visit(Opcodes.V11, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, className, null,
+                TRANSLATED_BLOCK_NAME, null);
+
+        final MethodVisitor constructor = classWriter.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        constructor.visitCode();
+        constructor.visitVarInsn(Opcodes.ALOAD, 0);
+        constructor.visitMethodInsn(Opcodes.INVOKESPECIAL, TRANSLATED_BLOCK_NAME, "<init>", "()V", false);
+        constructor.visitInsn(Opcodes.RETURN);
+        constructor.visitMaxs(0, 0);
+        constructor.visitEnd();
+
+        final MethodVisitor execute = classWriter.visitMethod(Opcodes.ACC_PUBLIC, "execute", EXECUTE_DESCRIPTOR, null,
+                null);
+        execute.visitCode();
+        new BlockMethodGenerator(basicBlock, execute).generate();
+        execute.visitMaxs(0, 0);
+        execute.visitEnd();
+
+        classWriter.visitEnd();
+        return classWriter.toByteArray();
+    }
+
+    /**
+     * {@link BlockMethodGenerator} generates the body of the <code>execute</code> method of a {@link TranslatedBlock}.
+     */
+    private static class BlockMethodGenerator {
+
+        private final BasicBlock basicBlock;
+        private final MethodVisitor method;
+        private final boolean[] usedRegisters;
+        private final boolean[] writtenRegisters;
+        private boolean writesStatusFlags;
+        private int knownStatusOpcode;
+
+        /**
+         * Instantiates a new {@link BlockMethodGenerator}.
+         *
+         * @param basicBlock the {@link BasicBlock}
+         * @param method     the {@link MethodVisitor} of <code>execute</code>
+         */
+        BlockMethodGenerator(BasicBlock basicBlock, MethodVisitor method) {
+            this.basicBlock = basicBlock;
+            this.method = method;
+            usedRegisters = new boolean[CR16.REGISTER_COUNT];
+            writtenRegisters = new boolean[CR16.REGISTER_COUNT];
+            knownStatusOpcode = UNKNOWN_STATUS_OPCODE;
+        }
+
+        /**
+         * Generates the instructions of the {@link BasicBlock}.
+         */
+        void generate() {
+            findUsedRegisters();
+            for (int index = 0; index < CR16.REGISTER_COUNT; index++) {
+                if (usedRegisters[index]) {
+                    method.visitVarInsn(Opcodes.ALOAD, REGISTERS_SLOT);
+                    pushInt(index);
+                    method.visitInsn(Opcodes.IALOAD);
+                    method.visitVarInsn(Opcodes.ISTORE, FIRST_REGISTER_SLOT + index);
+                }
+            }
+            for (int index = 0; index < LazyStatusFlags.LENGTH; index++) {
+                method.visitVarInsn(Opcodes.ALOAD, LAZY_STATUS_FLAGS_SLOT);
+                pushInt(index);
+                method.visitInsn(Opcodes.IALOAD);
+                method.visitVarInsn(Opcodes.ISTORE, STATUS_OPCODE_SLOT + index);
+            }
+
+            final int length = basicBlock.getLength();
+            for (int index = 0; index < length; index++) {
+                generateInstruction(index, index == length - 1);
+            }
+        }
+
+        /**
+         * Finds the registers that the instructions of the {@link BasicBlock} use and write, and whether they write the
+         * status flags. Both register fields of every instruction are treated as used, since loading an unused register
+         * is cheap, so that every register local is assigned at every exit.
+         */
+        private void findUsedRegisters() {
+            for (int predecodedWord : basicBlock.getPredecodedWords()) {
+                final int handler = predecodedWord & 0xFF;
+                final int rdest = predecodedWord >>> RDEST_SHIFT & 0xF;
+                usedRegisters[rdest] = true;
+                usedRegisters[predecodedWord >>> RSRC_SHIFT & 0xF] = true;
+                if (handler <= H_RSHI && handler != H_CMP && handler != H_CMPI || handler == H_MOV ||
+                        handler == H_MOVIL || handler == H_MOVIU || handler == H_LPC || handler == H_LSF ||
+                        handler == H_POP || handler == H_LOAD || handler == H_LOADX) {
+                    writtenRegisters[rdest] = true;
+                }
+                if (handler == H_CALL || handler == H_CALLD || handler == H_RET || handler == H_PUSH ||
+                        handler == H_POP) {
+                    usedRegisters[RSP] = true;
+                    writtenRegisters[RSP] = true;
+                }
+                writesStatusFlags |= handler <= H_RSHI || handler == H_SSF;
+            }
+        }
+
+        /**
+         * Generates one instruction.
+         *
+         * @param index  the index of the instruction in the {@link BasicBlock}
+         * @param isLast <code>true</code> if the instruction is the last one of the {@link BasicBlock}
+         */
+        private void generateInstruction(int index, boolean isLast) {
+            final int predecodedWord = basicBlock.getPredecodedWords()[index];
+            final int handler = predecodedWord & 0xFF;
+            final int rdest = FIRST_REGISTER_SLOT + (predecodedWord >>> RDEST_SHIFT & 0xF);
+            final int rsrc = FIRST_REGISTER_SLOT + (predecodedWord >>> RSRC_SHIFT & 0xF);
+            final int rsp = FIRST_REGISTER_SLOT + RSP;
+            final int immediate = predecodedWord >>> IMMEDIATE_SHIFT;
+            final int address = basicBlock.getStartAddress() + index;
+            final int nextAddress = address + 1 & 0xFFFF;
+
+            if (handler <= H_RSHI) { // An ALU instruction
+                final int aluOpcode = ALU_OPCODES_OF_HANDLERS[handler];
+                // The register forms have odd handler indices and the immediate forms have even ones
+                if ((handler & 1) == 0) {
+                    pushInt(immediate);
+                } else {
+                    method.visitVarInsn(Opcodes.ILOAD, rsrc);
+                }
+                // Only the operands are recorded for the status flags
+                method.visitVarInsn(Opcodes.ISTORE, STATUS_A_SLOT);
+                method.visitVarInsn(Opcodes.ILOAD, rdest);
+                method.visitVarInsn(Opcodes.ISTORE, STATUS_B_SLOT);
+                pushInt(aluOpcode);
+                method.visitVarInsn(Opcodes.ISTORE, STATUS_OPCODE_SLOT);
+                knownStatusOpcode = aluOpcode;
+                if (handler != H_CMP && handler != H_CMPI) {
+                    pushInt(aluOpcode);
+                    method.visitVarInsn(Opcodes.ILOAD, STATUS_A_SLOT);
+                    method.visitVarInsn(Opcodes.ILOAD, STATUS_B_SLOT);
+                    method.visitMethodInsn(Opcodes.INVOKESTATIC, ALU_NAME, "getResult", "(III)I", false);
+                    method.visitVarInsn(Opcodes.ISTORE, rdest);
+                }
+            } else {
+                switch (handler) {
+                    case H_MOV:
+                        method.visitVarInsn(Opcodes.ILOAD, rsrc);
+                        method.visitVarInsn(Opcodes.ISTORE, rdest);
+                        break;
+                    case H_MOVIL:
+                        method.visitVarInsn(Opcodes.ILOAD, rdest);
+                        pushInt(0xFF00);
+                        method.visitInsn(Opcodes.IAND);
+                        pushInt(immediate);
+                        method.visitInsn(Opcodes.IOR);
+                        method.visitVarInsn(Opcodes.ISTORE, rdest);
+                        break;
+                    case H_MOVIU:
+                        method.visitVarInsn(Opcodes.ILOAD, rdest);
+                        pushInt(0x00FF);
+                        method.visitInsn(Opcodes.IAND);
+                        pushInt(immediate << 8);
+                        method.visitInsn(Opcodes.IOR);
+                        method.visitVarInsn(Opcodes.ISTORE, rdest);
+                        break;
+                    case H_J_COND: {
+                        final Label notTaken = generateConditionCheck(predecodedWord >>> RDEST_SHIFT & 0xF);
+                        method.visitVarInsn(Opcodes.ILOAD, rsrc);
+                        generateExit(index + 1);
+                        method.visitLabel(notTaken);
+                        pushInt(nextAddress);
+                        generateExit(index);
+                        return;
+                    }
+                    case H_B_COND: {
+                        final Label notTaken = generateConditionCheck(predecodedWord >>> RDEST_SHIFT & 0xF);
+                        pushInt(nextAddress + immediate & 0xFFFF);
+                        generateExit(index + 1);
+                        method.visitLabel(notTaken);
+                        pushInt(nextAddress);
+                        generateExit(index);
+                        return;
+                    }
+                    case H_CALL:
+                        method.visitVarInsn(Opcodes.ILOAD, rsrc);
+                        method.visitVarInsn(Opcodes.ISTORE, TEMPORARY_SLOT);
+                        generatePush(nextAddress, false);
+                        method.visitInsn(Opcodes.POP);
+                        method.visitVarInsn(Opcodes.ILOAD, TEMPORARY_SLOT);
+                        generateExit(index);
+                        return;
+                    case H_CALLD:
+                        generatePush(nextAddress, false);
+                        method.visitInsn(Opcodes.POP);
+                        pushInt(nextAddress + immediate & 0xFFFF);
+                        generateExit(index);
+                        return;
+                    case H_RET:
+                        generateStackPointerIncrement();
+                        method.visitVarInsn(Opcodes.ALOAD, ENGINE_SLOT);
+                        method.visitVarInsn(Opcodes.ILOAD, rsp);
+                        generateEngineCall("readMemory", "(I)I");
+                        generateExit(index);
+                        return;
+                    case H_LPC:
+                        pushInt(address);
+                        method.visitVarInsn(Opcodes.ISTORE, rdest);
+                        break;
+                    case H_LSF:
+                        pushStatusOperands();
+                        method.visitMethodInsn(Opcodes.INVOKESTATIC, LAZY_STATUS_FLAGS_NAME, "getStatusFlags",
+                                "(III)I", false);
+                        method.visitVarInsn(Opcodes.ISTORE, rdest);
+                        break;
+                    case H_SSF:
+                        pushInt(LazyStatusFlags.LOADED);
+                        method.visitVarInsn(Opcodes.ISTORE, STATUS_OPCODE_SLOT);
+                        method.visitVarInsn(Opcodes.ILOAD, rsrc);
+                        pushInt(0b1_1111);
+                        method.visitInsn(Opcodes.IAND);
+                        method.visitVarInsn(Opcodes.ISTORE, STATUS_A_SLOT);
+                        knownStatusOpcode = LazyStatusFlags.LOADED;
+                        break;
+                    case H_PUSH:
+                        generatePush(rsrc, true);
+                        generateCodeWriteExit(index, isLast, nextAddress);
+                        break;
+                    case H_POP:
+                        generateStackPointerIncrement();
+                        method.visitVarInsn(Opcodes.ALOAD, ENGINE_SLOT);
+                        method.visitVarInsn(Opcodes.ILOAD, rsp);
+                        generateEngineCall("readMemory", "(I)I");
+                        method.visitVarInsn(Opcodes.ISTORE, rdest);
+                        break;
+                    case H_LOAD:
+                    case H_LOADX:
+                        method.visitVarInsn(Opcodes.ALOAD, ENGINE_SLOT);
+                        method.visitVarInsn(Opcodes.ILOAD, rsrc);
+                        generateEngineCall(handler == H_LOAD ? "readMemory" : "readExternalMemory", "(I)I");
+                        method.visitVarInsn(Opcodes.ISTORE, rdest);
+                        break;
+                    case H_STORE:
+                        method.visitVarInsn(Opcodes.ALOAD, ENGINE_SLOT);
+                        method.visitVarInsn(Opcodes.ILOAD, rdest);
+                        method.visitVarInsn(Opcodes.ILOAD, rsrc);
+                        generateEngineCall("storeMemory", "(II)Z");
+                        generateCodeWriteExit(index, isLast, nextAddress);
+                        break;
+                    case H_STOREX:
+                        method.visitVarInsn(Opcodes.ALOAD, ENGINE_SLOT);
+                        method.visitVarInsn(Opcodes.ILOAD, rdest);
+                        method.visitVarInsn(Opcodes.ILOAD, rsrc);
+                        generateEngineCall("writeExternalMemory", "(II)V");
+                        break;
+                    default: // Unknown opcodes are executed as a no-op
+                        break;
+                }
+            }
+
+            if (isLast) { // The block ends at the end of the program or at its maximum length
+                pushInt(nextAddress);
+                generateExit(index);
+            }
+        }
+
+        /**
+         * Generates a call of {@link LazyStatusFlags#isConditionTrue(int, int, int, int)} and a jump to the returned
+         * {@link Label} if the condition is false.
+         *
+         * @param condition the condition
+         *
+         * @return the {@link Label} of the not taken path
+         */
+        private Label generateConditionCheck(int condition) {
+            final Label notTaken = new Label();
+            pushInt(condition);
+            pushStatusOperands();
+            method.visitMethodInsn(Opcodes.INVOKESTATIC, LAZY_STATUS_FLAGS_NAME, "isConditionTrue", "(IIII)Z",
+                    false);
+            method.visitJumpInsn(Opcodes.IFEQ, notTaken);
+            return notTaken;
+        }
+
+        /**
+         * Pushes the opcode and the operands of the {@link LazyStatusFlags}, with a constant opcode if the instruction
+         * that last set the status flags is in the {@link BasicBlock}.
+         */
+        private void pushStatusOperands() {
+            if (knownStatusOpcode == UNKNOWN_STATUS_OPCODE) {
+                method.visitVarInsn(Opcodes.ILOAD, STATUS_OPCODE_SLOT);
+            } else {
+                pushInt(knownStatusOpcode);
+            }
+            method.visitVarInsn(Opcodes.ILOAD, STATUS_A_SLOT);
+            method.visitVarInsn(Opcodes.ILOAD, STATUS_B_SLOT);
+        }
+
+        /**
+         * Generates the store of a word at the stack pointer and the decrement of the stack pointer, leaving whether
+         * the write invalidated the {@link BasicBlock} on the operand stack.
+         *
+         * @param value       the word, or the local variable slot of the word
+         * @param isLocalSlot <code>true</code> if <code>value</code> is a local variable slot
+         */
+        private void generatePush(int value, boolean isLocalSlot) {
+            final int rsp = FIRST_REGISTER_SLOT + RSP;
+            method.visitVarInsn(Opcodes.ALOAD, ENGINE_SLOT);
+            method.visitVarInsn(Opcodes.ILOAD, rsp);
+            if (isLocalSlot) {
+                method.visitVarInsn(Opcodes.ILOAD, value);
+            } else {
+                pushInt(value);
+            }
+            generateEngineCall("storeMemory", "(II)Z");
+            method.visitVarInsn(Opcodes.ILOAD, rsp);
+            method.visitInsn(Opcodes.ICONST_M1);
+            method.visitInsn(Opcodes.IADD);
+            pushInt(0xFFFF);
+            method.visitInsn(Opcodes.IAND);
+            method.visitVarInsn(Opcodes.ISTORE, rsp);
+        }
+
+        /**
+         * Generates the increment of the stack pointer.
+         */
+        private void generateStackPointerIncrement() {
+            final int rsp = FIRST_REGISTER_SLOT + RSP;
+            method.visitVarInsn(Opcodes.ILOAD, rsp);
+            method.visitInsn(Opcodes.ICONST_1);
+            method.visitInsn(Opcodes.IADD);
+            pushInt(0xFFFF);
+            method.visitInsn(Opcodes.IAND);
+            method.visitVarInsn(Opcodes.ISTORE, rsp);
+        }
+
+        /**
+         * Generates an exit after an instruction that wrote to the main memory, which is taken if the write
+         * invalidated the {@link BasicBlock}. The result of the write is consumed from the operand stack.
+         *
+         * @param index       the index of the instruction
+         * @param isLast      <code>true</code> if the instruction is the last one of the {@link BasicBlock}
+         * @param nextAddress the address of the next instruction
+         */
+        private void generateCodeWriteExit(int index, boolean isLast, int nextAddress) {
+            if (isLast) { // The block exits after the instruction anyway
+                method.visitInsn(Opcodes.POP);
+                return;
+            }
+            final Label notInvalidated = new Label();
+            method.visitJumpInsn(Opcodes.IFEQ, notInvalidated);
+            pushInt(nextAddress);
+            generateExit(index);
+            method.visitLabel(notInvalidated);
+        }
+
+        /**
+         * Generates an exit that writes back the written registers and the status flags, and returns the next PC,
+         * which must be on the operand stack, along with the given exit index.
+         *
+         * @param exitIndex the exit index
+         */
+        private void generateExit(int exitIndex) {
+            for (int index = 0; index < CR16.REGISTER_COUNT; index++) {
+                if (writtenRegisters[index]) {
+                    method.visitVarInsn(Opcodes.ALOAD, REGISTERS_SLOT);
+                    pushInt(index);
+                    method.visitVarInsn(Opcodes.ILOAD, FIRST_REGISTER_SLOT + index);
+                    method.visitInsn(Opcodes.IASTORE);
+                }
+            }
+            if (writesStatusFlags) {
+                for (int index = 0; index < LazyStatusFlags.LENGTH; index++) {
+                    method.visitVarInsn(Opcodes.ALOAD, LAZY_STATUS_FLAGS_SLOT);
+                    pushInt(index);
+                    method.visitVarInsn(Opcodes.ILOAD, STATUS_OPCODE_SLOT + index);
+                    method.visitInsn(Opcodes.IASTORE);
+                }
+            }
+            pushInt(exitIndex << EXIT_INDEX_SHIFT);
+            method.visitInsn(Opcodes.IOR);
+            method.visitInsn(Opcodes.IRETURN);
+        }
+
+        /**
+         * Generates a call of a public method of {@link TranslatorEngine}, whose receiver and arguments must be on the
+         * operand stack.
+         *
+         * @param methodName the method name
+         * @param descriptor the method descriptor
+         */
+        private void generateEngineCall(String methodName, String descriptor) {
+            method.visitMethodInsn(Opcodes.INVOKEVIRTUAL, ENGINE_NAME, methodName, descriptor, false);
+        }
+
+        /**
+         * Pushes an int constant with the shortest instruction.
+         *
+         * @param value the value
+         */
+        private void pushInt(int value) {
+            if (value >= -1 && value <= 5) {
+                method.visitInsn(Opcodes.ICONST_0 + value);
+            } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+                method.visitIntInsn(Opcodes.BIPUSH, value);
+            } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+                method.visitIntInsn(Opcodes.SIPUSH, value);
+            } else {
+                method.visitLdcInsn(value);
+            }
+        }
+    }
+
+    /**
+     * {@link BlockClassLoader} defines the class of one {@link TranslatedBlock}.
+     */
+    private static class BlockClassLoader extends ClassLoader {
+
+        /**
+         * Instantiates a new {@link BlockClassLoader} that delegates to the class loader of the simulator.
+         */
+        BlockClassLoader() {
+            super(BlockTranslator.class.getClassLoader());
+        }
+
+        /**
+         * Defines a class.
+         *
+         * @param name       the binary name of the class
+         * @param classBytes the class file bytes
+         *
+         * @return the {@link Class}
+         */
+        Class<?> defineClass(String name, byte[] classBytes) {
+            return defineClass(name, classBytes, 0, classBytes.length);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.compactrisc16.simulator.engine;
+
+import io.github.compactrisc16.simulator.HaltReason;
+import io.github.compactrisc16.simulator.cr16.CR16;
+import io.github.compactrisc16.simulator.cr16.State;
+import io.github.compactrisc16.simulator.memory.BRAM;
+
+/**
+ * {@link CycleAccurateEngine} is an {@link AbstractEngine} that clocks a {@link CR16} model cycle by cycle, so the
+ * number of cycles spent in each {@link State} is known.
+ */
+public class CycleAccurateEngine extends AbstractEngine {
+
+    private final CR16 cr16;
+
+    /**
+     * Instantiates a new {@link CycleAccurateEngine}.
+     *
+     * @param memory         the main memory {@link BRAM} with the loaded program
+     * @param externalMemory the external (peripheral) memory {@link BRAM}
+     * @param programLength  the number of words in the loaded program
+     */
+    public CycleAccurateEngine(BRAM memory, BRAM externalMemory, int programLength) {
+        super(memory, externalMemory, programLength);
+        cr16 = new CR16(memory, externalMemory);
+    }
+
+    /**
+     * {@inheritDoc} The halt conditions are checked after every {@link State#S_FETCH} so that the write back of the
+     * previous instruction has completed, while {@link HaltReason#MAX_CYCLES} may stop in the middle of an instruction.
+     */
+    @Override
+    public HaltReason run(long maxCycles) {
+        int previousInstructionAddress = -1;
+        while (cr16.getCycles() < maxCycles) {
+            cr16.clock();
+            if (cr16.getState() != State.S_DECODE) {
+                continue;
+            }
+
+            final int instructionAddress = cr16.getInstructionAddress();
+            if (instructionAddress >= programLength) {
+                return HaltReason.END_OF_PROGRAM;
+            }
+            if (instructionAddress == previousInstructionAddress && cr16.isInstructionConditional()) {
+                return HaltReason.SPIN;
+            }
+            previousInstructionAddress = instructionAddress;
+        }
+        return HaltReason.MAX_CYCLES;
+    }
+
+    @Override
+    public int getRegister(int index) {
+        return cr16.getRegister(index);
+    }
+
+    @Override
+    public int getStatusFlags() {
+        return cr16.getStatusFlags();
+    }
+
+    @Override
+    public int getInstructionAddress() {
+        return cr16.getInstructionAddress();
+    }
+
+    @Override
+    public long getCycles() {
+        return cr16.getCycles();
+    }
+
+    @Override
+    public long getInstructions() {
+        return cr16.getInstructions();
+    }
+
+    public CR16 getCR16() {
+        return cr16;
+    }
+}
@@ -0,0 +1,517 @@
+package io.github.compactrisc16.simulator.engine;
+
+import io.github.compactrisc16.assembler.isa.instruction.AbstractInstruction;
+import io.github.compactrisc16.assembler.isa.instruction.Instructions;
+import io.github.compactrisc16.assembler.isa.instruction.type.OpcodeExtInstruction;
+import io.github.compactrisc16.assembler.isa.instruction.type.pseudo.NOPInstruction;
+import io.github.compactrisc16.simulator.HaltReason;
+import io.github.compactrisc16.simulator.cr16.ALU;
+import io.github.compactrisc16.simulator.cr16.CR16;
+import io.github.compactrisc16.simulator.memory.BRAM;
+import io.github.compactrisc16.simulator.profile.ExecutionProfile;
+import io.github.compactrisc16.simulator.snapshot.Snapshot;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import static java.util.Map.entry;
+
+/**
+ * {@link InterpreterEngine} is an {@link AbstractEngine} that interprets instructions without modeling the FSM of
+ * <code>cr16.sv</code>. Each word of the main memory is decoded once, when it is first fetched, into a packed int of a
+ * handler index and the pre-extracted register and immediate fields (see {@link #decode(int)}), and the cycles of each
+ * instruction are added up from the FSM states it would pass through. A predecoded word is invalidated when the main
+ * memory is written by <code>STORE</code>, <code>PUSH</code>, <code>CALL</code>, or <code>CALLD</code>. The status
+ * flags are only evaluated when they are read (see {@link LazyStatusFlags}). The interpreter loop doesn't allocate.
+ */
+public class InterpreterEngine extends AbstractEngine {
+
+    // Handler indices (zero means that the word hasn't been decoded yet)
+    static final int UNDECODED = 0;
+    static final int H_ADD = 1;
+    static final int H_ADDI = 2;
+    static final int H_ADDC = 3;
+    static final int H_ADDCI = 4;
+    static final int H_MUL = 5;
+    static final int H_MULI = 6;
+    static final int H_SUB = 7;
+    static final int H_SUBI = 8;
+    static final int H_CMP = 9;
+    static final int H_CMPI = 10;
+    static final int H_NOT = 11;
+    static final int H_NOTI = 12;
+    static final int H_AND = 13;
+    static final int H_ANDI = 14;
+    static final int H_OR = 15;
+    static final int H_ORI = 16;
+    static final int H_XOR = 17;
+    static final int H_XORI = 18;
+    static final int H_LSH = 19;
+    static final int H_LSHI = 20;
+    static final int H_RSH = 21;
+    static final int H_RSHI = 22;
+    static final int H_MOV = 23;
+    static final int H_MOVIL = 24;
+    static final int H_MOVIU = 25;
+    static final int H_J_COND = 26;
+    static final int H_B_COND = 27;
+    static final int H_CALL = 28;
+    static final int H_CALLD = 29;
+    static final int H_RET = 30;
+    static final int H_LPC = 31;
+    static final int H_LSF = 32;
+    static final int H_SSF = 33;
+    static final int H_PUSH = 34;
+    static final int H_POP = 35;
+    static final int H_LOAD = 36;
+    static final int H_LOADX = 37;
+    static final int H_STORE = 38;
+    static final int H_STOREX = 39;
+    static final int H_INVALID = 40; // Unknown opcodes are executed as a no-op, like in 'cr16.sv'
+
+    // The shifts of the fields of a predecoded word
+    static final int RDEST_SHIFT = 8;
+    static final int RSRC_SHIFT = 12;
+    static final int IMMEDIATE_SHIFT = 16;
+
+    static final int RSP = 15;
+
+    /**
+     * The handler indices of the ISA {@link AbstractInstruction} mnemonics. The ALU instructions that only differ in
+     * their <code>alu.v</code> opcode by name (<code>ALSH</code> and <code>ARSH</code>) share handlers with
+     * <code>LSH</code> and <code>RSH</code>.
+     */
+    private static final Map<String, Integer> HANDLERS_OF_MNEMONICS = Map.ofEntries(
+            entry("ADD", H_ADD), entry("ADDI", H_ADDI), entry("ADDC", H_ADDC), entry("ADDCI", H_ADDCI),
+            entry("MUL", H_MUL), entry("MULI", H_MULI), entry("SUB", H_SUB), entry("SUBI", H_SUBI),
+            entry("CMP", H_CMP), entry("CMPI", H_CMPI), entry("NOT", H_NOT), entry("NOTI", H_NOTI),
+            entry("AND", H_AND), entry("ANDI", H_ANDI), entry("OR", H_OR), entry("ORI", H_ORI),
+            entry("XOR", H_XOR), entry("XORI", H_XORI), entry("LSH", H_LSH), entry("LSHI", H_LSHI),
+            entry("RSH", H_RSH), entry("RSHI", H_RSHI), entry("ALSH", H_LSH), entry("ALSHI", H_LSHI),
+            entry("ARSH", H_RSH), entry("ARSHI", H_RSHI), entry("MOV", H_MOV), entry("MOVIL", H_MOVIL),
+            entry("MOVIU", H_MOVIU), entry("CALL", H_CALL), entry("CALLD", H_CALLD), entry("RET", H_RET),
+            entry("LPC", H_LPC), entry("LSF", H_LSF), entry("SSF", H_SSF), entry("PUSH", H_PUSH),
+            entry("POP", H_POP), entry("LOAD", H_LOAD), entry("LOADX", H_LOADX), entry("STORE", H_STORE),
+            entry("STOREX", H_STOREX));
+
+    /**
+     * The handler indices of every opcode and opcode extension (<code>opcode &lt;&lt; 4 | opcodeExtension</code>),
+     * built from the {@link Instructions#INSTRUCTIONS} so that the decoding follows the same layout as {@link
+     * AbstractInstruction#assemble(java.util.List)}.
+     */
+    private static final int[] HANDLERS_OF_OPCODES = createHandlersOfOpcodes();
+
+    /**
+     * The {@link ALU} opcodes of the ALU instruction handlers, indexed by handler index. <code>CMP</code> and
+     * <code>CMPI</code> subtract like <code>SUB</code>.
+     */
+    static final int[] ALU_OPCODES_OF_HANDLERS = {ALU.CLEAR,
+            ALU.ADD, ALU.ADD, ALU.ADDC, ALU.ADDC, ALU.MUL, ALU.MUL, ALU.SUB, ALU.SUB, ALU.SUB, ALU.SUB,
+            ALU.NOT, ALU.NOT, ALU.AND, ALU.AND, ALU.OR, ALU.OR, ALU.XOR, ALU.XOR, ALU.LSH, ALU.LSH, ALU.RSH, ALU.RSH};
+
+    protected final int[] predecodedWords;
+    protected final int[] registers;
+    protected final int[] lazyStatusFlags;
+    protected int pc;
+    protected int instructionAddress;
+    protected int previousInstructionAddress;
+    protected long cycles;
+    protected long instructions;
+    protected ExecutionProfile profile;
+
+    /**
+     * Instantiates a new {@link InterpreterEngine}.
+     *
+     * @param memory         the main memory {@link BRAM} with the loaded program
+     * @param externalMemory the external (peripheral) memory {@link BRAM}
+     * @param programLength  the number of words in the loaded program
+     */
+    public InterpreterEngine(BRAM memory, BRAM externalMemory, int programLength) {
+        super(memory, externalMemory, programLength);
+        predecodedWords = new int[memory.getDepth()];
+        registers = new int[CR16.REGISTER_COUNT];
+        lazyStatusFlags = LazyStatusFlags.create();
+        previousInstructionAddress = -1;
+    }
+
+    /**
+     * Creates {@link #HANDLERS_OF_OPCODES}.
+     *
+     * @return the handler indices
+     */
+    private static int[] createHandlersOfOpcodes() {
+        final int[] handlersOfOpcodes = new int[256];
+        Arrays.fill(handlersOfOpcodes, H_INVALID);
+        for (AbstractInstruction instruction : Instructions.INSTRUCTIONS) {
+            if (instruction instanceof NOPInstruction) { // Pseudo instructions are assembled as other instructions
+                continue;
+            }
+
+            final int handler = Instructions.J_INSTRUCTIONS.contains(instruction) ? H_J_COND :
+                                Instructions.B_INSTRUCTIONS.contains(instruction) ? H_B_COND :
+                                HANDLERS_OF_MNEMONICS.get(instruction.getMnemonic());
+            if (instruction instanceof OpcodeExtInstruction) {
+                handlersOfOpcodes[instruction.getOpcode() << 4 |
+                        ((OpcodeExtInstruction) instruction).getOpcodeExtension()] = handler;
+            } else {
+                Arrays.fill(handlersOfOpcodes, instruction.getOpcode() << 4, (instruction.getOpcode() + 1) << 4,
+                        handler);
+            }
+        }
+        return handlersOfOpcodes;
+    }
+
+    /**
+     * Decodes the given machine code word into a packed int with the handler index in bits 0 to 7, the Rdest (or
+     * condition) field in bits 8 to 11, the Rsrc field in bits 12 to 15, and the immediate, already zero or sign
+     * extended to 16 bits like <code>cr16.sv</code> does for the instruction, in bits 16 to 31.
+     *
+     * @param word the machine code word
+     *
+     * @return the predecoded word
+     */
+    static int decode(int word) {
+        final int handler = HANDLERS_OF_OPCODES[word >>> 8 & 0xF0 | word >>> 4 & 0xF];
+        final int immediate;
+        switch (handler) {
+            case H_ADDI:
+            case H_ADDCI:
+            case H_MULI:
+            case H_SUBI:
+            case H_CMPI:
+            case H_B_COND:
+                immediate = (byte) word & 0xFFFF;
+                break;
+            case H_NOTI:
+            case H_ANDI:
+            case H_ORI:
+            case H_XORI:
+            case H_MOVIL:
+            case H_MOVIU:
+                immediate = word & 0xFF;
+                break;
+            case H_LSHI:
+            case H_RSHI:
+                immediate = word & 0xF;
+                break;
+            case H_CALLD:
+                immediate = word << 20 >> 20 & 0xFFFF;
+                break;
+            default:
+                immediate = 0;
+                break;
+        }
+        return immediate << IMMEDIATE_SHIFT | (word & 0xF) << RSRC_SHIFT | (word >>> 8 & 0xF) << RDEST_SHIFT | handler;
+    }
+
+    @Override
+    public HaltReason run(long maxCycles) {
+        final int[] registers = this.registers;
+        final int[] predecodedWords = this.predecodedWords;
+        final int addressMask = predecodedWords.length - 1;
+        // The status flags are recorded as the ALU opcode and the operands that set them (see LazyStatusFlags)
+        int statusOpcode = lazyStatusFlags[LazyStatusFlags.OPCODE_INDEX];
+        int statusA = lazyStatusFlags[LazyStatusFlags.A_INDEX];
+        int statusB = lazyStatusFlags[LazyStatusFlags.B_INDEX];
+        int pc = this.pc;
+        int instructionAddress = this.instructionAddress;
+        long cycles = this.cycles;
+        long instructions = this.instructions;
+        int previousInstructionAddress = this.previousInstructionAddress;
+        HaltReason haltReason = HaltReason.MAX_CYCLES;
+        final ExecutionProfile profile = this.profile;
+        final long[] cyclesOfAddresses = profile == null ? null : profile.getCyclesOfAddresses();
+        final long[] executionsOfAddresses = profile == null ? null : profile.getExecutionsOfAddresses();
+
+        while (cycles < maxCycles) {
+            // Fetch
+            final long fetchCycles = cycles;
+            instructionAddress = pc;
+            int predecodedWord = predecodedWords[pc & addressMask];
+            if (predecodedWord == UNDECODED) {
+                predecodedWord = decode(memory.read(pc));
+                predecodedWords[pc & addressMask] = predecodedWord;
+            }
+            final int handler = predecodedWord & 0xFF;
+            cycles++;
+            instructions++;
+            if (instructionAddress >= programLength) {
+                haltReason = HaltReason.END_OF_PROGRAM;
+                break;
+            }
+            if (instructionAddress == previousInstructionAddress && (handler == H_J_COND || handler == H_B_COND)) {
+                haltReason = HaltReason.SPIN;
+                break;
+            }
+            previousInstructionAddress = instructionAddress;
+
+            final int rdest = predecodedWord >>> RDEST_SHIFT & 0xF;
+            final int rsrc = predecodedWord >>> RSRC_SHIFT & 0xF;
+            final int immediate = predecodedWord >>> IMMEDIATE_SHIFT;
+            pc = pc + 1 & 0xFFFF;
+
+            // Execute and add the cycles of the states after 'S_FETCH'
+            switch (handler) {
+                case H_ADD:
+                case H_ADDI:
+                case H_ADDC:
+                case H_ADDCI:
+                case H_MUL:
+                case H_MULI:
+                case H_SUB:
+                case H_SUBI:
+                case H_NOT:
+                case H_NOTI:
+                case H_AND:
+                case H_ANDI:
+                case H_OR:
+                case H_ORI:
+                case H_XOR:
+                case H_XORI:
+                case H_LSH:
+                case H_LSHI:
+                case H_RSH:
+                case H_RSHI: { // S_DECODE, S_EXECUTE_ALU
+                    final int aluOpcode = ALU_OPCODES_OF_HANDLERS[handler];
+                    // The register forms have odd handler indices and the immediate forms have even ones
+                    final int a = (handler & 1) == 0 ? immediate : registers[rsrc];
+                    final int b = registers[rdest];
+                    registers[rdest] = ALU.getResult(aluOpcode, a, b);
+                    statusOpcode = aluOpcode;
+                    statusA = a;
+                    statusB = b;
+                    cycles += 2;
+                    break;
+                }
+                case H_CMP:
+                case H_CMPI: { // S_DECODE, S_EXECUTE_ALU
+                    statusOpcode = ALU.SUB;
+                    statusA = handler == H_CMPI ? immediate : registers[rsrc];
+                    statusB = registers[rdest];
+                    cycles += 2;
+                    break;
+                }
+                case H_MOV: // S_DECODE, S_EXECUTE_MOV
+                    registers[rdest] = registers[rsrc];
+                    cycles += 2;
+                    break;
+                case H_MOVIL: // S_DECODE, S_EXECUTE_MOV
+                    registers[rdest] = registers[rdest] & 0xFF00 | immediate;
+                    cycles += 2;
+                    break;
+                case H_MOVIU: // S_DECODE, S_EXECUTE_MOV
+                    registers[rdest] = immediate << 8 | registers[rdest] & 0x00FF;
+                    cycles += 2;
+                    break;
+                case H_J_COND:
+                    if (LazyStatusFlags.isConditionTrue(rdest, statusOpcode, statusA, statusB)) {
+                        // S_DECODE, S_EXECUTE_J_COND, S_DISABLE_PC_FETCH_WAIT, S_FETCH_WAIT
+                        pc = registers[rsrc];
+                        cycles += 4;
+                        if (profile != null) {
+                            profile.taken(instructionAddress, pc);
+                        }
+                    } else { // S_DECODE, S_FETCH_WAIT
+                        cycles += 2;
+                    }
+                    break;
+                case H_B_COND:
+                    if (LazyStatusFlags.isConditionTrue(rdest, statusOpcode, statusA, statusB)) {
+                        // S_DECODE, S_DISABLE_PC_FETCH_WAIT, S_FETCH_WAIT
+                        pc = pc + immediate & 0xFFFF;
+                        cycles += 3;
+                        if (profile != null) {
+                            profile.taken(instructionAddress, pc);
+                        }
+                    } else { // S_DECODE, S_FETCH_WAIT
+                        cycles += 2;
+                    }
+                    break;
+                case H_CALL: { // S_DECODE, S_EXECUTE_CALL, S_DISABLE_PC_FETCH_WAIT, S_FETCH_WAIT
+                    final int target = registers[rsrc];
+                    final int returnSlot = registers[RSP];
+                    writeMemory(returnSlot, pc);
+                    registers[RSP] = returnSlot - 1 & 0xFFFF;
+                    pc = target;
+                    cycles += 4;
+                    if (profile != null) {
+                        profile.called(pc, returnSlot, cycles);
+                    }
+                    break;
+                }
+                case H_CALLD: { // S_DECODE, S_EXECUTE_CALLD, S_FETCH_WAIT
+                    final int returnSlot = registers[RSP];
+                    writeMemory(returnSlot, pc);
+                    registers[RSP] = returnSlot - 1 & 0xFFFF;
+                    pc = pc + immediate & 0xFFFF;
+                    cycles += 3;
+                    if (profile != null) {
+                        profile.called(pc, returnSlot, cycles);
+                    }
+                    break;
+                }
+                case H_RET: // S_DECODE, S_EXECUTE_RET, S_EXECUTE_RET_SET_PC, S_DISABLE_PC_FETCH_WAIT, S_FETCH_WAIT
+                    registers[RSP] = registers[RSP] + 1 & 0xFFFF;
+                    pc = memory.read(registers[RSP]);
+                    cycles += 5;
+                    if (profile != null) {
+                        profile.returned(registers[RSP], cycles);
+                    }
+                    break;
+                case H_LPC: // S_DECODE, S_FETCH_WAIT
+                    registers[rdest] = instructionAddress; // The program counter is incremented after it's loaded
+                    cycles += 2;
+                    break;
+                case H_LSF: // S_DECODE, S_FETCH_WAIT
+                    registers[rdest] = LazyStatusFlags.getStatusFlags(statusOpcode, statusA, statusB);
+                    cycles += 2;
+                    break;
+                case H_SSF: // S_DECODE, S_EXECUTE_SSF
+                    statusOpcode = LazyStatusFlags.LOADED;
+                    statusA = registers[rsrc] & 0b1_1111;
+                    cycles += 2;
+                    break;
+                case H_PUSH: // S_DECODE, S_EXECUTE_PUSH, S_FETCH_WAIT
+                    writeMemory(registers[RSP], registers[rsrc]);
+                    registers[RSP] = registers[RSP] - 1 & 0xFFFF;
+                    cycles += 3;
+                    break;
+                case H_POP: // S_DECODE, S_EXECUTE_POP, S_EXECUTE_POP_REGFILE
+                    registers[RSP] = registers[RSP] + 1 & 0xFFFF;
+                    registers[rdest] = memory.read(registers[RSP]);
+                    cycles += 3;
+                    break;
+                case H_LOAD: // S_DECODE, S_EXECUTE_LOAD, S_EXECUTE_LOAD_REGFILE
+                    registers[rdest] = memory.read(registers[rsrc]);
+                    cycles += 3;
+                    break;
+                case H_LOADX: // S_DECODE, S_EXECUTE_LOAD, S_EXECUTE_LOAD_REGFILE
+                    registers[rdest] = externalMemory.read(registers[rsrc]);
+                    cycles += 3;
+                    break;
+                case H_STORE: // S_DECODE, S_EXECUTE_STORE, S_FETCH_WAIT
+                    writeMemory(registers[rdest], registers[rsrc]);
+                    cycles += 3;
+                    break;
+                case H_STOREX: // S_DECODE, S_EXECUTE_STORE, S_FETCH_WAIT
+                    externalMemory.write(registers[rdest], registers[rsrc]);
+                    cycles += 3;
+                    break;
+                default: // S_DECODE, S_FETCH_WAIT
+                    cycles += 2;
+                    break;
+            }
+
+            if (cyclesOfAddresses != null) {
+                cyclesOfAddresses[instructionAddress] += cycles - fetchCycles;
+                executionsOfAddresses[instructionAddress]++;
+            }
+        }
+        // The fetch of the instruction that halted the program isn't followed by the profiling above
+        if (haltReason != HaltReason.MAX_CYCLES && cyclesOfAddresses != null) {
+            cyclesOfAddresses[instructionAddress]++;
+            executionsOfAddresses[instructionAddress]++;
+        }
+
+        lazyStatusFlags[LazyStatusFlags.OPCODE_INDEX] = statusOpcode;
+        lazyStatusFlags[LazyStatusFlags.A_INDEX] = statusA;
+        lazyStatusFlags[LazyStatusFlags.B_INDEX] = statusB;
+        this.pc = pc;
+        this.instructionAddress = instructionAddress;
+        this.previousInstructionAddress = previousInstructionAddress;
+        this.cycles = cycles;
+        this.instructions = instructions;
+        return haltReason;
+    }
+
+    /**
+     * Writes a word to the main memory and invalidates its predecoded word.
+     *
+     * @param address the address
+     * @param word    the word
+     */
+    protected void writeMemory(int address, int word) {
+        memory.write(address, word);
+        predecodedWords[address & predecodedWords.length - 1] = UNDECODED;
+    }
+
+    /**
+     * Copies the PC, the registers, the status flags, and the counters of this {@link InterpreterEngine} into the
+     * given {@link Snapshot}.
+     *
+     * @param snapshot the {@link Snapshot}
+     */
+    public void saveState(Snapshot snapshot) {
+        snapshot.setRegisters(registers.clone());
+        snapshot.setLazyStatusFlags(lazyStatusFlags.clone());
+        snapshot.setPC(pc);
+        snapshot.setInstructionAddress(instructionAddress);
+        snapshot.setPreviousInstructionAddress(previousInstructionAddress);
+        snapshot.setCycles(cycles);
+        snapshot.setInstructions(instructions);
+    }
+
+    /**
+     * Restores the PC, the registers, the status flags, and the counters of this {@link InterpreterEngine} from the
+     * given {@link Snapshot} and discards the decoded code, since the memories are restored along with them.
+     *
+     * @param snapshot the {@link Snapshot}
+     */
+    public void restoreState(Snapshot snapshot) {
+        System.arraycopy(snapshot.getRegisters(), 0, registers, 0, registers.length);
+        System.arraycopy(snapshot.getLazyStatusFlags(), 0, lazyStatusFlags, 0, lazyStatusFlags.length);
+        pc = snapshot.getPC();
+        instructionAddress = snapshot.getInstructionAddress();
+        previousInstructionAddress = snapshot.getPreviousInstructionAddress();
+        cycles = snapshot.getCycles();
+        instructions = snapshot.getInstructions();
+        invalidateDecodedCode();
+    }
+
+    /**
+     * Invalidates all the predecoded words.
+     */
+    protected void invalidateDecodedCode() {
+        Arrays.fill(predecodedWords, UNDECODED);
+    }
+
+    public ExecutionProfile getProfile() {
+        return profile;
+    }
+
+    /**
+     * Sets the {@link ExecutionProfile} that the instructions are profiled into. A {@link TranslatorEngine} interprets
+     * every instruction while it has an {@link ExecutionProfile}.
+     *
+     * @param profile the {@link ExecutionProfile} or <code>null</code> for none
+     */
+    public void setProfile(ExecutionProfile profile) {
+        this.profile = profile;
+    }
+
+    @Override
+    public int getRegister(int index) {
+        return registers[index];
+    }
+
+    @Override
+    public int getStatusFlags() {
+        return LazyStatusFlags.getStatusFlags(lazyStatusFlags[LazyStatusFlags.OPCODE_INDEX],
+                lazyStatusFlags[LazyStatusFlags.A_INDEX], lazyStatusFlags[LazyStatusFlags.B_INDEX]);
+    }
+
+    @Override
+    public int getInstructionAddress() {
+        return instructionAddress;
+    }
+
+    @Override
+    public long getCycles() {
+        return cycles;
+    }
+
+    @Override
+    public long getInstructions() {
+        return instructions;
+    }
+}
@@ -0,0 +1,113 @@
+package io.github.compactrisc16.simulator.engine;
+
+import io.github.compactrisc16.simulator.cr16.ALU;
+import io.github.compactrisc16.simulator.cr16.CR16;
+
+/**
+ * {@link LazyStatusFlags} evaluates status flags that are recorded lazily as the {@link ALU} opcode and the operands of
+ * the last instruction that set them, instead of computing all five status flags on every ALU instruction. Only
+ * <code>J[cond]</code>, <code>B[cond]</code>, and <code>LSF</code> read the status flags, and a condition only
+ * evaluates the status flags that it tests.
+ * <br>
+ * Status flags that weren't set by an ALU instruction (by <code>SSF</code> or by a reset) are recorded with the {@link
+ * #LOADED} pseudo opcode and the status flags as the first operand.
+ */
+public final class LazyStatusFlags {
+
+    /**
+     * The pseudo opcode of status flags that are held in the first operand.
+     */
+    public static final int LOADED = -1;
+
+    // The indices of a lazy status flags array
+    public static final int OPCODE_INDEX = 0;
+    public static final int A_INDEX = 1;
+    public static final int B_INDEX = 2;
+    public static final int LENGTH = 3;
+
+    /**
+     * Creates a lazy status flags array with all status flags cleared.
+     *
+     * @return the lazy status flags array
+     */
+    public static int[] create() {
+        final int[] lazyStatusFlags = new int[LENGTH];
+        lazyStatusFlags[OPCODE_INDEX] = LOADED;
+        return lazyStatusFlags;
+    }
+
+    /**
+     * Gets all the status flags.
+     *
+     * @param opcode the {@link ALU} opcode or {@link #LOADED}
+     * @param a      the first operand
+     * @param b      the second operand
+     *
+     * @return the status flags, one-hot encoded with the <code>STATUS_INDEX</code> constants of {@link ALU}
+     */
+    public static int getStatusFlags(int opcode, int a, int b) {
+        return opcode == LOADED ? a : ALU.getStatus(opcode, a, b);
+    }
+
+    /**
+     * Checks if a status flag is set.
+     *
+     * @param statusIndex the status flag index (one of the <code>STATUS_INDEX</code> constants of {@link ALU})
+     * @param opcode      the {@link ALU} opcode or {@link #LOADED}
+     * @param a           the first operand
+     * @param b           the second operand
+     *
+     * @return <code>true</code> if the status flag is set
+     */
+    private static boolean isSet(int statusIndex, int opcode, int a, int b) {
+        return (opcode == LOADED ? a >>> statusIndex & 1 : ALU.getStatusFlag(statusIndex, opcode, a, b)) != 0;
+    }
+
+    /**
+     * Checks if the given <code>J_COND</code> or <code>B_COND</code> condition bit pattern matches the status flags,
+     * like {@link CR16#isConditionTrue(int, int)}.
+     *
+     * @param condition the condition bit pattern (one of the <code>COND</code> constants of {@link CR16})
+     * @param opcode    the {@link ALU} opcode or {@link #LOADED}
+     * @param a         the first operand
+     * @param b         the second operand
+     *
+     * @return <code>true</code> if the condition is true
+     */
+    public static boolean isConditionTrue(int condition, int opcode, int a, int b) {
+        switch (condition) {
+            case CR16.COND_EQ:
+                return isSet(ALU.STATUS_INDEX_ZERO, opcode, a, b);
+            case CR16.COND_NE:
+                return !isSet(ALU.STATUS_INDEX_ZERO, opcode, a, b);
+            case CR16.COND_CS:
+                return isSet(ALU.STATUS_INDEX_CARRY, opcode, a, b);
+            case CR16.COND_CC:
+                return !isSet(ALU.STATUS_INDEX_CARRY, opcode, a, b);
+            case CR16.COND_FS:
+                return isSet(ALU.STATUS_INDEX_FLAG, opcode, a, b);
+            case CR16.COND_FC:
+                return !isSet(ALU.STATUS_INDEX_FLAG, opcode, a, b);
+            case CR16.COND_LT:
+                return !isSet(ALU.STATUS_INDEX_NEGATIVE, opcode, a, b) && !isSet(ALU.STATUS_INDEX_ZERO, opcode, a, b);
+            case CR16.COND_LE:
+                return !isSet(ALU.STATUS_INDEX_NEGATIVE, opcode, a, b);
+            case CR16.COND_LO:
+                return !isSet(ALU.STATUS_INDEX_LOW, opcode, a, b) && !isSet(ALU.STATUS_INDEX_ZERO, opcode, a, b);
+            case CR16.COND_LS:
+                return !isSet(ALU.STATUS_INDEX_LOW, opcode, a, b);
+            case CR16.COND_GT:
+                return isSet(ALU.STATUS_INDEX_NEGATIVE, opcode, a, b);
+            case CR16.COND_GE:
+                return isSet(ALU.STATUS_INDEX_NEGATIVE, opcode, a, b) || isSet(ALU.STATUS_INDEX_ZERO, opcode, a, b);
+            case CR16.COND_HI:
+                return isSet(ALU.STATUS_INDEX_LOW, opcode, a, b);
+            case CR16.COND_HS:
+                return isSet(ALU.STATUS_INDEX_LOW, opcode, a, b) || isSet(ALU.STATUS_INDEX_ZERO, opcode, a, b);
+            case CR16.COND_UC:
+                return true;
+            default:
+                return false;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package io.github.compactrisc16.simulator.engine;
+
+/**
+ * {@link TranslatedBlock} is the superclass of the JVM classes that {@link BlockTranslator} generates for {@link
+ * BasicBlock}s. A generated class is defined in its own class loader, so it may only use public members.
+ */
+public abstract class TranslatedBlock {
+
+    // The shift of the exit index of an exit returned by 'execute'
+    public static final int EXIT_INDEX_SHIFT = 16;
+
+    /**
+     * Executes the instructions of the {@link BasicBlock} until one of its exits.
+     *
+     * @param registers       the registers of the regfile, which are updated in place
+     * @param lazyStatusFlags the {@link LazyStatusFlags} array, which is updated in place
+     * @param engine          the {@link TranslatorEngine} that accesses the memories
+     *
+     * @return the next PC in bits 0 to 15 and the exit index (see {@link BasicBlock}) in bits 16 to 31
+     */
+    public abstract int execute(int[] registers, int[] lazyStatusFlags, TranslatorEngine engine);
+}
@@ -0,0 +1,216 @@
+package io.github.compactrisc16.simulator.engine;
+
+import io.github.compactrisc16.simulator.HaltReason;
+import io.github.compactrisc16.simulator.memory.BRAM;
+
+import java.util.Arrays;
+
+/**
+ * {@link TranslatorEngine} is an {@link InterpreterEngine} that splits the program into {@link BasicBlock}s and
+ * translates the hot ones into JVM classes with {@link BlockTranslator}. Cold blocks, the instructions that may halt
+ * the program, and the last instructions before the maximum number of cycles are interpreted, so the final state and
+ * the cycle counts are the same as those of the {@link InterpreterEngine}.
+ * <br>
+ * A write to the main memory invalidates every {@link BasicBlock} that contains the written address. If the write
+ * comes from the translated {@link BasicBlock} that is being executed, the {@link BasicBlock} exits right after the
+ * writing instruction so that the rewritten code is fetched again.
+ */
+public class TranslatorEngine extends InterpreterEngine {
+
+    /**
+     * The number of times that a {@link BasicBlock} is interpreted before it is translated.
+     */
+    public static final int TRANSLATION_THRESHOLD = 32;
+
+    private final BasicBlock[] basicBlocks;
+    private final int[] basicBlockCountsOfAddresses;
+    private BasicBlock executingBasicBlock;
+    private int translatedBlockCount;
+
+    /**
+     * Instantiates a new {@link TranslatorEngine}.
+     *
+     * @param memory         the main memory {@link BRAM} with the loaded program
+     * @param externalMemory the external (peripheral) memory {@link BRAM}
+     * @param programLength  the number of words in the loaded program
+     */
+    public TranslatorEngine(BRAM memory, BRAM externalMemory, int programLength) {
+        super(memory, externalMemory, programLength);
+        basicBlocks = new BasicBlock[programLength];
+        basicBlockCountsOfAddresses = new int[programLength];
+    }
+
+    @Override
+    public HaltReason run(long maxCycles) {
+        if (profile != null) {
+            return super.run(maxCycles);
+        }
+
+        final int[] registers = this.registers;
+        while (cycles < maxCycles) {
+            final int startAddress = pc;
+            // The fetch of an address past the program or of a jump or branch to itself may halt the program
+            if (startAddress >= programLength || startAddress == previousInstructionAddress) {
+                final HaltReason haltReason = super.run(Math.min(maxCycles, cycles + 1));
+                if (haltReason != HaltReason.MAX_CYCLES) {
+                    return haltReason;
+                }
+                continue;
+            }
+
+            BasicBlock basicBlock = basicBlocks[startAddress];
+            if (basicBlock == null) {
+                basicBlock = createBasicBlock(startAddress);
+            }
+            TranslatedBlock translatedBlock = basicBlock.getTranslatedBlock();
+            if (translatedBlock == null && basicBlock.incrementExecutions() > TRANSLATION_THRESHOLD) {
+                translatedBlock = BlockTranslator.translate(basicBlock);
+                basicBlock.setTranslatedBlock(translatedBlock);
+                translatedBlockCount++;
+            }
+
+            if (translatedBlock == null || cycles + basicBlock.getMaxCycles() > maxCycles) {
+                // Interpret until the last instruction of the block has been fetched
+                final HaltReason haltReason = super.run(Math.min(maxCycles,
+                        cycles + basicBlock.getCyclesBeforeLastInstruction() + 1));
+                if (haltReason != HaltReason.MAX_CYCLES) {
+                    return haltReason;
+                }
+                continue;
+            }
+
+            executingBasicBlock = basicBlock;
+            final int exit = translatedBlock.execute(registers, lazyStatusFlags, this);
+            final int exitIndex = exit >>> TranslatedBlock.EXIT_INDEX_SHIFT;
+            pc = exit & 0xFFFF;
+            cycles += basicBlock.getExitCycles(exitIndex);
+            final int exitInstructions = basicBlock.getExitInstructions(exitIndex);
+            instructions += exitInstructions;
+            instructionAddress = startAddress + exitInstructions - 1;
+            previousInstructionAddress = instructionAddress;
+        }
+        executingBasicBlock = null;
+        return HaltReason.MAX_CYCLES;
+    }
+
+    /**
+     * Creates the {@link BasicBlock} that starts at the given address.
+     *
+     * @param startAddress the start address, which must be within the program
+     *
+     * @return the {@link BasicBlock}
+     */
+    private BasicBlock createBasicBlock(int startAddress) {
+        final int maxLength = Math.min(BasicBlock.MAX_LENGTH, programLength - startAddress);
+        final int[] predecodedWords = new int[maxLength];
+        int length = 0;
+        while (length < maxLength) {
+            final int predecodedWord = decode(memory.read(startAddress + length));
+            predecodedWords[length++] = predecodedWord;
+            if (BasicBlock.isTerminator(predecodedWord & 0xFF)) {
+                break;
+            }
+        }
+
+        final BasicBlock basicBlock = new BasicBlock(startAddress, Arrays.copyOf(predecodedWords, length));
+        basicBlocks[startAddress] = basicBlock;
+        for (int address = startAddress; address < startAddress + length; address++) {
+            basicBlockCountsOfAddresses[address]++;
+        }
+        return basicBlock;
+    }
+
+    /**
+     * {@inheritDoc} The {@link BasicBlock}s that contain the address are invalidated.
+     */
+    @Override
+    protected void writeMemory(int address, int word) {
+        super.writeMemory(address, word);
+
+        final int maskedAddress = address & memory.getDepth() - 1;
+        if (maskedAddress >= programLength || basicBlockCountsOfAddresses[maskedAddress] == 0) {
+            return;
+        }
+        final int lowestStartAddress = Math.max(0, maskedAddress - BasicBlock.MAX_LENGTH + 1);
+        for (int startAddress = maskedAddress; startAddress >= lowestStartAddress; startAddress--) {
+            final BasicBlock basicBlock = basicBlocks[startAddress];
+            if (basicBlock != null && maskedAddress < startAddress + basicBlock.getLength()) {
+                basicBlocks[startAddress] = null;
+                basicBlock.setInvalidated(true);
+                for (int coveredAddress = startAddress; coveredAddress < startAddress + basicBlock.getLength();
+                        coveredAddress++) {
+                    basicBlockCountsOfAddresses[coveredAddress]--;
+                }
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc} The {@link BasicBlock}s are invalidated too.
+     */
+    @Override
+    protected void invalidateDecodedCode() {
+        super.invalidateDecodedCode();
+        for (BasicBlock basicBlock : basicBlocks) {
+            if (basicBlock != null) {
+                basicBlock.setInvalidated(true);
+            }
+        }
+        Arrays.fill(basicBlocks, null);
+        Arrays.fill(basicBlockCountsOfAddresses, 0);
+    }
+
+    /**
+     * Reads a word of the main memory for a {@link TranslatedBlock}.
+     *
+     * @param address the address
+     *
+     * @return the word
+     */
+    public int readMemory(int address) {
+        return memory.read(address);
+    }
+
+    /**
+     * Reads a word of the external memory for a {@link TranslatedBlock}.
+     *
+     * @param address the address
+     *
+     * @return the word
+     */
+    public int readExternalMemory(int address) {
+        return externalMemory.read(address);
+    }
+
+    /**
+     * Writes a word to the main memory for a {@link TranslatedBlock}.
+     *
+     * @param address the address
+     * @param word    the word
+     *
+     * @return <code>true</code> if the write invalidated the executing {@link BasicBlock}
+     */
+    public boolean storeMemory(int address, int word) {
+        writeMemory(address, word);
+        return executingBasicBlock.isInvalidated();
+    }
+
+    /**
+     * Writes a word to the external memory for a {@link TranslatedBlock}.
+     *
+     * @param address the address
+     * @param word    the word
+     */
+    public void writeExternalMemory(int address, int word) {
+        externalMemory.write(address, word);
+    }
+
+    /**
+     * Gets the number of {@link BasicBlock}s that have been translated, including the invalidated ones.
+     *
+     * @return the number of translated blocks
+     */
+    public int getTranslatedBlockCount() {
+        return translatedBlockCount;
+    }
+}
@@ -0,0 +1,285 @@
+package io.github.compactrisc16.simulator.memory;
+
+import io.github.compactrisc16.simulator.memory.device.Device;
+import io.github.compactrisc16.simulator.memory.device.DeviceAccessLog;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * {@link BRAM} models one port of the <code>bram</code> module in <code>src/v/rtl/lib/bram.sv</code>: a word is read
+ * or written on a rising clock edge and a read word is held on the registered output until the next read. Addresses
+ * wider than the address width of the {@link BRAM} wrap around like the truncated address wires of
+ * <code>cr16_top</code>.
+ * <br>
+ * The words are stored off-heap as little-endian 16-bit values, either in a direct buffer or in a memory-mapped file
+ * (see {@link #map(int, Path)}) so that other processes can read the memory without copying it. Address ranges can be
+ * mapped to {@link Device}s, whose callbacks are then used instead of the stored words. The words are accessed through
+ * a {@link VarHandle}, so plain memory is read and written without virtual dispatch.
+ * <br>
+ * The words are divided into pages of {@link #PAGE_WORDS} words and the pages that are written are marked as dirty, so
+ * that a snapshot (see {@link #snapshotPages(char[][])}) only copies the pages written since the previous snapshot.
+ */
+public final class BRAM {
+
+    public static final int PAGE_WORDS = 256;
+    private static final int PAGE_SHIFT = 8;
+
+    private static final VarHandle WORDS = MethodHandles.byteBufferViewVarHandle(char[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final ByteBuffer buffer;
+    private final CharBuffer wordBuffer;
+    private final int depth;
+    private final int addressMask;
+    private final boolean[] dirtyPages;
+    private Device[] devicesOfAddresses;
+    private int[] deviceStartAddressesOfAddresses;
+    private DeviceAccessLog deviceAccessLog;
+    private int watchedAddress;
+    private long watchedWriteCount;
+    private int outputData;
+
+    /**
+     * Instantiates a new {@link BRAM} filled with zeros in a direct buffer.
+     *
+     * @param addressWidth the address width in bits (at most 16)
+     */
+    public BRAM(int addressWidth) {
+        this(addressWidth, null);
+    }
+
+    /**
+     * Instantiates a new {@link BRAM}.
+     *
+     * @param addressWidth the address width in bits (at most 16)
+     * @param buffer       the {@link ByteBuffer} of the words or <code>null</code> to allocate a direct buffer
+     */
+    private BRAM(int addressWidth, ByteBuffer buffer) {
+        checkArgument(addressWidth > 0 && addressWidth <= 16, "The address width must be between 1 and 16 bits.");
+        depth = 1 << addressWidth;
+        addressMask = depth - 1;
+        this.buffer = (buffer != null ? buffer : ByteBuffer.allocateDirect(depth * Character.BYTES))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        wordBuffer = this.buffer.asCharBuffer();
+        dirtyPages = new boolean[Math.max(1, depth >>> PAGE_SHIFT)];
+        Arrays.fill(dirtyPages, true);
+        watchedAddress = -1;
+    }
+
+    /**
+     * Creates a {@link BRAM} whose words are stored in the given file, which is created or extended if it doesn't hold
+     * all the words. The words that are already in the file are kept.
+     *
+     * @param addressWidth the address width in bits (at most 16)
+     * @param file         the file {@link Path}
+     *
+     * @return the {@link BRAM}
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    public static BRAM map(int addressWidth, Path file) throws IOException {
+        checkArgument(addressWidth > 0 && addressWidth <= 16, "The address width must be between 1 and 16 bits.");
+        try (FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            // The mapping stays valid after the channel is closed
+            return new BRAM(addressWidth,
+                    fileChannel.map(FileChannel.MapMode.READ_WRITE, 0, (1L << addressWidth) * Character.BYTES));
+        }
+    }
+
+    /**
+     * Clocks this {@link BRAM} with the given inputs. The output data is only updated if the word isn't written.
+     *
+     * @param address     the address (<code>I_ADDRESS</code>)
+     * @param data        the data (<code>I_DATA</code>)
+     * @param writeEnable the write enable (<code>I_WRITE_ENABLE</code>)
+     */
+    public void clock(int address, int data, boolean writeEnable) {
+        if (writeEnable) {
+            write(address, data);
+        } else {
+            outputData = read(address);
+        }
+    }
+
+    /**
+     * Reads a word without clocking this {@link BRAM}.
+     *
+     * @param address the address
+     *
+     * @return the unsigned 16-bit word
+     */
+    public int read(int address) {
+        final int maskedAddress = address & addressMask;
+        if (devicesOfAddresses != null && devicesOfAddresses[maskedAddress] != null) {
+            final Device device = devicesOfAddresses[maskedAddress];
+            final int offset = maskedAddress - deviceStartAddressesOfAddresses[maskedAddress];
+            return (deviceAccessLog != null ? deviceAccessLog.read(device, offset) : device.read(offset)) & 0xFFFF;
+        }
+        return (char) WORDS.get(buffer, maskedAddress * Character.BYTES);
+    }
+
+    /**
+     * Writes a word without clocking this {@link BRAM}.
+     *
+     * @param address the address
+     * @param word    the 16-bit word
+     */
+    public void write(int address, int word) {
+        final int maskedAddress = address & addressMask;
+        if (devicesOfAddresses != null && devicesOfAddresses[maskedAddress] != null) {
+            final Device device = devicesOfAddresses[maskedAddress];
+            final int offset = maskedAddress - deviceStartAddressesOfAddresses[maskedAddress];
+            if (deviceAccessLog != null) {
+                deviceAccessLog.write(device, offset, word & 0xFFFF);
+            } else {
+                device.write(offset, word & 0xFFFF);
+            }
+            return;
+        }
+        WORDS.set(buffer, maskedAddress * Character.BYTES, (char) word);
+        dirtyPages[maskedAddress >>> PAGE_SHIFT] = true;
+        if (maskedAddress == watchedAddress) {
+            watchedWriteCount++;
+        }
+    }
+
+    /**
+     * Loads the given words starting at address zero, like the <code>$readmemh</code> initialization of
+     * <code>bram.sv</code>.
+     *
+     * @param image the words of the image
+     */
+    public void load(int[] image) {
+        checkArgument(image.length <= depth, "The image of %s words doesn't fit into %s words of memory.",
+                image.length, depth);
+        for (int address = 0; address < image.length; address++) {
+            WORDS.set(buffer, address * Character.BYTES, (char) image[address]);
+        }
+        Arrays.fill(dirtyPages, true);
+    }
+
+    /**
+     * Maps a range of addresses to a {@link Device}. The {@link Device} is called with the offset of an address from
+     * the start address of the range.
+     *
+     * @param startAddress the start address
+     * @param length       the number of addresses
+     * @param device       the {@link Device}
+     */
+    public void mapDevice(int startAddress, int length, Device device) {
+        checkArgument(startAddress >= 0 && length > 0 && startAddress + length <= depth,
+                "The device range of %s words at 0x%s doesn't fit into %s words of memory.", length,
+                Integer.toHexString(startAddress).toUpperCase(), depth);
+        if (devicesOfAddresses == null) {
+            devicesOfAddresses = new Device[depth];
+            deviceStartAddressesOfAddresses = new int[depth];
+        }
+        for (int address = startAddress; address < startAddress + length; address++) {
+            checkArgument(devicesOfAddresses[address] == null, "Address 0x%s is already mapped to a device.",
+                    Integer.toHexString(address).toUpperCase());
+        }
+        for (int address = startAddress; address < startAddress + length; address++) {
+            devicesOfAddresses[address] = device;
+            deviceStartAddressesOfAddresses[address] = startAddress;
+        }
+    }
+
+    /**
+     * Creates the page table of a snapshot of the stored words. The pages that weren't written since the given page
+     * table of the previous snapshot was created are shared with it instead of being copied, and the pages are then
+     * marked as clean.
+     *
+     * @param previousPages the page table of the previous snapshot or <code>null</code> to copy every page
+     *
+     * @return the page table, whose pages must not be modified
+     */
+    public char[][] snapshotPages(char[][] previousPages) {
+        final int pageWords = Math.min(depth, PAGE_WORDS);
+        final char[][] pages = new char[dirtyPages.length][];
+        for (int page = 0; page < pages.length; page++) {
+            if (dirtyPages[page] || previousPages == null) {
+                pages[page] = new char[pageWords];
+                wordBuffer.position(page * pageWords);
+                wordBuffer.get(pages[page]);
+                dirtyPages[page] = false;
+            } else {
+                pages[page] = previousPages[page];
+            }
+        }
+        return pages;
+    }
+
+    /**
+     * Restores the stored words from the page table of a snapshot, after which the pages are clean relative to that
+     * page table.
+     *
+     * @param pages the page table from {@link #snapshotPages(char[][])}
+     */
+    public void restorePages(char[][] pages) {
+        checkArgument(pages.length == dirtyPages.length, "The page table doesn't match the depth of the memory.");
+        for (int page = 0; page < pages.length; page++) {
+            wordBuffer.position(page * pages[page].length);
+            wordBuffer.put(pages[page]);
+            dirtyPages[page] = false;
+        }
+    }
+
+    /**
+     * Writes the words to the storage device if this {@link BRAM} is memory-mapped (see {@link #map(int, Path)}).
+     */
+    public void force() {
+        if (buffer instanceof MappedByteBuffer) {
+            ((MappedByteBuffer) buffer).force();
+        }
+    }
+
+    /**
+     * Gets the number of words in this {@link BRAM}.
+     *
+     * @return the depth
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getOutputData() {
+        return outputData;
+    }
+
+    public DeviceAccessLog getDeviceAccessLog() {
+        return deviceAccessLog;
+    }
+
+    public void setDeviceAccessLog(DeviceAccessLog deviceAccessLog) {
+        this.deviceAccessLog = deviceAccessLog;
+    }
+
+    public int getWatchedAddress() {
+        return watchedAddress;
+    }
+
+    /**
+     * Sets the address whose writes are counted in {@link #getWatchedWriteCount()}.
+     *
+     * @param watchedAddress the address or <code>-1</code> for none
+     */
+    public void setWatchedAddress(int watchedAddress) {
+        this.watchedAddress = watchedAddress < 0 ? -1 : watchedAddress & addressMask;
+    }
+
+    public long getWatchedWriteCount() {
+        return watchedWriteCount;
+    }
+}
@@ -0,0 +1,158 @@
+package io.github.compactrisc16.simulator.memory;
+
+import io.github.compactrisc16.assembler.argument.NumberBase;
+import io.github.compactrisc16.simulator.memory.exception.ImageParseException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * {@link DatReader} contains utility methods to read the <code>.dat</code> machine code images written by the
+ * assembler, which contain one word per line in a given {@link NumberBase}.
+ */
+public final class DatReader {
+
+    /**
+     * Reads the words of a <code>.dat</code> machine code image. Blank lines are ignored. The image is memory-mapped
+     * and its digits are parsed in place, so no {@link String} is created per line unless a line isn't a plain word,
+     * in which case it's handed to {@link Integer#parseInt(String, int)} so that the same words are accepted.
+     *
+     * @param path       the {@link Path} of the image
+     * @param numberBase the {@link NumberBase} of the words
+     *
+     * @return the words
+     *
+     * @throws IOException         thrown for {@link IOException}s
+     * @throws ImageParseException thrown for {@link ImageParseException}s
+     */
+    public static int[] read(Path path, NumberBase numberBase) throws IOException, ImageParseException {
+        final ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        final int radix = getRadix(numberBase);
+        final int size = buffer.limit();
+        // Every non-blank line has at least one digit and a line separator (except for the last line)
+        int[] words = new int[size / 2 + 1];
+        int wordCount = 0;
+        int lineNumber = 0;
+        int lineStart = 0;
+        while (lineStart < size) {
+            lineNumber++;
+            int lineEnd = lineStart;
+            while (lineEnd < size && buffer.get(lineEnd) != '\n' && buffer.get(lineEnd) != '\r') {
+                lineEnd++;
+            }
+            final int nextLineStart = lineEnd + 1 < size && buffer.get(lineEnd) == '\r' &&
+                    buffer.get(lineEnd + 1) == '\n' ? lineEnd + 2 : lineEnd + 1;
+
+            // Strip the line the way 'String.strip()' does for ASCII
+            int wordStart = lineStart;
+            while (wordStart < lineEnd && isWhitespace(buffer.get(wordStart))) {
+                wordStart++;
+            }
+            int wordEnd = lineEnd;
+            while (wordEnd > wordStart && isWhitespace(buffer.get(wordEnd - 1))) {
+                wordEnd--;
+            }
+            lineStart = nextLineStart;
+            if (wordStart == wordEnd) {
+                continue;
+            }
+
+            int word = 0;
+            for (int index = wordStart; index < wordEnd && word != -1; index++) {
+                final int digit = Character.digit(buffer.get(index), radix);
+                word = digit == -1 || word > 0xFFFF ? -1 : word * radix + digit;
+            }
+            if (word == -1 || word > 0xFFFF) {
+                word = parseWord(decode(buffer, wordStart, wordEnd), numberBase, radix, lineNumber);
+            }
+
+            if (wordCount == words.length) {
+                words = Arrays.copyOf(words, wordCount * 2);
+            }
+            words[wordCount++] = word;
+        }
+        return wordCount == words.length ? words : Arrays.copyOf(words, wordCount);
+    }
+
+    /**
+     * Parses a line that isn't a plain word in the given {@link NumberBase} (e.g. one with a sign or non-ASCII
+     * characters) with {@link Integer#parseInt(String, int)}.
+     *
+     * @param line       the stripped line
+     * @param numberBase the {@link NumberBase}
+     * @param radix      the radix of the {@link NumberBase}
+     * @param lineNumber the line number
+     *
+     * @return the word
+     *
+     * @throws ImageParseException thrown if the line isn't a 16-bit word in the {@link NumberBase}
+     */
+    private static int parseWord(String line, NumberBase numberBase, int radix, int lineNumber)
+            throws ImageParseException {
+        final int word;
+        try {
+            word = Integer.parseInt(line, radix);
+        } catch (NumberFormatException exception) {
+            throw new ImageParseException(String.format("\"%s\" is not a %s word.", line, numberBase), lineNumber);
+        }
+        if (word < 0 || word > 0xFFFF) {
+            throw new ImageParseException(String.format("\"%s\" is not a 16-bit word.", line), lineNumber);
+        }
+        return word;
+    }
+
+    /**
+     * Decodes the given range of the given {@link ByteBuffer} as UTF-8.
+     *
+     * @param buffer the {@link ByteBuffer}
+     * @param start  the start index (inclusive)
+     * @param end    the end index (exclusive)
+     *
+     * @return the decoded {@link String}
+     */
+    private static String decode(ByteBuffer buffer, int start, int end) {
+        final byte[] bytes = new byte[end - start];
+        buffer.duplicate().position(start).get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Checks if the given byte is an ASCII whitespace character according to {@link Character#isWhitespace(int)}.
+     *
+     * @param character the byte
+     *
+     * @return <code>true</code> if it's whitespace
+     */
+    private static boolean isWhitespace(byte character) {
+        return character == ' ' || character >= '\t' && character <= '\r' || character >= 0x1C && character <= 0x1F;
+    }
+
+    /**
+     * Gets the radix of the given {@link NumberBase}.
+     *
+     * @param numberBase the {@link NumberBase}
+     *
+     * @return the radix
+     */
+    private static int getRadix(NumberBase numberBase) {
+        switch (numberBase) {
+            case BINARY:
+                return 2;
+            case DECIMAL:
+                return 10;
+            case HEX:
+                return 16;
+            default:
+                throw new UnsupportedOperationException();
+        }
+    }
+}
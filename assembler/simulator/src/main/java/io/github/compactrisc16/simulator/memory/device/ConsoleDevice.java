@@ -0,0 +1,31 @@
+package io.github.compactrisc16.simulator.memory.device;
+
+import java.io.PrintStream;
+
+/**
+ * {@link ConsoleDevice} is a one word {@link Device} that prints each word written to it as a character and reads as
+ * zero.
+ */
+public class ConsoleDevice implements Device {
+
+    private final PrintStream out;
+
+    /**
+     * Instantiates a new {@link ConsoleDevice}.
+     *
+     * @param out the {@link PrintStream} to print characters to
+     */
+    public ConsoleDevice(PrintStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public int read(int offset) {
+        return 0;
+    }
+
+    @Override
+    public void write(int offset, int word) {
+        out.print((char) word);
+    }
+}
@@ -0,0 +1,29 @@
+package io.github.compactrisc16.simulator.memory.device;
+
+import io.github.compactrisc16.simulator.memory.BRAM;
+
+/**
+ * {@link Device} represents a peripheral that is mapped to a range of addresses of a {@link BRAM} (see {@link
+ * BRAM#mapDevice(int, int, Device)}), typically of the external memory that <code>LOADX</code> and
+ * <code>STOREX</code> access. Note that the cycle-accurate engine clocks the external memory on every cycle, so
+ * {@link #read(int)} may be called whenever its address is on the bus and shouldn't have side effects.
+ */
+public interface Device {
+
+    /**
+     * Reads a word from this {@link Device}.
+     *
+     * @param offset the offset of the address from the start of the mapped range
+     *
+     * @return the 16-bit word
+     */
+    int read(int offset);
+
+    /**
+     * Writes a word to this {@link Device}.
+     *
+     * @param offset the offset of the address from the start of the mapped range
+     * @param word   the unsigned 16-bit word
+     */
+    void write(int offset, int word);
+}
@@ -0,0 +1,88 @@
+package io.github.compactrisc16.simulator.memory.device;
+
+import java.util.Arrays;
+
+/**
+ * {@link DeviceAccessLog} records the reads and writes of {@link Device}s in order so that a run that is resumed from
+ * a snapshot replays them deterministically. While the position of the {@link DeviceAccessLog} is before its end, reads
+ * return the recorded words and writes are skipped, since they already reached the {@link Device}. Past the end,
+ * accesses reach the {@link Device} and are recorded.
+ */
+public class DeviceAccessLog {
+
+    private static final int WRITE = -1; // The entry of a write, whereas a read is recorded as the word that was read
+
+    private int[] entries;
+    private int length;
+    private int position;
+
+    /**
+     * Instantiates a new {@link DeviceAccessLog}.
+     */
+    public DeviceAccessLog() {
+        entries = new int[64];
+    }
+
+    /**
+     * Reads a word from a {@link Device} or replays the recorded read.
+     *
+     * @param device the {@link Device}
+     * @param offset the offset of the address from the start of the mapped range
+     *
+     * @return the word
+     */
+    public int read(Device device, int offset) {
+        if (position < length) {
+            return entries[position++];
+        }
+        final int word = device.read(offset) & 0xFFFF;
+        append(word);
+        return word;
+    }
+
+    /**
+     * Writes a word to a {@link Device} or skips the recorded write.
+     *
+     * @param device the {@link Device}
+     * @param offset the offset of the address from the start of the mapped range
+     * @param word   the unsigned 16-bit word
+     */
+    public void write(Device device, int offset, int word) {
+        if (position < length) {
+            position++;
+            return;
+        }
+        device.write(offset, word);
+        append(WRITE);
+    }
+
+    /**
+     * Appends an entry at the end of this {@link DeviceAccessLog}.
+     *
+     * @param entry the entry
+     */
+    private void append(int entry) {
+        if (length == entries.length) {
+            entries = Arrays.copyOf(entries, length * 2);
+        }
+        entries[length++] = entry;
+        position = length;
+    }
+
+    /**
+     * Gets the number of recorded accesses.
+     *
+     * @return the length
+     */
+    public int getLength() {
+        return length;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public void setPosition(int position) {
+        this.position = position;
+    }
+}
@@ -0,0 +1,26 @@
+package io.github.compactrisc16.simulator.memory.exception;
+
+/**
+ * {@link ImageParseException} represents a (checked) {@link Exception} thrown when a machine code image parse procedure
+ * produces an error.
+ */
+public class ImageParseException extends Exception {
+
+    private final Integer lineNumber;
+
+    /**
+     * Instantiates a new {@link ImageParseException}.
+     *
+     * @param message    the message
+     * @param lineNumber the line number (<code>null</code> to disregard)
+     */
+    public ImageParseException(String message, Integer lineNumber) {
+        super(message);
+        this.lineNumber = lineNumber;
+    }
+
+    @Override
+    public String getMessage() {
+        return lineNumber == null ? super.getMessage() : "On line " + lineNumber + ": " + super.getMessage();
+    }
+}
@@ -0,0 +1,86 @@
+package io.github.compactrisc16.simulator.profile;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * {@link CallTreeNode} is a node of the calling context tree of an {@link ExecutionProfile}: a subroutine that was
+ * called through the chain of subroutines of its ancestors. The root node is the code that runs outside of any call.
+ */
+public class CallTreeNode {
+
+    private final int address;
+    private final CallTreeNode parent;
+    private final List<CallTreeNode> children;
+    private long selfCycles;
+    private long calls;
+
+    /**
+     * Instantiates a new {@link CallTreeNode}.
+     *
+     * @param address the address of the called subroutine (the call target)
+     * @param parent  the parent {@link CallTreeNode} or <code>null</code> for the root
+     */
+    public CallTreeNode(int address, CallTreeNode parent) {
+        this.address = address;
+        this.parent = parent;
+        children = new ArrayList<>(0);
+    }
+
+    /**
+     * Gets the child {@link CallTreeNode} of the given subroutine address, creating it if it doesn't exist yet. The
+     * children are searched linearly, since a subroutine rarely calls more than a few others, and this doesn't box the
+     * address.
+     *
+     * @param address the subroutine address
+     *
+     * @return the child {@link CallTreeNode}
+     */
+    public CallTreeNode getOrCreateChild(int address) {
+        for (int index = 0, size = children.size(); index < size; index++) {
+            final CallTreeNode child = children.get(index);
+            if (child.address == address) {
+                return child;
+            }
+        }
+        final CallTreeNode child = new CallTreeNode(address, this);
+        children.add(child);
+        return child;
+    }
+
+    public int getAddress() {
+        return address;
+    }
+
+    public CallTreeNode getParent() {
+        return parent;
+    }
+
+    public List<CallTreeNode> getChildren() {
+        return Collections.unmodifiableList(children);
+    }
+
+    /**
+     * Gets the cycles spent in this {@link CallTreeNode}, excluding its children. The cycles of a <code>CALL</code>
+     * or <code>CALLD</code> instruction belong to the caller and those of a <code>RET</code> instruction belong to the
+     * callee.
+     *
+     * @return the self cycles
+     */
+    public long getSelfCycles() {
+        return selfCycles;
+    }
+
+    void addSelfCycles(long cycles) {
+        selfCycles += cycles;
+    }
+
+    public long getCalls() {
+        return calls;
+    }
+
+    void incrementCalls() {
+        calls++;
+    }
+}
@@ -0,0 +1,172 @@
+package io.github.compactrisc16.simulator.profile;
+
+import io.github.compactrisc16.simulator.engine.InterpreterEngine;
+
+import java.util.Arrays;
+
+/**
+ * {@link ExecutionProfile} collects the cycles and executions of every instruction address, the taken backward jumps
+ * and branches (the back edges of loops), and a calling context tree of the subroutines that an {@link
+ * InterpreterEngine} runs (see {@link InterpreterEngine#setProfile(ExecutionProfile)}). The per-address counters are
+ * plain arrays that the interpreter loop adds to directly, and the calling context tree is only updated by
+ * <code>CALL</code>, <code>CALLD</code>, and <code>RET</code>, so profiling costs a few array writes per instruction.
+ * <br>
+ * A call pushes a frame with the address of the stack word that the return address was written to (the
+ * <code>rsp</code> before the call). A <code>RET</code> that reads its return address from the stack word of a frame
+ * returns from that frame and every frame above it, so a subroutine that discards the return address of its callee
+ * (e.g. by moving <code>rsp</code>) doesn't leave stale frames behind. A <code>RET</code> that doesn't match a frame is
+ * treated as a jump.
+ */
+public class ExecutionProfile {
+
+    /**
+     * The number of addresses that the PC can hold.
+     */
+    public static final int ADDRESS_COUNT = 1 << 16;
+
+    private static final int INITIAL_STACK_CAPACITY = 16;
+
+    private final long[] cyclesOfAddresses;
+    private final long[] executionsOfAddresses;
+    private final long[] backEdgeCountsOfAddresses;
+    private final int[] backEdgeTargetsOfAddresses;
+    private final CallTreeNode rootNode;
+    private CallTreeNode[] frameNodes;
+    private int[] frameReturnSlots;
+    private int depth;
+    private long lastEventCycles;
+
+    /**
+     * Instantiates a new {@link ExecutionProfile}.
+     *
+     * @param rootAddress the address that the program starts at, which is the address of the root {@link
+     *                    CallTreeNode}
+     * @param startCycles the cycles of the engine when profiling starts
+     */
+    public ExecutionProfile(int rootAddress, long startCycles) {
+        cyclesOfAddresses = new long[ADDRESS_COUNT];
+        executionsOfAddresses = new long[ADDRESS_COUNT];
+        backEdgeCountsOfAddresses = new long[ADDRESS_COUNT];
+        backEdgeTargetsOfAddresses = new int[ADDRESS_COUNT];
+        rootNode = new CallTreeNode(rootAddress, null);
+        frameNodes = new CallTreeNode[INITIAL_STACK_CAPACITY];
+        frameReturnSlots = new int[INITIAL_STACK_CAPACITY];
+        frameNodes[0] = rootNode;
+        frameReturnSlots[0] = -1;
+        lastEventCycles = startCycles;
+    }
+
+    /**
+     * Records a taken jump or branch. Only backward ones (including those to themselves) are recorded, as the back
+     * edges of loops.
+     *
+     * @param instructionAddress the address of the jump or branch
+     * @param targetAddress      the address that it jumped to
+     */
+    public void taken(int instructionAddress, int targetAddress) {
+        if (targetAddress <= instructionAddress) {
+            backEdgeCountsOfAddresses[instructionAddress]++;
+            backEdgeTargetsOfAddresses[instructionAddress] = targetAddress;
+        }
+    }
+
+    /**
+     * Records a <code>CALL</code> or <code>CALLD</code>.
+     *
+     * @param targetAddress   the address of the called subroutine
+     * @param returnSlot      the address of the stack word that the return address was written to
+     * @param cyclesAfterCall the cycles after the call instruction
+     */
+    public void called(int targetAddress, int returnSlot, long cyclesAfterCall) {
+        frameNodes[depth].addSelfCycles(cyclesAfterCall - lastEventCycles);
+        lastEventCycles = cyclesAfterCall;
+
+        if (++depth == frameNodes.length) {
+            frameNodes = Arrays.copyOf(frameNodes, depth * 2);
+            frameReturnSlots = Arrays.copyOf(frameReturnSlots, depth * 2);
+        }
+        final CallTreeNode node = frameNodes[depth - 1].getOrCreateChild(targetAddress);
+        node.incrementCalls();
+        frameNodes[depth] = node;
+        frameReturnSlots[depth] = returnSlot;
+    }
+
+    /**
+     * Records a <code>RET</code>.
+     *
+     * @param returnSlot        the address of the stack word that the return address was read from
+     * @param cyclesAfterReturn the cycles after the <code>RET</code> instruction
+     */
+    public void returned(int returnSlot, long cyclesAfterReturn) {
+        for (int frameDepth = depth; frameDepth > 0; frameDepth--) {
+            if (frameReturnSlots[frameDepth] == returnSlot) {
+                frameNodes[depth].addSelfCycles(cyclesAfterReturn - lastEventCycles);
+                lastEventCycles = cyclesAfterReturn;
+                depth = frameDepth - 1;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Attributes the cycles since the last call or return to the current subroutine. This should be called after the
+     * engine stops so that the {@link CallTreeNode}s add up to the profiled cycles.
+     *
+     * @param cycles the cycles of the engine
+     */
+    public void flush(long cycles) {
+        frameNodes[depth].addSelfCycles(cycles - lastEventCycles);
+        lastEventCycles = cycles;
+    }
+
+    /**
+     * Gets the cycles of each instruction address, which includes the fetch of the instruction that halted the
+     * program. The interpreter adds to this array directly.
+     *
+     * @return the cycles indexed by address
+     */
+    public long[] getCyclesOfAddresses() {
+        return cyclesOfAddresses;
+    }
+
+    /**
+     * Gets the number of times that each instruction address was fetched. The interpreter adds to this array
+     * directly.
+     *
+     * @return the executions indexed by address
+     */
+    public long[] getExecutionsOfAddresses() {
+        return executionsOfAddresses;
+    }
+
+    /**
+     * Gets the number of times that the jump or branch at each address was taken backward.
+     *
+     * @return the back edge counts indexed by address
+     */
+    public long[] getBackEdgeCountsOfAddresses() {
+        return backEdgeCountsOfAddresses;
+    }
+
+    /**
+     * Gets the target address of the last taken backward jump or branch at each address.
+     *
+     * @return the back edge targets indexed by address
+     */
+    public int[] getBackEdgeTargetsOfAddresses() {
+        return backEdgeTargetsOfAddresses;
+    }
+
+    public CallTreeNode getRootNode() {
+        return rootNode;
+    }
+
+    /**
+     * Gets the {@link CallTreeNode} of the subroutine that is currently executing.
+     *
+     * @return the {@link CallTreeNode}
+     */
+    public CallTreeNode getCurrentNode() {
+        return frameNodes[depth];
+    }
+}
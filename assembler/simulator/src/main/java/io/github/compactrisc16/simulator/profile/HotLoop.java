@@ -0,0 +1,61 @@
+package io.github.compactrisc16.simulator.profile;
+
+/**
+ * {@link HotLoop} represents a loop found in an {@link ExecutionProfile}: the addresses from the target of one or more
+ * taken backward jumps or branches (the loop header) to the last of them.
+ */
+public class HotLoop {
+
+    private final int startAddress;
+    private int endAddress;
+    private long iterations;
+    private long cycles;
+
+    /**
+     * Instantiates a new {@link HotLoop}.
+     *
+     * @param startAddress the address of the loop header
+     */
+    public HotLoop(int startAddress) {
+        this.startAddress = startAddress;
+    }
+
+    public int getStartAddress() {
+        return startAddress;
+    }
+
+    public int getEndAddress() {
+        return endAddress;
+    }
+
+    public void setEndAddress(int endAddress) {
+        this.endAddress = endAddress;
+    }
+
+    /**
+     * Gets the number of taken back edges, which is the number of iterations that jumped back to the loop header.
+     *
+     * @return the iterations
+     */
+    public long getIterations() {
+        return iterations;
+    }
+
+    public void setIterations(long iterations) {
+        this.iterations = iterations;
+    }
+
+    /**
+     * Gets the cycles of the instructions between the start and end addresses, excluding those of called
+     * subroutines.
+     *
+     * @return the cycles
+     */
+    public long getCycles() {
+        return cycles;
+    }
+
+    public void setCycles(long cycles) {
+        this.cycles = cycles;
+    }
+}
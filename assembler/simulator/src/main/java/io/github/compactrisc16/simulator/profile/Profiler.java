@@ -0,0 +1,425 @@
+package io.github.compactrisc16.simulator.profile;
+
+import com.beust.jcommander.ParameterException;
+import io.github.compactrisc16.assembler.Assembler;
+import io.github.compactrisc16.assembler.assembly.exception.AssemblyParseException;
+import io.github.compactrisc16.simulator.HaltReason;
+import io.github.compactrisc16.simulator.argument.ProfilerArguments;
+import io.github.compactrisc16.simulator.engine.InterpreterEngine;
+import io.github.compactrisc16.simulator.memory.BRAM;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * {@link Profiler} assembles an assembly code file in memory, runs it on an {@link InterpreterEngine} with an {@link
+ * ExecutionProfile}, and reports where the cycles were spent: the cycles of each {@link SymbolTable} label, the hot
+ * loops, the hot source lines, and the call tree. The call tree can also be written as folded stacks (one
+ * <code>frame;frame;frame cycles</code> line per call path) for flame graph tools.
+ */
+public class Profiler {
+
+    private static final PrintStream NULL_PRINT_STREAM = new PrintStream(OutputStream.nullOutputStream());
+    private static final String SOURCE_LINE_SEPARATOR_REGEX = "\r\n|\r|\n";
+    /**
+     * The share of the total cycles that a {@link CallTreeNode} needs to be printed in the call tree.
+     */
+    private static final double MIN_CALL_TREE_SHARE = 0.01;
+
+    private final String[] argumentStrings;
+    private final Path workingDirectory;
+    private final PrintStream out;
+    private final PrintStream err;
+    private ProfilerArguments arguments;
+    private InterpreterEngine engine;
+    private ExecutionProfile profile;
+    private SymbolTable symbolTable;
+    private String[] sourceLines;
+
+    /**
+     * Instantiates a new {@link Profiler} that resolves relative paths against the current working directory and
+     * prints to {@link System#out} and {@link System#err}.
+     *
+     * @param argumentStrings the input argument {@link String}s
+     */
+    public Profiler(String[] argumentStrings) {
+        this(argumentStrings, Path.of("").toAbsolutePath(), System.out, System.err);
+    }
+
+    /**
+     * Instantiates a new {@link Profiler}.
+     *
+     * @param argumentStrings  the input argument {@link String}s
+     * @param workingDirectory the absolute {@link Path} that relative paths are resolved against
+     * @param out              the {@link PrintStream} for the usage and the report
+     * @param err              the {@link PrintStream} for exceptions
+     */
+    public Profiler(String[] argumentStrings, Path workingDirectory, PrintStream out, PrintStream err) {
+        this.argumentStrings = argumentStrings;
+        this.workingDirectory = workingDirectory;
+        this.out = out;
+        this.err = err;
+    }
+
+    /**
+     * Parses the {@link ProfilerArguments}, profiles the program until it halts, prints the report, and writes the
+     * folded stacks.
+     *
+     * @return <code>true</code> if the program was profiled successfully
+     */
+    public boolean run() {
+        arguments = new ProfilerArguments(argumentStrings, workingDirectory);
+        try {
+            arguments.parse();
+        } catch (ParameterException exception) {
+            StringBuilder usage = new StringBuilder();
+            exception.getJCommander().getUsageFormatter().usage(usage);
+            out.print(usage);
+            return false;
+        } catch (IllegalArgumentException exception) {
+            printException(exception);
+            return false;
+        }
+
+        try {
+            load();
+        } catch (Exception exception) {
+            printException(exception);
+            return false;
+        }
+
+        final long startNanoTime = System.nanoTime();
+        final HaltReason haltReason = engine.run(arguments.getMaxCycles());
+        profile.flush(engine.getCycles());
+        final long elapsedNanos = System.nanoTime() - startNanoTime;
+
+        final Map<CallTreeNode, Long> totalCyclesOfNodes = computeTotalCycles(profile.getRootNode());
+        printReport(haltReason, elapsedNanos, totalCyclesOfNodes);
+        if (arguments.getFoldedStacksFile() != null) {
+            try (Writer writer = Files.newBufferedWriter(arguments.getFoldedStacksFile().toPath(),
+                    StandardCharsets.UTF_8)) {
+                writeFoldedStacks(writer);
+            } catch (IOException exception) {
+                printException(exception);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Assembles the {@link ProfilerArguments#getAssemblyFile()} in memory and loads it into a new {@link
+     * InterpreterEngine} with an {@link ExecutionProfile}.
+     *
+     * @throws IOException              thrown for {@link IOException}s
+     * @throws AssemblyParseException   thrown for {@link AssemblyParseException}s
+     * @throws IllegalArgumentException thrown if the program doesn't fit in the main memory
+     */
+    private void load() throws IOException, AssemblyParseException, IllegalArgumentException {
+        final String assembly = Files.readString(arguments.getAssemblyFile().toPath());
+        sourceLines = assembly.split(SOURCE_LINE_SEPARATOR_REGEX, -1);
+        // Warnings (e.g. unused labels) don't affect the profile, so they aren't printed
+        final Assembler assembler = new Assembler(new String[0], workingDirectory, NULL_PRINT_STREAM,
+                NULL_PRINT_STREAM);
+        final int[] image = assembler.assemble(assembly);
+        symbolTable = new SymbolTable(assembler.getLabels(), assembler.getAssembledLines());
+
+        final BRAM memory = new BRAM(arguments.getAddressWidth());
+        memory.load(image);
+        engine = new InterpreterEngine(memory, new BRAM(arguments.getAddressWidth()), image.length);
+        profile = new ExecutionProfile(engine.getInstructionAddress(), engine.getCycles());
+        engine.setProfile(profile);
+    }
+
+    /**
+     * Prints the report of the {@link ExecutionProfile}.
+     *
+     * @param haltReason         the {@link HaltReason}
+     * @param elapsedNanos       the elapsed wall time of the profiled run in nanoseconds
+     * @param totalCyclesOfNodes the total cycles of the {@link CallTreeNode}s
+     */
+    private void printReport(HaltReason haltReason, long elapsedNanos, Map<CallTreeNode, Long> totalCyclesOfNodes) {
+        final long totalCycles = engine.getCycles();
+        out.printf("Halted at 0x%04X (%s) after %s.%n", engine.getInstructionAddress(),
+                symbolTable.formatAddress(engine.getInstructionAddress()), haltReason.getDescription());
+        out.printf("Profiled %d cycles for %d instructions in %d ms.%n", totalCycles, engine.getInstructions(),
+                elapsedNanos / 1_000_000);
+        printLabels(totalCycles);
+        printHotLoops(totalCycles);
+        printHotLines(totalCycles);
+        printCallTree(totalCycles, totalCyclesOfNodes);
+    }
+
+    /**
+     * Prints the cycles and instructions of each label that has any, from the most cycles to the least.
+     *
+     * @param totalCycles the total cycles
+     */
+    private void printLabels(long totalCycles) {
+        final long[] cyclesOfAddresses = profile.getCyclesOfAddresses();
+        final long[] executionsOfAddresses = profile.getExecutionsOfAddresses();
+        // Index 0 is the code before the first label
+        final int labelCount = symbolTable.getLabelCount();
+        final long[] cyclesOfLabels = new long[labelCount + 1];
+        final long[] instructionsOfLabels = new long[labelCount + 1];
+        for (int address = 0; address < ExecutionProfile.ADDRESS_COUNT; address++) {
+            if (executionsOfAddresses[address] != 0) {
+                final int labelIndex = symbolTable.getLabelIndex(address) + 1;
+                cyclesOfLabels[labelIndex] += cyclesOfAddresses[address];
+                instructionsOfLabels[labelIndex] += executionsOfAddresses[address];
+            }
+        }
+
+        final List<Integer> labelIndices = new ArrayList<>();
+        for (int labelIndex = 0; labelIndex <= labelCount; labelIndex++) {
+            if (instructionsOfLabels[labelIndex] != 0) {
+                labelIndices.add(labelIndex);
+            }
+        }
+        labelIndices.sort(Comparator.comparingLong(labelIndex -> -cyclesOfLabels[labelIndex]));
+
+        out.println("Cycles per label:");
+        for (int labelIndex : labelIndices) {
+            final int address = labelIndex == 0 ? 0 : symbolTable.getLabelAddress(labelIndex - 1);
+            out.printf("  %12d %5.1f%% %12d instructions  %s (line %d)%n", cyclesOfLabels[labelIndex],
+                    percent(cyclesOfLabels[labelIndex], totalCycles), instructionsOfLabels[labelIndex],
+                    symbolTable.formatAddress(address), symbolTable.getSourceLineNumber(address));
+        }
+    }
+
+    /**
+     * Prints the {@link ProfilerArguments#getTopCount()} {@link HotLoop}s with the most cycles. The back edges that
+     * jump to the same loop header are merged into one {@link HotLoop}.
+     *
+     * @param totalCycles the total cycles
+     */
+    private void printHotLoops(long totalCycles) {
+        final long[] cyclesOfAddresses = profile.getCyclesOfAddresses();
+        final long[] backEdgeCountsOfAddresses = profile.getBackEdgeCountsOfAddresses();
+        final int[] backEdgeTargetsOfAddresses = profile.getBackEdgeTargetsOfAddresses();
+        final Map<Integer, HotLoop> hotLoopsOfStartAddresses = new TreeMap<>();
+        for (int address = 0; address < ExecutionProfile.ADDRESS_COUNT; address++) {
+            if (backEdgeCountsOfAddresses[address] != 0) {
+                final HotLoop hotLoop = hotLoopsOfStartAddresses.computeIfAbsent(backEdgeTargetsOfAddresses[address],
+                        HotLoop::new);
+                hotLoop.setEndAddress(Math.max(hotLoop.getEndAddress(), address));
+                hotLoop.setIterations(hotLoop.getIterations() + backEdgeCountsOfAddresses[address]);
+            }
+        }
+
+        final List<HotLoop> hotLoops = new ArrayList<>(hotLoopsOfStartAddresses.values());
+        for (HotLoop hotLoop : hotLoops) {
+            long cycles = 0;
+            for (int address = hotLoop.getStartAddress(); address <= hotLoop.getEndAddress(); address++) {
+                cycles += cyclesOfAddresses[address];
+            }
+            hotLoop.setCycles(cycles);
+        }
+        hotLoops.sort(Comparator.comparingLong(hotLoop -> -hotLoop.getCycles()));
+
+        out.println("Hot loops:");
+        for (HotLoop hotLoop : hotLoops.subList(0, Math.min(arguments.getTopCount(), hotLoops.size()))) {
+            out.printf("  %12d %5.1f%% %12d iterations %8.1f cycles per iteration  %s to %s (lines %d to %d)%n",
+                    hotLoop.getCycles(), percent(hotLoop.getCycles(), totalCycles), hotLoop.getIterations(),
+                    (double) hotLoop.getCycles() / hotLoop.getIterations(),
+                    symbolTable.formatAddress(hotLoop.getStartAddress()),
+                    symbolTable.formatAddress(hotLoop.getEndAddress()),
+                    symbolTable.getSourceLineNumber(hotLoop.getStartAddress()),
+                    symbolTable.getSourceLineNumber(hotLoop.getEndAddress()));
+        }
+    }
+
+    /**
+     * Prints the {@link ProfilerArguments#getTopCount()} source lines with the most cycles. A source line can have
+     * several addresses, such as the <code>MOVIL</code>, <code>MOVIU</code>, and jump that a label reference expands
+     * to, or the instructions of a macro.
+     *
+     * @param totalCycles the total cycles
+     */
+    private void printHotLines(long totalCycles) {
+        final long[] cyclesOfAddresses = profile.getCyclesOfAddresses();
+        final long[] executionsOfAddresses = profile.getExecutionsOfAddresses();
+        final long[] cyclesOfLines = new long[sourceLines.length + 1];
+        final long[] executionsOfLines = new long[sourceLines.length + 1];
+        final int[] addressesOfLines = new int[sourceLines.length + 1];
+        for (int address = Math.min(symbolTable.getProgramLength(), ExecutionProfile.ADDRESS_COUNT) - 1;
+                address >= 0; address--) {
+            final int lineNumber = symbolTable.getSourceLineNumber(address);
+            cyclesOfLines[lineNumber] += cyclesOfAddresses[address];
+            // The executions of the first address of a line are the executions of the line
+            executionsOfLines[lineNumber] = executionsOfAddresses[address];
+            addressesOfLines[lineNumber] = address;
+        }
+
+        final List<Integer> lineNumbers = new ArrayList<>();
+        for (int lineNumber = 1; lineNumber <= sourceLines.length; lineNumber++) {
+            if (cyclesOfLines[lineNumber] != 0) {
+                lineNumbers.add(lineNumber);
+            }
+        }
+        lineNumbers.sort(Comparator.comparingLong(lineNumber -> -cyclesOfLines[lineNumber]));
+
+        out.println("Hot lines:");
+        for (int lineNumber : lineNumbers.subList(0, Math.min(arguments.getTopCount(), lineNumbers.size()))) {
+            out.printf("  %12d %5.1f%% %12d executions  line %d (%s): %s%n", cyclesOfLines[lineNumber],
+                    percent(cyclesOfLines[lineNumber], totalCycles), executionsOfLines[lineNumber], lineNumber,
+                    symbolTable.formatAddress(addressesOfLines[lineNumber]), sourceLines[lineNumber - 1].strip());
+        }
+    }
+
+    /**
+     * Prints the {@link CallTreeNode}s that have at least {@link #MIN_CALL_TREE_SHARE} of the total cycles, indented
+     * by their depth and with the children of each {@link CallTreeNode} sorted from the most cycles to the least.
+     *
+     * @param totalCycles        the total cycles
+     * @param totalCyclesOfNodes the total cycles of the {@link CallTreeNode}s
+     */
+    private void printCallTree(long totalCycles, Map<CallTreeNode, Long> totalCyclesOfNodes) {
+        out.println("Call tree:");
+        final Comparator<CallTreeNode> totalCyclesComparator = Comparator.comparingLong(totalCyclesOfNodes::get);
+        // Deep recursion makes deep trees, so they're walked with an explicit stack
+        final Deque<CallTreeNode> nodes = new ArrayDeque<>();
+        final Deque<Integer> depths = new ArrayDeque<>();
+        nodes.push(profile.getRootNode());
+        depths.push(0);
+        while (!nodes.isEmpty()) {
+            final CallTreeNode node = nodes.pop();
+            final int depth = depths.pop();
+            final long nodeTotalCycles = totalCyclesOfNodes.get(node);
+            out.printf("  %12d %5.1f%% %12d self cycles %10d calls  %s%s%n", nodeTotalCycles,
+                    percent(nodeTotalCycles, totalCycles), node.getSelfCycles(), node.getCalls(),
+                    "  ".repeat(depth), symbolTable.formatAddress(node.getAddress()));
+
+            final List<CallTreeNode> children = new ArrayList<>(node.getChildren());
+            // Pushed from the fewest cycles to the most, so that the children are popped from the most to the fewest
+            children.sort(totalCyclesComparator);
+            for (CallTreeNode child : children) {
+                if (totalCyclesOfNodes.get(child) >= totalCycles * MIN_CALL_TREE_SHARE) {
+                    nodes.push(child);
+                    depths.push(depth + 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes a folded stack line (<code>frame;frame;frame selfCycles</code>) for each {@link CallTreeNode} with self
+     * cycles, where the frames are the formatted addresses of the root and the called subroutines.
+     *
+     * @param writer the {@link Writer}
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    private void writeFoldedStacks(Writer writer) throws IOException {
+        final StringBuilder stack = new StringBuilder();
+        final Deque<CallTreeNode> nodes = new ArrayDeque<>();
+        final Deque<Integer> parentStackLengths = new ArrayDeque<>();
+        nodes.push(profile.getRootNode());
+        parentStackLengths.push(0);
+        while (!nodes.isEmpty()) {
+            final CallTreeNode node = nodes.pop();
+            final int parentStackLength = parentStackLengths.pop();
+            stack.setLength(parentStackLength);
+            if (parentStackLength != 0) {
+                stack.append(';');
+            }
+            stack.append(symbolTable.formatAddress(node.getAddress()));
+
+            if (node.getSelfCycles() != 0) {
+                writer.append(stack).append(' ').append(Long.toString(node.getSelfCycles())).append('\n');
+            }
+            for (CallTreeNode child : node.getChildren()) {
+                nodes.push(child);
+                parentStackLengths.push(stack.length());
+            }
+        }
+    }
+
+    /**
+     * Computes the total cycles of each {@link CallTreeNode} (its self cycles and those of its descendants).
+     *
+     * @param rootNode the root {@link CallTreeNode}
+     *
+     * @return the {@link Map} of the total cycles of the {@link CallTreeNode}s
+     */
+    private static Map<CallTreeNode, Long> computeTotalCycles(CallTreeNode rootNode) {
+        // Collect the nodes in pre-order, so that every node comes after its parent
+        final List<CallTreeNode> preOrderNodes = new ArrayList<>();
+        final Deque<CallTreeNode> nodes = new ArrayDeque<>();
+        nodes.push(rootNode);
+        while (!nodes.isEmpty()) {
+            final CallTreeNode node = nodes.pop();
+            preOrderNodes.add(node);
+            node.getChildren().forEach(nodes::push);
+        }
+
+        final Map<CallTreeNode, Long> totalCyclesOfNodes = new IdentityHashMap<>(preOrderNodes.size());
+        for (int index = preOrderNodes.size() - 1; index >= 0; index--) {
+            final CallTreeNode node = preOrderNodes.get(index);
+            final long totalCycles = totalCyclesOfNodes.getOrDefault(node, 0L) + node.getSelfCycles();
+            totalCyclesOfNodes.put(node, totalCycles);
+            if (node.getParent() != null) {
+                totalCyclesOfNodes.merge(node.getParent(), totalCycles, Long::sum);
+            }
+        }
+        return totalCyclesOfNodes;
+    }
+
+    /**
+     * Computes a percentage.
+     *
+     * @param cycles      the cycles
+     * @param totalCycles the total cycles
+     *
+     * @return the percentage of <code>cycles</code> in <code>totalCycles</code>
+     */
+    private static double percent(long cycles, long totalCycles) {
+        return totalCycles == 0 ? 0d : 100d * cycles / totalCycles;
+    }
+
+    /**
+     * Prints the given {@link Exception} or its stack trace in debug mode.
+     *
+     * @param exception the {@link Exception}
+     */
+    private void printException(Exception exception) {
+        if (arguments != null && arguments.isDebug()) {
+            exception.printStackTrace(err);
+        } else {
+            err.println(exception.getClass().getSimpleName() + ": " + exception.getMessage());
+        }
+    }
+
+    public ProfilerArguments getArguments() {
+        return arguments;
+    }
+
+    public ExecutionProfile getProfile() {
+        return profile;
+    }
+
+    /**
+     * The entry point of application. Exits with a status of <code>1</code> if the program couldn't be profiled.
+     *
+     * @param args the input arguments
+     */
+    public static void main(String[] args) {
+        Profiler profiler = new Profiler(args);
+        if (!profiler.run()) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package io.github.compactrisc16.simulator.profile;
+
+import io.github.compactrisc16.assembler.Assembler;
+import io.github.compactrisc16.assembler.assembly.Label;
+import io.github.compactrisc16.assembler.assembly.Line;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * {@link SymbolTable} maps the addresses of a program assembled by {@link Assembler#assemble(CharSequence)} back to
+ * its {@link Label}s and assembly code source lines. An address belongs to the {@link Label} at or before it, so a
+ * {@link Label} names the range of addresses up to the next {@link Label}.
+ */
+public class SymbolTable {
+
+    private final int[] labelAddresses;
+    private final String[] labelNames;
+    private final int[] sourceLineNumbers;
+
+    /**
+     * Instantiates a new {@link SymbolTable}.
+     *
+     * @param labels         the {@link Label}s (see {@link Assembler#getLabels()})
+     * @param assembledLines the resolved {@link Line}s indexed by address (see {@link
+     *                       Assembler#getAssembledLines()})
+     */
+    public SymbolTable(List<Label> labels, List<Line> assembledLines) {
+        final Label[] sortedLabels = labels.stream()
+                .sorted(Comparator.comparingInt(Label::getAddress))
+                .toArray(Label[]::new);
+        labelAddresses = new int[sortedLabels.length];
+        labelNames = new String[sortedLabels.length];
+        for (int index = 0; index < sortedLabels.length; index++) {
+            labelAddresses[index] = sortedLabels[index].getAddress();
+            labelNames[index] = sortedLabels[index].getName();
+        }
+        sourceLineNumbers = assembledLines.stream().mapToInt(Line::getSourceLineNumber).toArray();
+    }
+
+    /**
+     * Gets the index of the {@link Label} that the given address belongs to.
+     *
+     * @param address the address
+     *
+     * @return the label index or <code>-1</code> if the address is before the first {@link Label}
+     */
+    public int getLabelIndex(int address) {
+        // Every label points to a different line, so the label addresses are distinct
+        final int index = Arrays.binarySearch(labelAddresses, address);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    /**
+     * Formats the given address relative to the {@link Label} that it belongs to, like <code>.loop</code> or
+     * <code>.loop+3</code>, or as a hex number if it's before the first {@link Label}.
+     *
+     * @param address the address
+     *
+     * @return the formatted {@link String}
+     */
+    public String formatAddress(int address) {
+        final int labelIndex = getLabelIndex(address);
+        if (labelIndex < 0) {
+            return String.format("0x%04X", address);
+        }
+        final int offset = address - labelAddresses[labelIndex];
+        return offset == 0 ? labelNames[labelIndex] : labelNames[labelIndex] + "+" + offset;
+    }
+
+    /**
+     * Gets the number of {@link Label}s.
+     *
+     * @return the label count
+     */
+    public int getLabelCount() {
+        return labelAddresses.length;
+    }
+
+    /**
+     * Gets the address of a {@link Label}.
+     *
+     * @param labelIndex the label index
+     *
+     * @return the address
+     */
+    public int getLabelAddress(int labelIndex) {
+        return labelAddresses[labelIndex];
+    }
+
+    /**
+     * Gets the name of a {@link Label}, including its <code>.</code> prefix.
+     *
+     * @param labelIndex the label index
+     *
+     * @return the name
+     */
+    public String getLabelName(int labelIndex) {
+        return labelNames[labelIndex];
+    }
+
+    /**
+     * Gets the assembly code source line number of the given address.
+     *
+     * @param address the address
+     *
+     * @return the source line number or <code>-1</code> if the address is past the program
+     */
+    public int getSourceLineNumber(int address) {
+        return address < sourceLineNumbers.length ? sourceLineNumbers[address] : -1;
+    }
+
+    /**
+     * Gets the number of addresses of the program.
+     *
+     * @return the program length
+     */
+    public int getProgramLength() {
+        return sourceLineNumbers.length;
+    }
+}
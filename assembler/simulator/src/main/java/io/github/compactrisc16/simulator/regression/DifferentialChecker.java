@@ -0,0 +1,312 @@
+package io.github.compactrisc16.simulator.regression;
+
+import io.github.compactrisc16.simulator.HaltReason;
+import io.github.compactrisc16.simulator.Simulator;
+import io.github.compactrisc16.simulator.argument.EngineType;
+import io.github.compactrisc16.simulator.cr16.CR16;
+import io.github.compactrisc16.simulator.engine.AbstractEngine;
+import io.github.compactrisc16.simulator.engine.BatchEngine;
+import io.github.compactrisc16.simulator.engine.InterpreterEngine;
+import io.github.compactrisc16.simulator.engine.LazyStatusFlags;
+import io.github.compactrisc16.simulator.engine.TranslatorEngine;
+import io.github.compactrisc16.simulator.memory.BRAM;
+import io.github.compactrisc16.simulator.snapshot.Snapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * {@link DifferentialChecker} runs random machine code images on every {@link EngineType} and compares their final
+ * states. The {@link EngineType#TRANSLATOR} is always compared with the {@link EngineType#INTERPRETER}, which is
+ * compared with the {@link EngineType#CYCLE_ACCURATE} engine (which models <code>cr16.sv</code> most closely) if the
+ * program halts within its cycle budget. At the end of the cycle budget, the cycle-accurate engine stops in the
+ * middle of an instruction, but the others stop between instructions. The images are biased toward short backward
+ * branches so that loops form and the {@link TranslatorEngine} translates their basic blocks, and their random stores
+ * patch the code that is running.
+ * <br>
+ * The {@link BatchEngine}, which has no {@link EngineType}, is checked separately by running the image on a random
+ * number of lanes and comparing each lane with an {@link InterpreterEngine} that starts in the same state.
+ */
+public final class DifferentialChecker {
+
+    private static final int MAX_SHORT_CYCLE_BUDGET = 200;
+    private static final int MAX_LONG_CYCLE_BUDGET = 200_000;
+    private static final int BRANCH_OPCODE_BITS = 0xC000;
+    private static final int MIN_BRANCH_DISPLACEMENT = -24;
+    private static final int MAX_BRANCH_DISPLACEMENT = 7;
+    private static final int MAX_LANE_COUNT = 12;
+    private static final int RANDOM_EXTERNAL_MEMORY_WORD_COUNT = 16;
+    private static final int RANDOM_MEMORY_WORD_COUNT = 3;
+
+    /**
+     * Generates a random machine code image of 1 to <code>depth</code> words. Most words are random, a fifth are
+     * <code>B[condition]</code> instructions with short (mostly backward) displacements, and a fifth have one of the
+     * low opcodes of the ALU instructions.
+     *
+     * @param random the {@link Random}
+     * @param depth  the depth of the main memory
+     *
+     * @return the image words
+     */
+    public static int[] generateImage(Random random, int depth) {
+        final int[] image = new int[1 + random.nextInt(depth)];
+        for (int address = 0; address < image.length; address++) {
+            final int kind = random.nextInt(10);
+            if (kind < 6) {
+                image[address] = random.nextInt(0x10000);
+            } else if (kind < 8) {
+                final int displacement = MIN_BRANCH_DISPLACEMENT +
+                        random.nextInt(MAX_BRANCH_DISPLACEMENT - MIN_BRANCH_DISPLACEMENT + 1);
+                image[address] = BRANCH_OPCODE_BITS | random.nextInt(15) << 8 | displacement & 0xFF;
+            } else {
+                image[address] = random.nextInt(8) << 12 | random.nextInt(0x1000);
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Generates a random cycle budget that is either short, so that the engines stop in the middle of the first
+     * basic blocks, or long, so that loops run for longer than the {@link TranslatorEngine#TRANSLATION_THRESHOLD}.
+     *
+     * @param random    the {@link Random}
+     * @param maxCycles the maximum cycle budget
+     *
+     * @return the cycle budget
+     */
+    public static long generateCycleBudget(Random random, long maxCycles) {
+        return Math.min(maxCycles, 1 + random.nextInt(random.nextBoolean() ? MAX_SHORT_CYCLE_BUDGET :
+                                                      MAX_LONG_CYCLE_BUDGET));
+    }
+
+    /**
+     * Runs the given image on every {@link EngineType}, each with its own copy of the memories, and compares their
+     * final states.
+     *
+     * @param image        the image words
+     * @param addressWidth the address width of the main and external memories
+     * @param cycleBudget  the cycle budget
+     *
+     * @return the {@link RegressionResult} of the {@link EngineType#INTERPRETER} with a failure for each difference
+     */
+    public static RegressionResult check(int[] image, int addressWidth, long cycleBudget) {
+        final AbstractEngine interpreterEngine = createEngine(EngineType.INTERPRETER, image, addressWidth);
+        final HaltReason interpreterHaltReason = interpreterEngine.run(cycleBudget);
+        final TranslatorEngine translatorEngine =
+                (TranslatorEngine) createEngine(EngineType.TRANSLATOR, image, addressWidth);
+        final HaltReason translatorHaltReason = translatorEngine.run(cycleBudget);
+        final AbstractEngine cycleAccurateEngine = createEngine(EngineType.CYCLE_ACCURATE, image, addressWidth);
+        final HaltReason cycleAccurateHaltReason = cycleAccurateEngine.run(cycleBudget);
+
+        final List<String> failures = new ArrayList<>();
+        compareStates(failures, EngineType.TRANSLATOR, translatorEngine, translatorHaltReason, EngineType.INTERPRETER,
+                interpreterEngine, interpreterHaltReason);
+        if (cycleAccurateHaltReason != HaltReason.MAX_CYCLES || interpreterHaltReason != HaltReason.MAX_CYCLES) {
+            compareStates(failures, EngineType.INTERPRETER, interpreterEngine, interpreterHaltReason,
+                    EngineType.CYCLE_ACCURATE, cycleAccurateEngine, cycleAccurateHaltReason);
+        }
+        return new RegressionResult(interpreterHaltReason, interpreterEngine.getCycles(), cycleBudget, failures,
+                translatorEngine.getTranslatedBlockCount());
+    }
+
+    /**
+     * Runs the given image on a {@link BatchEngine} with a random number of lanes and on an {@link InterpreterEngine}
+     * for each lane, and compares the final state of each lane with that of its {@link InterpreterEngine}. A third of
+     * the time every lane starts in the same state, so that the lanes stay convergent. Otherwise, each lane starts with
+     * some random registers, status flags, and external memory words, and a few random main memory words (which may
+     * patch the program), so that the lanes diverge at branches.
+     *
+     * @param random       the {@link Random}
+     * @param image        the image words
+     * @param addressWidth the address width of the main and external memories
+     * @param cycleBudget  the cycle budget
+     *
+     * @return a failure for each difference
+     */
+    public static List<String> checkBatch(Random random, int[] image, int addressWidth, long cycleBudget) {
+        final int laneCount = 1 + random.nextInt(MAX_LANE_COUNT);
+        final boolean sameLanes = random.nextInt(3) == 0;
+        final BatchEngine batchEngine = new BatchEngine(image, addressWidth, laneCount);
+        final InterpreterEngine[] interpreterEngines = new InterpreterEngine[laneCount];
+        for (int lane = 0; lane < laneCount; lane++) {
+            final BRAM memory = new BRAM(addressWidth);
+            memory.load(image);
+            final BRAM externalMemory = new BRAM(addressWidth);
+            final InterpreterEngine interpreterEngine = new InterpreterEngine(memory, externalMemory, image.length);
+            interpreterEngines[lane] = interpreterEngine;
+            if (sameLanes) {
+                continue;
+            }
+
+            for (int index = 0; index < RANDOM_EXTERNAL_MEMORY_WORD_COUNT; index++) {
+                final int address = random.nextInt(externalMemory.getDepth());
+                final int word = random.nextInt(0x10000);
+                externalMemory.write(address, word);
+                batchEngine.writeExternalMemory(lane, address, word);
+            }
+            for (int index = 0; index < RANDOM_MEMORY_WORD_COUNT; index++) {
+                final int address = random.nextInt(memory.getDepth());
+                final int word = random.nextInt(0x10000);
+                memory.write(address, word);
+                batchEngine.writeMemory(lane, address, word);
+            }
+
+            final Snapshot snapshot = new Snapshot();
+            interpreterEngine.saveState(snapshot);
+            for (int index = 0; index < CR16.REGISTER_COUNT; index++) {
+                if (random.nextInt(3) == 0) {
+                    final int value = random.nextInt(0x10000);
+                    snapshot.getRegisters()[index] = value;
+                    batchEngine.setRegister(lane, index, value);
+                }
+            }
+            final int statusFlags = random.nextInt(0b10_0000);
+            snapshot.getLazyStatusFlags()[LazyStatusFlags.OPCODE_INDEX] = LazyStatusFlags.LOADED;
+            snapshot.getLazyStatusFlags()[LazyStatusFlags.A_INDEX] = statusFlags;
+            batchEngine.setStatusFlags(lane, statusFlags);
+            interpreterEngine.restoreState(snapshot);
+        }
+
+        final List<String> failures = new ArrayList<>();
+        final int runningLaneCount = batchEngine.run(cycleBudget);
+        int interpreterRunningLaneCount = 0;
+        for (int lane = 0; lane < laneCount; lane++) {
+            final InterpreterEngine interpreterEngine = interpreterEngines[lane];
+            final HaltReason interpreterHaltReason = interpreterEngine.run(cycleBudget);
+            final HaltReason haltReason = batchEngine.getHaltReason(lane) == null ? HaltReason.MAX_CYCLES :
+                                          batchEngine.getHaltReason(lane);
+            interpreterRunningLaneCount += interpreterHaltReason == HaltReason.MAX_CYCLES ? 1 : 0;
+
+            final String engineTypes = String.format("BATCH lane %d of %d (vs %s)", lane, laneCount,
+                    EngineType.INTERPRETER);
+            if (haltReason != interpreterHaltReason) {
+                failures.add(String.format("%s halted by %s instead of %s", engineTypes, haltReason,
+                        interpreterHaltReason));
+            }
+            compare(failures, engineTypes, "cycles", batchEngine.getCycles(lane), interpreterEngine.getCycles());
+            compare(failures, engineTypes, "instructions", batchEngine.getInstructions(lane),
+                    interpreterEngine.getInstructions());
+            compare(failures, engineTypes, "instruction address", batchEngine.getInstructionAddress(lane),
+                    interpreterEngine.getInstructionAddress());
+            compareWord(failures, engineTypes, "status flags", batchEngine.getStatusFlags(lane),
+                    interpreterEngine.getStatusFlags());
+            for (int index = 0; index < CR16.REGISTER_COUNT; index++) {
+                compareWord(failures, engineTypes, "r" + index, batchEngine.getRegister(lane, index),
+                        interpreterEngine.getRegister(index));
+            }
+            final int batchLane = lane;
+            compareMemory(failures, engineTypes, "mem", address -> batchEngine.readMemory(batchLane, address),
+                    interpreterEngine.getMemory());
+            compareMemory(failures, engineTypes, "ext", address -> batchEngine.readExternalMemory(batchLane, address),
+                    interpreterEngine.getExternalMemory());
+        }
+        compare(failures, "BATCH", "running lane count", runningLaneCount, interpreterRunningLaneCount);
+        return failures;
+    }
+
+    /**
+     * Adds a failure for each difference between the final state of the given {@link AbstractEngine} and that of
+     * the given reference {@link AbstractEngine}.
+     *
+     * @param failures            the failures {@link List}
+     * @param engineType          the {@link EngineType} of the {@link AbstractEngine}
+     * @param engine              the {@link AbstractEngine}
+     * @param haltReason          the {@link HaltReason} of the {@link AbstractEngine}
+     * @param referenceEngineType the {@link EngineType} of the reference {@link AbstractEngine}
+     * @param referenceEngine     the reference {@link AbstractEngine}
+     * @param referenceHaltReason the {@link HaltReason} of the reference {@link AbstractEngine}
+     */
+    private static void compareStates(List<String> failures, EngineType engineType, AbstractEngine engine,
+            HaltReason haltReason, EngineType referenceEngineType, AbstractEngine referenceEngine,
+            HaltReason referenceHaltReason) {
+        final String engineTypes = engineType + " (vs " + referenceEngineType + ")";
+        if (haltReason != referenceHaltReason) {
+            failures.add(String.format("%s halted by %s instead of %s", engineTypes, haltReason,
+                    referenceHaltReason));
+        }
+        compare(failures, engineTypes, "cycles", engine.getCycles(), referenceEngine.getCycles());
+        compare(failures, engineTypes, "instructions", engine.getInstructions(), referenceEngine.getInstructions());
+        compare(failures, engineTypes, "instruction address", engine.getInstructionAddress(),
+                referenceEngine.getInstructionAddress());
+        compareWord(failures, engineTypes, "status flags", engine.getStatusFlags(), referenceEngine.getStatusFlags());
+        for (int index = 0; index < CR16.REGISTER_COUNT; index++) {
+            compareWord(failures, engineTypes, "r" + index, engine.getRegister(index),
+                    referenceEngine.getRegister(index));
+        }
+        compareMemory(failures, engineTypes, "mem", engine.getMemory()::read, referenceEngine.getMemory());
+        compareMemory(failures, engineTypes, "ext", engine.getExternalMemory()::read,
+                referenceEngine.getExternalMemory());
+    }
+
+    /**
+     * Creates an {@link AbstractEngine} with its own memories and the given image loaded.
+     *
+     * @param engineType   the {@link EngineType}
+     * @param image        the image words
+     * @param addressWidth the address width of the main and external memories
+     *
+     * @return the {@link AbstractEngine}
+     */
+    private static AbstractEngine createEngine(EngineType engineType, int[] image, int addressWidth) {
+        final BRAM memory = new BRAM(addressWidth);
+        memory.load(image);
+        return Simulator.createEngine(engineType, memory, new BRAM(addressWidth), image.length);
+    }
+
+    /**
+     * Adds a failure if the given value differs from the reference value.
+     *
+     * @param failures       the failures {@link List}
+     * @param engineTypes    the compared {@link EngineType}s
+     * @param name           the name of the value
+     * @param value          the value
+     * @param referenceValue the value of the reference engine
+     */
+    private static void compare(List<String> failures, String engineTypes, String name, long value,
+            long referenceValue) {
+        if (value != referenceValue) {
+            failures.add(String.format("%s %s is %d instead of %d", engineTypes, name, value, referenceValue));
+        }
+    }
+
+    /**
+     * Adds a failure if the given word differs from the reference word.
+     *
+     * @param failures      the failures {@link List}
+     * @param engineTypes   the compared {@link EngineType}s
+     * @param name          the name of the word
+     * @param word          the word
+     * @param referenceWord the word of the reference engine
+     */
+    private static void compareWord(List<String> failures, String engineTypes, String name, int word,
+            int referenceWord) {
+        if (word != referenceWord) {
+            failures.add(String.format("%s %s is 0x%04X instead of 0x%04X", engineTypes, name, word, referenceWord));
+        }
+    }
+
+    /**
+     * Adds a failure for the first word of a memory that differs from the reference {@link BRAM}.
+     *
+     * @param failures        the failures {@link List}
+     * @param engineTypes     the compared {@link EngineType}s
+     * @param name            the name of the memory
+     * @param memoryReader    reads a word of the memory at an address
+     * @param referenceMemory the {@link BRAM} of the reference engine, which has the same depth as the memory
+     */
+    private static void compareMemory(List<String> failures, String engineTypes, String name,
+            IntUnaryOperator memoryReader, BRAM referenceMemory) {
+        for (int address = 0; address < referenceMemory.getDepth(); address++) {
+            final int word = memoryReader.applyAsInt(address);
+            if (word != referenceMemory.read(address)) {
+                compareWord(failures, engineTypes, String.format("%s[0x%03X]", name, address), word,
+                        referenceMemory.read(address));
+                return;
+            }
+        }
+    }
+
+    private DifferentialChecker() {}
+}
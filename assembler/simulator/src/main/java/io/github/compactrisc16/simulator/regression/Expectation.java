@@ -0,0 +1,43 @@
+package io.github.compactrisc16.simulator.regression;
+
+/**
+ * {@link Expectation} is a single <code>@expect</code> annotation of an {@link ExpectedState}.
+ */
+public class Expectation {
+
+    private final String target;
+    private final TargetType targetType;
+    private final int index;
+    private final int value;
+
+    /**
+     * Instantiates a new {@link Expectation}.
+     *
+     * @param target     the target as it was written
+     * @param targetType the {@link TargetType}
+     * @param index      the register index, the status flag index, or the address
+     * @param value      the expected 16-bit value
+     */
+    public Expectation(String target, TargetType targetType, int index, int value) {
+        this.target = target;
+        this.targetType = targetType;
+        this.index = index;
+        this.value = value;
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    public TargetType getTargetType() {
+        return targetType;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public int getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,222 @@
+package io.github.compactrisc16.simulator.regression;
+
+import io.github.compactrisc16.assembler.isa.register.Register;
+import io.github.compactrisc16.assembler.isa.register.Registers;
+import io.github.compactrisc16.assembler.util.BasedNumberParser;
+import io.github.compactrisc16.simulator.Simulator;
+import io.github.compactrisc16.simulator.engine.AbstractEngine;
+import io.github.compactrisc16.simulator.regression.exception.ExpectationParseException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * {@link ExpectedState} is the state that an assembly code file expects the CR16 to halt in, declared by annotations in
+ * its comments:
+ * <ul>
+ *     <li><code># @expect r2 0x1E</code> expects a register (by name, e.g. <code>rsp</code>) to hold a value.</li>
+ *     <li><code># @expect Z 1</code> expects a status flag (one of <code>C</code>, <code>L</code>, <code>F</code>,
+ *     <code>Z</code>, and <code>N</code>) to be set or cleared.</li>
+ *     <li><code># @expect mem[0x0F] 0x1E</code> and <code># @expect ext[0x0F] 0x1E</code> expect a word of the main
+ *     or external memory to hold a value.</li>
+ *     <li><code># @cycles 40</code> declares the cycle budget of the program, which fails if it doesn't halt within
+ *     the budget.</li>
+ *     <li><code># @no-peephole</code> declares that the expectations depend on the code layout (e.g. a register
+ *     holds the address of a label), so the program is assembled without the peephole optimizer.</li>
+ * </ul>
+ * Values are parsed like assembly numbers and compared as 16-bit words.
+ */
+public class ExpectedState {
+
+    private static final char COMMENT_DELIMITER = '#';
+    private static final String EXPECT_ANNOTATION = "@expect";
+    private static final String CYCLES_ANNOTATION = "@cycles";
+    private static final String NO_PEEPHOLE_ANNOTATION = "@no-peephole";
+    private static final Pattern MEMORY_TARGET_PATTERN = Pattern.compile("(mem|ext)\\[(.+)]");
+
+    private final List<Expectation> expectations;
+    private Long cycleBudget;
+    private boolean peepholeAllowed;
+
+    /**
+     * Instantiates a new {@link ExpectedState}.
+     */
+    public ExpectedState() {
+        expectations = new ArrayList<>();
+        peepholeAllowed = true;
+    }
+
+    /**
+     * Parses the annotations in the comments of the given assembly code.
+     *
+     * @param assembly the raw assembly code
+     *
+     * @return the {@link ExpectedState}
+     *
+     * @throws ExpectationParseException thrown for {@link ExpectationParseException}s
+     */
+    public static ExpectedState parse(String assembly) throws ExpectationParseException {
+        final ExpectedState expectedState = new ExpectedState();
+        final String[] lines = assembly.split("\\R", -1);
+        for (int index = 0; index < lines.length; index++) {
+            final int commentIndex = lines[index].indexOf(COMMENT_DELIMITER);
+            if (commentIndex == -1) {
+                continue;
+            }
+            final String[] words = lines[index].substring(commentIndex + 1).trim().split("\\s+");
+            final int lineNumber = index + 1;
+            switch (words[0]) {
+                case EXPECT_ANNOTATION:
+                    if (words.length != 3) {
+                        throw new ExpectationParseException(EXPECT_ANNOTATION + " expects a target and a value.",
+                                lineNumber);
+                    }
+                    expectedState.expectations.add(parseExpectation(words[1], words[2], lineNumber));
+                    break;
+                case CYCLES_ANNOTATION:
+                    if (words.length != 2) {
+                        throw new ExpectationParseException(CYCLES_ANNOTATION + " expects a number of cycles.",
+                                lineNumber);
+                    }
+                    if (expectedState.cycleBudget != null) {
+                        throw new ExpectationParseException("Only one " + CYCLES_ANNOTATION + " is allowed.",
+                                lineNumber);
+                    }
+                    final int cycleBudget = parseNumber(words[1], lineNumber);
+                    if (cycleBudget <= 0) {
+                        throw new ExpectationParseException("The cycle budget must be positive.", lineNumber);
+                    }
+                    expectedState.cycleBudget = (long) cycleBudget;
+                    break;
+                case NO_PEEPHOLE_ANNOTATION:
+                    if (words.length != 1) {
+                        throw new ExpectationParseException(NO_PEEPHOLE_ANNOTATION + " doesn't expect any arguments.",
+                                lineNumber);
+                    }
+                    expectedState.peepholeAllowed = false;
+                    break;
+                default:
+                    break;
+            }
+        }
+        return expectedState;
+    }
+
+    /**
+     * Parses an {@link Expectation}.
+     *
+     * @param target     the target word
+     * @param value      the value word
+     * @param lineNumber the line number
+     *
+     * @return the {@link Expectation}
+     *
+     * @throws ExpectationParseException thrown for {@link ExpectationParseException}s
+     */
+    private static Expectation parseExpectation(String target, String value, int lineNumber)
+            throws ExpectationParseException {
+        final int expectedValue = parseNumber(value, lineNumber) & 0xFFFF;
+
+        final Register register = Registers.REGISTERS_OF_NAMES.get(target);
+        if (register != null) {
+            return new Expectation(target, TargetType.REGISTER, register.getIndex(), expectedValue);
+        }
+
+        final int statusIndex = target.length() == 1 ? Simulator.STATUS_FLAG_NAMES.indexOf(target.charAt(0)) : -1;
+        if (statusIndex != -1) {
+            if (expectedValue > 1) {
+                throw new ExpectationParseException("A status flag can only be 0 or 1.", lineNumber);
+            }
+            return new Expectation(target, TargetType.STATUS_FLAG, statusIndex, expectedValue);
+        }
+
+        final Matcher memoryTargetMatcher = MEMORY_TARGET_PATTERN.matcher(target);
+        if (memoryTargetMatcher.matches()) {
+            final int address = parseNumber(memoryTargetMatcher.group(2), lineNumber);
+            if (address < 0 || address > 0xFFFF) {
+                throw new ExpectationParseException("The address must be a 16-bit address.", lineNumber);
+            }
+            return new Expectation(target, memoryTargetMatcher.group(1).equals("mem") ? TargetType.MEMORY :
+                                           TargetType.EXTERNAL_MEMORY, address, expectedValue);
+        }
+
+        throw new ExpectationParseException("Unknown target: " + target, lineNumber);
+    }
+
+    /**
+     * Parses a number with {@link BasedNumberParser#parseInt(String)}.
+     *
+     * @param number     the number {@link String}
+     * @param lineNumber the line number
+     *
+     * @return the int
+     *
+     * @throws ExpectationParseException thrown for {@link ExpectationParseException}s
+     */
+    private static int parseNumber(String number, int lineNumber) throws ExpectationParseException {
+        try {
+            return BasedNumberParser.parseInt(number);
+        } catch (NumberFormatException exception) {
+            throw new ExpectationParseException("Invalid number: " + number, lineNumber);
+        }
+    }
+
+    /**
+     * Checks the final state of the given {@link AbstractEngine} against the {@link Expectation}s.
+     *
+     * @param engine the {@link AbstractEngine}
+     *
+     * @return a {@link List} of a message for each unmet {@link Expectation}
+     */
+    public List<String> check(AbstractEngine engine) {
+        final List<String> failures = new ArrayList<>();
+        for (Expectation expectation : expectations) {
+            final int actualValue;
+            switch (expectation.getTargetType()) {
+                case REGISTER:
+                    actualValue = engine.getRegister(expectation.getIndex());
+                    break;
+                case STATUS_FLAG:
+                    actualValue = engine.getStatusFlags() >>> expectation.getIndex() & 1;
+                    break;
+                case MEMORY:
+                    actualValue = engine.getMemory().read(expectation.getIndex());
+                    break;
+                case EXTERNAL_MEMORY:
+                    actualValue = engine.getExternalMemory().read(expectation.getIndex());
+                    break;
+                default:
+                    throw new UnsupportedOperationException();
+            }
+            if (actualValue != expectation.getValue()) {
+                failures.add(String.format("%s is 0x%04X instead of 0x%04X", expectation.getTarget(), actualValue,
+                        expectation.getValue()));
+            }
+        }
+        return failures;
+    }
+
+    public List<Expectation> getExpectations() {
+        return expectations;
+    }
+
+    /**
+     * Gets the cycle budget.
+     *
+     * @return the cycle budget or <code>null</code> if the program doesn't declare one
+     */
+    public Long getCycleBudget() {
+        return cycleBudget;
+    }
+
+    /**
+     * Checks if the program may be assembled with the peephole optimizer.
+     *
+     * @return <code>false</code> if the program declares <code>@no-peephole</code>
+     */
+    public boolean isPeepholeAllowed() {
+        return peepholeAllowed;
+    }
+}
@@ -0,0 +1,65 @@
+package io.github.compactrisc16.simulator.regression;
+
+import io.github.compactrisc16.simulator.HaltReason;
+
+import java.util.List;
+
+/**
+ * {@link RegressionResult} is the outcome of running one assembly code file with the {@link RegressionRunner}.
+ */
+public class RegressionResult {
+
+    private final HaltReason haltReason;
+    private final long cycles;
+    private final long cycleBudget;
+    private final List<String> failures;
+    private final int translatedBlockCount;
+
+    /**
+     * Instantiates a new {@link RegressionResult}.
+     *
+     * @param haltReason           the {@link HaltReason}
+     * @param cycles               the number of cycles the program ran for
+     * @param cycleBudget          the cycle budget of the program
+     * @param failures             a message for each unmet expectation
+     * @param translatedBlockCount the number of basic blocks that the translator engine translated (<code>0</code>
+     *                             for the other engines)
+     */
+    public RegressionResult(HaltReason haltReason, long cycles, long cycleBudget, List<String> failures,
+            int translatedBlockCount) {
+        this.haltReason = haltReason;
+        this.cycles = cycles;
+        this.cycleBudget = cycleBudget;
+        this.failures = failures;
+        this.translatedBlockCount = translatedBlockCount;
+    }
+
+    /**
+     * Checks if the program halted within its cycle budget and met every expectation.
+     *
+     * @return <code>true</code> if the program passed
+     */
+    public boolean isPassed() {
+        return failures.isEmpty();
+    }
+
+    public HaltReason getHaltReason() {
+        return haltReason;
+    }
+
+    public long getCycles() {
+        return cycles;
+    }
+
+    public long getCycleBudget() {
+        return cycleBudget;
+    }
+
+    public List<String> getFailures() {
+        return failures;
+    }
+
+    public int getTranslatedBlockCount() {
+        return translatedBlockCount;
+    }
+}
@@ -0,0 +1,266 @@
+package io.github.compactrisc16.simulator.regression;
+
+import com.beust.jcommander.ParameterException;
+import io.github.compactrisc16.assembler.Assembler;
+import io.github.compactrisc16.assembler.assembly.exception.AssemblyParseException;
+import io.github.compactrisc16.simulator.HaltReason;
+import io.github.compactrisc16.simulator.Simulator;
+import io.github.compactrisc16.simulator.argument.EngineType;
+import io.github.compactrisc16.simulator.argument.RegressionArguments;
+import io.github.compactrisc16.simulator.engine.AbstractEngine;
+import io.github.compactrisc16.simulator.engine.TranslatorEngine;
+import io.github.compactrisc16.simulator.memory.BRAM;
+import io.github.compactrisc16.simulator.regression.exception.ExpectationParseException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RegressionRunner} assembles assembly code files in memory, runs them on an {@link AbstractEngine}, and checks
+ * their final state against the {@link ExpectedState} declared in their comments. The files are run concurrently and
+ * a program fails if it doesn't halt within its cycle budget, so that performance regressions fail the run too.
+ * Random machine code images can also be run on every engine and their final states compared (see {@link
+ * DifferentialChecker}).
+ */
+public class RegressionRunner {
+
+    private static final PrintStream NULL_PRINT_STREAM = new PrintStream(OutputStream.nullOutputStream());
+
+    private final String[] argumentStrings;
+    private final Path workingDirectory;
+    private final PrintStream out;
+    private final PrintStream err;
+    private RegressionArguments arguments;
+
+    /**
+     * Instantiates a new {@link RegressionRunner} that resolves relative paths against the current working directory
+     * and prints to {@link System#out} and {@link System#err}.
+     *
+     * @param argumentStrings the input argument {@link String}s
+     */
+    public RegressionRunner(String[] argumentStrings) {
+        this(argumentStrings, Path.of("").toAbsolutePath(), System.out, System.err);
+    }
+
+    /**
+     * Instantiates a new {@link RegressionRunner}.
+     *
+     * @param argumentStrings  the input argument {@link String}s
+     * @param workingDirectory the absolute {@link Path} that relative paths are resolved against
+     * @param out              the {@link PrintStream} for the usage and the results
+     * @param err              the {@link PrintStream} for exceptions
+     */
+    public RegressionRunner(String[] argumentStrings, Path workingDirectory, PrintStream out, PrintStream err) {
+        this.argumentStrings = argumentStrings;
+        this.workingDirectory = workingDirectory;
+        this.out = out;
+        this.err = err;
+    }
+
+    /**
+     * Parses the {@link RegressionArguments} and runs every assembly code file and random image on a pool of {@link
+     * RegressionArguments#getJobs()} threads. A result line for each {@link File} is printed in the given order once
+     * all of them have finished, followed by a result line for each random image that failed.
+     *
+     * @return <code>true</code> if every program and random image passed
+     */
+    public boolean run() {
+        arguments = new RegressionArguments(argumentStrings, workingDirectory);
+        try {
+            arguments.parse();
+        } catch (ParameterException exception) {
+            StringBuilder usage = new StringBuilder();
+            exception.getJCommander().getUsageFormatter().usage(usage);
+            out.print(usage);
+            return false;
+        } catch (IllegalArgumentException exception) {
+            printException(exception);
+            return false;
+        }
+
+        final List<File> assemblyFiles = arguments.getAssemblyFiles();
+        final int randomImageCount = arguments.getRandomImageCount();
+        final long startNanoTime = System.nanoTime();
+        final ExecutorService executorService = Executors.newFixedThreadPool(Math.min(arguments.getJobs(),
+                assemblyFiles.size() + randomImageCount));
+        try {
+            final List<Future<RegressionResult>> resultFutures = new ArrayList<>(assemblyFiles.size());
+            for (File assemblyFile : assemblyFiles) {
+                resultFutures.add(executorService.submit(() -> runProgram(assemblyFile)));
+            }
+            final List<Future<RegressionResult>> randomImageResultFutures = new ArrayList<>(randomImageCount);
+            for (int index = 0; index < randomImageCount; index++) {
+                final long seed = arguments.getSeed() + index;
+                randomImageResultFutures.add(executorService.submit(() -> runRandomImage(seed)));
+            }
+
+            int passedCount = 0;
+            for (int index = 0; index < assemblyFiles.size(); index++) {
+                final String assemblyFilePath = assemblyFiles.get(index).getPath();
+                try {
+                    final RegressionResult result = resultFutures.get(index).get();
+                    out.printf("%s %s (%d of %d cycles%s)%n", result.isPassed() ? "PASS" : "FAIL", assemblyFilePath,
+                            result.getCycles(), result.getCycleBudget(),
+                            arguments.getEngineType() == EngineType.TRANSLATOR ?
+                            ", " + result.getTranslatedBlockCount() + " translated basic blocks" : "");
+                    for (String failure : result.getFailures()) {
+                        out.println("  " + failure);
+                    }
+                    passedCount += result.isPassed() ? 1 : 0;
+                } catch (ExecutionException exception) {
+                    Throwable cause = exception.getCause();
+                    if (arguments.isDebug()) {
+                        cause.printStackTrace(err);
+                    }
+                    out.printf("FAIL %s: %s: %s%n", assemblyFilePath, cause.getClass().getSimpleName(),
+                            cause.getMessage());
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                    printException(exception);
+                    return false;
+                }
+            }
+
+            int matchedCount = 0;
+            long translatedBlockCount = 0;
+            for (int index = 0; index < randomImageCount; index++) {
+                final long seed = arguments.getSeed() + index;
+                try {
+                    final RegressionResult result = randomImageResultFutures.get(index).get();
+                    translatedBlockCount += result.getTranslatedBlockCount();
+                    if (result.isPassed()) {
+                        matchedCount++;
+                        continue;
+                    }
+                    out.printf("FAIL random image with seed %d (%d of %d cycles)%n", seed, result.getCycles(),
+                            result.getCycleBudget());
+                    for (String failure : result.getFailures()) {
+                        out.println("  " + failure);
+                    }
+                } catch (ExecutionException exception) {
+                    Throwable cause = exception.getCause();
+                    if (arguments.isDebug()) {
+                        cause.printStackTrace(err);
+                    }
+                    out.printf("FAIL random image with seed %d: %s: %s%n", seed, cause.getClass().getSimpleName(),
+                            cause.getMessage());
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                    printException(exception);
+                    return false;
+                }
+            }
+
+            final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanoTime);
+            if (!assemblyFiles.isEmpty()) {
+                out.printf("Passed %d of %d programs in %d ms.%n", passedCount, assemblyFiles.size(), elapsedMillis);
+            }
+            if (randomImageCount > 0) {
+                out.printf("Matched %d of %d random images on every engine (%d translated basic blocks) in %d ms.%n",
+                        matchedCount, randomImageCount, translatedBlockCount, elapsedMillis);
+            }
+            return passedCount == assemblyFiles.size() && matchedCount == randomImageCount;
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Assembles the given assembly code {@link File} in memory and runs it until it halts or exhausts its cycle
+     * budget.
+     *
+     * @param assemblyFile the assembly code {@link File}
+     *
+     * @return the {@link RegressionResult}
+     *
+     * @throws IOException               thrown for {@link IOException}s
+     * @throws AssemblyParseException    thrown for {@link AssemblyParseException}s
+     * @throws ExpectationParseException thrown for {@link ExpectationParseException}s
+     */
+    private RegressionResult runProgram(File assemblyFile)
+            throws IOException, AssemblyParseException, ExpectationParseException {
+        final String assembly = Files.readString(assemblyFile.toPath());
+        final ExpectedState expectedState = ExpectedState.parse(assembly);
+        // Warnings (e.g. unused labels) don't affect the result, so they aren't printed
+        final int[] image = new Assembler(new String[0], workingDirectory, NULL_PRINT_STREAM, NULL_PRINT_STREAM)
+                .assemble(assembly, arguments.isPeephole() && expectedState.isPeepholeAllowed());
+
+        final BRAM memory = new BRAM(arguments.getAddressWidth());
+        memory.load(image);
+        final AbstractEngine engine = Simulator.createEngine(arguments.getEngineType(), memory,
+                new BRAM(arguments.getAddressWidth()), image.length);
+        final long cycleBudget = expectedState.getCycleBudget() != null ? expectedState.getCycleBudget() :
+                                 arguments.getMaxCycles();
+        final HaltReason haltReason = engine.run(cycleBudget);
+
+        final List<String> failures = new ArrayList<>();
+        if (haltReason == HaltReason.MAX_CYCLES) {
+            failures.add(String.format("didn't halt within the cycle budget of %d cycles", cycleBudget));
+        }
+        failures.addAll(expectedState.check(engine));
+        return new RegressionResult(haltReason, engine.getCycles(), cycleBudget, failures,
+                engine instanceof TranslatorEngine ? ((TranslatorEngine) engine).getTranslatedBlockCount() : 0);
+    }
+
+    /**
+     * Generates a random image and cycle budget from the given seed and checks that every engine ends in the same
+     * state with {@link DifferentialChecker#check(int[], int, long)} and {@link DifferentialChecker#checkBatch(Random,
+     * int[], int, long)}.
+     *
+     * @param seed the seed of the {@link Random}
+     *
+     * @return the {@link RegressionResult}
+     */
+    private RegressionResult runRandomImage(long seed) {
+        final Random random = new Random(seed);
+        final int[] image = DifferentialChecker.generateImage(random, 1 << arguments.getAddressWidth());
+        final long cycleBudget = DifferentialChecker.generateCycleBudget(random, arguments.getMaxCycles());
+        final RegressionResult result = DifferentialChecker.check(image, arguments.getAddressWidth(), cycleBudget);
+
+        final List<String> failures = new ArrayList<>(result.getFailures());
+        failures.addAll(DifferentialChecker.checkBatch(random, image, arguments.getAddressWidth(), cycleBudget));
+        return new RegressionResult(result.getHaltReason(), result.getCycles(), cycleBudget, failures,
+                result.getTranslatedBlockCount());
+    }
+
+    /**
+     * Prints the given {@link Exception} or its stack trace in debug mode.
+     *
+     * @param exception the {@link Exception}
+     */
+    private void printException(Exception exception) {
+        if (arguments != null && arguments.isDebug()) {
+            exception.printStackTrace(err);
+        } else {
+            err.println(exception.getClass().getSimpleName() + ": " + exception.getMessage());
+        }
+    }
+
+    public RegressionArguments getArguments() {
+        return arguments;
+    }
+
+    /**
+     * The entry point of application. Exits with a status of <code>1</code> if any program failed.
+     *
+     * @param args the input arguments
+     */
+    public static void main(String[] args) {
+        RegressionRunner regressionRunner = new RegressionRunner(args);
+        if (!regressionRunner.run()) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package io.github.compactrisc16.simulator.regression;
+
+/**
+ * {@link TargetType} defines the kinds of state that an {@link Expectation} can check.
+ */
+public enum TargetType {
+
+    /**
+     * A register of the regfile.
+     */
+    REGISTER,
+
+    /**
+     * A status flag.
+     */
+    STATUS_FLAG,
+
+    /**
+     * A word of the main memory.
+     */
+    MEMORY,
+
+    /**
+     * A word of the external memory.
+     */
+    EXTERNAL_MEMORY
+}
@@ -0,0 +1,26 @@
+package io.github.compactrisc16.simulator.regression.exception;
+
+/**
+ * {@link ExpectationParseException} represents a (checked) {@link Exception} thrown when an expected state annotation
+ * of an assembly code file can't be parsed.
+ */
+public class ExpectationParseException extends Exception {
+
+    private final Integer lineNumber;
+
+    /**
+     * Instantiates a new {@link ExpectationParseException}.
+     *
+     * @param message    the message
+     * @param lineNumber the line number (<code>null</code> to disregard)
+     */
+    public ExpectationParseException(String message, Integer lineNumber) {
+        super(message);
+        this.lineNumber = lineNumber;
+    }
+
+    @Override
+    public String getMessage() {
+        return lineNumber == null ? super.getMessage() : "On line " + lineNumber + ": " + super.getMessage();
+    }
+}
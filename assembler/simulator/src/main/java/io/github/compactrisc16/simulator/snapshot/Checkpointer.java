@@ -0,0 +1,227 @@
+package io.github.compactrisc16.simulator.snapshot;
+
+import io.github.compactrisc16.simulator.HaltReason;
+import io.github.compactrisc16.simulator.engine.InterpreterEngine;
+import io.github.compactrisc16.simulator.memory.BRAM;
+import io.github.compactrisc16.simulator.memory.device.Device;
+import io.github.compactrisc16.simulator.memory.device.DeviceAccessLog;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * {@link Checkpointer} runs an {@link InterpreterEngine} (or a subclass of it) while taking a {@link Snapshot} every
+ * given number of cycles, so that any earlier instruction boundary can be reached by restoring the closest earlier
+ * {@link Snapshot} and re-executing from it instead of from the start of the program. This gives reverse stepping
+ * (see {@link #stepBack()}) and running back to the last write of an address (see {@link #runBackToLastWrite(BRAM,
+ * int)}).
+ * <br>
+ * The {@link Device}s of the memories are accessed through a {@link DeviceAccessLog}, so re-executed instructions read
+ * the same input words and don't repeat their output.
+ */
+public class Checkpointer {
+
+    /**
+     * The cycles of the shortest instructions (<code>FETCH</code>, <code>DECODE</code>, and one execute state).
+     */
+    private static final int MIN_INSTRUCTION_CYCLES = 3;
+
+    private final InterpreterEngine engine;
+    private final BRAM memory;
+    private final BRAM externalMemory;
+    private final long snapshotInterval;
+    private final DeviceAccessLog deviceAccessLog;
+    private final List<Snapshot> snapshots;
+    private Snapshot baseSnapshot; // The snapshot that the dirty pages of the memories are relative to
+
+    /**
+     * Instantiates a new {@link Checkpointer} and takes a {@link Snapshot} of the current state.
+     *
+     * @param engine           the {@link InterpreterEngine}
+     * @param snapshotInterval the minimum number of cycles between periodic {@link Snapshot}s
+     */
+    public Checkpointer(InterpreterEngine engine, long snapshotInterval) {
+        checkArgument(snapshotInterval > 0, "The snapshot interval must be positive.");
+        this.engine = engine;
+        this.snapshotInterval = snapshotInterval;
+        memory = engine.getMemory();
+        externalMemory = engine.getExternalMemory();
+        deviceAccessLog = new DeviceAccessLog();
+        memory.setDeviceAccessLog(deviceAccessLog);
+        externalMemory.setDeviceAccessLog(deviceAccessLog);
+        snapshots = new ArrayList<>();
+        takeSnapshot();
+    }
+
+    /**
+     * Runs the {@link InterpreterEngine} like {@link InterpreterEngine#run(long)} and takes a {@link Snapshot} every
+     * {@link #getSnapshotInterval()} cycles past the last {@link Snapshot}.
+     *
+     * @param maxCycles the number of cycles to stop at
+     *
+     * @return the {@link HaltReason}
+     */
+    public HaltReason run(long maxCycles) {
+        while (true) {
+            final HaltReason haltReason = engine.run(Math.min(maxCycles, engine.getCycles() + snapshotInterval));
+            if (haltReason != HaltReason.MAX_CYCLES || engine.getCycles() >= maxCycles) {
+                return haltReason;
+            }
+            if (engine.getInstructions() > snapshots.get(snapshots.size() - 1).getInstructions()) {
+                takeSnapshot();
+            }
+        }
+    }
+
+    /**
+     * Takes a {@link Snapshot} of the current state. Only the pages that were written since the last taken or restored
+     * {@link Snapshot} are copied.
+     *
+     * @return the {@link Snapshot}
+     */
+    public Snapshot takeSnapshot() {
+        final Snapshot snapshot = new Snapshot();
+        engine.saveState(snapshot);
+        snapshot.setMemoryPages(memory.snapshotPages(baseSnapshot == null ? null : baseSnapshot.getMemoryPages()));
+        snapshot.setExternalMemoryPages(externalMemory.snapshotPages(
+                baseSnapshot == null ? null : baseSnapshot.getExternalMemoryPages()));
+        snapshot.setDeviceAccessLogPosition(deviceAccessLog.getPosition());
+
+        int index = snapshots.size();
+        while (index > 0 && snapshots.get(index - 1).getInstructions() > snapshot.getInstructions()) {
+            index--;
+        }
+        snapshots.add(index, snapshot);
+        baseSnapshot = snapshot;
+        return snapshot;
+    }
+
+    /**
+     * Restores the state of a {@link Snapshot}.
+     *
+     * @param snapshot the {@link Snapshot}
+     */
+    public void restore(Snapshot snapshot) {
+        engine.restoreState(snapshot);
+        memory.restorePages(snapshot.getMemoryPages());
+        externalMemory.restorePages(snapshot.getExternalMemoryPages());
+        deviceAccessLog.setPosition(snapshot.getDeviceAccessLogPosition());
+        baseSnapshot = snapshot;
+    }
+
+    /**
+     * Moves to the instruction boundary after the given number of executed instructions, by re-executing from the
+     * closest earlier {@link Snapshot} if it lies behind the current state.
+     *
+     * @param instructions the number of executed instructions
+     */
+    public void seek(long instructions) {
+        checkArgument(instructions >= 0, "The number of instructions can't be negative.");
+        if (instructions < engine.getInstructions()) {
+            restore(snapshots.get(findSnapshotIndex(instructions)));
+        }
+        runForward(instructions);
+    }
+
+    /**
+     * Moves back by one instruction.
+     *
+     * @return <code>false</code> if no instruction has been executed
+     */
+    public boolean stepBack() {
+        if (engine.getInstructions() == 0) {
+            return false;
+        }
+        seek(engine.getInstructions() - 1);
+        return true;
+    }
+
+    /**
+     * Moves back to the instruction boundary right after the last instruction that wrote the given address. The
+     * {@link Snapshot}s are searched from the latest one backwards, and the instructions between two {@link Snapshot}s
+     * are only single-stepped once the write is known to lie between them.
+     *
+     * @param watchedMemory the main or external memory {@link BRAM} of the {@link InterpreterEngine}
+     * @param address       the address
+     *
+     * @return <code>false</code> if the address wasn't written, in which case the state is left unchanged
+     */
+    public boolean runBackToLastWrite(BRAM watchedMemory, int address) {
+        checkArgument(watchedMemory == memory || watchedMemory == externalMemory,
+                "The memory must be a memory of the engine.");
+        final long instructions = engine.getInstructions();
+        final int previousWatchedAddress = watchedMemory.getWatchedAddress();
+        watchedMemory.setWatchedAddress(address);
+        try {
+            long segmentEndInstructions = instructions;
+            for (int index = findSnapshotIndex(instructions - 1); index >= 0; index--) {
+                final Snapshot snapshot = snapshots.get(index);
+                restore(snapshot);
+                final long startWriteCount = watchedMemory.getWatchedWriteCount();
+                runForward(segmentEndInstructions);
+                final long writes = watchedMemory.getWatchedWriteCount() - startWriteCount;
+                if (writes > 0) {
+                    restore(snapshot);
+                    final long restartWriteCount = watchedMemory.getWatchedWriteCount();
+                    while (watchedMemory.getWatchedWriteCount() - restartWriteCount < writes) {
+                        engine.run(engine.getCycles() + 1);
+                    }
+                    return true;
+                }
+                segmentEndInstructions = snapshot.getInstructions();
+            }
+            seek(instructions);
+            return false;
+        } finally {
+            watchedMemory.setWatchedAddress(previousWatchedAddress);
+        }
+    }
+
+    /**
+     * Runs the {@link InterpreterEngine} until the given number of executed instructions is reached. Since every
+     * instruction takes at least {@link #MIN_INSTRUCTION_CYCLES} cycles, the cycle limit of each run is chosen so that
+     * it can't overshoot.
+     *
+     * @param instructions the number of executed instructions
+     */
+    private void runForward(long instructions) {
+        while (engine.getInstructions() < instructions) {
+            final long remainingInstructions = instructions - engine.getInstructions();
+            final HaltReason haltReason = engine.run(
+                    engine.getCycles() + MIN_INSTRUCTION_CYCLES * (remainingInstructions - 1) + 1);
+            if (haltReason != HaltReason.MAX_CYCLES) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Finds the index of the latest {@link Snapshot} taken at or before the given number of executed instructions.
+     *
+     * @param instructions the number of executed instructions
+     *
+     * @return the index or <code>-1</code> if there is none
+     */
+    private int findSnapshotIndex(long instructions) {
+        int index = snapshots.size() - 1;
+        while (index >= 0 && snapshots.get(index).getInstructions() > instructions) {
+            index--;
+        }
+        return index;
+    }
+
+    public long getSnapshotInterval() {
+        return snapshotInterval;
+    }
+
+    public List<Snapshot> getSnapshots() {
+        return Collections.unmodifiableList(snapshots);
+    }
+
+    public DeviceAccessLog getDeviceAccessLog() {
+        return deviceAccessLog;
+    }
+}
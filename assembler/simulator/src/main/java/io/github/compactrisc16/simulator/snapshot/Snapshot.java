@@ -0,0 +1,103 @@
+package io.github.compactrisc16.simulator.snapshot;
+
+import io.github.compactrisc16.simulator.engine.InterpreterEngine;
+import io.github.compactrisc16.simulator.memory.BRAM;
+
+/**
+ * {@link Snapshot} holds the state of an {@link InterpreterEngine} and its memories at an instruction boundary. The
+ * memories are held as page tables (see {@link BRAM#snapshotPages(char[][])}) whose unchanged pages are shared with the
+ * previous {@link Snapshot}, so a {@link Snapshot} only costs the pages that were written since then.
+ */
+public class Snapshot {
+
+    private int[] registers;
+    private int[] lazyStatusFlags;
+    private int pc;
+    private int instructionAddress;
+    private int previousInstructionAddress;
+    private long cycles;
+    private long instructions;
+    private char[][] memoryPages;
+    private char[][] externalMemoryPages;
+    private int deviceAccessLogPosition;
+
+    public int[] getRegisters() {
+        return registers;
+    }
+
+    public void setRegisters(int[] registers) {
+        this.registers = registers;
+    }
+
+    public int[] getLazyStatusFlags() {
+        return lazyStatusFlags;
+    }
+
+    public void setLazyStatusFlags(int[] lazyStatusFlags) {
+        this.lazyStatusFlags = lazyStatusFlags;
+    }
+
+    public int getPC() {
+        return pc;
+    }
+
+    public void setPC(int pc) {
+        this.pc = pc;
+    }
+
+    public int getInstructionAddress() {
+        return instructionAddress;
+    }
+
+    public void setInstructionAddress(int instructionAddress) {
+        this.instructionAddress = instructionAddress;
+    }
+
+    public int getPreviousInstructionAddress() {
+        return previousInstructionAddress;
+    }
+
+    public void setPreviousInstructionAddress(int previousInstructionAddress) {
+        this.previousInstructionAddress = previousInstructionAddress;
+    }
+
+    public long getCycles() {
+        return cycles;
+    }
+
+    public void setCycles(long cycles) {
+        this.cycles = cycles;
+    }
+
+    public long getInstructions() {
+        return instructions;
+    }
+
+    public void setInstructions(long instructions) {
+        this.instructions = instructions;
+    }
+
+    public char[][] getMemoryPages() {
+        return memoryPages;
+    }
+
+    public void setMemoryPages(char[][] memoryPages) {
+        this.memoryPages = memoryPages;
+    }
+
+    public char[][] getExternalMemoryPages() {
+        return externalMemoryPages;
+    }
+
+    public void setExternalMemoryPages(char[][] externalMemoryPages) {
+        this.externalMemoryPages = externalMemoryPages;
+    }
+
+    public int getDeviceAccessLogPosition() {
+        return deviceAccessLogPosition;
+    }
+
+    public void setDeviceAccessLogPosition(int deviceAccessLogPosition) {
+        this.deviceAccessLogPosition = deviceAccessLogPosition;
+    }
+}
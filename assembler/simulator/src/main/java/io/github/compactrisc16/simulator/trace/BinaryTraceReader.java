@@ -0,0 +1,156 @@
+package io.github.compactrisc16.simulator.trace;
+
+import io.github.compactrisc16.simulator.cr16.CR16;
+import io.github.compactrisc16.simulator.trace.exception.TraceParseException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import static io.github.compactrisc16.simulator.trace.TraceWriter.EVENT_REGISTER_SHIFT;
+import static io.github.compactrisc16.simulator.trace.TraceWriter.EVENT_TYPE_MASK;
+import static io.github.compactrisc16.simulator.trace.TraceWriter.HEADER_EVENT_COUNT_SHIFT;
+import static io.github.compactrisc16.simulator.trace.TraceWriter.HEADER_INSTRUCTION_ADDRESS;
+import static io.github.compactrisc16.simulator.trace.TraceWriter.HEADER_STATUS_FLAGS;
+import static io.github.compactrisc16.simulator.trace.TraceWriter.MAX_HEADER_EVENT_COUNT;
+
+/**
+ * {@link BinaryTraceReader} is a {@link TraceReader} of the binary traces written by {@link TraceWriter}.
+ */
+public class BinaryTraceReader implements TraceReader {
+
+    private static final TraceEventType[] EVENT_TYPES = TraceEventType.values();
+
+    private final InputStream inputStream;
+    private final int[] registerValues;
+    private final int[] addressesOfMemories;
+    private final int[] wordsOfMemories;
+    private int instructionAddress;
+    private int statusFlags;
+    private int nextHeader;
+    private long recordCount;
+
+    /**
+     * Instantiates a new {@link BinaryTraceReader} and reads the {@link TraceWriter#MAGIC} bytes.
+     *
+     * @param inputStream the {@link InputStream}, which should be buffered
+     *
+     * @throws IOException         thrown for {@link IOException}s
+     * @throws TraceParseException thrown if the {@link InputStream} doesn't start with the {@link TraceWriter#MAGIC}
+     *                             bytes
+     */
+    public BinaryTraceReader(InputStream inputStream) throws IOException, TraceParseException {
+        this.inputStream = inputStream;
+        registerValues = new int[CR16.REGISTER_COUNT];
+        addressesOfMemories = new int[2];
+        wordsOfMemories = new int[2];
+        instructionAddress = -1;
+        if (!Arrays.equals(inputStream.readNBytes(TraceWriter.MAGIC.length), TraceWriter.MAGIC)) {
+            throw new TraceParseException("The input is not a binary trace of a supported version.", null);
+        }
+        nextHeader = inputStream.read();
+    }
+
+    @Override
+    public boolean read(TraceRecord record) throws IOException, TraceParseException {
+        if (nextHeader < 0) {
+            return false;
+        }
+
+        final int header = nextHeader;
+        int nextInstructionAddress = instructionAddress + 1 & 0xFFFF;
+        if ((header & HEADER_INSTRUCTION_ADDRESS) != 0) {
+            nextInstructionAddress = nextInstructionAddress + readDifference() & 0xFFFF;
+        }
+        if ((header & HEADER_STATUS_FLAGS) != 0) {
+            statusFlags = readByte();
+        }
+        instructionAddress = nextInstructionAddress;
+        int eventCount = header >>> HEADER_EVENT_COUNT_SHIFT;
+        if (eventCount == MAX_HEADER_EVENT_COUNT) {
+            eventCount += readVarint();
+        }
+
+        record.reset(instructionAddress, statusFlags);
+        for (int index = 0; index < eventCount; index++) {
+            final int tag = readByte();
+            final int typeOrdinal = tag & EVENT_TYPE_MASK;
+            if (typeOrdinal >= EVENT_TYPES.length) {
+                throw new TraceParseException(String.format("Instruction %d has an unknown event type.",
+                        recordCount + 1), null);
+            }
+            final TraceEventType type = EVENT_TYPES[typeOrdinal];
+            if (type == TraceEventType.REGISTER) {
+                final int registerIndex = tag >>> EVENT_REGISTER_SHIFT;
+                registerValues[registerIndex] = registerValues[registerIndex] + readDifference() & 0xFFFF;
+                record.addEvent(type, registerIndex, registerValues[registerIndex]);
+            } else {
+                final int memoryIndex = type == TraceEventType.MEMORY ? 0 : 1;
+                addressesOfMemories[memoryIndex] = addressesOfMemories[memoryIndex] + readDifference() & 0xFFFF;
+                wordsOfMemories[memoryIndex] = wordsOfMemories[memoryIndex] + readDifference() & 0xFFFF;
+                record.addEvent(type, addressesOfMemories[memoryIndex], wordsOfMemories[memoryIndex]);
+            }
+        }
+
+        nextHeader = inputStream.read();
+        record.setComplete(nextHeader >= 0);
+        recordCount++;
+        return true;
+    }
+
+    /**
+     * Reads a zigzag encoded varint of the difference of two 16-bit values.
+     *
+     * @return the difference
+     *
+     * @throws IOException         thrown for {@link IOException}s
+     * @throws TraceParseException thrown if the trace ends in the varint
+     */
+    private int readDifference() throws IOException, TraceParseException {
+        final int zigzag = readVarint();
+        return zigzag >>> 1 ^ -(zigzag & 1);
+    }
+
+    /**
+     * Reads an unsigned LEB128 varint.
+     *
+     * @return the value
+     *
+     * @throws IOException         thrown for {@link IOException}s
+     * @throws TraceParseException thrown if the trace ends in the varint or the varint is too long
+     */
+    private int readVarint() throws IOException, TraceParseException {
+        int value = 0;
+        for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+            final int b = readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new TraceParseException(String.format("Instruction %d has a malformed varint.", recordCount + 1),
+                null);
+    }
+
+    /**
+     * Reads a byte within a record.
+     *
+     * @return the unsigned byte
+     *
+     * @throws IOException         thrown for {@link IOException}s
+     * @throws TraceParseException thrown if the trace ends
+     */
+    private int readByte() throws IOException, TraceParseException {
+        final int b = inputStream.read();
+        if (b < 0) {
+            throw new TraceParseException(String.format("The trace is truncated in instruction %d.",
+                    recordCount + 1), null);
+        }
+        return b;
+    }
+
+    @Override
+    public void close() throws IOException {
+        inputStream.close();
+    }
+}
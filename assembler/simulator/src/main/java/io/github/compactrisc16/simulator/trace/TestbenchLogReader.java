@@ -0,0 +1,170 @@
+package io.github.compactrisc16.simulator.trace;
+
+import io.github.compactrisc16.simulator.cr16.ALU;
+import io.github.compactrisc16.simulator.cr16.CR16;
+import io.github.compactrisc16.simulator.trace.exception.TraceParseException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * {@link TestbenchLogReader} is a {@link TraceReader} of the logs that <code>src/v/tb/cr16_top/cr16_top_tb.sv</code>
+ * writes when it is run with the <code>+trace</code> plusarg. Each line of a log is one of:
+ * <ul>
+ *     <li><code>I &lt;instruction address in hex&gt; &lt;status flags in binary&gt;</code> for a fetch</li>
+ *     <li><code>R &lt;register index in decimal&gt; &lt;value in hex&gt;</code> for a regfile write</li>
+ *     <li><code>M &lt;address in hex&gt; &lt;word in hex&gt;</code> for a main memory write</li>
+ *     <li><code>X &lt;address in hex&gt; &lt;word in hex&gt;</code> for an external memory write</li>
+ * </ul>
+ * Blank lines and the writes before the first fetch are skipped, but any other line is rejected, so a file that isn't
+ * a log doesn't read as an empty trace. The writes of an instruction are the lines that follow its fetch until the
+ * next fetch.
+ */
+public class TestbenchLogReader implements TraceReader {
+
+    private final BufferedReader reader;
+    private int lineNumber;
+    private boolean fetchPending;
+    private int pendingInstructionAddress;
+    private int pendingStatusFlags;
+
+    /**
+     * Instantiates a new {@link TestbenchLogReader}.
+     *
+     * @param reader the {@link BufferedReader}
+     */
+    public TestbenchLogReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public boolean read(TraceRecord record) throws IOException, TraceParseException {
+        String line;
+        while (!fetchPending) {
+            if ((line = reader.readLine()) == null) {
+                return false;
+            }
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            final char kind = line.charAt(0);
+            if (kind == 'I') {
+                parseFetch(line);
+            } else if (kind != 'R' && kind != 'M' && kind != 'X') {
+                throw new TraceParseException("The line doesn't start with I, R, M, or X.", lineNumber);
+            }
+        }
+
+        record.reset(pendingInstructionAddress, pendingStatusFlags);
+        fetchPending = false;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            final char kind = line.charAt(0);
+            if (kind == 'I') {
+                parseFetch(line);
+                break;
+            }
+            final int locationEnd = findFieldEnd(line, 2);
+            switch (kind) {
+                case 'R':
+                    final int registerIndex = parseNumber(line, 2, locationEnd, 10);
+                    if (registerIndex >= CR16.REGISTER_COUNT) {
+                        throw new TraceParseException("The register index is out of range.", lineNumber);
+                    }
+                    record.addEvent(TraceEventType.REGISTER, registerIndex,
+                            parseNumber(line, locationEnd + 1, line.length(), 16));
+                    break;
+                case 'M':
+                case 'X':
+                    record.addEvent(kind == 'M' ? TraceEventType.MEMORY : TraceEventType.EXTERNAL_MEMORY,
+                            parseNumber(line, 2, locationEnd, 16),
+                            parseNumber(line, locationEnd + 1, line.length(), 16));
+                    break;
+                default:
+                    throw new TraceParseException("The line doesn't start with I, R, M, or X.", lineNumber);
+            }
+        }
+        record.setComplete(fetchPending);
+        return true;
+    }
+
+    /**
+     * Parses a fetch line into the pending fetch.
+     *
+     * @param line the line
+     *
+     * @throws TraceParseException thrown for {@link TraceParseException}s
+     */
+    private void parseFetch(String line) throws TraceParseException {
+        final int addressEnd = findFieldEnd(line, 2);
+        pendingInstructionAddress = parseNumber(line, 2, addressEnd, 16);
+        pendingStatusFlags = parseNumber(line, addressEnd + 1, line.length(), 2);
+        if (pendingStatusFlags >>> ALU.STATUS_FLAG_COUNT != 0) {
+            throw new TraceParseException("The status flags are out of range.", lineNumber);
+        }
+        fetchPending = true;
+    }
+
+    /**
+     * Finds the end of the field that starts at the given index.
+     *
+     * @param line       the line
+     * @param startIndex the start index of the field
+     *
+     * @return the index of the space after the field
+     *
+     * @throws TraceParseException thrown if the field isn't followed by another field
+     */
+    private int findFieldEnd(String line, int startIndex) throws TraceParseException {
+        final int endIndex = line.indexOf(' ', startIndex);
+        if (startIndex > line.length() || line.charAt(startIndex - 1) != ' ' || endIndex < 0) {
+            throw new TraceParseException("The line doesn't have two fields after its kind.", lineNumber);
+        }
+        return endIndex;
+    }
+
+    /**
+     * Parses an unsigned 16-bit number without allocating, unlike {@link Integer#parseInt(String, int)} on a
+     * substring. Trailing whitespace is ignored.
+     *
+     * @param line       the line
+     * @param startIndex the start index
+     * @param endIndex   the end index (exclusive)
+     * @param radix      the radix
+     *
+     * @return the number
+     *
+     * @throws TraceParseException thrown if the number is empty, is out of range, or has a digit that isn't valid in
+     *                             the radix (such as an <code>x</code> or <code>z</code> of an unknown value)
+     */
+    private int parseNumber(String line, int startIndex, int endIndex, int radix) throws TraceParseException {
+        while (endIndex > startIndex && Character.isWhitespace(line.charAt(endIndex - 1))) {
+            endIndex--;
+        }
+        if (startIndex >= endIndex) {
+            throw new TraceParseException("A number is missing.", lineNumber);
+        }
+        int number = 0;
+        for (int index = startIndex; index < endIndex; index++) {
+            final int digit = Character.digit(line.charAt(index), radix);
+            if (digit < 0) {
+                throw new TraceParseException(String.format("\"%s\" isn't a known number.",
+                        line.substring(startIndex, endIndex)), lineNumber);
+            }
+            number = number * radix + digit;
+            if (number > 0xFFFF) {
+                throw new TraceParseException("A number is out of range.", lineNumber);
+            }
+        }
+        return number;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,191 @@
+package io.github.compactrisc16.simulator.trace;
+
+import com.beust.jcommander.ParameterException;
+import io.github.compactrisc16.simulator.argument.TraceComparatorArguments;
+import io.github.compactrisc16.simulator.trace.exception.TraceParseException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * {@link TraceComparator} streams two traces in lockstep and reports the first instruction at which they diverge,
+ * along with the instructions leading up to it. Each trace may be a binary trace written by {@link TraceWriter} or a
+ * log read by {@link TestbenchLogReader}, so that the simulator can be checked against the RTL testbench and against
+ * itself. Only one record of each trace and the context are held in memory, so traces of any length can be compared.
+ */
+public class TraceComparator {
+
+    private final String[] argumentStrings;
+    private final Path workingDirectory;
+    private final PrintStream out;
+    private final PrintStream err;
+    private TraceComparatorArguments arguments;
+
+    /**
+     * Instantiates a new {@link TraceComparator} that resolves relative paths against the current working directory
+     * and prints to {@link System#out} and {@link System#err}.
+     *
+     * @param argumentStrings the input argument {@link String}s
+     */
+    public TraceComparator(String[] argumentStrings) {
+        this(argumentStrings, Path.of("").toAbsolutePath(), System.out, System.err);
+    }
+
+    /**
+     * Instantiates a new {@link TraceComparator}.
+     *
+     * @param argumentStrings  the input argument {@link String}s
+     * @param workingDirectory the absolute {@link Path} that relative paths are resolved against
+     * @param out              the {@link PrintStream} for the usage and the result
+     * @param err              the {@link PrintStream} for exceptions
+     */
+    public TraceComparator(String[] argumentStrings, Path workingDirectory, PrintStream out, PrintStream err) {
+        this.argumentStrings = argumentStrings;
+        this.workingDirectory = workingDirectory;
+        this.out = out;
+        this.err = err;
+    }
+
+    /**
+     * Parses the {@link TraceComparatorArguments} and compares the traces. A trace that ends before the other isn't a
+     * divergence, since the testbench runs for a fixed time while the simulator runs until the program halts, but a
+     * trace without any instructions is (e.g. a log of a testbench run without <code>+trace</code>).
+     *
+     * @return <code>true</code> if both traces have instructions and they didn't diverge
+     */
+    public boolean run() {
+        arguments = new TraceComparatorArguments(argumentStrings, workingDirectory);
+        try {
+            arguments.parse();
+        } catch (ParameterException exception) {
+            StringBuilder usage = new StringBuilder();
+            exception.getJCommander().getUsageFormatter().usage(usage);
+            out.print(usage);
+            return false;
+        } catch (IllegalArgumentException exception) {
+            printException(exception);
+            return false;
+        }
+
+        final File expectedTraceFile = arguments.getExpectedTraceFile();
+        final File actualTraceFile = arguments.getActualTraceFile();
+        try (TraceReader expectedReader = openTraceReader(expectedTraceFile);
+             TraceReader actualReader = openTraceReader(actualTraceFile)) {
+            final TraceRecord[] context = new TraceRecord[arguments.getContextSize()];
+            for (int index = 0; index < context.length; index++) {
+                context[index] = new TraceRecord();
+            }
+            final TraceRecord expectedRecord = new TraceRecord();
+            final TraceRecord actualRecord = new TraceRecord();
+
+            long matchedCount = 0;
+            while (true) {
+                final boolean expectedRead = expectedReader.read(expectedRecord);
+                final boolean actualRead = actualReader.read(actualRecord);
+                if (matchedCount == 0 && (!expectedRead || !actualRead)) {
+                    if (!expectedRead && !actualRead) {
+                        out.println("Neither trace has any instructions.");
+                    } else {
+                        out.printf("The %s trace doesn't have any instructions.%n",
+                                expectedRead ? "actual" : "expected");
+                    }
+                    return false;
+                }
+                if (!expectedRead || !actualRead) {
+                    out.printf("Matched %d instructions%s.%n", matchedCount,
+                            expectedRead == actualRead ? "" :
+                            String.format(", after which the %s trace ended", expectedRead ? "actual" : "expected"));
+                    return true;
+                }
+
+                final String difference = expectedRecord.findDifference(actualRecord);
+                if (difference != null) {
+                    final long instructionNumber = matchedCount + 1;
+                    out.printf("Diverged at instruction %d, where %s.%n", instructionNumber, difference);
+                    final long firstContextNumber = Math.max(1, instructionNumber - context.length);
+                    for (long number = firstContextNumber; number < instructionNumber; number++) {
+                        out.printf("  #%d %s%n", number, context[(int) ((number - 1) % context.length)]);
+                    }
+                    out.printf("- #%d %s (%s)%n", instructionNumber, expectedRecord, expectedTraceFile.getPath());
+                    out.printf("+ #%d %s (%s)%n", instructionNumber, actualRecord, actualTraceFile.getPath());
+                    return false;
+                }
+
+                if (context.length > 0) {
+                    context[(int) (matchedCount % context.length)].copyFrom(expectedRecord);
+                }
+                matchedCount++;
+            }
+        } catch (IOException | TraceParseException exception) {
+            printException(exception);
+            return false;
+        }
+    }
+
+    /**
+     * Opens a {@link TraceReader} of the given trace {@link File}, which is a binary trace if it starts with the
+     * {@link TraceWriter#MAGIC} bytes and a testbench log otherwise.
+     *
+     * @param traceFile the trace {@link File}
+     *
+     * @return the {@link TraceReader}
+     *
+     * @throws IOException         thrown for {@link IOException}s
+     * @throws TraceParseException thrown for {@link TraceParseException}s
+     */
+    private static TraceReader openTraceReader(File traceFile) throws IOException, TraceParseException {
+        final InputStream inputStream = new BufferedInputStream(new FileInputStream(traceFile));
+        try {
+            inputStream.mark(TraceWriter.MAGIC.length);
+            final byte[] magic = inputStream.readNBytes(TraceWriter.MAGIC.length);
+            inputStream.reset();
+            if (Arrays.equals(magic, TraceWriter.MAGIC)) {
+                return new BinaryTraceReader(inputStream);
+            }
+            return new TestbenchLogReader(new BufferedReader(
+                    new InputStreamReader(inputStream, StandardCharsets.US_ASCII)));
+        } catch (IOException | TraceParseException exception) {
+            inputStream.close();
+            throw exception;
+        }
+    }
+
+    /**
+     * Prints the given {@link Exception} or its stack trace in debug mode.
+     *
+     * @param exception the {@link Exception}
+     */
+    private void printException(Exception exception) {
+        if (arguments != null && arguments.isDebug()) {
+            exception.printStackTrace(err);
+        } else {
+            err.println(exception.getClass().getSimpleName() + ": " + exception.getMessage());
+        }
+    }
+
+    public TraceComparatorArguments getArguments() {
+        return arguments;
+    }
+
+    /**
+     * The entry point of application. Exits with a status of <code>1</code> if the traces diverged or couldn't be
+     * read.
+     *
+     * @param args the input arguments
+     */
+    public static void main(String[] args) {
+        TraceComparator traceComparator = new TraceComparator(args);
+        if (!traceComparator.run()) {
+            System.exit(1);
+        }
+    }
+}
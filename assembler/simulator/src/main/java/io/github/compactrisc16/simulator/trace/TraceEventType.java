@@ -0,0 +1,22 @@
+package io.github.compactrisc16.simulator.trace;
+
+/**
+ * {@link TraceEventType} defines the kinds of writes that a {@link TraceRecord} holds for an instruction.
+ */
+public enum TraceEventType {
+
+    /**
+     * A write of the result bus to a register of the regfile.
+     */
+    REGISTER,
+
+    /**
+     * A write to the main memory.
+     */
+    MEMORY,
+
+    /**
+     * A write to the external memory.
+     */
+    EXTERNAL_MEMORY
+}
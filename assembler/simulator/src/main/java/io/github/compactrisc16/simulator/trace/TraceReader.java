@@ -0,0 +1,26 @@
+package io.github.compactrisc16.simulator.trace;
+
+import io.github.compactrisc16.simulator.trace.exception.TraceParseException;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * {@link TraceReader} reads a trace one {@link TraceRecord} at a time, so that traces of any length can be read in
+ * constant memory.
+ */
+public interface TraceReader extends Closeable {
+
+    /**
+     * Reads the next instruction into the given {@link TraceRecord}. The last record is incomplete (see {@link
+     * TraceRecord#isComplete()}), since the trace may have ended before all of its writes.
+     *
+     * @param record the {@link TraceRecord} to reset and fill
+     *
+     * @return <code>false</code> if the trace has ended
+     *
+     * @throws IOException         thrown for {@link IOException}s
+     * @throws TraceParseException thrown for {@link TraceParseException}s
+     */
+    boolean read(TraceRecord record) throws IOException, TraceParseException;
+}
@@ -0,0 +1,212 @@
+package io.github.compactrisc16.simulator.trace;
+
+import io.github.compactrisc16.assembler.isa.register.Register;
+import io.github.compactrisc16.assembler.isa.register.Registers;
+import io.github.compactrisc16.simulator.Simulator;
+import io.github.compactrisc16.simulator.cr16.ALU;
+import io.github.compactrisc16.simulator.cr16.CR16;
+import io.github.compactrisc16.simulator.cr16.CR16Listener;
+
+import java.util.Arrays;
+
+/**
+ * {@link TraceRecord} holds the trace of one instruction: the instruction address and status flags at its fetch,
+ * followed by the regfile and memory writes (events) in the order reported to a {@link CR16Listener}. A record is only
+ * complete once the next instruction is fetched, since the writes of an instruction end at the next fetch. A {@link
+ * TraceRecord} is reused for every instruction that is read, so its event arrays only grow to the most writes of an
+ * instruction.
+ */
+public class TraceRecord {
+
+    private static final int INITIAL_EVENT_CAPACITY = 4;
+    private static final TraceEventType[] EVENT_TYPES = TraceEventType.values();
+    private static final String[] REGISTER_NAMES = new String[CR16.REGISTER_COUNT];
+
+    static {
+        for (Register register : Registers.REGISTERS) {
+            REGISTER_NAMES[register.getIndex()] = register.getName();
+        }
+    }
+
+    private int instructionAddress;
+    private int statusFlags;
+    private boolean complete;
+    private int[] eventTypes;
+    private int[] eventLocations;
+    private int[] eventValues;
+    private int eventCount;
+
+    /**
+     * Instantiates a new {@link TraceRecord}.
+     */
+    public TraceRecord() {
+        eventTypes = new int[INITIAL_EVENT_CAPACITY];
+        eventLocations = new int[INITIAL_EVENT_CAPACITY];
+        eventValues = new int[INITIAL_EVENT_CAPACITY];
+    }
+
+    /**
+     * Resets this {@link TraceRecord} to a fetched instruction without events that isn't complete yet.
+     *
+     * @param instructionAddress the instruction address
+     * @param statusFlags        the status flags at the fetch
+     */
+    public void reset(int instructionAddress, int statusFlags) {
+        this.instructionAddress = instructionAddress;
+        this.statusFlags = statusFlags;
+        complete = false;
+        eventCount = 0;
+    }
+
+    /**
+     * Adds an event.
+     *
+     * @param type     the {@link TraceEventType}
+     * @param location the register index or the address
+     * @param value    the unsigned 16-bit value or word
+     */
+    public void addEvent(TraceEventType type, int location, int value) {
+        if (eventCount == eventTypes.length) {
+            eventTypes = Arrays.copyOf(eventTypes, eventCount * 2);
+            eventLocations = Arrays.copyOf(eventLocations, eventCount * 2);
+            eventValues = Arrays.copyOf(eventValues, eventCount * 2);
+        }
+        eventTypes[eventCount] = type.ordinal();
+        eventLocations[eventCount] = location;
+        eventValues[eventCount] = value;
+        eventCount++;
+    }
+
+    /**
+     * Copies the given {@link TraceRecord} into this {@link TraceRecord}.
+     *
+     * @param record the {@link TraceRecord}
+     */
+    public void copyFrom(TraceRecord record) {
+        reset(record.instructionAddress, record.statusFlags);
+        complete = record.complete;
+        for (int index = 0; index < record.eventCount; index++) {
+            addEvent(record.getEventType(index), record.eventLocations[index], record.eventValues[index]);
+        }
+    }
+
+    /**
+     * Finds the first difference between this {@link TraceRecord} and the given one. The events are only compared if
+     * both records are complete.
+     *
+     * @param record the {@link TraceRecord}
+     *
+     * @return a description of the difference or <code>null</code> if there is none
+     */
+    public String findDifference(TraceRecord record) {
+        if (instructionAddress != record.instructionAddress) {
+            return "the instruction addresses differ";
+        }
+        if (statusFlags != record.statusFlags) {
+            return "the status flags differ";
+        }
+        if (!complete || !record.complete) {
+            return null;
+        }
+        if (eventCount != record.eventCount) {
+            return "the numbers of writes differ";
+        }
+        for (int index = 0; index < eventCount; index++) {
+            if (eventTypes[index] != record.eventTypes[index] ||
+                    eventLocations[index] != record.eventLocations[index]) {
+                return "the write targets differ";
+            }
+            if (eventValues[index] != record.eventValues[index]) {
+                return "the written values differ";
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Formats this {@link TraceRecord} like <code>0x0012 -Z--- r3=0x0004 mem[0x0030]=0x0005</code>, where the status
+     * flags are written from N to C with a dash for each cleared flag.
+     *
+     * @return the formatted {@link String}
+     */
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder(String.format("0x%04X ", instructionAddress));
+        for (int index = ALU.STATUS_FLAG_COUNT - 1; index >= 0; index--) {
+            builder.append((statusFlags >>> index & 1) != 0 ? Simulator.STATUS_FLAG_NAMES.charAt(index) : '-');
+        }
+        for (int index = 0; index < eventCount; index++) {
+            switch (getEventType(index)) {
+                case REGISTER:
+                    builder.append(' ').append(REGISTER_NAMES[eventLocations[index]]);
+                    break;
+                case MEMORY:
+                    builder.append(String.format(" mem[0x%04X]", eventLocations[index]));
+                    break;
+                case EXTERNAL_MEMORY:
+                    builder.append(String.format(" ext[0x%04X]", eventLocations[index]));
+                    break;
+                default:
+                    throw new UnsupportedOperationException();
+            }
+            builder.append(String.format("=0x%04X", eventValues[index]));
+        }
+        if (!complete) {
+            builder.append(" (incomplete)");
+        }
+        return builder.toString();
+    }
+
+    public int getInstructionAddress() {
+        return instructionAddress;
+    }
+
+    public int getStatusFlags() {
+        return statusFlags;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public void setComplete(boolean complete) {
+        this.complete = complete;
+    }
+
+    public int getEventCount() {
+        return eventCount;
+    }
+
+    /**
+     * Gets the {@link TraceEventType} of an event.
+     *
+     * @param index the event index
+     *
+     * @return the {@link TraceEventType}
+     */
+    public TraceEventType getEventType(int index) {
+        return EVENT_TYPES[eventTypes[index]];
+    }
+
+    /**
+     * Gets the register index or address of an event.
+     *
+     * @param index the event index
+     *
+     * @return the register index or address
+     */
+    public int getEventLocation(int index) {
+        return eventLocations[index];
+    }
+
+    /**
+     * Gets the value or word of an event.
+     *
+     * @param index the event index
+     *
+     * @return the unsigned 16-bit value or word
+     */
+    public int getEventValue(int index) {
+        return eventValues[index];
+    }
+}
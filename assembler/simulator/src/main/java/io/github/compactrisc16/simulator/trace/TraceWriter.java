@@ -0,0 +1,207 @@
+package io.github.compactrisc16.simulator.trace;
+
+import io.github.compactrisc16.simulator.cr16.CR16;
+import io.github.compactrisc16.simulator.cr16.CR16Listener;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * {@link TraceWriter} is a {@link CR16Listener} that writes the {@link TraceRecord} of every instruction to a compact
+ * binary trace. The trace starts with the {@link #MAGIC} bytes, followed by one record per instruction:
+ * <ul>
+ *     <li>A header byte, whose bit 0 is set if the instruction address isn't the previous one plus one, whose bit 1
+ *     is set if the status flags changed, and whose bits 2 to 7 are the number of events (63 means that the number
+ *     minus 63 follows as a varint).</li>
+ *     <li>If bit 0 is set, the difference from the previous instruction address plus one.</li>
+ *     <li>If bit 1 is set, a byte with the status flags.</li>
+ *     <li>The events, each of which starts with a byte that holds the ordinal of the {@link TraceEventType} in bits 0
+ *     and 1 and the register index of a {@link TraceEventType#REGISTER} event in bits 4 to 7. A register event is
+ *     followed by the difference from the previous value of the register, and a memory event is followed by the
+ *     differences from the address and the word of the previous write to the same memory.</li>
+ * </ul>
+ * The differences are of 16-bit values, so they are written as signed 16-bit values that are zigzag encoded into
+ * unsigned LEB128 varints of one to three bytes. Sequential instructions that write one register take about three
+ * bytes each.
+ */
+public class TraceWriter implements CR16Listener, Closeable {
+
+    /**
+     * The bytes that a binary trace starts with, the last of which is the version of the format.
+     */
+    public static final byte[] MAGIC = {'C', 'R', '1', '6', 'T', 'R', 'C', 1};
+
+    static final int HEADER_INSTRUCTION_ADDRESS = 1;
+    static final int HEADER_STATUS_FLAGS = 1 << 1;
+    static final int HEADER_EVENT_COUNT_SHIFT = 2;
+    static final int MAX_HEADER_EVENT_COUNT = 63;
+    static final int EVENT_TYPE_MASK = 0b11;
+    static final int EVENT_REGISTER_SHIFT = 4;
+
+    private final OutputStream outputStream;
+    private final TraceRecord record;
+    private final int[] registerValues;
+    private final int[] addressesOfMemories;
+    private final int[] wordsOfMemories;
+    private boolean fetched;
+    private int instructionAddress;
+    private int statusFlags;
+    private long recordCount;
+
+    /**
+     * Instantiates a new {@link TraceWriter} and writes the {@link #MAGIC} bytes.
+     *
+     * @param outputStream the {@link OutputStream}, which should be buffered
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    public TraceWriter(OutputStream outputStream) throws IOException {
+        this.outputStream = outputStream;
+        record = new TraceRecord();
+        registerValues = new int[CR16.REGISTER_COUNT];
+        addressesOfMemories = new int[2];
+        wordsOfMemories = new int[2];
+        instructionAddress = -1;
+        outputStream.write(MAGIC);
+    }
+
+    /**
+     * {@inheritDoc} Writes before the first fetch are ignored.
+     */
+    @Override
+    public void memoryWritten(boolean external, int address, int word) {
+        if (fetched) {
+            record.addEvent(external ? TraceEventType.EXTERNAL_MEMORY : TraceEventType.MEMORY, address, word);
+        }
+    }
+
+    /**
+     * {@inheritDoc} Writes before the first fetch are ignored.
+     */
+    @Override
+    public void registerWritten(int index, int value) {
+        if (fetched) {
+            record.addEvent(TraceEventType.REGISTER, index, value);
+        }
+    }
+
+    /**
+     * {@inheritDoc} The record of the previous instruction is written.
+     *
+     * @throws UncheckedIOException thrown for {@link IOException}s
+     */
+    @Override
+    public void fetched(int instructionAddress, int statusFlags) {
+        try {
+            if (fetched) {
+                writeRecord();
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        record.reset(instructionAddress, statusFlags);
+        fetched = true;
+    }
+
+    /**
+     * Writes the {@link #record}.
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    private void writeRecord() throws IOException {
+        final int expectedInstructionAddress = instructionAddress + 1 & 0xFFFF;
+        final int eventCount = record.getEventCount();
+        int header = Math.min(eventCount, MAX_HEADER_EVENT_COUNT) << HEADER_EVENT_COUNT_SHIFT;
+        if (record.getInstructionAddress() != expectedInstructionAddress) {
+            header |= HEADER_INSTRUCTION_ADDRESS;
+        }
+        if (record.getStatusFlags() != statusFlags) {
+            header |= HEADER_STATUS_FLAGS;
+        }
+        outputStream.write(header);
+        if ((header & HEADER_INSTRUCTION_ADDRESS) != 0) {
+            writeDifference(record.getInstructionAddress(), expectedInstructionAddress);
+        }
+        if ((header & HEADER_STATUS_FLAGS) != 0) {
+            outputStream.write(record.getStatusFlags());
+        }
+        if (eventCount >= MAX_HEADER_EVENT_COUNT) {
+            writeVarint(eventCount - MAX_HEADER_EVENT_COUNT);
+        }
+        instructionAddress = record.getInstructionAddress();
+        statusFlags = record.getStatusFlags();
+
+        for (int index = 0; index < eventCount; index++) {
+            final TraceEventType type = record.getEventType(index);
+            final int location = record.getEventLocation(index);
+            final int value = record.getEventValue(index);
+            if (type == TraceEventType.REGISTER) {
+                outputStream.write(location << EVENT_REGISTER_SHIFT | type.ordinal());
+                writeDifference(value, registerValues[location]);
+                registerValues[location] = value;
+            } else {
+                final int memoryIndex = type == TraceEventType.MEMORY ? 0 : 1;
+                outputStream.write(type.ordinal());
+                writeDifference(location, addressesOfMemories[memoryIndex]);
+                writeDifference(value, wordsOfMemories[memoryIndex]);
+                addressesOfMemories[memoryIndex] = location;
+                wordsOfMemories[memoryIndex] = value;
+            }
+        }
+        recordCount++;
+    }
+
+    /**
+     * Writes the difference of two 16-bit values as a zigzag encoded varint.
+     *
+     * @param value         the value
+     * @param previousValue the value to subtract
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    private void writeDifference(int value, int previousValue) throws IOException {
+        final int difference = (short) (value - previousValue);
+        writeVarint(difference << 1 ^ difference >> 31);
+    }
+
+    /**
+     * Writes an unsigned LEB128 varint.
+     *
+     * @param value the non-negative value
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    private void writeVarint(int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            outputStream.write(value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        outputStream.write(value);
+    }
+
+    /**
+     * Writes the record of the last fetched instruction and closes the {@link OutputStream}.
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    @Override
+    public void close() throws IOException {
+        try (outputStream) {
+            if (fetched) {
+                writeRecord();
+                fetched = false;
+            }
+        }
+    }
+
+    /**
+     * Gets the number of records written so far.
+     *
+     * @return the number of records
+     */
+    public long getRecordCount() {
+        return recordCount;
+    }
+}
@@ -0,0 +1,26 @@
+package io.github.compactrisc16.simulator.trace.exception;
+
+/**
+ * {@link TraceParseException} represents a (checked) {@link Exception} thrown when a binary trace or a testbench trace
+ * log can't be parsed.
+ */
+public class TraceParseException extends Exception {
+
+    private final Integer lineNumber;
+
+    /**
+     * Instantiates a new {@link TraceParseException}.
+     *
+     * @param message    the message
+     * @param lineNumber the line number (<code>null</code> to disregard)
+     */
+    public TraceParseException(String message, Integer lineNumber) {
+        super(message);
+        this.lineNumber = lineNumber;
+    }
+
+    @Override
+    public String getMessage() {
+        return lineNumber == null ? super.getMessage() : "On line " + lineNumber + ": " + super.getMessage();
+    }
+}
@@ -1,13 +1,15 @@
 package io.github.compactrisc16.assembler;
 
 import com.beust.jcommander.ParameterException;
-import com.google.common.base.Splitter;
-import com.google.common.collect.Sets;
 import io.github.compactrisc16.assembler.argument.Arguments;
 import io.github.compactrisc16.assembler.assembly.Define;
 import io.github.compactrisc16.assembler.assembly.Label;
+import io.github.compactrisc16.assembler.assembly.LabelReference;
 import io.github.compactrisc16.assembler.assembly.Line;
+import io.github.compactrisc16.assembler.assembly.Macro;
 import io.github.compactrisc16.assembler.assembly.exception.AssemblyParseException;
+import io.github.compactrisc16.assembler.cache.AssemblyCache;
+import io.github.compactrisc16.assembler.cache.CachedAssembly;
 import io.github.compactrisc16.assembler.isa.instruction.AbstractInstruction;
 import io.github.compactrisc16.assembler.isa.instruction.exception.InstructionParseException;
 import io.github.compactrisc16.assembler.isa.instruction.type.cond.BInstruction;
@@ -15,20 +17,43 @@ import io.github.compactrisc16.assembler.isa.instruction.type.imm.CalldInstructi
 import io.github.compactrisc16.assembler.isa.instruction.type.r.RdestRsrcInstruction;
 import io.github.compactrisc16.assembler.isa.register.Register;
 import io.github.compactrisc16.assembler.isa.register.Registers;
+import io.github.compactrisc16.assembler.argument.OutputFormat;
+import io.github.compactrisc16.assembler.output.AbstractMachineCodeWriter;
+import io.github.compactrisc16.assembler.output.DatWriter;
+import io.github.compactrisc16.assembler.output.IntelHexWriter;
+import io.github.compactrisc16.assembler.output.MifWriter;
+import io.github.compactrisc16.assembler.output.ProcessedAssemblyWriter;
+import io.github.compactrisc16.assembler.output.RawBinaryWriter;
+import io.github.compactrisc16.assembler.peephole.PeepholeOptimizer;
+import io.github.compactrisc16.assembler.peephole.PeepholeRewrite;
+import io.github.compactrisc16.assembler.stats.AssemblyStatistics;
+import io.github.compactrisc16.assembler.stats.Phase;
+import io.github.compactrisc16.assembler.stats.PhaseStatistics;
 import io.github.compactrisc16.assembler.util.BasedNumberParser;
 
-import java.io.FileWriter;
+import java.io.File;
 import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.IntStream;
 
 import static io.github.compactrisc16.assembler.isa.instruction.Instructions.B_INSTRUCTIONS;
@@ -37,7 +62,6 @@ import static io.github.compactrisc16.assembler.isa.instruction.Instructions.CAL
 import static io.github.compactrisc16.assembler.isa.instruction.Instructions.INSTRUCTIONS_OF_MNEMONICS;
 import static io.github.compactrisc16.assembler.isa.instruction.Instructions.J_INSTRUCTIONS;
 import static io.github.compactrisc16.assembler.isa.instruction.Instructions.MOV;
-import static java.util.function.Predicate.not;
 
 /**
  * {@link Assembler} is used to assemble assembly code for the CompactRISC16 (CR16) CPU for the Computer Design
@@ -45,153 +69,577 @@ import static java.util.function.Predicate.not;
  */
 public class Assembler {
 
-    private static final Splitter WHITESPACE_SPLITTER = Splitter.onPattern("\\s+");
-    private static final String COMMENT_DELIMITER = "#";
+    private static final char COMMENT_DELIMITER = '#';
     private static final String DEFINE_DESIGNATOR = "`define";
-    private static final String LABEL_PREFIX = ".";
-    private static final Splitter LABEL_LOADING_REGISTER_SPLITTER = Splitter.onPattern("\\$");
+    private static final String MACRO_DESIGNATOR = "`macro";
+    private static final String END_MACRO_DESIGNATOR = "`endmacro";
+    public static final String LABEL_PREFIX = ".";
+    public static final char LABEL_LOADING_REGISTER_DELIMITER = '$';
     private static final Register PARSE_TEST_DUMMY_REGISTER = Registers.R0;
+    private static final int ASSEMBLE_CHUNK_SIZE = 4096;
+    private static final int MIN_ASSEMBLY_NUMBER = Short.MIN_VALUE;
+    private static final int MAX_ASSEMBLY_NUMBER = 0xFFFF;
 
     private final String[] argumentStrings;
+    private final Path workingDirectory;
+    private final PrintStream out;
+    private final PrintStream err;
     private Arguments arguments;
+    private AssemblyCache assemblyCache;
+    private File assemblyFile;
+    private AssemblyStatistics statistics;
+    private final List<String> warnings;
+    private List<Label> labels;
+    private List<Line> assembledLines;
 
     /**
-     * Instantiates a new {@link Assembler}.
+     * Instantiates a new {@link Assembler} that resolves relative paths against the current working directory and
+     * prints to {@link System#out} and {@link System#err}.
      *
      * @param argumentStrings the input argument {@link String}s
      */
     public Assembler(String[] argumentStrings) {
+        this(argumentStrings, Path.of("").toAbsolutePath(), System.out, System.err);
+    }
+
+    /**
+     * Instantiates a new {@link Assembler}.
+     *
+     * @param argumentStrings  the input argument {@link String}s
+     * @param workingDirectory the absolute {@link Path} that relative paths are resolved against
+     * @param out              the {@link PrintStream} for the usage and batch mode summary
+     * @param err              the {@link PrintStream} for warnings and exceptions
+     */
+    public Assembler(String[] argumentStrings, Path workingDirectory, PrintStream out, PrintStream err) {
         this.argumentStrings = argumentStrings;
+        this.workingDirectory = workingDirectory;
+        this.out = out;
+        this.err = err;
+        warnings = new ArrayList<>();
     }
 
-    public void run() {
-        arguments = new Arguments(argumentStrings);
+    /**
+     * Instantiates a new {@link Assembler} for a single assembly code {@link File} of a batch {@link Assembler} with
+     * already parsed {@link Arguments}.
+     *
+     * @param batchAssembler the batch {@link Assembler}
+     * @param assemblyFile   the assembly code {@link File}
+     */
+    private Assembler(Assembler batchAssembler, File assemblyFile) {
+        this(batchAssembler.argumentStrings, batchAssembler.workingDirectory, batchAssembler.out,
+                batchAssembler.err);
+        this.arguments = batchAssembler.arguments;
+        this.assemblyCache = batchAssembler.assemblyCache;
+        this.assemblyFile = assemblyFile;
+    }
+
+    /**
+     * Parses the {@link Arguments} and assembles every assembly code {@link File}. Multiple {@link File}s are
+     * assembled in batch mode (see {@link #assembleFiles()}).
+     *
+     * @return <code>true</code> if every {@link File} was assembled successfully
+     */
+    public boolean run() {
+        if (!parseArguments()) {
+            return false;
+        }
+
+        if (arguments.getAssemblyFiles().size() > 1) {
+            return assembleFiles();
+        }
+
+        assemblyFile = arguments.getAssemblyFiles().get(0);
+        boolean succeeded;
+        try {
+            assembleFile();
+            succeeded = true;
+        } catch (Exception exception) {
+            printException(exception);
+            succeeded = false;
+        }
+        return writeStatistics(List.of(statistics)) && succeeded;
+    }
+
+    /**
+     * Parses the {@link Arguments} and opens the {@link AssemblyCache} as needed. The usage or the exception is printed
+     * if parsing fails. This is package-private so that benchmarks can call the pipeline phases directly.
+     *
+     * @return <code>true</code> if the {@link Arguments} were parsed successfully
+     */
+    boolean parseArguments() {
+        arguments = new Arguments(argumentStrings, workingDirectory);
         try {
             arguments.parse();
         } catch (ParameterException exception) {
-            exception.usage();
-            return;
+            StringBuilder usage = new StringBuilder();
+            exception.getJCommander().getUsageFormatter().usage(usage);
+            out.print(usage);
+            return false;
         } catch (IllegalArgumentException exception) {
             printException(exception);
-            return;
+            return false;
         }
 
+        if (arguments.getCacheDirectory() != null) {
+            try {
+                assemblyCache = new AssemblyCache(arguments.getCacheDirectory().toPath(),
+                        arguments.getCacheSize() * 1024L * 1024L);
+            } catch (IOException exception) { // The cache is best-effort, so assemble without it
+                err.println("Warning: The assembly cache is disabled: " + exception.getClass().getSimpleName() + ": " +
+                        exception.getMessage());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Assembles all of the {@link Arguments#getAssemblyFiles()} concurrently on a pool of {@link
+     * Arguments#getJobs()} threads, each with its own {@link Assembler}. A summary line for each {@link File} is
+     * printed in the given order once all of them have finished.
+     *
+     * @return <code>true</code> if every {@link File} was assembled successfully
+     */
+    private boolean assembleFiles() {
+        final List<File> assemblyFiles = arguments.getAssemblyFiles();
+        final long startNanoTime = System.nanoTime();
+        final ExecutorService executorService =
+                Executors.newFixedThreadPool(Math.min(arguments.getJobs(), assemblyFiles.size()));
+        final List<Assembler> fileAssemblers = new ArrayList<>(assemblyFiles.size());
+        final List<Future<Integer>> wordCountFutures = new ArrayList<>(assemblyFiles.size());
         try {
-            List<String> lineStrings = Files.readAllLines(arguments.getAssemblyFile().toPath());
-            List<Line> lines = cleanAssembly(lineStrings);
-            processDefines(lines);
-            processLabels(lines);
-            assembleAndWriteOutput(lines);
-        } catch (Exception exception) {
-            printException(exception);
+            for (File assemblyFile : assemblyFiles) {
+                Assembler fileAssembler = new Assembler(this, assemblyFile);
+                fileAssemblers.add(fileAssembler);
+                wordCountFutures.add(executorService.submit(fileAssembler::assembleFile));
+            }
+
+            int assembledFileCount = 0;
+            for (int index = 0; index < assemblyFiles.size(); index++) {
+                final String assemblyFilePath = assemblyFiles.get(index).getPath();
+                try {
+                    int wordCount = wordCountFutures.get(index).get();
+                    out.printf("Assembled %s (%d words)%n", assemblyFilePath, wordCount);
+                    assembledFileCount++;
+                } catch (ExecutionException exception) {
+                    Throwable cause = exception.getCause();
+                    if (arguments.isDebug()) {
+                        cause.printStackTrace(err);
+                    }
+                    out.printf("Failed to assemble %s: %s: %s%n", assemblyFilePath,
+                            cause.getClass().getSimpleName(), cause.getMessage());
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                    printException(exception);
+                    return false;
+                }
+            }
+
+            out.printf("Assembled %d of %d files in %d ms.%n", assembledFileCount, assemblyFiles.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanoTime));
+
+            final List<AssemblyStatistics> statisticsOfFiles = new ArrayList<>(fileAssemblers.size());
+            for (Assembler fileAssembler : fileAssemblers) {
+                statisticsOfFiles.add(fileAssembler.statistics);
+            }
+            return writeStatistics(statisticsOfFiles) && assembledFileCount == assemblyFiles.size();
+        } finally {
+            executorService.shutdownNow();
         }
     }
 
     /**
-     * Cleans the given {@link List} of assembly code line {@link String}s. This will split assembly lines using the
-     * {@link #WHITESPACE_SPLITTER}, remove comments (the {@link #COMMENT_DELIMITER}), and remove blank lines.
+     * Assembles {@link #assemblyFile} and writes its output files. If an {@link AssemblyCache} is used and it contains
+     * the output files of the same assembly code and {@link Arguments}, they are restored instead. Each {@link Phase}
+     * is measured in {@link #statistics}.
      *
-     * @param lineStrings the {@link List} of raw assembly code line {@link String}s
+     * @return the number of assembled machine code words (excluding padding)
+     *
+     * @throws AssemblyParseException thrown for {@link AssemblyParseException}s
+     * @throws IOException            thrown for {@link IOException}s
+     */
+    private int assembleFile() throws AssemblyParseException, IOException {
+        statistics = new AssemblyStatistics(assemblyFile.getPath());
+        boolean succeeded = false;
+        try {
+            int wordCount = assembleFileInPhases();
+            succeeded = true;
+            return wordCount;
+        } finally {
+            statistics.finish(succeeded);
+        }
+    }
+
+    /**
+     * Runs the {@link Phase}s of {@link #assembleFile()}.
+     *
+     * @return the number of assembled machine code words (excluding padding)
+     *
+     * @throws AssemblyParseException thrown for {@link AssemblyParseException}s
+     * @throws IOException            thrown for {@link IOException}s
+     */
+    private int assembleFileInPhases() throws AssemblyParseException, IOException {
+        startPhase(Phase.READ);
+        final byte[] assemblyBytes = Files.readAllBytes(assemblyFile.toPath());
+        setCount(PhaseStatistics.BYTES_COUNT, assemblyBytes.length);
+
+        String cacheKey = null;
+        Map<String, File> outputFilesOfCacheNames = null;
+        if (assemblyCache != null) {
+            startPhase(Phase.CACHE);
+            cacheKey = assemblyCache.computeKey(assemblyBytes, arguments);
+            outputFilesOfCacheNames = new LinkedHashMap<>();
+            for (Map.Entry<OutputFormat, File> outputFileOfFormat :
+                    arguments.getOutputFilesOfFormats(assemblyFile).entrySet()) {
+                outputFilesOfCacheNames.put(outputFileOfFormat.getKey().name(), outputFileOfFormat.getValue());
+            }
+            if (arguments.isOutputProcessed()) {
+                outputFilesOfCacheNames.put("PROCESSED", arguments.getProcessedOutputFile(assemblyFile));
+            }
+
+            CachedAssembly cachedAssembly = assemblyCache.restore(cacheKey, outputFilesOfCacheNames);
+            setCount(PhaseStatistics.CACHE_HITS_COUNT, cachedAssembly != null ? 1 : 0);
+            if (cachedAssembly != null) {
+                cachedAssembly.getWarnings().forEach(this::printWarning);
+                setCount(PhaseStatistics.WORDS_COUNT, cachedAssembly.getWordCount());
+                return cachedAssembly.getWordCount();
+            }
+        }
+
+        // Decode strictly (like 'Files.readString()') so malformed input is reported
+        startPhase(Phase.CLEAN);
+        String assembly = StandardCharsets.UTF_8.newDecoder().decode(ByteBuffer.wrap(assemblyBytes)).toString();
+        List<Line> lines = cleanAssembly(assembly);
+        setCount(PhaseStatistics.LINES_COUNT, lines.size());
+
+        startPhase(Phase.DEFINES);
+        processDefines(lines);
+        setCount(PhaseStatistics.LINES_COUNT, lines.size());
+
+        List<PeepholeRewrite> peepholeRewrites = List.of();
+        if (arguments.isPeephole()) {
+            startPhase(Phase.PEEPHOLE);
+            peepholeRewrites = PeepholeOptimizer.optimize(lines);
+            setCount(PhaseStatistics.PEEPHOLE_REWRITES_COUNT, peepholeRewrites.size());
+            setCount(PhaseStatistics.LINES_COUNT, lines.size());
+        }
+
+        startPhase(Phase.LABELS);
+        processLabels(lines);
+        setCount(PhaseStatistics.LINES_COUNT, lines.size());
+
+        int wordCount = assembleAndWriteOutput(lines, peepholeRewrites);
+
+        if (assemblyCache != null) {
+            startPhase(Phase.CACHE);
+            try {
+                assemblyCache.store(cacheKey, outputFilesOfCacheNames, wordCount, warnings);
+                setCount(PhaseStatistics.FILES_COUNT, outputFilesOfCacheNames.size());
+            } catch (IOException | UncheckedIOException exception) { // The output files were already written
+                printWarning("The output files could not be stored in the assembly cache: " +
+                        exception.getClass().getSimpleName() + ": " + exception.getMessage());
+            }
+        }
+        return wordCount;
+    }
+
+    /**
+     * Assembles the given assembly code in memory, without reading or writing any files. Unlike {@link #run()}, no
+     * {@link Arguments} are parsed, so this can be called on an {@link Assembler} with no argument {@link String}s.
+     * Warnings are still printed. Afterwards, {@link #getLabels()} and {@link #getAssembledLines()} map the addresses
+     * of the machine code back to the assembly code.
+     *
+     * @param assembly the raw assembly code {@link CharSequence}
+     *
+     * @return the machine code words (excluding padding)
+     *
+     * @throws AssemblyParseException thrown for {@link AssemblyParseException}s
+     */
+    public int[] assemble(CharSequence assembly) throws AssemblyParseException {
+        return assemble(assembly, false);
+    }
+
+    /**
+     * Assembles the given assembly code in memory like {@link #assemble(CharSequence)}, optionally rewriting redundant
+     * instructions with the {@link PeepholeOptimizer} first.
+     *
+     * @param assembly the raw assembly code {@link CharSequence}
+     * @param peephole <code>true</code> to run the {@link PeepholeOptimizer}
+     *
+     * @return the machine code words (excluding padding)
+     *
+     * @throws AssemblyParseException thrown for {@link AssemblyParseException}s
+     */
+    public int[] assemble(CharSequence assembly, boolean peephole) throws AssemblyParseException {
+        final List<Line> lines = cleanAssembly(assembly);
+        processDefines(lines);
+        if (peephole) {
+            PeepholeOptimizer.optimize(lines);
+        }
+        processLabels(lines);
+        final int[] machineCode = assembleLines(lines);
+        assembledLines = Collections.unmodifiableList(lines);
+        return machineCode;
+    }
+
+    /**
+     * Cleans the given assembly code {@link CharSequence} in a single pass. This will split assembly lines into words
+     * on whitespace (the same characters as the <code>\\s</code> regex character class), remove comments (the
+     * {@link #COMMENT_DELIMITER}), and remove blank lines. Words are sliced directly out of <code>assembly</code>, so
+     * no intermediate line {@link String}s are created.
+     *
+     * @param assembly the raw assembly code {@link CharSequence}
      *
      * @return a {@link List} of assembly {@link Line}s
      */
-    private List<Line> cleanAssembly(List<String> lineStrings) {
+    List<Line> cleanAssembly(CharSequence assembly) {
         final List<Line> cleanAssembly = new ArrayList<>();
-        for (int lineNumber = 0, size = lineStrings.size(); lineNumber < size; lineNumber++) {
-            String lineString = lineStrings.get(lineNumber);
-            // Split 'lineStrings' by whitespace or comma followed by whitespace
-            List<String> lineWords = WHITESPACE_SPLITTER.splitToList(lineString).stream()
-                    .filter(not(String::isBlank)) // Remove blank strings
-                    .collect(Collectors.toList());
-
-            // Remove everything on assembly line after comment
-            for (int index = 0; index < lineWords.size(); index++) {
-                if (lineWords.get(index).startsWith(COMMENT_DELIMITER)) {
-                    int removedIndex = lineWords.size() - 1;
-                    while (removedIndex >= index) {
-                        lineWords.remove(removedIndex--);
-                    }
-                    break;
+        final List<String> lineWords = new ArrayList<>();
+        int lineNumber = 1;
+        for (int index = 0, length = assembly.length(); index < length; ) {
+            char character = assembly.charAt(index);
+
+            if (character == '\n' || character == '\r') {
+                // Skip blank lines ('Line' copies 'lineWords' so it can be reused for the next line)
+                if (!lineWords.isEmpty()) {
+                    cleanAssembly.add(new Line(lineWords, lineNumber));
+                    lineWords.clear();
                 }
-            }
 
-            // Skip blank lineStrings
-            if (lineWords.size() == 0) {
-                continue;
+                // Treat "\r\n" as a single line terminator
+                if (character == '\r' && index + 1 < length && assembly.charAt(index + 1) == '\n') {
+                    index++;
+                }
+                index++;
+                lineNumber++;
+            } else if (isWhitespace(character)) {
+                index++;
+            } else if (character == COMMENT_DELIMITER) {
+                // Skip everything on assembly line after comment
+                while (index < length && (character = assembly.charAt(index)) != '\n' && character != '\r') {
+                    index++;
+                }
+            } else {
+                final int wordStartIndex = index;
+                while (index < length && !isWhitespace(character = assembly.charAt(index)) &&
+                        character != '\n' && character != '\r') {
+                    index++;
+                }
+                lineWords.add(assembly.subSequence(wordStartIndex, index).toString());
             }
+        }
 
-            cleanAssembly.add(new Line(lineWords, lineNumber + 1));
+        if (!lineWords.isEmpty()) {
+            cleanAssembly.add(new Line(lineWords, lineNumber));
         }
 
         return cleanAssembly;
     }
 
     /**
-     * Processes (applies and removes) {@link Define}s in the given assembly {@link Line}s.
+     * Checks if the given <code>character</code> is non-line-terminating whitespace.
      *
-     * @param lines the assembly {@link Line}s (must be return value from {@link #cleanAssembly(List)})
+     * @param character the character
+     *
+     * @return true if <code>character</code> is a space, tab, vertical tab, or form feed
+     */
+    private static boolean isWhitespace(char character) {
+        return character == ' ' || character == '\t' || character == '\u000B' || character == '\f';
+    }
+
+    /**
+     * Processes (applies and removes) {@link Define}s and {@link Macro}s in the given assembly {@link Line}s. Both
+     * are indexed in hash tables and {@link Macro} expansions are memoized per unique argument tuple.
+     *
+     * @param lines the assembly {@link Line}s (must be return value from {@link #cleanAssembly(CharSequence)})
      *
      * @throws AssemblyParseException thrown for {@link AssemblyParseException}s
      */
-    private void processDefines(List<Line> lines) throws AssemblyParseException {
-        // Index all '`define' statements in the 'lines'
-        final List<Define> defines = new ArrayList<>();
-        final List<Integer> removeIndices = new ArrayList<>();
-        for (int lineIndex = 0, size = lines.size(); lineIndex < size; lineIndex++) {
-            Line line = lines.get(lineIndex);
+    void processDefines(List<Line> lines) throws AssemblyParseException {
+        // Index all '`define' and '`macro' statements in the 'lines'
+        final Map<String, Define> definesOfBeforeStrings = new HashMap<>();
+        final Map<String, Macro> macrosOfNames = new HashMap<>();
+        final List<Line> assemblyLines = new ArrayList<>(lines.size());
+        Macro openMacro = null;
+        Line openMacroLine = null;
+        for (Line line : lines) {
             List<String> lineWords = line.getLineWords();
+            String firstWord = lineWords.get(0);
 
-            if (lineWords.get(0).equalsIgnoreCase(DEFINE_DESIGNATOR)) {
+            if (firstWord.equalsIgnoreCase(DEFINE_DESIGNATOR)) {
                 if (lineWords.size() != 3) {
                     throw new AssemblyParseException(DEFINE_DESIGNATOR + " can only contain 2 arguments. Got: " +
                             String.join(" ", lineWords), line.getSourceLineNumber());
+                } else if (openMacro != null) {
+                    throw new AssemblyParseException(DEFINE_DESIGNATOR + " is not allowed inside of a " +
+                            MACRO_DESIGNATOR + ". Got: " + String.join(" ", lineWords), line.getSourceLineNumber());
                 }
 
                 Define define = new Define(lineWords.get(1), lineWords.get(2));
 
-                if (defines.stream().map(Define::getBefore).anyMatch(s -> s.equals(define.getBefore()))) {
+                if (definesOfBeforeStrings.putIfAbsent(define.getBefore(), define) != null) {
                     throw new AssemblyParseException(String.join(" ", lineWords) + " already exists.",
                             line.getSourceLineNumber());
                 }
+            } else if (firstWord.equalsIgnoreCase(MACRO_DESIGNATOR)) {
+                if (lineWords.size() < 2) {
+                    throw new AssemblyParseException(MACRO_DESIGNATOR + " must contain a name. Got: " +
+                            String.join(" ", lineWords), line.getSourceLineNumber());
+                } else if (openMacro != null) {
+                    throw new AssemblyParseException(MACRO_DESIGNATOR + " cannot be nested inside of another " +
+                            MACRO_DESIGNATOR + ". Got: " + String.join(" ", lineWords), line.getSourceLineNumber());
+                } else if (INSTRUCTIONS_OF_MNEMONICS.containsKey(lineWords.get(1))) {
+                    throw new AssemblyParseException(MACRO_DESIGNATOR + " name cannot be an instruction mnemonic. " +
+                            "Got: " + String.join(" ", lineWords), line.getSourceLineNumber());
+                }
+
+                List<String> parameters = lineWords.subList(2, lineWords.size());
+                if (new HashSet<>(parameters).size() != parameters.size()) {
+                    throw new AssemblyParseException(MACRO_DESIGNATOR + " parameter names must be unique. Got: " +
+                            String.join(" ", lineWords), line.getSourceLineNumber());
+                }
+
+                openMacro = new Macro(lineWords.get(1), parameters);
+                openMacroLine = line;
+
+                if (macrosOfNames.putIfAbsent(openMacro.getName(), openMacro) != null) {
+                    throw new AssemblyParseException(MACRO_DESIGNATOR + " " + openMacro.getName() +
+                            " already exists.", line.getSourceLineNumber());
+                }
+            } else if (firstWord.equalsIgnoreCase(END_MACRO_DESIGNATOR)) {
+                if (openMacro == null) {
+                    throw new AssemblyParseException(END_MACRO_DESIGNATOR + " must follow a " + MACRO_DESIGNATOR +
+                            ".", line.getSourceLineNumber());
+                } else if (lineWords.size() != 1) {
+                    throw new AssemblyParseException(END_MACRO_DESIGNATOR + " cannot contain arguments. Got: " +
+                            String.join(" ", lineWords), line.getSourceLineNumber());
+                }
 
-                defines.add(define);
-                removeIndices.add(lineIndex);
+                openMacro = null;
+            } else if (openMacro != null) {
+                openMacro.getBody().add(line);
+            } else {
+                assemblyLines.add(line);
             }
         }
 
-        // Remove all 'removeIndices'
-        removeIndices.stream().sorted(Comparator.reverseOrder())
-                .mapToInt(Integer::intValue)
-                .forEachOrdered(lines::remove);
+        if (openMacro != null) {
+            throw new AssemblyParseException(MACRO_DESIGNATOR + " " + openMacro.getName() + " is missing an " +
+                    END_MACRO_DESIGNATOR + ".", openMacroLine.getSourceLineNumber());
+        }
 
-        // Apply all 'define's
-        final Map<String, Define> definesOfBeforeStrings = defines.stream()
-                .collect(Collectors.toMap(Define::getBefore, Function.identity()));
-        for (Line line : lines) {
+        setCount(PhaseStatistics.DEFINES_COUNT, definesOfBeforeStrings.size());
+        setCount(PhaseStatistics.MACROS_COUNT, macrosOfNames.size());
+
+        // Apply all 'define's and expand all 'macro's
+        lines.clear();
+        for (Line line : assemblyLines) {
             List<String> lineWords = line.getLineWords();
             for (int wordIndex = 0, size = lineWords.size(); wordIndex < size; wordIndex++) {
-                String word = lineWords.get(wordIndex);
-                Define defineOfWord = definesOfBeforeStrings.get(word);
+                Define defineOfWord = definesOfBeforeStrings.get(lineWords.get(wordIndex));
                 if (defineOfWord != null) {
                     lineWords.set(wordIndex, defineOfWord.getAfter());
                 }
             }
+
+            Macro macro = macrosOfNames.get(lineWords.get(0));
+            if (macro == null) {
+                lines.add(line);
+                continue;
+            }
+
+            List<List<String>> expansion = expandMacro(macro, lineWords.subList(1, lineWords.size()),
+                    line.getSourceLineNumber(), definesOfBeforeStrings, macrosOfNames, new HashSet<>());
+            for (List<String> expandedLineWords : expansion) {
+                lines.add(new Line(expandedLineWords, line.getSourceLineNumber()));
+            }
         }
     }
 
     /**
-     * Processes (applies and removes) {@link Label}s in the given assembly lines.
+     * Expands the given {@link Macro} with the given <code>arguments</code>. {@link Define}s are applied to words of
+     * the {@link Macro#getBody()} that aren't parameters and nested {@link Macro}s are expanded recursively. The
+     * expansion is memoized in {@link Macro#getExpansionsOfArguments()}.
+     *
+     * @param macro                  the {@link Macro}
+     * @param arguments              the arguments (with {@link Define}s already applied)
+     * @param sourceLineNumber       the source line number of the {@link Macro} usage
+     * @param definesOfBeforeStrings the {@link Define}s of {@link Define#getBefore()} {@link String}s
+     * @param macrosOfNames          the {@link Macro}s of {@link Macro#getName()}s
+     * @param expandingMacros        the {@link Macro}s that are currently being expanded
      *
-     * @param lines the assembly {@link Line}s (must be return value from {@link #cleanAssembly(List)})
+     * @return the expanded line words
      *
      * @throws AssemblyParseException thrown for {@link AssemblyParseException}s
      */
-    private void processLabels(List<Line> lines) throws AssemblyParseException {
-        // Index all 'Label' definitions
-        final List<Label> labels = new ArrayList<>();
-        final List<Integer> removeIndices = new ArrayList<>();
-        for (int lineIndex = 0, size = lines.size(); lineIndex < size; lineIndex++) {
-            Line line = lines.get(lineIndex);
+    private List<List<String>> expandMacro(Macro macro, List<String> arguments, int sourceLineNumber,
+            Map<String, Define> definesOfBeforeStrings, Map<String, Macro> macrosOfNames, Set<Macro> expandingMacros)
+            throws AssemblyParseException {
+        if (arguments.size() != macro.getParameters().size()) {
+            throw new AssemblyParseException(String.format("%s %s expects %d arguments. Got: %s", MACRO_DESIGNATOR,
+                    macro.getName(), macro.getParameters().size(), String.join(" ", arguments)), sourceLineNumber);
+        }
+
+        List<List<String>> expansion = macro.getExpansionsOfArguments().get(arguments);
+        if (expansion != null) {
+            return expansion;
+        }
+
+        if (!expandingMacros.add(macro)) {
+            throw new AssemblyParseException(MACRO_DESIGNATOR + " " + macro.getName() + " cannot expand itself.",
+                    sourceLineNumber);
+        }
+
+        final Map<String, String> argumentsOfParameters = new HashMap<>();
+        for (int index = 0, size = arguments.size(); index < size; index++) {
+            argumentsOfParameters.put(macro.getParameters().get(index), arguments.get(index));
+        }
+
+        expansion = new ArrayList<>();
+        for (Line bodyLine : macro.getBody()) {
+            List<String> bodyLineWords = bodyLine.getLineWords();
+            List<String> expandedLineWords = new ArrayList<>(bodyLineWords.size());
+            for (String word : bodyLineWords) {
+                String argument = argumentsOfParameters.get(word);
+                if (argument != null) {
+                    expandedLineWords.add(argument);
+                } else {
+                    Define defineOfWord = definesOfBeforeStrings.get(word);
+                    expandedLineWords.add(defineOfWord == null ? word : defineOfWord.getAfter());
+                }
+            }
+
+            Macro nestedMacro = macrosOfNames.get(expandedLineWords.get(0));
+            if (nestedMacro != null) {
+                expansion.addAll(expandMacro(nestedMacro, expandedLineWords.subList(1, expandedLineWords.size()),
+                        sourceLineNumber, definesOfBeforeStrings, macrosOfNames, expandingMacros));
+            } else {
+                expansion.add(Collections.unmodifiableList(expandedLineWords));
+            }
+        }
+
+        expandingMacros.remove(macro);
+        expansion = Collections.unmodifiableList(expansion);
+        macro.getExpansionsOfArguments().put(List.copyOf(arguments), expansion);
+        return expansion;
+    }
+
+    /**
+     * Processes (applies and removes) {@link Label}s in the given assembly lines. {@link Label}s are indexed in a
+     * symbol table and every label reference is recorded as a {@link LabelReference} (a fixup) on its {@link Label}
+     * so that addresses can be resolved in linear time.
+     *
+     * @param lines the assembly {@link Line}s (must be return value from {@link #cleanAssembly(CharSequence)})
+     *
+     * @throws AssemblyParseException thrown for {@link AssemblyParseException}s
+     */
+    void processLabels(List<Line> lines) throws AssemblyParseException {
+        // Index all 'Label' definitions and bind each 'Label' to the assembly line that follows it
+        final Map<String, Label> labelsOfLabelNames = new LinkedHashMap<>();
+        final Map<Line, Label> labelsOfLines = new HashMap<>();
+        final List<Line> instructionLines = new ArrayList<>(lines.size());
+        Label unboundLabel = null;
+        Line unboundLabelLine = null;
+        for (Line line : lines) {
             List<String> lineWords = line.getLineWords();
             String labelWord = lineWords.get(0);
 
@@ -204,33 +652,42 @@ public class Assembler {
                             String.join(" ", lineWords), line.getSourceLineNumber());
                 }
 
-                // Create a label that points to the next assembly line
-                Label label = new Label(labelWord, lines.get(lineIndex + 1));
+                if (labelsOfLabelNames.containsKey(labelWord)) {
+                    throw new AssemblyParseException(labelWord + " already exists.", line.getSourceLineNumber());
+                }
 
-                if (labels.stream().map(Label::getName).anyMatch(s -> s.equals(label.getName()))) {
-                    throw new AssemblyParseException(label.getName() + " already exists.", line.getSourceLineNumber());
+                if (unboundLabel != null) {
+                    throw createUnboundLabelException(unboundLabel, unboundLabelLine);
                 }
 
-                labels.add(label);
-                removeIndices.add(lineIndex);
+                // Create a label that will point to the next assembly line
+                unboundLabel = new Label(labelWord, null);
+                unboundLabelLine = line;
+                labelsOfLabelNames.put(labelWord, unboundLabel);
+                continue;
             }
+
+            if (unboundLabel != null) {
+                unboundLabel.setLine(line);
+                labelsOfLines.put(line, unboundLabel);
+                unboundLabel = null;
+            }
+
+            instructionLines.add(line);
         }
 
-        // Remove all 'removeIndices'
-        removeIndices.stream().sorted(Comparator.reverseOrder())
-                .mapToInt(Integer::intValue)
-                .forEachOrdered(lines::remove);
+        if (unboundLabel != null) {
+            throw createUnboundLabelException(unboundLabel, unboundLabelLine);
+        }
 
-        final Map<String, Label> labelsOfLabelNames = labels.stream()
-                .collect(Collectors.toMap(Label::getName, Function.identity()));
         final Register tempRegister = new Register("temp", -1);
 
-        // Expand lines containing labels to 'MOVIL' and 'MOVIU' instructions
-        final List<List<Object>> jOrCalldInstructionLineTuples = new ArrayList<>(); // Hacky to use a "tuple", but eh
-        final Map<Entry<Line, Line>, Label> labelsOfMovLowerUpperImmediateLines = new HashMap<>();
-        final List<Label> usedLabels = new ArrayList<>();
-        for (int lineIndex = 0; lineIndex < lines.size(); lineIndex++) {
-            Line line = lines.get(lineIndex);
+        // Expand lines containing labels to 'MOVIL' and 'MOVIU' instructions. Expanded lines are appended to a new
+        // list so that each insertion is amortized constant time.
+        final List<Line> expandedLines = new ArrayList<>(instructionLines.size());
+        final List<LabelReference> labelReferences = new ArrayList<>();
+        final List<LabelReference> displaceableLabelReferences = new ArrayList<>();
+        for (Line line : instructionLines) {
             List<String> lineWords = line.getLineWords();
 
             // Loop through 'lineWords' and check for any labels
@@ -245,22 +702,25 @@ public class Assembler {
                                 line.getSourceLineNumber());
                     }
 
-                    List<String> labelAndLoadingRegister = LABEL_LOADING_REGISTER_SPLITTER.splitToList(word);
-                    if (labelAndLoadingRegister.size() > 2) {
+                    final int loadingRegisterIndex = word.indexOf(LABEL_LOADING_REGISTER_DELIMITER);
+                    if (loadingRegisterIndex != -1 &&
+                            word.indexOf(LABEL_LOADING_REGISTER_DELIMITER, loadingRegisterIndex + 1) != -1) {
                         throw new AssemblyParseException("A label reference can only contain a label or a label and " +
                                 "a loading register. Got: " + word, line.getSourceLineNumber());
                     }
 
-                    label = labelsOfLabelNames.get(labelAndLoadingRegister.get(0));
+                    label = labelsOfLabelNames.get(loadingRegisterIndex == -1 ? word :
+                                                   word.substring(0, loadingRegisterIndex));
                     if (label == null) {
                         throw new AssemblyParseException("Undefined label reference: " + word,
                                 line.getSourceLineNumber());
                     }
                     wordIndexOfLabel = wordIndex;
 
-                    if (labelAndLoadingRegister.size() == 2) {
+                    if (loadingRegisterIndex != -1) {
                         try {
-                            loadingRegister = AbstractInstruction.parseRegister(labelAndLoadingRegister.get(1));
+                            loadingRegister = AbstractInstruction.parseRegister(
+                                    word.substring(loadingRegisterIndex + 1));
                         } catch (InstructionParseException exception) {
                             throw new AssemblyParseException(exception, line.getSourceLineNumber());
                         }
@@ -270,6 +730,7 @@ public class Assembler {
 
             // Move on to next instruction if no label was found
             if (label == null) {
+                expandedLines.add(line);
                 continue;
             }
 
@@ -285,7 +746,7 @@ public class Assembler {
                 String labelString = lineWords.get(wordIndexOfLabel);
                 lineWords.set(wordIndexOfLabel, PARSE_TEST_DUMMY_REGISTER.getName());
 
-                lineInstruction.parse(lineWords);
+                lineInstruction.assemble(lineWords);
 
                 lineWords.set(wordIndexOfLabel, labelString);
             } catch (InstructionParseException exception) {
@@ -293,8 +754,9 @@ public class Assembler {
             }
 
             // Assign 'rdest' accordingly for 'movilLine' and 'moviuLine' added below
-            final int moveLineInsertionIndex = lineIndex;
             final Register rdest;
+            final Line targetLine;
+            final AbstractInstruction displacementInstruction;
             if (lineInstruction == MOV) {
                 try {
                     rdest = AbstractInstruction.parseRegister(
@@ -303,18 +765,16 @@ public class Assembler {
                     throw new AssemblyParseException(exception, line.getSourceLineNumber());
                 }
 
-                lines.remove(lineIndex); // Remove this 'MOV' instruction since only 'MOVIL' and 'MOVIU' are needed
-                lineIndex++; // Skip one of the 'movilLine' and 'moviuLine' lines added below
+                // This 'MOV' instruction is dropped since only 'MOVIL' and 'MOVIU' are needed
+                targetLine = null;
+                displacementInstruction = null;
             } else if (J_INSTRUCTIONS.contains(lineInstruction) || lineInstruction == CALL) {
                 rdest = loadingRegister == null ? tempRegister : loadingRegister;
-
-                Line jOrCalldLineWithRdest = new Line(List.of(lineInstruction.getMnemonic(), rdest.getName()),
+                targetLine = new Line(List.of(lineInstruction.getMnemonic(), rdest.getName()),
                         line.getSourceLineNumber());
-                jOrCalldInstructionLineTuples.add(List.of(lineInstruction, jOrCalldLineWithRdest, label, rdest));
 
-                lines.remove(lineIndex);
-                lines.add(lineIndex, jOrCalldLineWithRdest);
-                lineIndex += 2; // Skip the 'movilLine' and 'moviuLine' added below
+                final int jInstructionsIndex = J_INSTRUCTIONS.indexOf(lineInstruction);
+                displacementInstruction = jInstructionsIndex != -1 ? B_INSTRUCTIONS.get(jInstructionsIndex) : CALLD;
             } else {
                 throw new AssemblyParseException("Label now allowed with instruction: " +
                         String.join(" ", lineWords) +
@@ -325,252 +785,427 @@ public class Assembler {
                         line.getSourceLineNumber());
             }
 
-            // Insert 'MOVIL' and 'MOVIU' instructions to load in the label address into the desired register
-            // at 'moveLineInsertionIndex' in 'lines'
-
+            // Append 'MOVIL' and 'MOVIU' instructions to load in the label address into the desired register
             Line movilLine = new Line(List.of("MOVIL", rdest.getName(), label.getName()), line.getSourceLineNumber());
-            lines.add(moveLineInsertionIndex, movilLine);
-
-            replaceLabelLine(labels, line, movilLine);
-
             Line moviuLine = new Line(List.of("MOVIU", rdest.getName(), label.getName()), line.getSourceLineNumber());
-            lines.add(moveLineInsertionIndex + 1, moviuLine);
-
-            labelsOfMovLowerUpperImmediateLines.put(Map.entry(movilLine, moviuLine), label);
-            usedLabels.add(label);
-        }
-
-        // Loop through all 'labelsOfJOrCalldInstructionLines' and determine if it should be replaced with the
-        // equivalent displacement immediate instruction.
-        final Map<Line, Label> labelsOfPlaceholderLinesToDisplace = new HashMap<>();
-        for (List<Object> jOrCalldInstructionLineTuple : jOrCalldInstructionLineTuples) {
-            final AbstractInstruction jOrCalldLineInstruction =
-                    (AbstractInstruction) jOrCalldInstructionLineTuple.get(0);
-            final Line jOrCalldLineWithRdest = (Line) jOrCalldInstructionLineTuple.get(1);
-            final Label label = (Label) jOrCalldInstructionLineTuple.get(2);
-            final Register rdest = (Register) jOrCalldInstructionLineTuple.get(3);
-
-            computeLabelAddress(lines, label);
-            int lineIndex = lines.indexOf(jOrCalldLineWithRdest);
-            int labelAddress = label.getAddress();
-            // Compute 'displacementValue' and subtract 1 since CR16 ISA states that 'B[condition]' and 'CALLD' displace
-            // to immediate + 1
-            int displacementValue = labelAddress - lineIndex - 1;
-
-            // Assign displacement min and max (inclusive) and 'displacementImmediateInstructionMnemonic'
-            // based on 'jInstructionsIndex'
-            final int jInstructionsIndex = J_INSTRUCTIONS.indexOf(jOrCalldLineInstruction);
-            final int minDisplacement;
-            final int maxDisplacement;
-            final String displacementImmediateInstructionMnemonic;
-            if (jInstructionsIndex != -1) {
-                minDisplacement = BInstruction.MIN_DISPLACEMENT_IMM;
-                maxDisplacement = BInstruction.MAX_DISPLACEMENT_IMM;
-                displacementImmediateInstructionMnemonic = B_INSTRUCTIONS.get(jInstructionsIndex).getMnemonic();
-            } else {
-                minDisplacement = CalldInstruction.MIN_DISPLACEMENT_IMM;
-                maxDisplacement = CalldInstruction.MAX_DISPLACEMENT_IMM;
-                displacementImmediateInstructionMnemonic = CALLD.getMnemonic();
+            expandedLines.add(movilLine);
+            expandedLines.add(moviuLine);
+            if (targetLine != null) {
+                expandedLines.add(targetLine);
             }
 
-            // If 'displacementValue' is in range of immediate, remove 'movilLine' and 'moviuLine' lines and add
-            // the equivalent 'displacementImmediateLinePlaceholder'
-            if (displacementValue >= minDisplacement && displacementValue <= maxDisplacement) {
-                int oldMovilLineIndex = lineIndex - 2;
-                int oldMoviuLineIndex = lineIndex - 1;
-
-                Line displacementImmediateLinePlaceholder = new Line(List.of(displacementImmediateInstructionMnemonic,
-                        label.getName()), jOrCalldLineWithRdest.getSourceLineNumber());
+            // A 'Label' that pointed to this 'line' now points to the first expanded line
+            Label labelOfLine = labelsOfLines.get(line);
+            if (labelOfLine != null) {
+                labelOfLine.setLine(movilLine);
+            }
 
-                replaceLabelLine(labels, lines.get(oldMovilLineIndex), displacementImmediateLinePlaceholder);
+            LabelReference labelReference = new LabelReference(label, lineInstruction, rdest, movilLine, moviuLine,
+                    targetLine, displacementInstruction);
+            label.getReferences().add(labelReference);
+            labelReferences.add(labelReference);
+            if (displacementInstruction != null) {
+                displaceableLabelReferences.add(labelReference);
+            }
+        }
 
-                lines.remove(lineIndex);
-                lines.remove(oldMoviuLineIndex);
-                lines.remove(oldMovilLineIndex);
-                lines.add(oldMovilLineIndex, displacementImmediateLinePlaceholder);
+        // Relax all 'displaceableLabelReferences' to a fixed point. Every 'LabelReference' starts out displaced as
+        // the equivalent displacement immediate instruction and any 'LabelReference' whose displacement is out of
+        // range is expanded back to its 'MOVIL', 'MOVIU', and 'J[condition]'/'CALL' lines. Expanding a
+        // 'LabelReference' can only increase other displacements, so this converges on the smallest encoding for
+        // every 'LabelReference' in at most as many passes as there are 'displaceableLabelReferences'.
+        for (LabelReference labelReference : displaceableLabelReferences) {
+            labelReference.setDisplaced(true);
+        }
+        List<Line> resolvedLines;
+        boolean expandedReference;
+        int relaxationPassCount = 0;
+        do {
+            relaxationPassCount++;
+            resolvedLines = assignLineAddresses(expandedLines, displaceableLabelReferences);
+            expandedReference = false;
+            for (LabelReference labelReference : displaceableLabelReferences) {
+                if (labelReference.isDisplaced() && !isInDisplacementRange(labelReference,
+                        computeDisplacementValue(labelReference))) {
+                    labelReference.setDisplaced(false);
+                    expandedReference = true;
+                }
+            }
+        } while (expandedReference);
 
-                labelsOfPlaceholderLinesToDisplace.put(displacementImmediateLinePlaceholder, label);
-            } else if (rdest == tempRegister) {
+        for (LabelReference labelReference : displaceableLabelReferences) {
+            if (!labelReference.isDisplaced() && labelReference.getRdest() == tempRegister) {
                 throw new AssemblyParseException(String.format("The displacement of the label reference %s is " +
                         "further than the equivalent displacement-immediate instruction range and must use an " +
                         "intermediary loading register to load in the address of the label reference. This only " +
-                        "applies to J[condition] and CALL instructions. e.g. .label$r1", label.getName()),
-                        jOrCalldLineWithRdest.getSourceLineNumber());
+                        "applies to J[condition] and CALL instructions. e.g. .label$r1",
+                        labelReference.getLabel().getName()),
+                        labelReference.getTargetLine().getSourceLineNumber());
             }
         }
 
-        // Loop through 'labelsOfPlaceholderLinesToDisplace' and recompute and replace the placeholder line with
-        // the 'displacementValue' containing the correct displacement immediate
-        for (Entry<Line, Label> entry : labelsOfPlaceholderLinesToDisplace.entrySet()) {
-            final Line displacementImmediateLinePlaceholder = entry.getKey();
-            final int lineIndex = lines.indexOf(displacementImmediateLinePlaceholder);
-            final Label label = entry.getValue();
-
-            computeLabelAddress(lines, label);
-            int displacementValue = label.getAddress() - lineIndex - 1;
-
-            Line displacementImmediateLine =
-                    new Line(List.of(displacementImmediateLinePlaceholder.getLineWords().get(0),
-                            Integer.toString(displacementValue)),
-                            displacementImmediateLinePlaceholder.getSourceLineNumber());
-
-            replaceLabelLine(labels, displacementImmediateLinePlaceholder, displacementImmediateLine);
-
-            lines.remove(lineIndex);
-            lines.add(lineIndex, displacementImmediateLine);
-        }
-
-        // TODO: for the above 'for' loops, there potentially can be more "equivalent displacement instruction"
-        //  opportunities in the event that removing the 'movilLine' and 'moviuLine' for an arbitrary label-loading
-        //  instruction causes its 'displacementValue' to become in-range for 'B[condition]'/'CALLD' instructions.
-
-        // Now loop through all 'labelsOfMovLowerUpperImmediateLines' and compute/insert label addresses
+        // Now that every 'LabelReference' has its final size and address, replace every label reference with its
+        // displacement immediate or its lower and upper label address immediates
         final int movImmediateWordIndex = 2;
-        for (Entry<Entry<Line, Line>, Label> entry : labelsOfMovLowerUpperImmediateLines.entrySet()) {
-            final Line movilLine = entry.getKey().getKey();
-            final Line moviuLine = entry.getKey().getValue();
-            final Label label = entry.getValue();
-
-            // Disregard this 'entry' if 'movilLine' and 'moviuLine' no longer exist due to becoming their equivalent
-            // displacement immediate instruction
-            if (!lines.contains(movilLine) || !lines.contains(moviuLine)) {
-                continue;
+        for (LabelReference labelReference : labelReferences) {
+            final Line movilLine = labelReference.getMovilLine();
+            final int labelAddress = labelReference.getLabel().getAddress();
+
+            if (labelReference.isDisplaced()) {
+                movilLine.setLineWords(new ArrayList<>(List.of(
+                        labelReference.getDisplacementInstruction().getMnemonic(),
+                        Integer.toString(computeDisplacementValue(labelReference)))));
+            } else {
+                final String lowerLabelImmediate = "0x" + Integer.toHexString(labelAddress & 0xFF);
+                final String upperLabelImmediate = "0x" + Integer.toHexString(labelAddress >> 8 & 0xFF);
+                movilLine.getLineWords().set(movImmediateWordIndex, lowerLabelImmediate);
+                labelReference.getMoviuLine().getLineWords().set(movImmediateWordIndex, upperLabelImmediate);
             }
+        }
 
-            computeLabelAddress(lines, label);
+        lines.clear();
+        lines.addAll(resolvedLines);
 
-            final String lowerLabelImmediate = "0x" + Integer.toHexString(label.getAddress() & 0xFF);
-            final String upperLabelImmediate = "0x" + Integer.toHexString(label.getAddress() >> 8 & 0xFF);
-            movilLine.getLineWords().set(movImmediateWordIndex, lowerLabelImmediate);
-            moviuLine.getLineWords().set(movImmediateWordIndex, upperLabelImmediate);
+        int relaxedJumpCount = 0;
+        for (LabelReference labelReference : displaceableLabelReferences) {
+            relaxedJumpCount += labelReference.isDisplaced() ? 1 : 0;
         }
+        labels = List.copyOf(labelsOfLabelNames.values());
+        setCount(PhaseStatistics.LABELS_COUNT, labelsOfLabelNames.size());
+        setCount(PhaseStatistics.LABEL_REFERENCES_COUNT, labelReferences.size());
+        setCount(PhaseStatistics.RELAXED_JUMPS_COUNT, relaxedJumpCount);
+        setCount(PhaseStatistics.RELAXATION_PASSES_COUNT, relaxationPassCount);
 
         // Print out unused labels
-        Sets.difference(new HashSet<>(labels), new HashSet<>(usedLabels))
-                .forEach(label -> System.err.println("Warning: Unused label: " + label.getName()));
+        for (Label label : labelsOfLabelNames.values()) {
+            if (label.getReferences().isEmpty()) {
+                printWarning("Unused label: " + label.getName());
+            }
+        }
     }
 
     /**
-     * Replaces the {@link Label#getLine()} with <code>newLine</code>, if found in the given <code>labels</code> {@link
-     * List}.
+     * Assigns a {@link Line#getAddress()} to each of the given expanded {@link Line}s in a single pass. The
+     * <code>MOVIU</code> and <code>J[condition]</code>/<code>CALL</code> {@link Line}s of a displaced {@link
+     * LabelReference} don't occupy an address since its <code>MOVIL</code> {@link Line} becomes the displacement
+     * immediate instruction.
      *
-     * @param labels  the {@link List} of {@link Label}s
-     * @param oldLine the old {@link Line}
-     * @param newLine the new {@link Line}
+     * @param expandedLines               the expanded assembly {@link Line}s
+     * @param displaceableLabelReferences the displaceable {@link LabelReference}s in the order of
+     *                                    <code>expandedLines</code>
+     *
+     * @return a {@link List} of the {@link Line}s that occupy an address
      */
-    private void replaceLabelLine(List<Label> labels, Line oldLine, Line newLine) {
-        for (Label label : labels) {
-            if (label.getLine().equals(oldLine)) {
-                label.setLine(newLine);
-                break;
+    private List<Line> assignLineAddresses(List<Line> expandedLines,
+            List<LabelReference> displaceableLabelReferences) {
+        final List<Line> addressedLines = new ArrayList<>(expandedLines.size());
+        int referenceIndex = 0;
+        LabelReference nextReference = referenceIndex < displaceableLabelReferences.size() ?
+                                       displaceableLabelReferences.get(referenceIndex) : null;
+        for (int lineIndex = 0, size = expandedLines.size(); lineIndex < size; lineIndex++) {
+            Line line = expandedLines.get(lineIndex);
+            line.setAddress(addressedLines.size());
+            addressedLines.add(line);
+
+            if (nextReference != null && line == nextReference.getMovilLine()) {
+                if (nextReference.isDisplaced()) {
+                    lineIndex += 2; // Skip the 'moviuLine' and 'targetLine'
+                }
+
+                referenceIndex++;
+                nextReference = referenceIndex < displaceableLabelReferences.size() ?
+                                displaceableLabelReferences.get(referenceIndex) : null;
             }
         }
+        return addressedLines;
     }
 
     /**
-     * Computes a {@link Label#getAddress()} (gets index of {@link Label#getLine()} in the given {@link Line}s).
+     * Computes the displacement value of the given displaced {@link LabelReference} using the current {@link
+     * Line#getAddress()}s.
      *
-     * @param lines the {@link List} of assembly {@link Line}s
-     * @param label the {@link Label}
+     * @param labelReference the displaced {@link LabelReference}
      *
-     * @throws AssemblyParseException thrown for {@link AssemblyParseException}s
+     * @return the displacement value
+     */
+    private int computeDisplacementValue(LabelReference labelReference) {
+        // Subtract 1 since CR16 ISA states that 'B[condition]' and 'CALLD' displace to immediate + 1
+        return labelReference.getLabel().getAddress() - labelReference.getMovilLine().getAddress() - 1;
+    }
+
+    /**
+     * Checks if the given <code>displacementValue</code> is in range of the {@link
+     * LabelReference#getDisplacementInstruction()} of the given {@link LabelReference}.
+     *
+     * @param labelReference    the displaceable {@link LabelReference}
+     * @param displacementValue the displacement value
+     *
+     * @return true if <code>displacementValue</code> is in range
      */
-    private void computeLabelAddress(List<Line> lines, Label label) throws AssemblyParseException {
-        int labelAddress = lines.indexOf(label.getLine());
-        if (labelAddress == -1) {
-            throw new AssemblyParseException("Cannot get address for label: " + label.getName() +
-                    ". An instruction or number must come after a label.",
-                    label.getLine().getSourceLineNumber());
+    private boolean isInDisplacementRange(LabelReference labelReference, int displacementValue) {
+        if (labelReference.getDisplacementInstruction() == CALLD) {
+            return displacementValue >= CalldInstruction.MIN_DISPLACEMENT_IMM &&
+                    displacementValue <= CalldInstruction.MAX_DISPLACEMENT_IMM;
+        } else {
+            return displacementValue >= BInstruction.MIN_DISPLACEMENT_IMM &&
+                    displacementValue <= BInstruction.MAX_DISPLACEMENT_IMM;
         }
-        label.setAddress(labelAddress);
     }
 
     /**
-     * Assembles and writes output files according to given {@link Arguments}.
+     * Creates an {@link AssemblyParseException} for a {@link Label} that isn't followed by an instruction or number.
+     *
+     * @param label     the {@link Label}
+     * @param labelLine the {@link Line} that defined the {@link Label}
+     *
+     * @return the {@link AssemblyParseException}
+     */
+    private AssemblyParseException createUnboundLabelException(Label label, Line labelLine) {
+        return new AssemblyParseException("Cannot get address for label: " + label.getName() +
+                ". An instruction or number must come after a label.", labelLine.getSourceLineNumber());
+    }
+
+    /**
+     * Assembles and writes output files according to given {@link Arguments}. If the peephole optimizer ran, the
+     * processed assembly starts with a comment for each {@link PeepholeRewrite} and the words and cycles they saved.
+     *
+     * @param lines            the assembly {@link Line}s (must be return value from {@link
+     *                         #cleanAssembly(CharSequence)})
+     * @param peepholeRewrites the {@link PeepholeRewrite}s made to the {@link Line}s
      *
-     * @param lines the assembly {@link Line}s (must be return value from {@link #cleanAssembly(List)})
+     * @return the number of assembled machine code words (excluding padding)
      *
      * @throws AssemblyParseException thrown for {@link AssemblyParseException}s
      * @throws IOException            thrown for {@link IOException}s
      */
-    private void assembleAndWriteOutput(List<Line> lines) throws AssemblyParseException, IOException {
+    private int assembleAndWriteOutput(List<Line> lines, List<PeepholeRewrite> peepholeRewrites)
+            throws AssemblyParseException, IOException {
         // Write processed assembly lines as needed
-        if (arguments.getProcessedOutputFile() != null) {
-            try (FileWriter processedFileWriter = new FileWriter(arguments.getProcessedOutputFile())) {
+        final File processedOutputFile = arguments.getProcessedOutputFile(assemblyFile);
+        if (processedOutputFile != null) {
+            startPhase(Phase.WRITE);
+            try (ProcessedAssemblyWriter processedAssemblyWriter =
+                         new ProcessedAssemblyWriter(processedOutputFile.toPath())) {
+                if (arguments.isPeephole()) {
+                    writePeepholeRewrites(processedAssemblyWriter, peepholeRewrites);
+                }
                 for (Line line : lines) {
-                    String formattedLine = String.format("%-5s %-3s %s", IntStream.range(0, 3)
-                            .mapToObj(index -> index < line.getLineWords().size() ? line.getLineWords().get(index) : "")
-                            .toArray()).trim() + "\n";
-                    processedFileWriter.write(formattedLine);
+                    processedAssemblyWriter.writeLine(line);
                 }
             }
+            setCount(PhaseStatistics.FILES_COUNT, 1);
         }
 
-        // Write assembled lines to binary file
-        List<String> machineCodeLines = new ArrayList<>();
-        for (Line line : lines) {
-            List<String> lineWords = line.getLineWords();
-            AbstractInstruction lineInstruction = INSTRUCTIONS_OF_MNEMONICS.get(lineWords.get(0));
+        // Assemble lines once and write them with padding lines to a binary file for each output format
+        startPhase(Phase.ENCODE);
+        final int[] machineCode = assembleLines(lines);
+        setCount(PhaseStatistics.WORDS_COUNT, machineCode.length);
+
+        startPhase(Phase.WRITE);
+        final Map<OutputFormat, File> outputFilesOfFormats = arguments.getOutputFilesOfFormats(assemblyFile);
+        for (Map.Entry<OutputFormat, File> outputFileOfFormat : outputFilesOfFormats.entrySet()) {
+            try (AbstractMachineCodeWriter machineCodeWriter =
+                         createMachineCodeWriter(outputFileOfFormat.getKey(), outputFileOfFormat.getValue().toPath())) {
+                machineCodeWriter.writeImage(machineCode, arguments.getMaxPaddingLine(),
+                        arguments.getMaxPaddingLineValue());
+            }
+        }
+        setCount(PhaseStatistics.FILES_COUNT, outputFilesOfFormats.size());
+        return machineCode.length;
+    }
 
-            if (lineInstruction != null) { // Parse line as an instruction
-                try {
-                    lineInstruction.parse(lineWords);
-                    machineCodeLines.add(formatMachineCodeString(lineInstruction.assemble()));
-                } catch (Exception exception) {
-                    throw new AssemblyParseException(exception, line.getSourceLineNumber());
-                }
-            } else { // Try to parse line as a number
+    /**
+     * Writes a comment for the total words and cycles saved by the given {@link PeepholeRewrite}s, followed by a
+     * comment for each of them.
+     *
+     * @param processedAssemblyWriter the {@link ProcessedAssemblyWriter}
+     * @param peepholeRewrites        the {@link PeepholeRewrite}s
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    private void writePeepholeRewrites(ProcessedAssemblyWriter processedAssemblyWriter,
+            List<PeepholeRewrite> peepholeRewrites) throws IOException {
+        int savedWords = 0;
+        int savedCycles = 0;
+        for (PeepholeRewrite peepholeRewrite : peepholeRewrites) {
+            savedWords += peepholeRewrite.getRule().getSavedWords();
+            savedCycles += peepholeRewrite.getRule().getSavedCycles();
+        }
+        processedAssemblyWriter.writeComment("Peephole rewrites: " + peepholeRewrites.size() + ", words saved: " +
+                savedWords + ", cycles saved per execution of every rewritten line: " + savedCycles);
+
+        for (PeepholeRewrite peepholeRewrite : peepholeRewrites) {
+            processedAssemblyWriter.writeComment("On line " + peepholeRewrite.getSourceLineNumber() + ": " +
+                    peepholeRewrite.getRule().getDescription() + ": '" + peepholeRewrite.getBefore() + "' " +
+                    (peepholeRewrite.getAfter() == null ? "removed" : "-> '" + peepholeRewrite.getAfter() + "'") +
+                    " (words saved: " + peepholeRewrite.getRule().getSavedWords() + ", cycles saved: " +
+                    peepholeRewrite.getRule().getSavedCycles() + ")");
+        }
+    }
+
+    /**
+     * Creates an {@link AbstractMachineCodeWriter} for the given {@link OutputFormat}.
+     *
+     * @param outputFormat the {@link OutputFormat}
+     * @param path         the {@link Path} of the output file
+     *
+     * @return the {@link AbstractMachineCodeWriter}
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    private AbstractMachineCodeWriter createMachineCodeWriter(OutputFormat outputFormat, Path path)
+            throws IOException {
+        switch (outputFormat) {
+            case DAT:
+                return new DatWriter(path, arguments.getNumberBase());
+            case BIN_LE:
+                return new RawBinaryWriter(path, ByteOrder.LITTLE_ENDIAN);
+            case BIN_BE:
+                return new RawBinaryWriter(path, ByteOrder.BIG_ENDIAN);
+            case INTEL_HEX:
+                return new IntelHexWriter(path);
+            case MIF:
+                return new MifWriter(path, arguments.getNumberBase());
+            default:
+                throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Assembles the given resolved assembly {@link Line}s into machine code. The {@link Line}s are independent of each
+     * other at this point, so they are split into chunks of {@link #ASSEMBLE_CHUNK_SIZE} that are assembled in
+     * parallel on the common {@link ForkJoinPool}. If any {@link Line}s fail to assemble, the {@link
+     * AssemblyParseException} of the first one is thrown, just as it would be when assembling serially.
+     *
+     * @param lines the assembly {@link Line}s (must be return value from {@link #processLabels(List)})
+     *
+     * @return the machine code words in the order of <code>lines</code>
+     *
+     * @throws AssemblyParseException thrown for {@link AssemblyParseException}s
+     */
+    int[] assembleLines(List<Line> lines) throws AssemblyParseException {
+        final int lineCount = lines.size();
+        final int[] machineCode = new int[lineCount];
+        final int chunkCount = (lineCount + ASSEMBLE_CHUNK_SIZE - 1) / ASSEMBLE_CHUNK_SIZE;
+        final AssemblyParseException[] chunkExceptions = new AssemblyParseException[chunkCount];
+
+        IntStream chunkIndices = IntStream.range(0, chunkCount);
+        if (chunkCount > 1) {
+            chunkIndices = chunkIndices.parallel();
+        }
+        chunkIndices.forEach(chunkIndex -> {
+            for (int lineIndex = chunkIndex * ASSEMBLE_CHUNK_SIZE,
+                    endLineIndex = Math.min(lineIndex + ASSEMBLE_CHUNK_SIZE, lineCount);
+                    lineIndex < endLineIndex; lineIndex++) {
                 try {
-                    int number = BasedNumberParser.parseInt(lineWords.get(0));
-                    machineCodeLines.add(formatMachineCodeString(number));
-                } catch (Exception exception) {
-                    throw new AssemblyParseException("Unknown instruction or assembly number: " +
-                            String.join(" ", lineWords), exception, line.getSourceLineNumber());
+                    machineCode[lineIndex] = assembleLine(lines.get(lineIndex));
+                } catch (AssemblyParseException exception) {
+                    chunkExceptions[chunkIndex] = exception;
+                    return;
                 }
+            }
+        });
 
-                if (lineWords.size() > 1) {
-                    throw new AssemblyParseException("Only one assembly number per line is allowed.",
-                            line.getSourceLineNumber());
-                }
+        for (AssemblyParseException chunkException : chunkExceptions) {
+            if (chunkException != null) {
+                throw chunkException;
             }
         }
-        try (FileWriter binaryFileWriter = new FileWriter(arguments.getOutputFile())) {
-            for (String machineCodeLine : machineCodeLines) {
-                binaryFileWriter.write(machineCodeLine);
+
+        return machineCode;
+    }
+
+    /**
+     * Assembles the given resolved assembly {@link Line} into a machine code word. The {@link Line} is either an
+     * instruction or an assembly number, which must fit in 16 bits as either a signed or an unsigned number.
+     *
+     * @param line the assembly {@link Line}
+     *
+     * @return the machine code word
+     *
+     * @throws AssemblyParseException thrown for {@link AssemblyParseException}s
+     */
+    private int assembleLine(Line line) throws AssemblyParseException {
+        List<String> lineWords = line.getLineWords();
+        AbstractInstruction lineInstruction = INSTRUCTIONS_OF_MNEMONICS.get(lineWords.get(0));
+
+        if (lineInstruction != null) { // Parse line as an instruction
+            try {
+                return lineInstruction.assemble(lineWords);
+            } catch (Exception exception) {
+                throw new AssemblyParseException(exception, line.getSourceLineNumber());
             }
         }
 
-        // Append padding lines to binary file
-        int linesToPad = arguments.getMaxPaddingLine() - lines.size();
-        if (linesToPad > 0) {
-            String paddingLine = formatMachineCodeString(arguments.getMaxPaddingLineValue());
-            try (FileWriter binaryFileAppender = new FileWriter(arguments.getOutputFile(), true)) {
-                for (int lineIndex = 0; lineIndex < linesToPad; lineIndex++) {
-                    binaryFileAppender.write(paddingLine);
-                }
-            }
+        // Try to parse line as a number
+        final int number;
+        try {
+            number = BasedNumberParser.parseInt(lineWords.get(0));
+        } catch (Exception exception) {
+            throw new AssemblyParseException("Unknown instruction or assembly number: " +
+                    String.join(" ", lineWords), exception, line.getSourceLineNumber());
+        }
+
+        if (lineWords.size() > 1) {
+            throw new AssemblyParseException("Only one assembly number per line is allowed.",
+                    line.getSourceLineNumber());
+        }
+
+        if (number < MIN_ASSEMBLY_NUMBER) {
+            throw new AssemblyParseException("Assembly number cannot be less than: " + MIN_ASSEMBLY_NUMBER,
+                    line.getSourceLineNumber());
+        } else if (number > MAX_ASSEMBLY_NUMBER) {
+            throw new AssemblyParseException("Assembly number cannot be greater than: " + MAX_ASSEMBLY_NUMBER,
+                    line.getSourceLineNumber());
+        }
+
+        return number;
+    }
+
+    /**
+     * Starts measuring the given {@link Phase} in {@link #statistics}. Does nothing if the pipeline phases are called
+     * directly (e.g. by benchmarks).
+     *
+     * @param phase the {@link Phase}
+     */
+    private void startPhase(Phase phase) {
+        if (statistics != null) {
+            statistics.startPhase(phase);
+        }
+    }
+
+    /**
+     * Sets a count of the current {@link Phase} in {@link #statistics}.
+     *
+     * @param name  the count name (e.g. {@link PhaseStatistics#LINES_COUNT})
+     * @param count the count
+     *
+     * @see AssemblyStatistics#setCount(String, long)
+     */
+    private void setCount(String name, long count) {
+        if (statistics != null) {
+            statistics.setCount(name, count);
         }
     }
 
     /**
-     * Formats <code>number</code> using {@link Arguments#getNumberBaseConverter()} and {@link
-     * Arguments#getNumberBasePadding()} (and upper-cases hex letters if they exist)
+     * Writes the given {@link AssemblyStatistics} to the {@link Arguments#getStatsFile()} as needed.
      *
-     * @param number the number
+     * @param statisticsOfFiles the {@link AssemblyStatistics} of each assembly code {@link File}
      *
-     * @return the formatted machine code {@link String}
+     * @return <code>false</code> if writing failed
      */
-    private String formatMachineCodeString(int number) throws NumberFormatException {
-        String machineCodeString = arguments.getNumberBaseConverter().apply(number);
-        // 'machineCodeString' is string representation of a 32-bit number since the 'getNumberBaseConverter' method
-        // uses integers, so '-0x1' would be '0xFFFFFFFF' but we're working with 16-bit numbers for CR16, so truncate
-        // to the number base length as needed.
-        if (machineCodeString.length() > arguments.getNumberBasePadding().length()) {
-            machineCodeString = machineCodeString.substring(arguments.getNumberBasePadding().length());
+    private boolean writeStatistics(List<AssemblyStatistics> statisticsOfFiles) {
+        if (arguments.getStatsFile() == null) {
+            return true;
+        }
+        try {
+            AssemblyStatistics.writeJson(arguments.getStatsFile().toPath(), statisticsOfFiles);
+            return true;
+        } catch (IOException exception) {
+            printException(exception);
+            return false;
         }
-        machineCodeString = arguments.getNumberBasePadding().substring(machineCodeString.length()) + machineCodeString;
-        machineCodeString = machineCodeString.toUpperCase() + "\n";
-        return machineCodeString;
     }
 
     /**
@@ -580,19 +1215,58 @@ public class Assembler {
      */
     private void printException(Exception exception) {
         if (arguments != null && arguments.isDebug()) {
-            exception.printStackTrace();
+            exception.printStackTrace(err);
         } else {
-            System.err.println(exception.getClass().getSimpleName() + ": " + exception.getMessage());
+            err.println(exception.getClass().getSimpleName() + ": " + exception.getMessage());
         }
     }
 
     /**
-     * The entry point of application.
+     * Prints a warning for {@link #assemblyFile}. In batch mode, the warning is prefixed with the {@link File} path.
+     * The warning is also recorded so that it can be stored in the {@link AssemblyCache}.
+     *
+     * @param warning the warning message
+     */
+    private void printWarning(String warning) {
+        warnings.add(warning);
+        if (arguments != null && arguments.getAssemblyFiles().size() > 1) {
+            err.println(assemblyFile.getPath() + ": Warning: " + warning);
+        } else {
+            err.println("Warning: " + warning);
+        }
+    }
+
+    /**
+     * Gets the {@link Label}s of the last assembly code whose labels were processed, in the order of their
+     * definitions.
+     *
+     * @return the {@link List} of {@link Label}s or <code>null</code> if no labels were processed yet
+     */
+    public List<Label> getLabels() {
+        return labels;
+    }
+
+    /**
+     * Gets the resolved {@link Line}s of the last {@link #assemble(CharSequence)} call, which are indexed by their
+     * {@link Line#getAddress()}. Each {@link Line} keeps the {@link Line#getSourceLineNumber()} of the assembly code
+     * line (or the macro usage) that it was expanded from.
+     *
+     * @return the {@link List} of {@link Line}s or <code>null</code> if nothing was assembled in memory yet
+     */
+    public List<Line> getAssembledLines() {
+        return assembledLines;
+    }
+
+    /**
+     * The entry point of application. Exits with a status of <code>1</code> if any assembly code file failed to
+     * assemble.
      *
      * @param args the input arguments
      */
     public static void main(String[] args) {
         Assembler assembler = new Assembler(args);
-        assembler.run();
+        if (!assembler.run()) {
+            System.exit(1);
+        }
     }
 }
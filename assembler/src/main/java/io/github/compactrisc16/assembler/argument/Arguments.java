@@ -3,12 +3,25 @@ package io.github.compactrisc16.assembler.argument;
 import com.beust.jcommander.JCommander;
 import com.beust.jcommander.Parameter;
 import com.beust.jcommander.ParameterException;
-import com.beust.jcommander.converters.FileConverter;
 import io.github.compactrisc16.assembler.Assembler;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.function.Function;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
@@ -17,24 +30,35 @@ import static com.google.common.base.Preconditions.checkArgument;
  */
 public class Arguments {
 
+    private static final String GLOB_SPECIAL_CHARACTERS = "*?[{";
+
     private final String[] argumentStrings;
+    private final Path workingDirectory;
 
-    @Parameter(description = "<assembly code file path>", converter = FileConverter.class, required = true)
-    private File assemblyFile;
+    @Parameter(description = "<assembly code file paths or globs>", required = true)
+    private List<String> assemblyFilePatterns;
+    private List<File> assemblyFiles;
 
     @Parameter(names = {"-o", "--output"},
-            description = "The output binary file path. Defaults to <input assembly file>.dat.")
+            description = "The output binary file path (only for a single assembly code file). Defaults to" +
+                    " <input assembly file>.dat.")
     private File outputFile;
 
+    @Parameter(names = {"-f", "--output-format"},
+            description = "The comma-separated output binary formats. DAT is written to the output binary file path" +
+                    " and the other formats are written next to it with their own file extensions. Defaults to DAT.")
+    private List<OutputFormat> outputFormats;
+
     @Parameter(names = {"-s", "--output-processed"},
             description = "True to write the processed assembly to <output binary file path>.processed.asm.")
     private boolean outputProcessed = false;
-    private File processedOutputFile;
+
+    @Parameter(names = {"--peephole"}, description = "True to rewrite redundant instructions with the peephole " +
+            "optimizer and list the rewrites in the processed assembly.")
+    private boolean peephole = false;
 
     @Parameter(names = {"-b", "--number-base"}, description = "The number base of the output binary.")
     private NumberBase numberBase = NumberBase.HEX;
-    private Function<Integer, String> numberBaseConverter;
-    private String numberBasePadding;
 
     @Parameter(names = {"-p", "--max-padding-line"},
             description = "The line number to which padding lines should be added to an output binary.")
@@ -43,16 +67,44 @@ public class Arguments {
     @Parameter(names = {"-v", "--max-padding-line-value"}, description = "The decimal value of the padding lines.")
     private int maxPaddingLineValue = 0;
 
+    @Parameter(names = {"-j", "--jobs"},
+            description = "The number of assembly code files to assemble concurrently. Defaults to the number of" +
+                    " available processors.")
+    private int jobs = 0;
+
+    @Parameter(names = {"-c", "--cache-directory"},
+            description = "The directory of the assembly cache. Unchanged assembly code files are restored from the" +
+                    " cache instead of being assembled. Defaults to no cache.")
+    private File cacheDirectory;
+
+    @Parameter(names = {"--cache-size"}, description = "The maximum size of the assembly cache in megabytes.")
+    private int cacheSize = 64;
+
+    @Parameter(names = {"--stats"},
+            description = "The JSON file path to write the wall time, allocated bytes, and counts of each phase to.")
+    private File statsFile;
+
     @Parameter(names = {"-d", "--debug"}, description = "Turns on debug mode.")
     private boolean debug = false;
 
     /**
-     * Instantiates a new {@link Arguments}.
+     * Instantiates a new {@link Arguments} with relative paths resolved against the current working directory.
      *
      * @param argumentStrings the input argument {@link String}s
      */
     public Arguments(String[] argumentStrings) {
+        this(argumentStrings, Path.of("").toAbsolutePath());
+    }
+
+    /**
+     * Instantiates a new {@link Arguments}.
+     *
+     * @param argumentStrings  the input argument {@link String}s
+     * @param workingDirectory the absolute {@link Path} that relative paths are resolved against
+     */
+    public Arguments(String[] argumentStrings, Path workingDirectory) {
         this.argumentStrings = argumentStrings;
+        this.workingDirectory = workingDirectory;
     }
 
     /**
@@ -70,82 +122,198 @@ public class Arguments {
                 .build()
                 .parse(argumentStrings);
 
-        if (!assemblyFile.exists() || !assemblyFile.isFile()) {
-            throw new IllegalArgumentException(String.format("%s is not a valid file.", assemblyFile.getPath()));
+        assemblyFiles = expandAssemblyFilePatterns();
+        checkArgument(outputFile == null || assemblyFiles.size() == 1,
+                "An output binary file path can only be given for a single assembly code file.");
+        if (outputFile != null) {
+            outputFile = workingDirectory.resolve(outputFile.toPath()).toFile();
+        }
+        if (cacheDirectory != null) {
+            cacheDirectory = workingDirectory.resolve(cacheDirectory.toPath()).toFile();
+        }
+        checkArgument(cacheSize > 0, "The cache size must be positive.");
+        if (statsFile != null) {
+            statsFile = workingDirectory.resolve(statsFile.toPath()).toFile();
+        }
+        checkArgument(jobs >= 0, "The number of jobs cannot be negative.");
+        if (jobs == 0) {
+            jobs = Runtime.getRuntime().availableProcessors();
+        }
+
+        if (outputFormats == null || outputFormats.isEmpty()) {
+            outputFormats = List.of(OutputFormat.DAT);
         }
 
-        assemblyFile = assemblyFile.getAbsoluteFile(); // Getting absolute 'File' ensures 'getParentFile()' works
-        if (outputFile == null) {
-            int lastPeriodIndex = assemblyFile.getName().lastIndexOf('.');
-            outputFile = new File(assemblyFile.getParentFile(),
-                    (lastPeriodIndex == -1 ? assemblyFile.getName() :
-                     assemblyFile.getName().substring(0, lastPeriodIndex)) + ".dat");
+        // The files are assembled concurrently, so no two of them may write the same output file or an assembly file
+        final Map<Path, File> assemblyFilesOfPaths = new HashMap<>();
+        for (File assemblyFile : assemblyFiles) {
+            assemblyFilesOfPaths.put(assemblyFile.toPath().normalize(), assemblyFile);
         }
-        outputFile.getParentFile().mkdirs(); // Recursively create parent directories for 'outputFile' as needed
-        checkArgument(outputFile.getParentFile().canWrite(), "Write permission not enabled at: %s",
-                outputFile.getParentFile().getPath());
-
-        if (outputProcessed) {
-            int lastPeriodIndex = outputFile.getName().lastIndexOf('.');
-            processedOutputFile = new File(outputFile.getParentFile(),
-                    (lastPeriodIndex == -1 ? outputFile.getName() :
-                     outputFile.getName().substring(0, lastPeriodIndex)) + ".processed.asm");
-
-            checkArgument(processedOutputFile.getParentFile().canWrite(), "Write permission not enabled at: %s",
-                    processedOutputFile.getParentFile().getPath());
+        for (File assemblyFile : assemblyFiles) {
+            File assemblyOutputFile = getOutputFile(assemblyFile);
+            assemblyOutputFile.getParentFile().mkdirs(); // Recursively create parent directories as needed
+            checkArgument(assemblyOutputFile.getParentFile().canWrite(), "Write permission not enabled at: %s",
+                    assemblyOutputFile.getParentFile().getPath());
+
+            final List<File> outputFiles = new ArrayList<>(getOutputFilesOfFormats(assemblyFile).values());
+            if (outputProcessed) {
+                outputFiles.add(getProcessedOutputFile(assemblyFile));
+            }
+            for (File outputFile : outputFiles) {
+                final Path outputPath = outputFile.toPath().normalize();
+                final File previousFile = assemblyFilesOfPaths.putIfAbsent(outputPath, assemblyFile);
+                if (previousFile == null) {
+                    continue;
+                }
+                if (previousFile.toPath().normalize().equals(outputPath)) {
+                    throw new IllegalArgumentException(String.format("The output of %s would overwrite the assembly " +
+                            "code file %s.", assemblyFile.getPath(), outputFile.getPath()));
+                }
+                throw new IllegalArgumentException(String.format("%s and %s would both be written to %s.",
+                        previousFile.getPath(), assemblyFile.getPath(), outputFile.getPath()));
+            }
         }
+    }
+
+    /**
+     * Expands {@link #assemblyFilePatterns} into absolute assembly code {@link File}s. A pattern containing any of
+     * {@link #GLOB_SPECIAL_CHARACTERS} is matched as a glob (see {@link FileSystems#getDefault()} and {@link
+     * java.nio.file.FileSystem#getPathMatcher(String)}) against the regular files under its leading directories.
+     * Files matched by a glob are sorted by path and duplicate files are only included once.
+     *
+     * @return the {@link List} of assembly code {@link File}s
+     *
+     * @throws IllegalArgumentException thrown when a file doesn't exist or a glob doesn't match any files
+     */
+    private List<File> expandAssemblyFilePatterns() throws IllegalArgumentException {
+        final Set<File> expandedFiles = new LinkedHashSet<>();
+        for (String assemblyFilePattern : assemblyFilePatterns) {
+            int globStartIndex = -1;
+            for (int index = 0; index < assemblyFilePattern.length() && globStartIndex == -1; index++) {
+                if (GLOB_SPECIAL_CHARACTERS.indexOf(assemblyFilePattern.charAt(index)) != -1) {
+                    globStartIndex = index;
+                }
+            }
 
-        // Create a number base converter that takes in an integer and converts it to the desired output number base
-        switch (numberBase) {
-            case BINARY:
-                numberBaseConverter = Integer::toBinaryString;
-                numberBasePadding = "0000000000000000";
-                break;
-            case DECIMAL:
-                numberBaseConverter = Object::toString;
-                numberBasePadding = "00000";
-                break;
-            case HEX:
-                numberBaseConverter = Integer::toHexString;
-                numberBasePadding = "0000";
-                break;
-            default:
-                throw new UnsupportedOperationException();
+            if (globStartIndex == -1) {
+                File assemblyFile = workingDirectory.resolve(assemblyFilePattern).toFile();
+                if (!assemblyFile.exists() || !assemblyFile.isFile()) {
+                    throw new IllegalArgumentException(String.format("%s is not a valid file.", assemblyFilePattern));
+                }
+                expandedFiles.add(assemblyFile);
+                continue;
+            }
+
+            // Walk from the directory that contains the first glob special character
+            final int separatorIndex = assemblyFilePattern.lastIndexOf(File.separatorChar, globStartIndex);
+            final Path baseDirectory = workingDirectory.resolve(separatorIndex == -1 ? "" :
+                                                                assemblyFilePattern.substring(0, separatorIndex + 1));
+            final PathMatcher pathMatcher = FileSystems.getDefault().getPathMatcher("glob:" +
+                    baseDirectory.resolve(assemblyFilePattern.substring(separatorIndex + 1)));
+
+            final List<File> matchedFiles;
+            try (Stream<Path> paths = Files.walk(baseDirectory)) {
+                matchedFiles = paths.filter(path -> Files.isRegularFile(path) && pathMatcher.matches(path))
+                        .sorted()
+                        .map(Path::toFile)
+                        .collect(Collectors.toList());
+            } catch (IOException exception) {
+                throw new IllegalArgumentException(String.format("Could not expand %s: %s", assemblyFilePattern,
+                        exception.getMessage()), exception);
+            }
+            if (matchedFiles.isEmpty()) {
+                throw new IllegalArgumentException(String.format("%s does not match any files.", assemblyFilePattern));
+            }
+            expandedFiles.addAll(matchedFiles);
         }
+        return List.copyOf(expandedFiles);
+    }
+
+    /**
+     * Gets the output binary {@link File} of the given assembly code {@link File}, which is {@link #outputFile} if it
+     * was given.
+     *
+     * @param assemblyFile the assembly code {@link File} (from {@link #getAssemblyFiles()})
+     *
+     * @return the output binary {@link File}
+     */
+    public File getOutputFile(File assemblyFile) {
+        return outputFile != null ? outputFile : replaceExtension(assemblyFile, ".dat");
+    }
+
+    /**
+     * Gets the output {@link File}s of the requested {@link OutputFormat}s for the given assembly code {@link File},
+     * in {@link OutputFormat} order.
+     *
+     * @param assemblyFile the assembly code {@link File} (from {@link #getAssemblyFiles()})
+     *
+     * @return the {@link Map} of {@link OutputFormat}s to output {@link File}s
+     */
+    public Map<OutputFormat, File> getOutputFilesOfFormats(File assemblyFile) {
+        final File assemblyOutputFile = getOutputFile(assemblyFile);
+        final Map<OutputFormat, File> outputFilesOfFormats = new EnumMap<>(OutputFormat.class);
+        for (OutputFormat outputFormat : outputFormats) {
+            outputFilesOfFormats.put(outputFormat, outputFormat == OutputFormat.DAT ? assemblyOutputFile :
+                                                   replaceExtension(assemblyOutputFile,
+                                                           outputFormat.getFileExtension()));
+        }
+        return Collections.unmodifiableMap(outputFilesOfFormats);
+    }
+
+    /**
+     * Gets the processed assembly output {@link File} for the given assembly code {@link File}.
+     *
+     * @param assemblyFile the assembly code {@link File} (from {@link #getAssemblyFiles()})
+     *
+     * @return the processed assembly output {@link File} or <code>null</code> if {@link #isOutputProcessed()} is
+     * <code>false</code>
+     */
+    public File getProcessedOutputFile(File assemblyFile) {
+        return outputProcessed ? replaceExtension(getOutputFile(assemblyFile), ".processed.asm") : null;
+    }
+
+    /**
+     * Gets the given {@link File} with its extension replaced with the given <code>extension</code>.
+     *
+     * @param file      the {@link File}
+     * @param extension the extension (including the leading period)
+     *
+     * @return the {@link File}
+     */
+    private static File replaceExtension(File file, String extension) {
+        int lastPeriodIndex = file.getName().lastIndexOf('.');
+        return new File(file.getParentFile(),
+                (lastPeriodIndex == -1 ? file.getName() : file.getName().substring(0, lastPeriodIndex)) + extension);
     }
 
     public String[] getArgumentStrings() {
         return argumentStrings;
     }
 
-    public File getAssemblyFile() {
-        return assemblyFile;
+    public Path getWorkingDirectory() {
+        return workingDirectory;
+    }
+
+    public List<File> getAssemblyFiles() {
+        return assemblyFiles;
     }
 
-    public File getOutputFile() {
-        return outputFile;
+    public List<OutputFormat> getOutputFormats() {
+        return outputFormats;
     }
 
     public boolean isOutputProcessed() {
         return outputProcessed;
     }
 
-    public File getProcessedOutputFile() {
-        return processedOutputFile;
+    public boolean isPeephole() {
+        return peephole;
     }
 
     public NumberBase getNumberBase() {
         return numberBase;
     }
 
-    public Function<Integer, String> getNumberBaseConverter() {
-        return numberBaseConverter;
-    }
-
-    public String getNumberBasePadding() {
-        return numberBasePadding;
-    }
-
     public int getMaxPaddingLine() {
         return maxPaddingLine;
     }
@@ -154,6 +322,22 @@ public class Arguments {
         return maxPaddingLineValue;
     }
 
+    public int getJobs() {
+        return jobs;
+    }
+
+    public File getCacheDirectory() {
+        return cacheDirectory;
+    }
+
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    public File getStatsFile() {
+        return statsFile;
+    }
+
     public boolean isDebug() {
         return debug;
     }
@@ -162,15 +346,19 @@ public class Arguments {
     public String toString() {
         return "Arguments{" +
                 "argumentStrings=" + Arrays.toString(argumentStrings) +
-                ", assemblyFile=" + assemblyFile +
+                ", workingDirectory=" + workingDirectory +
+                ", assemblyFiles=" + assemblyFiles +
                 ", outputFile=" + outputFile +
+                ", outputFormats=" + outputFormats +
                 ", outputProcessed=" + outputProcessed +
-                ", processedOutputFile=" + processedOutputFile +
+                ", peephole=" + peephole +
                 ", numberBase=" + numberBase +
-                ", numberBaseConverter=" + numberBaseConverter +
-                ", numberBasePadding='" + numberBasePadding + '\'' +
                 ", maxPaddingLine=" + maxPaddingLine +
                 ", maxPaddingLineValue=" + maxPaddingLineValue +
+                ", jobs=" + jobs +
+                ", cacheDirectory=" + cacheDirectory +
+                ", cacheSize=" + cacheSize +
+                ", statsFile=" + statsFile +
                 ", debug=" + debug +
                 '}';
     }
@@ -0,0 +1,43 @@
+package io.github.compactrisc16.assembler.argument;
+
+/**
+ * {@link OutputFormat} defines which file format to output a binary as.
+ */
+public enum OutputFormat {
+
+    /**
+     * Text with one word per line in the {@link NumberBase} (e.g. for <code>$readmemh</code>).
+     */
+    DAT(".dat"),
+    /**
+     * Raw 2-byte words in little-endian byte order.
+     */
+    BIN_LE(".le.bin"),
+    /**
+     * Raw 2-byte words in big-endian byte order.
+     */
+    BIN_BE(".be.bin"),
+    /**
+     * Intel HEX with word addresses.
+     */
+    INTEL_HEX(".hex"),
+    /**
+     * Quartus Memory Initialization File with data in the {@link NumberBase}.
+     */
+    MIF(".mif");
+
+    private final String fileExtension;
+
+    /**
+     * Instantiates a new {@link OutputFormat}.
+     *
+     * @param fileExtension the file extension
+     */
+    OutputFormat(String fileExtension) {
+        this.fileExtension = fileExtension;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+}
@@ -1,5 +1,8 @@
 package io.github.compactrisc16.assembler.assembly;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * {@link Label} represents a <code>.label</code> assembly label. A label always points to the next instruction or
  * number in the given assembly file.
@@ -7,9 +10,9 @@ package io.github.compactrisc16.assembler.assembly;
 public class Label {
 
     private final String name;
+    private final List<LabelReference> references;
 
     private Line line;
-    private Integer address;
 
     /**
      * Instantiates a new {@link Label}.
@@ -20,12 +23,22 @@ public class Label {
     public Label(String name, Line line) {
         this.name = name;
         this.line = line;
+        references = new ArrayList<>();
     }
 
     public String getName() {
         return name;
     }
 
+    /**
+     * Gets the {@link LabelReference}s (the fixup list) of this {@link Label}.
+     *
+     * @return the {@link List} of {@link LabelReference}s
+     */
+    public List<LabelReference> getReferences() {
+        return references;
+    }
+
     public Line getLine() {
         return line;
     }
@@ -34,12 +47,13 @@ public class Label {
         this.line = line;
     }
 
-    public Integer getAddress() {
-        return address;
-    }
-
-    public void setAddress(Integer address) {
-        this.address = address;
+    /**
+     * Gets the address of this {@link Label}, which is the {@link Line#getAddress()} of {@link #getLine()}.
+     *
+     * @return the address
+     */
+    public int getAddress() {
+        return line.getAddress();
     }
 
     @Override
@@ -47,7 +61,7 @@ public class Label {
         return "Label{" +
                 "name='" + name + '\'' +
                 ", line=" + line +
-                ", address=" + address +
+                ", references=" + references.size() +
                 '}';
     }
 }
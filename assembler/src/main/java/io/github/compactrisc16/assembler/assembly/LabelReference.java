@@ -0,0 +1,100 @@
+package io.github.compactrisc16.assembler.assembly;
+
+import io.github.compactrisc16.assembler.isa.instruction.AbstractInstruction;
+import io.github.compactrisc16.assembler.isa.register.Register;
+
+/**
+ * {@link LabelReference} represents a reference to a {@link Label} in assembly (a fixup). A label reference is always
+ * expanded to a <code>MOVIL</code> {@link Line} and a <code>MOVIU</code> {@link Line} that load the {@link
+ * Label#getAddress()} into {@link #getRdest()}, followed by a <code>J[condition]</code> or <code>CALL</code> {@link
+ * Line} if the reference was made by one of those instructions. A {@link LabelReference} with a {@link
+ * #getDisplacementInstruction()} can be displaced, in which case the {@link #getMovilLine()} becomes the equivalent
+ * <code>B[condition]</code> or <code>CALLD</code> instruction and the other {@link Line}s are removed.
+ */
+public class LabelReference {
+
+    private final Label label;
+    private final AbstractInstruction instruction;
+    private final Register rdest;
+    private final Line movilLine;
+    private final Line moviuLine;
+    private final Line targetLine;
+    private final AbstractInstruction displacementInstruction;
+
+    private boolean displaced;
+
+    /**
+     * Instantiates a new {@link LabelReference}.
+     *
+     * @param label                   the referenced {@link Label}
+     * @param instruction             the {@link AbstractInstruction} that made the reference
+     * @param rdest                   the {@link Register} that the {@link Label#getAddress()} is loaded into
+     * @param movilLine               the <code>MOVIL</code> {@link Line}
+     * @param moviuLine               the <code>MOVIU</code> {@link Line}
+     * @param targetLine              the <code>J[condition]</code> or <code>CALL</code> {@link Line} (<code>null</code>
+     *                                if the reference was made by a <code>MOV</code>)
+     * @param displacementInstruction the equivalent displacement immediate {@link AbstractInstruction} (<code>null</code>
+     *                                if the reference cannot be displaced)
+     */
+    public LabelReference(Label label, AbstractInstruction instruction, Register rdest, Line movilLine, Line moviuLine,
+            Line targetLine, AbstractInstruction displacementInstruction) {
+        this.label = label;
+        this.instruction = instruction;
+        this.rdest = rdest;
+        this.movilLine = movilLine;
+        this.moviuLine = moviuLine;
+        this.targetLine = targetLine;
+        this.displacementInstruction = displacementInstruction;
+    }
+
+    public Label getLabel() {
+        return label;
+    }
+
+    public AbstractInstruction getInstruction() {
+        return instruction;
+    }
+
+    public Register getRdest() {
+        return rdest;
+    }
+
+    public Line getMovilLine() {
+        return movilLine;
+    }
+
+    public Line getMoviuLine() {
+        return moviuLine;
+    }
+
+    public Line getTargetLine() {
+        return targetLine;
+    }
+
+    public AbstractInstruction getDisplacementInstruction() {
+        return displacementInstruction;
+    }
+
+    public boolean isDisplaced() {
+        return displaced;
+    }
+
+    public void setDisplaced(boolean displaced) {
+        this.displaced = displaced;
+    }
+
+    @Override
+    public String toString() {
+        return "LabelReference{" +
+                "label=" + label.getName() +
+                ", instruction=" + instruction.getMnemonic() +
+                ", rdest=" + rdest.getName() +
+                ", movilLine=" + movilLine +
+                ", moviuLine=" + moviuLine +
+                ", targetLine=" + targetLine +
+                ", displacementInstruction=" +
+                (displacementInstruction == null ? null : displacementInstruction.getMnemonic()) +
+                ", displaced=" + displaced +
+                '}';
+    }
+}
@@ -10,6 +10,7 @@ public class Line {
 
     private List<String> lineWords;
     private int sourceLineNumber;
+    private int address;
 
     /**
      * Instantiates a new {@link Line}.
@@ -20,6 +21,7 @@ public class Line {
     public Line(List<String> lineWords, int sourceLineNumber) {
         this.lineWords = new ArrayList<>(lineWords); // Copy constructor to ensure list mutability
         this.sourceLineNumber = sourceLineNumber;
+        address = -1;
     }
 
     public List<String> getLineWords() {
@@ -38,11 +40,26 @@ public class Line {
         this.sourceLineNumber = sourceLineNumber;
     }
 
+    /**
+     * Gets the address of this {@link Line} (the word index in the assembled output). This is <code>-1</code> until
+     * addresses have been assigned when processing labels.
+     *
+     * @return the address
+     */
+    public int getAddress() {
+        return address;
+    }
+
+    public void setAddress(int address) {
+        this.address = address;
+    }
+
     @Override
     public String toString() {
         return "Line{" +
                 "lineWords=" + lineWords +
                 ", visualLineNumber=" + sourceLineNumber +
+                ", address=" + address +
                 '}';
     }
 }
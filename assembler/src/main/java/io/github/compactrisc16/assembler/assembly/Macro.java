@@ -0,0 +1,63 @@
+package io.github.compactrisc16.assembler.assembly;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link Macro} represents a parameterized, multi-line <code>`macro</code> in assembly. A macro is used like an
+ * instruction (e.g. <code>NAME arg1 arg2</code>) and expands to its body {@link Line}s with every parameter word
+ * replaced with the given argument. Expansions are memoized per unique argument tuple.
+ */
+public class Macro {
+
+    private final String name;
+    private final List<String> parameters;
+    private final List<Line> body;
+    private final Map<List<String>, List<List<String>>> expansionsOfArguments;
+
+    /**
+     * Instantiates a new {@link Macro}.
+     *
+     * @param name       the name
+     * @param parameters the parameter names
+     */
+    public Macro(String name, List<String> parameters) {
+        this.name = name;
+        this.parameters = List.copyOf(parameters);
+        body = new ArrayList<>();
+        expansionsOfArguments = new HashMap<>();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<String> getParameters() {
+        return parameters;
+    }
+
+    public List<Line> getBody() {
+        return body;
+    }
+
+    /**
+     * Gets the memoized expansions of this {@link Macro}, which map an argument tuple to the expanded line words.
+     *
+     * @return the {@link Map} of argument tuples to expanded line words
+     */
+    public Map<List<String>, List<List<String>>> getExpansionsOfArguments() {
+        return expansionsOfArguments;
+    }
+
+    @Override
+    public String toString() {
+        return "Macro{" +
+                "name='" + name + '\'' +
+                ", parameters=" + parameters +
+                ", body=" + body +
+                ", expansions=" + expansionsOfArguments.size() +
+                '}';
+    }
+}
@@ -0,0 +1,302 @@
+package io.github.compactrisc16.assembler.cache;
+
+import io.github.compactrisc16.assembler.Assembler;
+import io.github.compactrisc16.assembler.argument.Arguments;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * {@link AssemblyCache} is an on-disk cache of assembler output files. An entry is a directory named after a key (see
+ * {@link #computeKey(byte[], Arguments)}) that contains a copy of each named output file and a {@link
+ * #METADATA_FILE_NAME} file. The modification time of the {@link #METADATA_FILE_NAME} file is the last time the entry
+ * was used, and the least recently used entries are evicted when the cache grows larger than its maximum size.
+ * Entries are published with an atomic directory move, so one cache directory can be shared by concurrent
+ * assemblers. The cache is best-effort: the {@link Assembler} only warns when storing an entry fails.
+ */
+public class AssemblyCache {
+
+    private static final String FORMAT_VERSION = "1";
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+    private static final String METADATA_FILE_NAME = "metadata";
+    private static final String TEMPORARY_ENTRY_PREFIX = ".tmp-";
+
+    private static byte[] assemblerFingerprint;
+
+    private final Path directory;
+    private final long maxSize;
+
+    /**
+     * Instantiates a new {@link AssemblyCache}.
+     *
+     * @param directory the cache directory {@link Path} (created if it doesn't exist)
+     * @param maxSize   the maximum size of the cache in bytes
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    public AssemblyCache(Path directory, long maxSize) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.maxSize = maxSize;
+        getAssemblerFingerprint();
+    }
+
+    /**
+     * Computes the key of an assembly. The key is a hash of the {@link #FORMAT_VERSION}, the assembler fingerprint
+     * (see {@link #getAssemblerFingerprint()}), the {@link Arguments} that affect the output files, and the assembly
+     * code bytes.
+     *
+     * @param assembly  the assembly code bytes
+     * @param arguments the parsed {@link Arguments}
+     *
+     * @return the hex key {@link String}
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    public String computeKey(byte[] assembly, Arguments arguments) throws IOException {
+        final MessageDigest messageDigest = createMessageDigest();
+        messageDigest.update(FORMAT_VERSION.getBytes(StandardCharsets.UTF_8));
+        messageDigest.update(getAssemblerFingerprint());
+        messageDigest.update(("numberBase=" + arguments.getNumberBase() +
+                ";maxPaddingLine=" + arguments.getMaxPaddingLine() +
+                ";maxPaddingLineValue=" + arguments.getMaxPaddingLineValue() +
+                ";outputFormats=" + arguments.getOutputFormats() +
+                ";outputProcessed=" + arguments.isOutputProcessed() +
+                ";peephole=" + arguments.isPeephole() + ";").getBytes(StandardCharsets.UTF_8));
+        messageDigest.update(assembly);
+
+        final StringBuilder key = new StringBuilder();
+        for (byte digestByte : messageDigest.digest()) {
+            key.append(Character.forDigit(digestByte >> 4 & 0xF, 16)).append(Character.forDigit(digestByte & 0xF, 16));
+        }
+        return key.toString();
+    }
+
+    /**
+     * Restores the entry of the given <code>key</code> by copying each of its files to the given output {@link File}.
+     *
+     * @param key                the key (from {@link #computeKey(byte[], Arguments)})
+     * @param outputFilesOfNames the {@link Map} of entry file names to output {@link File}s
+     *
+     * @return the {@link CachedAssembly} or <code>null</code> if the entry doesn't exist or couldn't be restored
+     */
+    public CachedAssembly restore(String key, Map<String, File> outputFilesOfNames) {
+        final Path entryDirectory = directory.resolve(key);
+        final Path metadataFile = entryDirectory.resolve(METADATA_FILE_NAME);
+        try {
+            final List<String> metadataLines = Files.readAllLines(metadataFile, StandardCharsets.UTF_8);
+            for (Map.Entry<String, File> outputFileOfName : outputFilesOfNames.entrySet()) {
+                Files.copy(entryDirectory.resolve(outputFileOfName.getKey()), outputFileOfName.getValue().toPath(),
+                        StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.setLastModifiedTime(metadataFile, FileTime.fromMillis(System.currentTimeMillis()));
+            return new CachedAssembly(Integer.parseInt(metadataLines.get(0)),
+                    metadataLines.subList(1, metadataLines.size()));
+        } catch (IOException | RuntimeException exception) { // A missing, evicted, or corrupt entry is a miss
+            return null;
+        }
+    }
+
+    /**
+     * Stores a copy of the given output {@link File}s as the entry of the given <code>key</code> and then evicts the
+     * least recently used entries as needed. Entries that other assemblers evict concurrently are skipped.
+     *
+     * @param key                the key (from {@link #computeKey(byte[], Arguments)})
+     * @param outputFilesOfNames the {@link Map} of entry file names to output {@link File}s
+     * @param wordCount          the number of assembled machine code words (excluding padding)
+     * @param warnings           the warnings that were printed when assembling
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    public void store(String key, Map<String, File> outputFilesOfNames, int wordCount, List<String> warnings)
+            throws IOException {
+        final Path temporaryDirectory = Files.createTempDirectory(directory, TEMPORARY_ENTRY_PREFIX);
+        try {
+            for (Map.Entry<String, File> outputFileOfName : outputFilesOfNames.entrySet()) {
+                Files.copy(outputFileOfName.getValue().toPath(), temporaryDirectory.resolve(outputFileOfName.getKey()));
+            }
+            final List<String> metadataLines = new ArrayList<>();
+            metadataLines.add(String.valueOf(wordCount));
+            metadataLines.addAll(warnings);
+            Files.write(temporaryDirectory.resolve(METADATA_FILE_NAME), metadataLines, StandardCharsets.UTF_8);
+
+            try {
+                Files.move(temporaryDirectory, directory.resolve(key));
+            } catch (FileAlreadyExistsException | DirectoryNotEmptyException exception) {
+                // Another assembler stored the same entry first
+            } catch (IOException exception) { // Some file systems report a non-empty target with a generic exception
+                if (!Files.isDirectory(directory.resolve(key))) {
+                    throw exception;
+                }
+            }
+        } finally {
+            deleteRecursively(temporaryDirectory);
+        }
+
+        evict();
+    }
+
+    /**
+     * Deletes the least recently used entries until the cache is no larger than {@link #maxSize}.
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    private synchronized void evict() throws IOException {
+        final List<Path> entryDirectories;
+        try (Stream<Path> paths = Files.list(directory)) {
+            entryDirectories = paths.filter(path -> !path.getFileName().toString().startsWith(TEMPORARY_ENTRY_PREFIX))
+                    .collect(Collectors.toList());
+        }
+
+        final List<EntryUsage> entryUsages = new ArrayList<>(entryDirectories.size());
+        long size = 0;
+        for (Path entryDirectory : entryDirectories) {
+            try {
+                EntryUsage entryUsage = new EntryUsage(entryDirectory, computeSize(entryDirectory),
+                        Files.getLastModifiedTime(entryDirectory.resolve(METADATA_FILE_NAME)));
+                entryUsages.add(entryUsage);
+                size += entryUsage.size;
+            } catch (NoSuchFileException exception) { // Evicted concurrently
+            }
+        }
+        if (size <= maxSize) {
+            return;
+        }
+
+        entryUsages.sort(Comparator.comparing(entryUsage -> entryUsage.lastUsedTime));
+        for (EntryUsage entryUsage : entryUsages) {
+            if (size <= maxSize) {
+                break;
+            }
+            deleteRecursively(entryUsage.directory);
+            size -= entryUsage.size;
+        }
+    }
+
+    /**
+     * {@link EntryUsage} is the size and last used time of an entry directory.
+     */
+    private static class EntryUsage {
+
+        private final Path directory;
+        private final long size;
+        private final FileTime lastUsedTime;
+
+        private EntryUsage(Path directory, long size, FileTime lastUsedTime) {
+            this.directory = directory;
+            this.size = size;
+            this.lastUsedTime = lastUsedTime;
+        }
+    }
+
+    /**
+     * Computes the total size of the files in the given entry directory.
+     *
+     * @param entryDirectory the entry directory {@link Path}
+     *
+     * @return the size in bytes
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    private static long computeSize(Path entryDirectory) throws IOException {
+        long size = 0;
+        try (Stream<Path> paths = Files.list(entryDirectory)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                size += Files.size(path);
+            }
+        } catch (UncheckedIOException exception) { // Thrown by the iterator of the Stream
+            throw exception.getCause();
+        }
+        return size;
+    }
+
+    /**
+     * Deletes the given directory and the files in it, ignoring files that were already deleted.
+     *
+     * @param directory the directory {@link Path}
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    private static void deleteRecursively(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        } catch (NoSuchFileException exception) { // Deleted concurrently
+        } catch (UncheckedIOException exception) { // Thrown by the walk when a file is deleted concurrently
+            if (!(exception.getCause() instanceof NoSuchFileException)) {
+                throw exception.getCause();
+            }
+        }
+    }
+
+    /**
+     * Gets the fingerprint of the assembler, which is a hash of the class files (or the JAR file) that the {@link
+     * Assembler} was loaded from. Any change to the assembler or the ISA tables (e.g. {@link
+     * io.github.compactrisc16.assembler.isa.instruction.Instructions}) changes the fingerprint, so stale entries are
+     * never restored.
+     *
+     * @return the fingerprint bytes
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    private static synchronized byte[] getAssemblerFingerprint() throws IOException {
+        if (assemblerFingerprint != null) {
+            return assemblerFingerprint;
+        }
+
+        final Path codeSource;
+        try {
+            codeSource = Path.of(Assembler.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        } catch (URISyntaxException | RuntimeException exception) {
+            throw new IOException("Cannot locate the assembler code source.", exception);
+        }
+
+        final MessageDigest messageDigest = createMessageDigest();
+        if (Files.isDirectory(codeSource)) {
+            try (Stream<Path> paths = Files.walk(codeSource)) {
+                for (Path path : (Iterable<Path>) paths.filter(Files::isRegularFile).sorted()::iterator) {
+                    messageDigest.update(codeSource.relativize(path).toString().getBytes(StandardCharsets.UTF_8));
+                    messageDigest.update(Files.readAllBytes(path));
+                }
+            }
+        } else {
+            messageDigest.update(Files.readAllBytes(codeSource));
+        }
+        assemblerFingerprint = messageDigest.digest();
+        return assemblerFingerprint;
+    }
+
+    /**
+     * Creates a {@link MessageDigest} for the {@link #DIGEST_ALGORITHM}.
+     *
+     * @return the {@link MessageDigest}
+     */
+    private static MessageDigest createMessageDigest() {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException exception) { // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(exception);
+        }
+    }
+}
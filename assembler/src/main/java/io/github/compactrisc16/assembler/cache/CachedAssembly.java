@@ -0,0 +1,39 @@
+package io.github.compactrisc16.assembler.cache;
+
+import java.util.List;
+
+/**
+ * {@link CachedAssembly} represents the metadata of an assembly restored from an {@link AssemblyCache}.
+ */
+public class CachedAssembly {
+
+    private final int wordCount;
+    private final List<String> warnings;
+
+    /**
+     * Instantiates a new {@link CachedAssembly}.
+     *
+     * @param wordCount the number of assembled machine code words (excluding padding)
+     * @param warnings  the warnings that were printed when assembling
+     */
+    public CachedAssembly(int wordCount, List<String> warnings) {
+        this.wordCount = wordCount;
+        this.warnings = List.copyOf(warnings);
+    }
+
+    public int getWordCount() {
+        return wordCount;
+    }
+
+    public List<String> getWarnings() {
+        return warnings;
+    }
+
+    @Override
+    public String toString() {
+        return "CachedAssembly{" +
+                "wordCount=" + wordCount +
+                ", warnings=" + warnings +
+                '}';
+    }
+}
@@ -0,0 +1,88 @@
+package io.github.compactrisc16.assembler.daemon;
+
+import io.github.compactrisc16.assembler.Assembler;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+
+/**
+ * {@link AssemblerClient} is a thin client that sends its arguments to a running {@link AssemblerDaemon} (see {@link
+ * DaemonProtocol}), prints the output of the daemon, and exits with the status of the daemon. It accepts the same
+ * arguments as the {@link Assembler} and resolves relative paths against its own working directory. Every request is
+ * sent with the token from the token file of the daemon. If no daemon is running, the arguments are assembled in this
+ * process instead.
+ */
+public final class AssemblerClient {
+
+    private static final String STOP_DAEMON_ARGUMENT = "--stop-daemon";
+
+    /**
+     * The entry point of the client. A single {@link #STOP_DAEMON_ARGUMENT} argument stops the daemon.
+     *
+     * @param args the input arguments
+     */
+    public static void main(String[] args) {
+        final boolean stopDaemon = args.length == 1 && args[0].equals(STOP_DAEMON_ARGUMENT);
+        final int port;
+        try {
+            port = DaemonProtocol.getPort();
+        } catch (NumberFormatException exception) {
+            System.err.println("Invalid " + DaemonProtocol.PORT_ENVIRONMENT_VARIABLE + ": " + exception.getMessage());
+            System.exit(1);
+            return;
+        }
+
+        final Path tokenPath = DaemonProtocol.getTokenPath(port);
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+             DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             DataOutputStream output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            output.writeInt(DaemonProtocol.MAGIC);
+            output.write(DaemonProtocol.readToken(tokenPath));
+            if (stopDaemon) {
+                output.writeByte(DaemonProtocol.REQUEST_STOP);
+                output.flush();
+                System.exit(input.readInt());
+                return;
+            }
+
+            output.writeByte(DaemonProtocol.REQUEST_ASSEMBLE);
+            output.writeUTF(Path.of("").toAbsolutePath().toString());
+            output.writeInt(args.length);
+            for (String argument : args) {
+                output.writeUTF(argument);
+            }
+            output.flush();
+
+            final int exitStatus = input.readInt();
+            System.out.write(input.readNBytes(input.readInt()));
+            System.out.flush();
+            System.err.write(input.readNBytes(input.readInt()));
+            System.err.flush();
+            System.exit(exitStatus);
+        } catch (ConnectException | NoSuchFileException exception) {
+            if (stopDaemon) {
+                System.err.println("No assembler daemon is listening on port " + port + ".");
+                System.exit(1);
+            }
+            Assembler.main(args);
+        } catch (EOFException exception) {
+            System.err.println("The assembler daemon on port " + port + " rejected the request. Restart the daemon " +
+                    "if " + tokenPath + " is missing or out of date.");
+            System.exit(1);
+        } catch (IOException exception) {
+            System.err.println(exception.getClass().getSimpleName() + ": " + exception.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private AssemblerClient() {}
+}
@@ -0,0 +1,257 @@
+package io.github.compactrisc16.assembler.daemon;
+
+import io.github.compactrisc16.assembler.Assembler;
+import io.github.compactrisc16.assembler.isa.instruction.Instructions;
+import io.github.compactrisc16.assembler.isa.register.Registers;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ProtocolException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link AssemblerDaemon} is a long-running process that runs an {@link Assembler} for each request of an {@link
+ * AssemblerClient} (see {@link DaemonProtocol}). Since the JVM stays up, JIT-compiled code and the immutable ISA
+ * tables are reused between requests. The daemon only listens on the loopback address and only handles requests
+ * with the random token that it writes to a file that only its owner can read (see {@link
+ * DaemonProtocol#getTokenPath(int)}). Connections are handled by a bounded pool of threads, and a connection that
+ * doesn't send its request within {@link #READ_TIMEOUT_MILLIS} is closed.
+ */
+public class AssemblerDaemon {
+
+    private static final int BACKLOG = 50;
+    private static final int READ_TIMEOUT_MILLIS = 10_000;
+    private static final long IDLE_THREAD_KEEP_ALIVE_SECONDS = 60;
+
+    private final int port;
+    private final Path tokenPath;
+    private final byte[] token;
+    private final ThreadPoolExecutor executorService;
+    private ServerSocket serverSocket;
+
+    /**
+     * Instantiates a new {@link AssemblerDaemon}.
+     *
+     * @param port the loopback port to listen on
+     */
+    public AssemblerDaemon(int port) {
+        this.port = port;
+        tokenPath = DaemonProtocol.getTokenPath(port);
+        token = new byte[DaemonProtocol.TOKEN_LENGTH];
+        new SecureRandom().nextBytes(token);
+
+        // The queue holds the connections that wait for one of the threads, like the backlog of the server socket
+        final int threadCount = Runtime.getRuntime().availableProcessors();
+        executorService = new ThreadPoolExecutor(threadCount, threadCount, IDLE_THREAD_KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS, new ArrayBlockingQueue<>(BACKLOG), runnable -> {
+            Thread thread = new Thread(runnable, "assembler-daemon-request");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executorService.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Listens for and handles requests until a {@link DaemonProtocol#REQUEST_STOP} request is received. The token
+     * file is written once the daemon is listening and deleted when it stops.
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    public void run() throws IOException {
+        // Initialize the ISA tables before the first request
+        Instructions.INSTRUCTIONS_OF_MNEMONICS.size();
+        Registers.REGISTERS_OF_NAMES.size();
+
+        // Bind before writing the token so that the token of a daemon that is already running isn't replaced
+        serverSocket = new ServerSocket(port, BACKLOG, InetAddress.getLoopbackAddress());
+        try {
+            DaemonProtocol.writeToken(tokenPath, token);
+        } catch (IOException exception) {
+            serverSocket.close();
+            throw exception;
+        }
+        System.out.println("Assembler daemon listening on " + serverSocket.getLocalSocketAddress());
+        try {
+            while (!serverSocket.isClosed()) {
+                final Socket socket;
+                try {
+                    socket = serverSocket.accept();
+                } catch (SocketException exception) {
+                    if (serverSocket.isClosed()) { // Closed by a stop request
+                        break;
+                    }
+                    throw exception;
+                }
+                try {
+                    executorService.execute(() -> handleConnection(socket));
+                } catch (RejectedExecutionException exception) {
+                    socket.close(); // Every thread is busy and the queue is full
+                }
+            }
+        } finally {
+            executorService.shutdown();
+            deleteToken();
+        }
+    }
+
+    /**
+     * Deletes the token file if it still contains the token of this daemon.
+     */
+    private void deleteToken() {
+        try {
+            if (Arrays.equals(Files.readAllBytes(tokenPath), token)) {
+                Files.delete(tokenPath);
+            }
+        } catch (IOException exception) {
+            System.err.println("Could not delete " + tokenPath + ": " + exception.getClass().getSimpleName() + ": " +
+                    exception.getMessage());
+        }
+    }
+
+    /**
+     * Checks if the given token is the token of this daemon, in time that doesn't depend on where they differ.
+     *
+     * @param requestToken the token of a request
+     *
+     * @return <code>true</code> if the tokens are equal
+     */
+    private boolean isToken(byte[] requestToken) {
+        return MessageDigest.isEqual(requestToken, token);
+    }
+
+    /**
+     * Handles a single request on the given {@link Socket} and then closes it. Requests without the magic number or
+     * the token of this daemon are closed without a response.
+     *
+     * @param socket the client {@link Socket}
+     */
+    private void handleConnection(Socket socket) {
+        try (socket;
+             DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             DataOutputStream output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            socket.setSoTimeout(READ_TIMEOUT_MILLIS);
+            if (input.readInt() != DaemonProtocol.MAGIC) {
+                return;
+            }
+            final byte[] requestToken = new byte[DaemonProtocol.TOKEN_LENGTH];
+            input.readFully(requestToken);
+            if (!isToken(requestToken)) {
+                return;
+            }
+
+            switch (input.readByte()) {
+                case DaemonProtocol.REQUEST_ASSEMBLE:
+                    handleAssembleRequest(input, output);
+                    break;
+                case DaemonProtocol.REQUEST_STOP:
+                    output.writeInt(0);
+                    output.flush();
+                    serverSocket.close();
+                    break;
+                default:
+                    break;
+            }
+        } catch (IOException | RuntimeException exception) {
+            System.err.println("Request failed: " + exception.getClass().getSimpleName() + ": " +
+                    exception.getMessage());
+        }
+    }
+
+    /**
+     * Handles a {@link DaemonProtocol#REQUEST_ASSEMBLE} request. A request with too many or too long arguments gets a
+     * failed response without being assembled.
+     *
+     * @param input  the request {@link DataInputStream}
+     * @param output the response {@link DataOutputStream}
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    private void handleAssembleRequest(DataInputStream input, DataOutputStream output) throws IOException {
+        final ByteArrayOutputStream outBytes = new ByteArrayOutputStream();
+        final ByteArrayOutputStream errBytes = new ByteArrayOutputStream();
+
+        final Path workingDirectory;
+        final String[] argumentStrings;
+        try {
+            workingDirectory = Path.of(DaemonProtocol.readString(input));
+            final int argumentCount = input.readInt();
+            if (argumentCount < 0 || argumentCount > DaemonProtocol.MAX_ARGUMENT_COUNT) {
+                throw new ProtocolException("The argument count must be between 0 and " +
+                        DaemonProtocol.MAX_ARGUMENT_COUNT + ".");
+            }
+            argumentStrings = new String[argumentCount];
+            for (int index = 0; index < argumentStrings.length; index++) {
+                argumentStrings[index] = DaemonProtocol.readString(input);
+            }
+        } catch (ProtocolException exception) {
+            errBytes.writeBytes((exception.getMessage() + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+            writeResponse(output, false, outBytes, errBytes);
+            return;
+        }
+
+        boolean succeeded;
+        try (PrintStream out = new PrintStream(outBytes, true, StandardCharsets.UTF_8);
+             PrintStream err = new PrintStream(errBytes, true, StandardCharsets.UTF_8)) {
+            try {
+                succeeded = new Assembler(argumentStrings, workingDirectory, out, err).run();
+            } catch (RuntimeException exception) {
+                exception.printStackTrace(err);
+                succeeded = false;
+            }
+        }
+
+        writeResponse(output, succeeded, outBytes, errBytes);
+    }
+
+    /**
+     * Writes a {@link DaemonProtocol#REQUEST_ASSEMBLE} response.
+     *
+     * @param output    the response {@link DataOutputStream}
+     * @param succeeded <code>true</code> if the request succeeded
+     * @param outBytes  the bytes printed to standard output
+     * @param errBytes  the bytes printed to standard error
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    private void writeResponse(DataOutputStream output, boolean succeeded, ByteArrayOutputStream outBytes,
+            ByteArrayOutputStream errBytes) throws IOException {
+        output.writeInt(succeeded ? 0 : 1);
+        output.writeInt(outBytes.size());
+        outBytes.writeTo(output);
+        output.writeInt(errBytes.size());
+        errBytes.writeTo(output);
+        output.flush();
+    }
+
+    /**
+     * The entry point of the daemon. The port is given by {@link DaemonProtocol#getPort()}.
+     *
+     * @param args the input arguments (unused)
+     */
+    public static void main(String[] args) {
+        try {
+            new AssemblerDaemon(DaemonProtocol.getPort()).run();
+        } catch (Exception exception) {
+            System.err.println(exception.getClass().getSimpleName() + ": " + exception.getMessage());
+            System.exit(1);
+        }
+    }
+}
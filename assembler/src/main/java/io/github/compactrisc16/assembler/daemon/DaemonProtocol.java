@@ -0,0 +1,137 @@
+package io.github.compactrisc16.assembler.daemon;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.ProtocolException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+
+/**
+ * {@link DaemonProtocol} contains the constants of the protocol between an {@link AssemblerClient} and an {@link
+ * AssemblerDaemon} over a loopback socket. Every request starts with {@link #MAGIC}, the {@link #TOKEN_LENGTH} bytes
+ * of the token that the daemon wrote to {@link #getTokenPath(int)}, and a request type byte. The daemon closes the
+ * connection without a response if the token doesn't match, so only processes that can read the token file (which
+ * only its owner can) can make requests.
+ * <p>
+ * A {@link #REQUEST_ASSEMBLE} request continues with the client working directory, the argument count, and each
+ * argument (all as modified UTF-8 {@link String}s, see {@link java.io.DataOutput#writeUTF(String)}). The argument
+ * count is at most {@link #MAX_ARGUMENT_COUNT} and each {@link String} is at most {@link #MAX_STRING_LENGTH}
+ * characters long. The response is the exit status int followed by the length-prefixed bytes printed to standard
+ * output and to standard error.
+ * <p>
+ * A {@link #REQUEST_STOP} request has no body. The response is an exit status int of <code>0</code>.
+ */
+public final class DaemonProtocol {
+
+    public static final int MAGIC = 0xC416_0002;
+    public static final int TOKEN_LENGTH = 32;
+    public static final byte REQUEST_ASSEMBLE = 0;
+    public static final byte REQUEST_STOP = 1;
+    public static final int MAX_ARGUMENT_COUNT = 16_384;
+    public static final int MAX_STRING_LENGTH = 4096;
+    public static final int DEFAULT_PORT = 16016;
+    public static final String PORT_ENVIRONMENT_VARIABLE = "ASSEMBLER_DAEMON_PORT";
+
+    private static final String TOKEN_DIRECTORY_NAME = ".compactrisc16";
+
+    /**
+     * Gets the loopback port of the {@link AssemblerDaemon}, which is {@link #DEFAULT_PORT} unless the {@link
+     * #PORT_ENVIRONMENT_VARIABLE} is set.
+     *
+     * @return the port
+     *
+     * @throws NumberFormatException thrown for {@link NumberFormatException}s
+     */
+    public static int getPort() throws NumberFormatException {
+        final String port = System.getenv(PORT_ENVIRONMENT_VARIABLE);
+        return port == null || port.isBlank() ? DEFAULT_PORT : Integer.parseInt(port.trim());
+    }
+
+    /**
+     * Gets the {@link Path} of the token file of the {@link AssemblerDaemon} on the given port, which is in the
+     * {@link #TOKEN_DIRECTORY_NAME} directory of the user's home directory.
+     *
+     * @param port the loopback port
+     *
+     * @return the token file {@link Path}
+     */
+    public static Path getTokenPath(int port) {
+        return Path.of(System.getProperty("user.home"), TOKEN_DIRECTORY_NAME, "assembler-daemon-" + port + ".token");
+    }
+
+    /**
+     * Writes the given token to the given token file {@link Path}. On file systems with POSIX permissions, the
+     * directory is only accessible by its owner (<code>0700</code>) and the file is created as only readable and
+     * writable by its owner (<code>0600</code>) before the token is written, and then atomically moved into place.
+     *
+     * @param tokenPath the token file {@link Path} (from {@link #getTokenPath(int)})
+     * @param token     the {@link #TOKEN_LENGTH} token bytes
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    public static void writeToken(Path tokenPath, byte[] token) throws IOException {
+        final Path directory = tokenPath.getParent();
+        final Path temporaryPath = directory.resolve(tokenPath.getFileName() + "." + ProcessHandle.current().pid());
+        if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            Files.createDirectories(directory,
+                    PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+            Files.setPosixFilePermissions(directory, PosixFilePermissions.fromString("rwx------"));
+            Files.deleteIfExists(temporaryPath);
+            Files.createFile(temporaryPath,
+                    PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        } else {
+            Files.createDirectories(directory);
+            Files.deleteIfExists(temporaryPath);
+            Files.createFile(temporaryPath);
+        }
+
+        try {
+            Files.write(temporaryPath, token);
+            Files.move(temporaryPath, tokenPath, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryPath);
+        }
+    }
+
+    /**
+     * Reads the token from the given token file {@link Path}.
+     *
+     * @param tokenPath the token file {@link Path} (from {@link #getTokenPath(int)})
+     *
+     * @return the {@link #TOKEN_LENGTH} token bytes
+     *
+     * @throws IOException thrown for {@link IOException}s (e.g. {@link java.nio.file.NoSuchFileException} if no
+     *                     daemon is running) or if the token has the wrong length
+     */
+    public static byte[] readToken(Path tokenPath) throws IOException {
+        final byte[] token = Files.readAllBytes(tokenPath);
+        if (token.length != TOKEN_LENGTH) {
+            throw new IOException(tokenPath + " does not contain a valid token.");
+        }
+        return token;
+    }
+
+    /**
+     * Reads a modified UTF-8 {@link String} of at most {@link #MAX_STRING_LENGTH} characters.
+     *
+     * @param input the {@link DataInputStream}
+     *
+     * @return the {@link String}
+     *
+     * @throws IOException thrown for {@link IOException}s or a {@link ProtocolException} if the {@link String} is
+     *                     too long
+     */
+    public static String readString(DataInputStream input) throws IOException {
+        final String string = input.readUTF();
+        if (string.length() > MAX_STRING_LENGTH) {
+            throw new ProtocolException("A string is longer than " + MAX_STRING_LENGTH + " characters.");
+        }
+        return string;
+    }
+
+    private DaemonProtocol() {}
+}
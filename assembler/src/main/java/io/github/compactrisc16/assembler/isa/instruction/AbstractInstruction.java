@@ -29,13 +29,16 @@ public abstract class AbstractInstruction {
     }
 
     /**
-     * Parses an assembly instruction {@link String}.
+     * Parses the given assembly instruction line words and assembles them into the equivalent machine code. This
+     * doesn't store any state, so an {@link AbstractInstruction} can be shared between threads.
      *
      * @param lineWords the assembly code line word {@link String}s
      *
+     * @return the machine code 16-bit-masked int
+     *
      * @throws InstructionParseException thrown for {@link InstructionParseException}s
      */
-    public abstract void parse(List<String> lineWords) throws InstructionParseException;
+    public abstract int assemble(List<String> lineWords) throws InstructionParseException;
 
     /**
      * Parses the given <code>registerString</code> (which is confined to {@link Register#getName()} in {@link
@@ -101,11 +104,11 @@ public abstract class AbstractInstruction {
     }
 
     /**
-     * Assembles an assembly instruction {@link String} into the equivalent machine code.
+     * Assembles the machine code bits that are the same for every use of this instruction (e.g. the opcode).
      *
-     * @return the machine code 16-bit-masked {@link Integer}
+     * @return the machine code 16-bit-masked int
      */
-    public int assemble() {
+    protected int assembleOpcode() {
         return opcode << 12;
     }
 
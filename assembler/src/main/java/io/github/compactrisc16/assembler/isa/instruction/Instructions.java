@@ -20,8 +20,8 @@ import java.util.stream.Collectors;
 /**
  * {@link Instructions} instantiates all {@link AbstractInstruction}s as defined in the <a
  * href="https://github.com/Petersoj/CompactRISC16/blob/main/docs/Datasheets/CR16%20ISA/CR16%20ISA.pdf">CR16 ISA</a>.
- * Note that none of the instantiated {@link AbstractInstruction}s here are thread-safe. Also note that these are shared
- * instances to reduce memory consumption when assembling, which is fine since assembling is done serially.
+ * Note that the instantiated {@link AbstractInstruction}s here are immutable descriptors (they don't hold any parsed
+ * state), so they and the tables below can be shared by assemblies running on different threads.
  */
 public final class Instructions {
 
@@ -108,5 +108,5 @@ public final class Instructions {
     public static final List<AbstractInstruction> B_INSTRUCTIONS =
             List.of(BEQ, BNE, BCS, BCC, BFS, BFC, BLT, BLE, BLO, BLS, BGT, BGE, BHI, BHS, BUC);
     public static final Map<String, AbstractInstruction> INSTRUCTIONS_OF_MNEMONICS = INSTRUCTIONS.stream()
-            .collect(Collectors.toMap(AbstractInstruction::getMnemonic, Function.identity()));
+            .collect(Collectors.toUnmodifiableMap(AbstractInstruction::getMnemonic, Function.identity()));
 }
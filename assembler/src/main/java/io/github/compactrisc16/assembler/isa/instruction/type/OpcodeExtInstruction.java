@@ -22,8 +22,8 @@ public abstract class OpcodeExtInstruction extends AbstractInstruction {
     }
 
     @Override
-    public int assemble() {
-        return super.assemble() | (opcodeExtension << 4);
+    protected int assembleOpcode() {
+        return super.assembleOpcode() | (opcodeExtension << 4);
     }
 
     public int getOpcodeExtension() {
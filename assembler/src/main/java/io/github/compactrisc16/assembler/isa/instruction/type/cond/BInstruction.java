@@ -17,8 +17,6 @@ public class BInstruction extends AbstractInstruction {
 
     private final int condition;
 
-    private int displacementImm;
-
     /**
      * Instantiates a new {@link BInstruction}.
      *
@@ -31,21 +29,17 @@ public class BInstruction extends AbstractInstruction {
     }
 
     @Override
-    public void parse(List<String> lineWords) throws InstructionParseException {
+    public int assemble(List<String> lineWords) throws InstructionParseException {
         if (lineWords.size() != 2) {
             throw new InstructionParseException(formatInstructParseExceptionMessage(lineWords, "<Displacement Imm>"));
         }
 
-        displacementImm = parseImmediate(lineWords.get(INSTRUCTION_INDEX_DISPLACEMENT_IMM),
+        int displacementImm = parseImmediate(lineWords.get(INSTRUCTION_INDEX_DISPLACEMENT_IMM),
                 MIN_DISPLACEMENT_IMM, MAX_DISPLACEMENT_IMM);
+        return assembleOpcode() | condition << 8 | (displacementImm & 0xFF);
     }
 
-    @Override
-    public int assemble() {
-        return super.assemble() | condition << 8 | (displacementImm & 0xFF);
-    }
-
-    public int getDisplacementImm() {
-        return displacementImm;
+    public int getCondition() {
+        return condition;
     }
 }
@@ -2,7 +2,6 @@ package io.github.compactrisc16.assembler.isa.instruction.type.cond;
 
 import io.github.compactrisc16.assembler.isa.instruction.exception.InstructionParseException;
 import io.github.compactrisc16.assembler.isa.instruction.type.OpcodeExtInstruction;
-import io.github.compactrisc16.assembler.isa.register.Register;
 
 import java.util.List;
 
@@ -16,8 +15,6 @@ public class JInstruction extends OpcodeExtInstruction {
 
     private final int condition;
 
-    private Register rtarget;
-
     /**
      * Instantiates a new {@link JInstruction}.
      *
@@ -30,20 +27,15 @@ public class JInstruction extends OpcodeExtInstruction {
     }
 
     @Override
-    public void parse(List<String> lineWords) throws InstructionParseException {
+    public int assemble(List<String> lineWords) throws InstructionParseException {
         if (lineWords.size() != 2) {
             throw new InstructionParseException(formatInstructParseExceptionMessage(lineWords, "<Rtarget>"));
         }
 
-        rtarget = parseRegister(lineWords.get(INSTRUCTION_INDEX_RTARGET));
-    }
-
-    @Override
-    public int assemble() {
-        return super.assemble() | condition << 8 | rtarget.getIndex();
+        return assembleOpcode() | condition << 8 | parseRegister(lineWords.get(INSTRUCTION_INDEX_RTARGET)).getIndex();
     }
 
-    public Register getRtarget() {
-        return rtarget;
+    public int getCondition() {
+        return condition;
     }
 }
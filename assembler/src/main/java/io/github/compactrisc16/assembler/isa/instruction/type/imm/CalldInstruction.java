@@ -15,8 +15,6 @@ public class CalldInstruction extends AbstractInstruction {
     public static final int MIN_DISPLACEMENT_IMM = (int) -Math.pow(2, 11);
     public static final int MAX_DISPLACEMENT_IMM = (int) Math.pow(2, 11) - 1;
 
-    private int displacementImm;
-
     /**
      * Instantiates a new {@link CalldInstruction}.
      */
@@ -25,21 +23,13 @@ public class CalldInstruction extends AbstractInstruction {
     }
 
     @Override
-    public void parse(List<String> lineWords) throws InstructionParseException {
+    public int assemble(List<String> lineWords) throws InstructionParseException {
         if (lineWords.size() != 2) {
             throw new InstructionParseException(formatInstructParseExceptionMessage(lineWords, "<Displacement Imm>"));
         }
 
-        displacementImm = parseImmediate(lineWords.get(INSTRUCTION_INDEX_DISPLACEMENT_IMM),
+        int displacementImm = parseImmediate(lineWords.get(INSTRUCTION_INDEX_DISPLACEMENT_IMM),
                 MIN_DISPLACEMENT_IMM, MAX_DISPLACEMENT_IMM);
-    }
-
-    @Override
-    public int assemble() {
-        return super.assemble() | (displacementImm & 0xFFF);
-    }
-
-    public int getDisplacementImm() {
-        return displacementImm;
+        return assembleOpcode() | (displacementImm & 0xFFF);
     }
 }
@@ -2,7 +2,6 @@ package io.github.compactrisc16.assembler.isa.instruction.type.imm;
 
 import io.github.compactrisc16.assembler.isa.instruction.exception.InstructionParseException;
 import io.github.compactrisc16.assembler.isa.instruction.type.OpcodeExtInstruction;
-import io.github.compactrisc16.assembler.isa.register.Register;
 
 import java.util.List;
 
@@ -15,9 +14,6 @@ public class RdestImmLoInstruction extends OpcodeExtInstruction {
     public static final int INSTRUCTION_INDEX_RDEST = 1;
     public static final int INSTRUCTION_INDEX_IMMLO = 2;
 
-    private Register rdest;
-    private int immLo;
-
     /**
      * Instantiates a new {@link RdestImmLoInstruction}.
      *
@@ -30,25 +26,13 @@ public class RdestImmLoInstruction extends OpcodeExtInstruction {
     }
 
     @Override
-    public void parse(List<String> lineWords) throws InstructionParseException {
+    public int assemble(List<String> lineWords) throws InstructionParseException {
         if (lineWords.size() != 3) {
             throw new InstructionParseException(formatInstructParseExceptionMessage(lineWords, "<Rdest> <ImmLo>"));
         }
 
-        rdest = parseRegister(lineWords.get(INSTRUCTION_INDEX_RDEST));
-        immLo = parseImmediate(lineWords.get(INSTRUCTION_INDEX_IMMLO), 0, 15);
-    }
-
-    @Override
-    public int assemble() {
-        return super.assemble() | rdest.getIndex() << 8 | (immLo & 0xF);
-    }
-
-    public Register getRdest() {
-        return rdest;
-    }
-
-    public int getImmLo() {
-        return immLo;
+        int rdestIndex = parseRegister(lineWords.get(INSTRUCTION_INDEX_RDEST)).getIndex();
+        int immLo = parseImmediate(lineWords.get(INSTRUCTION_INDEX_IMMLO), 0, 15);
+        return assembleOpcode() | rdestIndex << 8 | (immLo & 0xF);
     }
 }
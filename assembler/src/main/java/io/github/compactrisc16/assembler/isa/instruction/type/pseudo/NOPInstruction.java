@@ -19,16 +19,11 @@ public class NOPInstruction extends AbstractInstruction {
     }
 
     @Override
-    public void parse(List<String> lineWords) throws InstructionParseException {
+    public int assemble(List<String> lineWords) throws InstructionParseException {
         if (lineWords.size() != 1) {
             throw new InstructionParseException(formatInstructParseExceptionMessage(lineWords, ""));
         }
 
-        OR.parse(NOP_ASSEMBLY_LINE_WORDS);
-    }
-
-    @Override
-    public int assemble() {
-        return OR.assemble();
+        return OR.assemble(NOP_ASSEMBLY_LINE_WORDS);
     }
 }
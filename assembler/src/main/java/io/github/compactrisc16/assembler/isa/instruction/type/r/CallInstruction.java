@@ -2,7 +2,6 @@ package io.github.compactrisc16.assembler.isa.instruction.type.r;
 
 import io.github.compactrisc16.assembler.isa.instruction.exception.InstructionParseException;
 import io.github.compactrisc16.assembler.isa.instruction.type.OpcodeExtInstruction;
-import io.github.compactrisc16.assembler.isa.register.Register;
 
 import java.util.List;
 
@@ -14,8 +13,6 @@ public class CallInstruction extends OpcodeExtInstruction {
 
     public static final int INSTRUCTION_INDEX_RTARGET = 1;
 
-    private Register rtarget;
-
     /**
      * Instantiates a new {@link CallInstruction}.
      */
@@ -24,20 +21,11 @@ public class CallInstruction extends OpcodeExtInstruction {
     }
 
     @Override
-    public void parse(List<String> lineWords) throws InstructionParseException {
+    public int assemble(List<String> lineWords) throws InstructionParseException {
         if (lineWords.size() != 2) {
             throw new InstructionParseException(formatInstructParseExceptionMessage(lineWords, "<Rtarget>"));
         }
 
-        rtarget = parseRegister(lineWords.get(INSTRUCTION_INDEX_RTARGET));
-    }
-
-    @Override
-    public int assemble() {
-        return super.assemble() | rtarget.getIndex();
-    }
-
-    public Register getRtarget() {
-        return rtarget;
+        return assembleOpcode() | parseRegister(lineWords.get(INSTRUCTION_INDEX_RTARGET)).getIndex();
     }
 }
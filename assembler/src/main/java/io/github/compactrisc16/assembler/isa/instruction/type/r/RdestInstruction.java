@@ -2,7 +2,6 @@ package io.github.compactrisc16.assembler.isa.instruction.type.r;
 
 import io.github.compactrisc16.assembler.isa.instruction.exception.InstructionParseException;
 import io.github.compactrisc16.assembler.isa.instruction.type.OpcodeExtInstruction;
-import io.github.compactrisc16.assembler.isa.register.Register;
 
 import java.util.List;
 
@@ -13,8 +12,6 @@ public class RdestInstruction extends OpcodeExtInstruction {
 
     public static final int INSTRUCTION_INDEX_RDEST = 1;
 
-    private Register rdest;
-
     /**
      * Instantiates a new {@link RdestInstruction}.
      *
@@ -27,20 +24,11 @@ public class RdestInstruction extends OpcodeExtInstruction {
     }
 
     @Override
-    public void parse(List<String> lineWords) throws InstructionParseException {
+    public int assemble(List<String> lineWords) throws InstructionParseException {
         if (lineWords.size() != 2) {
             throw new InstructionParseException(formatInstructParseExceptionMessage(lineWords, "<Rdest>"));
         }
 
-        rdest = parseRegister(lineWords.get(INSTRUCTION_INDEX_RDEST));
-    }
-
-    @Override
-    public int assemble() {
-        return super.assemble() | rdest.getIndex() << 8;
-    }
-
-    public Register getRdest() {
-        return rdest;
+        return assembleOpcode() | parseRegister(lineWords.get(INSTRUCTION_INDEX_RDEST)).getIndex() << 8;
     }
 }
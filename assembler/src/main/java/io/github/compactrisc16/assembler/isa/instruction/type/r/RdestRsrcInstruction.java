@@ -2,7 +2,6 @@ package io.github.compactrisc16.assembler.isa.instruction.type.r;
 
 import io.github.compactrisc16.assembler.isa.instruction.exception.InstructionParseException;
 import io.github.compactrisc16.assembler.isa.instruction.type.OpcodeExtInstruction;
-import io.github.compactrisc16.assembler.isa.register.Register;
 
 import java.util.List;
 
@@ -15,9 +14,6 @@ public class RdestRsrcInstruction extends OpcodeExtInstruction {
     public static final int INSTRUCTION_INDEX_RDEST = 1;
     public static final int INSTRUCTION_INDEX_RSRC = 2;
 
-    private Register rdest;
-    private Register rsrc;
-
     /**
      * Instantiates a new {@link RdestRsrcInstruction}.
      *
@@ -30,25 +26,13 @@ public class RdestRsrcInstruction extends OpcodeExtInstruction {
     }
 
     @Override
-    public void parse(List<String> lineWords) throws InstructionParseException {
+    public int assemble(List<String> lineWords) throws InstructionParseException {
         if (lineWords.size() != 3) {
             throw new InstructionParseException(formatInstructParseExceptionMessage(lineWords, "<Rdest> <Rsrc>"));
         }
 
-        rdest = parseRegister(lineWords.get(INSTRUCTION_INDEX_RDEST));
-        rsrc = parseRegister(lineWords.get(INSTRUCTION_INDEX_RSRC));
-    }
-
-    @Override
-    public int assemble() {
-        return super.assemble() | rdest.getIndex() << 8 | rsrc.getIndex();
-    }
-
-    public Register getRdest() {
-        return rdest;
-    }
-
-    public Register getRsrc() {
-        return rsrc;
+        return assembleOpcode() |
+                parseRegister(lineWords.get(INSTRUCTION_INDEX_RDEST)).getIndex() << 8 |
+                parseRegister(lineWords.get(INSTRUCTION_INDEX_RSRC)).getIndex();
     }
 }
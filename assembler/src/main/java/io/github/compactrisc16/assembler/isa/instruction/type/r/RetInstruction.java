@@ -18,9 +18,11 @@ public class RetInstruction extends OpcodeExtInstruction {
     }
 
     @Override
-    public void parse(List<String> lineWords) throws InstructionParseException {
+    public int assemble(List<String> lineWords) throws InstructionParseException {
         if (lineWords.size() != 1) {
             throw new InstructionParseException(formatInstructParseExceptionMessage(lineWords, ""));
         }
+
+        return assembleOpcode();
     }
 }
@@ -32,5 +32,5 @@ public class Registers {
     public static final List<Register> REGISTERS = List.of(
             RSP, R14, R13, R12, R11, R10, R9, R8, R7, R6, R5, R4, R3, R2, R1, R0);
     public static final Map<String, Register> REGISTERS_OF_NAMES = REGISTERS.stream()
-            .collect(Collectors.toMap(Register::getName, Function.identity()));
+            .collect(Collectors.toUnmodifiableMap(Register::getName, Function.identity()));
 }
@@ -0,0 +1,102 @@
+package io.github.compactrisc16.assembler.output;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * {@link AbstractChannelWriter} represents an abstract writer that formats bytes into a reusable {@link ByteBuffer}
+ * and writes the {@link ByteBuffer} to a {@link FileChannel} in large writes.
+ */
+public abstract class AbstractChannelWriter implements Closeable {
+
+    protected static final int BUFFER_CAPACITY = 1 << 16;
+
+    protected final ByteBuffer buffer;
+
+    private final FileChannel fileChannel;
+
+    /**
+     * Instantiates a new {@link AbstractChannelWriter}. This will create or truncate the file at the given
+     * <code>path</code>.
+     *
+     * @param path the {@link Path} of the output file
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    public AbstractChannelWriter(Path path) throws IOException {
+        buffer = ByteBuffer.allocate(BUFFER_CAPACITY);
+        fileChannel = FileChannel.open(path, CREATE, WRITE, TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Ensures that {@link #buffer} has at least <code>byteCount</code> bytes remaining by writing it out as needed.
+     *
+     * @param byteCount the number of bytes (at most {@link #BUFFER_CAPACITY})
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    protected void ensureRemaining(int byteCount) throws IOException {
+        if (buffer.remaining() < byteCount) {
+            flush();
+        }
+    }
+
+    /**
+     * Puts the given {@link String} into {@link #buffer} as UTF-8.
+     *
+     * @param string the {@link String}
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    protected void putString(String string) throws IOException {
+        final int length = string.length();
+        for (int index = 0; index < length; index++) {
+            if (string.charAt(index) >= 0x80) { // Only non-ASCII strings need to be encoded
+                byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+                for (int offset = 0; offset < bytes.length; offset += BUFFER_CAPACITY) {
+                    int byteCount = Math.min(bytes.length - offset, BUFFER_CAPACITY);
+                    ensureRemaining(byteCount);
+                    buffer.put(bytes, offset, byteCount);
+                }
+                return;
+            }
+        }
+
+        for (int offset = 0; offset < length; ) {
+            ensureRemaining(Math.min(length - offset, BUFFER_CAPACITY));
+            for (int end = Math.min(length, offset + buffer.remaining()); offset < end; offset++) {
+                buffer.put((byte) string.charAt(offset));
+            }
+        }
+    }
+
+    /**
+     * Writes all bytes in {@link #buffer} to the {@link FileChannel} and clears {@link #buffer}.
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            fileChannel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            fileChannel.close();
+        }
+    }
+}
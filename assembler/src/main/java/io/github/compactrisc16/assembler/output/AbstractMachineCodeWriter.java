@@ -0,0 +1,130 @@
+package io.github.compactrisc16.assembler.output;
+
+import io.github.compactrisc16.assembler.argument.NumberBase;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * {@link AbstractMachineCodeWriter} is an {@link AbstractChannelWriter} that writes an image of 16-bit machine code
+ * words in a given file format. It also contains lookup tables to format words as text in a {@link NumberBase}.
+ */
+public abstract class AbstractMachineCodeWriter extends AbstractChannelWriter {
+
+    private static final byte[] HEX_DIGITS = "0123456789ABCDEF".getBytes();
+    private static final byte[] HEX_DIGITS_OF_BYTES = new byte[256 * 2];
+    private static final byte[] BINARY_DIGITS_OF_BYTES = new byte[256 * 8];
+    private static final byte[] DECIMAL_DIGITS_OF_HUNDREDS = new byte[100 * 2];
+
+    static {
+        for (int value = 0; value < 256; value++) {
+            HEX_DIGITS_OF_BYTES[value * 2] = HEX_DIGITS[value >> 4];
+            HEX_DIGITS_OF_BYTES[value * 2 + 1] = HEX_DIGITS[value & 0xF];
+
+            for (int bit = 0; bit < 8; bit++) {
+                BINARY_DIGITS_OF_BYTES[value * 8 + bit] = (byte) ((value >> (7 - bit) & 1) == 1 ? '1' : '0');
+            }
+        }
+
+        for (int value = 0; value < 100; value++) {
+            DECIMAL_DIGITS_OF_HUNDREDS[value * 2] = (byte) ('0' + value / 10);
+            DECIMAL_DIGITS_OF_HUNDREDS[value * 2 + 1] = (byte) ('0' + value % 10);
+        }
+    }
+
+    /**
+     * Instantiates a new {@link AbstractMachineCodeWriter}.
+     *
+     * @param path the {@link Path} of the output file
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    public AbstractMachineCodeWriter(Path path) throws IOException {
+        super(path);
+    }
+
+    /**
+     * Writes the given machine code <code>words</code> followed by <code>paddingWord</code>s up to
+     * <code>depth</code> words. Only the lower 16 bits of each word are written.
+     *
+     * @param words       the machine code words
+     * @param depth       the total number of words in the image (less than or equal to <code>words.length</code>
+     *                    for no padding)
+     * @param paddingWord the padding word
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    public abstract void writeImage(int[] words, int depth, int paddingWord) throws IOException;
+
+    /**
+     * Gets the word at the given <code>address</code> of an image.
+     *
+     * @param words       the machine code words
+     * @param address     the address
+     * @param paddingWord the padding word
+     *
+     * @return the unsigned 16-bit word
+     *
+     * @see #writeImage(int[], int, int)
+     */
+    protected static int getImageWord(int[] words, int address, int paddingWord) {
+        return (address < words.length ? words[address] : paddingWord) & 0xFFFF;
+    }
+
+    /**
+     * Gets the number of characters that {@link #putWord(int, NumberBase)} puts for the given {@link NumberBase}.
+     *
+     * @param numberBase the {@link NumberBase}
+     *
+     * @return the number of characters
+     */
+    protected static int getWordLength(NumberBase numberBase) {
+        switch (numberBase) {
+            case BINARY:
+                return 16;
+            case DECIMAL:
+                return 5;
+            case HEX:
+                return 4;
+            default:
+                throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Puts the given unsigned 16-bit <code>word</code> into {@link #buffer} as zero-padded text in the given {@link
+     * NumberBase}. {@link #buffer} must have at least {@link #getWordLength(NumberBase)} bytes remaining.
+     *
+     * @param word       the unsigned 16-bit word
+     * @param numberBase the {@link NumberBase}
+     */
+    protected void putWord(int word, NumberBase numberBase) {
+        switch (numberBase) {
+            case BINARY:
+                buffer.put(BINARY_DIGITS_OF_BYTES, (word >> 8) * 8, 8);
+                buffer.put(BINARY_DIGITS_OF_BYTES, (word & 0xFF) * 8, 8);
+                break;
+            case DECIMAL:
+                int hundreds = word % 10000;
+                buffer.put((byte) ('0' + word / 10000));
+                buffer.put(DECIMAL_DIGITS_OF_HUNDREDS, hundreds / 100 * 2, 2);
+                buffer.put(DECIMAL_DIGITS_OF_HUNDREDS, hundreds % 100 * 2, 2);
+                break;
+            case HEX:
+                putHexByte(word >> 8);
+                putHexByte(word & 0xFF);
+                break;
+            default:
+                throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Puts the given unsigned byte into {@link #buffer} as two hex characters.
+     *
+     * @param value the unsigned byte
+     */
+    protected void putHexByte(int value) {
+        buffer.put(HEX_DIGITS_OF_BYTES, value * 2, 2);
+    }
+}
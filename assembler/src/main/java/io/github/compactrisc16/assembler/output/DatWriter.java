@@ -0,0 +1,40 @@
+package io.github.compactrisc16.assembler.output;
+
+import io.github.compactrisc16.assembler.argument.NumberBase;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * {@link DatWriter} is an {@link AbstractMachineCodeWriter} that writes 16-bit machine code words as text in a given
+ * {@link NumberBase}, one zero-padded word per line. Words are formatted from lookup tables, so nothing is allocated
+ * per word.
+ */
+public class DatWriter extends AbstractMachineCodeWriter {
+
+    private final NumberBase numberBase;
+    private final int bytesPerWord;
+
+    /**
+     * Instantiates a new {@link DatWriter}.
+     *
+     * @param path       the {@link Path} of the output file
+     * @param numberBase the {@link NumberBase}
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    public DatWriter(Path path, NumberBase numberBase) throws IOException {
+        super(path);
+        this.numberBase = numberBase;
+        bytesPerWord = getWordLength(numberBase) + 1;
+    }
+
+    @Override
+    public void writeImage(int[] words, int depth, int paddingWord) throws IOException {
+        for (int address = 0, wordCount = Math.max(words.length, depth); address < wordCount; address++) {
+            ensureRemaining(bytesPerWord);
+            putWord(getImageWord(words, address, paddingWord), numberBase);
+            buffer.put((byte) '\n');
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package io.github.compactrisc16.assembler.output;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * {@link IntelHexWriter} is an {@link AbstractMachineCodeWriter} that writes 16-bit machine code words in the Intel HEX
+ * format. As with Quartus memory initialization files, record addresses are word addresses and each word is written
+ * big-endian. An extended linear address record is written whenever the upper 16 bits of the word address change.
+ */
+public class IntelHexWriter extends AbstractMachineCodeWriter {
+
+    private static final int WORDS_PER_RECORD = 8;
+    private static final int RECORD_TYPE_DATA = 0x00;
+    private static final int RECORD_TYPE_END_OF_FILE = 0x01;
+    private static final int RECORD_TYPE_EXTENDED_LINEAR_ADDRESS = 0x04;
+    // ':' + byte count + address + record type + data + checksum + '\n'
+    private static final int MAX_RECORD_LENGTH = 1 + 2 + 4 + 2 + WORDS_PER_RECORD * Short.BYTES * 2 + 2 + 1;
+
+    /**
+     * Instantiates a new {@link IntelHexWriter}.
+     *
+     * @param path the {@link Path} of the output file
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    public IntelHexWriter(Path path) throws IOException {
+        super(path);
+    }
+
+    @Override
+    public void writeImage(int[] words, int depth, int paddingWord) throws IOException {
+        final int wordCount = Math.max(words.length, depth);
+        int upperAddress = 0;
+        for (int address = 0; address < wordCount; address += WORDS_PER_RECORD) {
+            if (address >>> 16 != upperAddress) {
+                upperAddress = address >>> 16;
+                ensureRemaining(MAX_RECORD_LENGTH);
+                putRecordStart(Short.BYTES, 0, RECORD_TYPE_EXTENDED_LINEAR_ADDRESS);
+                int checksum = Short.BYTES + RECORD_TYPE_EXTENDED_LINEAR_ADDRESS;
+                checksum += putDataByte(upperAddress >> 8) + putDataByte(upperAddress & 0xFF);
+                putRecordEnd(checksum);
+            }
+
+            // Records never cross a 64K word boundary since 'WORDS_PER_RECORD' divides it
+            final int recordWordCount = Math.min(WORDS_PER_RECORD, wordCount - address);
+            final int byteCount = recordWordCount * Short.BYTES;
+            final int lowerAddress = address & 0xFFFF;
+            ensureRemaining(MAX_RECORD_LENGTH);
+            putRecordStart(byteCount, lowerAddress, RECORD_TYPE_DATA);
+            int checksum = byteCount + (lowerAddress >> 8) + (lowerAddress & 0xFF) + RECORD_TYPE_DATA;
+            for (int recordAddress = address; recordAddress < address + recordWordCount; recordAddress++) {
+                int word = getImageWord(words, recordAddress, paddingWord);
+                checksum += putDataByte(word >> 8) + putDataByte(word & 0xFF);
+            }
+            putRecordEnd(checksum);
+        }
+
+        ensureRemaining(MAX_RECORD_LENGTH);
+        putRecordStart(0, 0, RECORD_TYPE_END_OF_FILE);
+        putRecordEnd(RECORD_TYPE_END_OF_FILE);
+    }
+
+    /**
+     * Puts the start code, byte count, address, and record type of a record.
+     *
+     * @param byteCount  the data byte count
+     * @param address    the 16-bit address
+     * @param recordType the record type
+     */
+    private void putRecordStart(int byteCount, int address, int recordType) {
+        buffer.put((byte) ':');
+        putHexByte(byteCount);
+        putHexByte(address >> 8);
+        putHexByte(address & 0xFF);
+        putHexByte(recordType);
+    }
+
+    /**
+     * Puts a data byte of a record.
+     *
+     * @param value the unsigned byte
+     *
+     * @return <code>value</code> (to be added to the checksum)
+     */
+    private int putDataByte(int value) {
+        putHexByte(value);
+        return value;
+    }
+
+    /**
+     * Puts the checksum and the line terminator of a record.
+     *
+     * @param byteSum the sum of all bytes in the record
+     */
+    private void putRecordEnd(int byteSum) {
+        putHexByte(-byteSum & 0xFF);
+        buffer.put((byte) '\n');
+    }
+}
@@ -0,0 +1,107 @@
+package io.github.compactrisc16.assembler.output;
+
+import io.github.compactrisc16.assembler.argument.NumberBase;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * {@link MifWriter} is an {@link AbstractMachineCodeWriter} that writes 16-bit machine code words in the Quartus Memory
+ * Initialization File (MIF) format. Runs of equal words (such as padding) are written as a single
+ * <code>[a..b] : value;</code> range.
+ */
+public class MifWriter extends AbstractMachineCodeWriter {
+
+    private static final int MIN_ADDRESS_LENGTH = 4;
+    private static final int MAX_ADDRESS_LENGTH = 8; // The image isn't capped, so an address can take all of an int
+    // Indentation + '[' + address + '..' + address + '] : ' + word + ';\n'
+    private static final int MAX_CONTENT_LINE_LENGTH = 4 + 1 + MAX_ADDRESS_LENGTH + 2 + MAX_ADDRESS_LENGTH + 4 + 16 + 2;
+
+    private final NumberBase numberBase;
+
+    /**
+     * Instantiates a new {@link MifWriter}.
+     *
+     * @param path       the {@link Path} of the output file
+     * @param numberBase the {@link NumberBase} of the data
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    public MifWriter(Path path, NumberBase numberBase) throws IOException {
+        super(path);
+        this.numberBase = numberBase;
+    }
+
+    @Override
+    public void writeImage(int[] words, int depth, int paddingWord) throws IOException {
+        final int wordCount = Math.max(words.length, depth);
+        putString("WIDTH=16;\n" +
+                "DEPTH=" + wordCount + ";\n" +
+                "\n" +
+                "ADDRESS_RADIX=HEX;\n" +
+                "DATA_RADIX=" + getDataRadix() + ";\n" +
+                "\n" +
+                "CONTENT BEGIN\n");
+
+        for (int address = 0; address < wordCount; ) {
+            final int word = getImageWord(words, address, paddingWord);
+            int endAddress = address;
+            while (endAddress + 1 < wordCount && getImageWord(words, endAddress + 1, paddingWord) == word) {
+                endAddress++;
+            }
+
+            ensureRemaining(MAX_CONTENT_LINE_LENGTH);
+            putString("    ");
+            if (endAddress == address) {
+                putAddress(address);
+            } else {
+                buffer.put((byte) '[');
+                putAddress(address);
+                putString("..");
+                putAddress(endAddress);
+                buffer.put((byte) ']');
+            }
+            putString(" : ");
+            putWord(word, numberBase);
+            putString(";\n");
+
+            address = endAddress + 1;
+        }
+
+        putString("END;\n");
+    }
+
+    /**
+     * Gets the MIF <code>DATA_RADIX</code> of {@link #numberBase}.
+     *
+     * @return the data radix {@link String}
+     */
+    private String getDataRadix() {
+        switch (numberBase) {
+            case BINARY:
+                return "BIN";
+            case DECIMAL:
+                return "UNS";
+            case HEX:
+                return "HEX";
+            default:
+                throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Puts the given address as {@link #MIN_ADDRESS_LENGTH} to {@link #MAX_ADDRESS_LENGTH} hex characters.
+     *
+     * @param address the non-negative address
+     */
+    private void putAddress(int address) {
+        if (address > 0xFF_FFFF) {
+            putHexByte(address >>> 24);
+        }
+        if (address > 0xFFFF) {
+            putHexByte(address >>> 16 & 0xFF);
+        }
+        putHexByte(address >> 8 & 0xFF);
+        putHexByte(address & 0xFF);
+    }
+}
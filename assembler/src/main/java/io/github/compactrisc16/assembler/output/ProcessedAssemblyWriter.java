@@ -0,0 +1,69 @@
+package io.github.compactrisc16.assembler.output;
+
+import io.github.compactrisc16.assembler.assembly.Line;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * {@link ProcessedAssemblyWriter} is an {@link AbstractChannelWriter} that writes processed assembly {@link Line}s with
+ * their first three words aligned in columns.
+ */
+public class ProcessedAssemblyWriter extends AbstractChannelWriter {
+
+    private static final int[] WORD_COLUMN_WIDTHS = {5, 3};
+
+    /**
+     * Instantiates a new {@link ProcessedAssemblyWriter}.
+     *
+     * @param path the {@link Path} of the output file
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    public ProcessedAssemblyWriter(Path path) throws IOException {
+        super(path);
+    }
+
+    /**
+     * Writes the given {@link Line}. The first word is padded to 5 characters and the second word is padded to 3
+     * characters, each followed by a space. Only the first three words are written and trailing spaces are removed.
+     *
+     * @param line the {@link Line}
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    public void writeLine(Line line) throws IOException {
+        List<String> lineWords = line.getLineWords();
+        int wordCount = Math.min(lineWords.size(), WORD_COLUMN_WIDTHS.length + 1);
+        for (int wordIndex = 0; wordIndex < wordCount; wordIndex++) {
+            String word = lineWords.get(wordIndex);
+            putString(word);
+
+            // Pad and separate all but the last word that is written
+            if (wordIndex < wordCount - 1) {
+                int paddingCount = Math.max(WORD_COLUMN_WIDTHS[wordIndex] - word.length(), 0) + 1;
+                ensureRemaining(paddingCount);
+                for (int index = 0; index < paddingCount; index++) {
+                    buffer.put((byte) ' ');
+                }
+            }
+        }
+        ensureRemaining(1);
+        buffer.put((byte) '\n');
+    }
+
+    /**
+     * Writes the given comment on its own line.
+     *
+     * @param comment the comment {@link String}
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    public void writeComment(String comment) throws IOException {
+        putString("# ");
+        putString(comment);
+        ensureRemaining(1);
+        buffer.put((byte) '\n');
+    }
+}
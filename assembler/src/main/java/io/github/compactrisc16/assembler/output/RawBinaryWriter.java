@@ -0,0 +1,33 @@
+package io.github.compactrisc16.assembler.output;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+
+/**
+ * {@link RawBinaryWriter} is an {@link AbstractMachineCodeWriter} that writes 16-bit machine code words as raw 2-byte
+ * values in a given {@link ByteOrder}.
+ */
+public class RawBinaryWriter extends AbstractMachineCodeWriter {
+
+    /**
+     * Instantiates a new {@link RawBinaryWriter}.
+     *
+     * @param path      the {@link Path} of the output file
+     * @param byteOrder the {@link ByteOrder} of each word
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    public RawBinaryWriter(Path path, ByteOrder byteOrder) throws IOException {
+        super(path);
+        buffer.order(byteOrder);
+    }
+
+    @Override
+    public void writeImage(int[] words, int depth, int paddingWord) throws IOException {
+        for (int address = 0, wordCount = Math.max(words.length, depth); address < wordCount; address++) {
+            ensureRemaining(Short.BYTES);
+            buffer.putShort((short) getImageWord(words, address, paddingWord));
+        }
+    }
+}
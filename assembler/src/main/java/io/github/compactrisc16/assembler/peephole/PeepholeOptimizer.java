@@ -0,0 +1,273 @@
+package io.github.compactrisc16.assembler.peephole;
+
+import io.github.compactrisc16.assembler.Assembler;
+import io.github.compactrisc16.assembler.assembly.Line;
+import io.github.compactrisc16.assembler.isa.instruction.AbstractInstruction;
+import io.github.compactrisc16.assembler.isa.instruction.Instructions;
+import io.github.compactrisc16.assembler.isa.instruction.type.cond.BInstruction;
+import io.github.compactrisc16.assembler.util.BasedNumberParser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@link PeepholeOptimizer} rewrites redundant instructions (see {@link PeepholeRule}) in the assembly {@link Line}s
+ * after their <code>`define</code>s and <code>`macro</code>s have been processed and before their labels are, so the
+ * rewrites shrink the jumps that the assembler relaxes. Code addresses are assumed to only be taken through labels,
+ * numeric <code>B[condition]</code> and <code>CALLD</code> displacements, and <code>LPC</code>. A {@link Line} is never
+ * removed from within the span of a numeric displacement, since that would change its target, or from between two
+ * labels, since a label must be followed by a {@link Line}. An address taken with <code>LPC</code> may be offset by
+ * any computed amount, so no {@link Line} is removed from a program that uses <code>LPC</code>.
+ */
+public final class PeepholeOptimizer {
+
+    /**
+     * The instructions that overwrite all of the status flags. Every ALU instruction passes through
+     * <code>S_EXECUTE_ALU</code> in <code>cr16.sv</code>, even if it only computes the zero flag (or none).
+     */
+    private static final Set<AbstractInstruction> STATUS_FLAG_WRITING_INSTRUCTIONS = Set.of(
+            Instructions.ADD, Instructions.ADDI, Instructions.ADDC, Instructions.ADDCI, Instructions.MUL,
+            Instructions.MULI, Instructions.SUB, Instructions.SUBI, Instructions.CMP, Instructions.CMPI,
+            Instructions.NOT, Instructions.NOTI, Instructions.AND, Instructions.ANDI, Instructions.OR, Instructions.ORI,
+            Instructions.XOR, Instructions.XORI, Instructions.LSH, Instructions.LSHI, Instructions.RSH,
+            Instructions.RSHI, Instructions.ALSH, Instructions.ALSHI, Instructions.ARSH, Instructions.ARSHI,
+            Instructions.SSF, Instructions.NOP);
+    /**
+     * The instructions that neither read nor write the status flags and always continue with the next instruction.
+     */
+    private static final Set<AbstractInstruction> STATUS_FLAG_PRESERVING_INSTRUCTIONS = Set.of(
+            Instructions.MOV, Instructions.MOVIL, Instructions.MOVIU, Instructions.LPC, Instructions.PUSH,
+            Instructions.POP, Instructions.LOAD, Instructions.STORE, Instructions.LOADX, Instructions.STOREX);
+    private static final String LABEL_PREFIX = Assembler.LABEL_PREFIX;
+
+    /**
+     * Rewrites the redundant instructions in the given assembly {@link Line}s.
+     *
+     * @param lines the assembly {@link Line}s, with their <code>`define</code>s and <code>`macro</code>s processed
+     *
+     * @return the {@link PeepholeRewrite}s in {@link Line} order
+     */
+    public static List<PeepholeRewrite> optimize(List<Line> lines) {
+        final boolean[] pinnedLines = findPinnedLines(lines);
+        final Map<String, Integer> lineIndicesOfLabelNames = new HashMap<>();
+        for (int index = 0, size = lines.size(); index < size; index++) {
+            if (isLabelDefinition(lines.get(index))) {
+                lineIndicesOfLabelNames.putIfAbsent(lines.get(index).getLineWords().get(0), index);
+            }
+        }
+
+        final List<PeepholeRewrite> rewrites = new ArrayList<>();
+        final List<Line> optimizedLines = new ArrayList<>(lines.size());
+        for (int index = 0, size = lines.size(); index < size; index++) {
+            final Line line = lines.get(index);
+            final List<String> lineWords = line.getLineWords();
+            final AbstractInstruction instruction = Instructions.INSTRUCTIONS_OF_MNEMONICS.get(lineWords.get(0));
+            final Line previousLine = optimizedLines.isEmpty() ? null : optimizedLines.get(optimizedLines.size() - 1);
+
+            if (instruction == Instructions.MOV && lineWords.size() == 3 &&
+                    lineWords.get(1).equals(lineWords.get(2)) && canRemove(lines, index, previousLine, pinnedLines)) {
+                rewrites.add(new PeepholeRewrite(PeepholeRule.REDUNDANT_MOV, line.getSourceLineNumber(),
+                        String.join(" ", lineWords), null));
+                continue;
+            }
+
+            if (instruction == Instructions.NOP && lineWords.size() == 1 &&
+                    canRemove(lines, index, previousLine, pinnedLines) && !areStatusFlagsLive(lines, index + 1)) {
+                rewrites.add(new PeepholeRewrite(PeepholeRule.DEAD_NOP, line.getSourceLineNumber(),
+                        String.join(" ", lineWords), null));
+                continue;
+            }
+
+            if (instruction == Instructions.CALL && lineWords.size() == 2 && index + 1 < size &&
+                    lines.get(index + 1).getLineWords().equals(List.of(Instructions.RET.getMnemonic())) &&
+                    canRemove(lines, index + 1, line, pinnedLines) &&
+                    isTailCallDisplaceable(lines, index, lineIndicesOfLabelNames)) {
+                final String before = String.join(" ", lineWords) + "; " + Instructions.RET.getMnemonic();
+                lineWords.set(0, Instructions.JUC.getMnemonic());
+                rewrites.add(new PeepholeRewrite(PeepholeRule.TAIL_CALL, line.getSourceLineNumber(), before,
+                        String.join(" ", lineWords)));
+                optimizedLines.add(line);
+                index++; // Skip the 'RET'
+                continue;
+            }
+
+            optimizedLines.add(line);
+        }
+
+        lines.clear();
+        lines.addAll(optimizedLines);
+        return rewrites;
+    }
+
+    /**
+     * Finds the {@link Line}s within the span of a numeric <code>B[condition]</code> or <code>CALLD</code>
+     * displacement, including its target. A label reference {@link Line} is counted as a single word, so the span
+     * covers at least as many {@link Line}s as the assembled displacement does. If any {@link Line} is an
+     * <code>LPC</code>, every {@link Line} is pinned.
+     *
+     * @param lines the assembly {@link Line}s
+     *
+     * @return the pinned {@link Line} flags, indexed like <code>lines</code>
+     */
+    private static boolean[] findPinnedLines(List<Line> lines) {
+        final boolean[] pinnedLines = new boolean[lines.size()];
+        for (int index = 0, size = lines.size(); index < size; index++) {
+            final List<String> lineWords = lines.get(index).getLineWords();
+            final AbstractInstruction instruction = Instructions.INSTRUCTIONS_OF_MNEMONICS.get(lineWords.get(0));
+            if (instruction == Instructions.LPC) {
+                Arrays.fill(pinnedLines, true);
+                return pinnedLines;
+            }
+            if (!(instruction instanceof BInstruction || instruction == Instructions.CALLD) || lineWords.size() != 2 ||
+                    lineWords.get(1).startsWith(LABEL_PREFIX)) {
+                continue;
+            }
+
+            final int displacement;
+            try {
+                displacement = BasedNumberParser.parseInt(lineWords.get(1));
+            } catch (NumberFormatException exception) {
+                continue; // The assembler reports this when the line is assembled
+            }
+
+            // The words from the next line through the target or from the target through this line
+            int wordCount = 0;
+            if (displacement >= 0) {
+                for (int spanIndex = index + 1; spanIndex < size && wordCount <= displacement; spanIndex++) {
+                    pinnedLines[spanIndex] = true;
+                    wordCount += isLabelDefinition(lines.get(spanIndex)) ? 0 : 1;
+                }
+            } else {
+                for (int spanIndex = index; spanIndex >= 0 && wordCount < -displacement; spanIndex--) {
+                    pinnedLines[spanIndex] = true;
+                    wordCount += isLabelDefinition(lines.get(spanIndex)) ? 0 : 1;
+                }
+            }
+        }
+        return pinnedLines;
+    }
+
+    /**
+     * Checks if the {@link Line} at the given index can be removed without changing a numeric displacement or leaving
+     * a label without a {@link Line}.
+     *
+     * @param lines        the assembly {@link Line}s
+     * @param index        the index of the {@link Line} to remove
+     * @param previousLine the {@link Line} that is kept before it or <code>null</code> if there is none
+     * @param pinnedLines  the pinned {@link Line} flags (see {@link #findPinnedLines(List)})
+     *
+     * @return <code>true</code> if the {@link Line} can be removed
+     */
+    private static boolean canRemove(List<Line> lines, int index, Line previousLine, boolean[] pinnedLines) {
+        if (pinnedLines[index]) {
+            return false;
+        }
+        return previousLine == null || !isLabelDefinition(previousLine) ||
+                index + 1 < lines.size() && !isLabelDefinition(lines.get(index + 1));
+    }
+
+    /**
+     * Checks if the status flags may be read before they're overwritten when execution continues at the {@link Line}
+     * at the given index. Jumps, calls, returns, assembly numbers, and the end of the program are assumed to read them
+     * (the final status flags are observable).
+     *
+     * @param lines the assembly {@link Line}s
+     * @param index the index of the {@link Line} that execution continues at
+     *
+     * @return <code>true</code> if the status flags may be read
+     */
+    private static boolean areStatusFlagsLive(List<Line> lines, int index) {
+        for (int size = lines.size(); index < size; index++) {
+            final Line line = lines.get(index);
+            if (isLabelDefinition(line)) { // Falling through a label doesn't change the status flags
+                continue;
+            }
+
+            final AbstractInstruction instruction =
+                    Instructions.INSTRUCTIONS_OF_MNEMONICS.get(line.getLineWords().get(0));
+            if (STATUS_FLAG_WRITING_INSTRUCTIONS.contains(instruction)) {
+                return false;
+            } else if (!STATUS_FLAG_PRESERVING_INSTRUCTIONS.contains(instruction)) {
+                return true;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if the <code>JUC</code> that replaces the <code>CALL</code> at the given index is as small as the
+     * <code>CALL</code>. A register target always is. A label target is if the displacement is within the range of a
+     * <code>BUC</code> even if every label reference in between is expanded to its <code>MOVIL</code> and
+     * <code>MOVIU</code> instructions, since a <code>CALLD</code> has a larger range than a <code>BUC</code>.
+     *
+     * @param lines                   the assembly {@link Line}s
+     * @param index                   the index of the <code>CALL</code> {@link Line}
+     * @param lineIndicesOfLabelNames the {@link Line} indices of the label definitions of label names
+     *
+     * @return <code>true</code> if the <code>JUC</code> is displaceable
+     */
+    private static boolean isTailCallDisplaceable(List<Line> lines, int index,
+            Map<String, Integer> lineIndicesOfLabelNames) {
+        final String target = lines.get(index).getLineWords().get(1);
+        if (!target.startsWith(LABEL_PREFIX)) {
+            return true;
+        }
+
+        final int loadingRegisterIndex = target.indexOf(Assembler.LABEL_LOADING_REGISTER_DELIMITER);
+        final Integer labelIndex = lineIndicesOfLabelNames.get(loadingRegisterIndex == -1 ? target :
+                                                                target.substring(0, loadingRegisterIndex));
+        if (labelIndex == null) {
+            return false; // The assembler reports this when the labels are processed
+        }
+
+        int maxWordCount = 0;
+        if (labelIndex > index) {
+            for (int spanIndex = index + 1; spanIndex < labelIndex; spanIndex++) {
+                maxWordCount += getMaxWordCount(lines.get(spanIndex));
+            }
+            return maxWordCount <= BInstruction.MAX_DISPLACEMENT_IMM;
+        } else {
+            for (int spanIndex = labelIndex; spanIndex < index; spanIndex++) {
+                maxWordCount += getMaxWordCount(lines.get(spanIndex));
+            }
+            return -maxWordCount - 1 >= BInstruction.MIN_DISPLACEMENT_IMM;
+        }
+    }
+
+    /**
+     * Gets the largest number of words that the given {@link Line} can be assembled into.
+     *
+     * @param line the {@link Line}
+     *
+     * @return the maximum word count
+     */
+    private static int getMaxWordCount(Line line) {
+        if (isLabelDefinition(line)) {
+            return 0;
+        }
+
+        final List<String> lineWords = line.getLineWords();
+        for (int wordIndex = 1, size = lineWords.size(); wordIndex < size; wordIndex++) {
+            if (lineWords.get(wordIndex).startsWith(LABEL_PREFIX)) {
+                // A 'MOV' label reference becomes 'MOVIL' and 'MOVIU' and the others also keep their instruction
+                return lineWords.get(0).equals(Instructions.MOV.getMnemonic()) ? 2 : 3;
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Checks if the given {@link Line} is a label definition.
+     *
+     * @param line the {@link Line}
+     *
+     * @return <code>true</code> if it's a label definition
+     */
+    private static boolean isLabelDefinition(Line line) {
+        return line.getLineWords().get(0).startsWith(LABEL_PREFIX);
+    }
+}
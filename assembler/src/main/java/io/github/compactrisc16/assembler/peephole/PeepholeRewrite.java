@@ -0,0 +1,53 @@
+package io.github.compactrisc16.assembler.peephole;
+
+/**
+ * {@link PeepholeRewrite} records a rewrite made by the {@link PeepholeOptimizer}.
+ */
+public class PeepholeRewrite {
+
+    private final PeepholeRule rule;
+    private final int sourceLineNumber;
+    private final String before;
+    private final String after;
+
+    /**
+     * Instantiates a new {@link PeepholeRewrite}.
+     *
+     * @param rule             the {@link PeepholeRule}
+     * @param sourceLineNumber the source line number of the first rewritten line
+     * @param before           the rewritten lines, separated by <code>"; "</code>
+     * @param after            the replacement line or <code>null</code> if the lines were removed
+     */
+    public PeepholeRewrite(PeepholeRule rule, int sourceLineNumber, String before, String after) {
+        this.rule = rule;
+        this.sourceLineNumber = sourceLineNumber;
+        this.before = before;
+        this.after = after;
+    }
+
+    public PeepholeRule getRule() {
+        return rule;
+    }
+
+    public int getSourceLineNumber() {
+        return sourceLineNumber;
+    }
+
+    public String getBefore() {
+        return before;
+    }
+
+    public String getAfter() {
+        return after;
+    }
+
+    @Override
+    public String toString() {
+        return "PeepholeRewrite{" +
+                "rule=" + rule +
+                ", sourceLineNumber=" + sourceLineNumber +
+                ", before='" + before + '\'' +
+                ", after='" + after + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,56 @@
+package io.github.compactrisc16.assembler.peephole;
+
+/**
+ * {@link PeepholeRule} defines the rewrites of the {@link PeepholeOptimizer}. The saved cycles are counted per
+ * execution of the rewritten lines, from the <code>S_FETCH</code> state through the last execute state of
+ * <code>cr16.sv</code>.
+ */
+public enum PeepholeRule {
+
+    /**
+     * Removes a <code>MOV</code> of a register to itself, which only passes through <code>S_EXECUTE_MOV</code> and
+     * doesn't change the status flags.
+     */
+    REDUNDANT_MOV("MOV of a register to itself", 1, 3),
+    /**
+     * Removes a <code>NOP</code> whose status flags (it's an <code>OR r0 r0</code>, which sets them) are overwritten
+     * before they're read.
+     */
+    DEAD_NOP("NOP with unread status flags", 1, 3),
+    /**
+     * Rewrites a <code>CALL</code> that is directly followed by a <code>RET</code> to a <code>JUC</code> to the same
+     * target, so the callee returns straight to the caller's caller. The <code>CALLD</code> and <code>BUC</code> (or
+     * <code>CALL</code> and <code>JUC</code>) take the same cycles, so the whole <code>RET</code> is saved. The return
+     * address is no longer pushed, so the stack is one word shallower during the callee.
+     */
+    TAIL_CALL("CALL followed by RET", 1, 6);
+
+    private final String description;
+    private final int savedWords;
+    private final int savedCycles;
+
+    /**
+     * Instantiates a new {@link PeepholeRule}.
+     *
+     * @param description the description
+     * @param savedWords  the machine code words saved by each rewrite
+     * @param savedCycles the cycles saved per execution of each rewrite
+     */
+    PeepholeRule(String description, int savedWords, int savedCycles) {
+        this.description = description;
+        this.savedWords = savedWords;
+        this.savedCycles = savedCycles;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public int getSavedWords() {
+        return savedWords;
+    }
+
+    public int getSavedCycles() {
+        return savedCycles;
+    }
+}
@@ -0,0 +1,162 @@
+package io.github.compactrisc16.assembler.stats;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link AssemblyStatistics} contains the {@link PhaseStatistics} of assembling a single assembly code file. Only one
+ * {@link Phase} is measured at a time.
+ */
+public class AssemblyStatistics {
+
+    private final String file;
+    private final List<PhaseStatistics> phaseStatistics;
+    private PhaseStatistics currentPhaseStatistics;
+    private boolean succeeded;
+
+    /**
+     * Instantiates a new {@link AssemblyStatistics}.
+     *
+     * @param file the assembly code file path
+     */
+    public AssemblyStatistics(String file) {
+        this.file = file;
+        phaseStatistics = new ArrayList<>();
+    }
+
+    /**
+     * Ends the current {@link Phase} (if any) and starts measuring the given {@link Phase}.
+     *
+     * @param phase the {@link Phase}
+     *
+     * @return the {@link PhaseStatistics} of the given {@link Phase}
+     */
+    public PhaseStatistics startPhase(Phase phase) {
+        endPhase();
+        currentPhaseStatistics = new PhaseStatistics(phase);
+        phaseStatistics.add(currentPhaseStatistics);
+        return currentPhaseStatistics;
+    }
+
+    /**
+     * Ends the current {@link Phase} (if any).
+     */
+    public void endPhase() {
+        if (currentPhaseStatistics != null) {
+            currentPhaseStatistics.end(file);
+            currentPhaseStatistics = null;
+        }
+    }
+
+    /**
+     * Sets a count of the current {@link Phase}. Does nothing if no {@link Phase} is being measured.
+     *
+     * @param name  the count name (e.g. {@link PhaseStatistics#LINES_COUNT})
+     * @param count the count
+     *
+     * @see PhaseStatistics#setCount(String, long)
+     */
+    public void setCount(String name, long count) {
+        if (currentPhaseStatistics != null) {
+            currentPhaseStatistics.setCount(name, count);
+        }
+    }
+
+    /**
+     * Ends the current {@link Phase} (if any) and marks whether assembling succeeded.
+     *
+     * @param succeeded <code>true</code> if assembling succeeded
+     */
+    public void finish(boolean succeeded) {
+        endPhase();
+        this.succeeded = succeeded;
+    }
+
+    /**
+     * Writes the given {@link AssemblyStatistics} as a JSON object with a <code>files</code> array to the given
+     * {@link Path}.
+     *
+     * @param path                 the {@link Path} of the JSON file
+     * @param statisticsOfFiles the {@link AssemblyStatistics}
+     *
+     * @throws IOException thrown for {@link IOException}s
+     */
+    public static void writeJson(Path path, List<AssemblyStatistics> statisticsOfFiles) throws IOException {
+        final StringBuilder json = new StringBuilder("{\n  \"files\": [");
+        for (int fileIndex = 0; fileIndex < statisticsOfFiles.size(); fileIndex++) {
+            final AssemblyStatistics assemblyStatistics = statisticsOfFiles.get(fileIndex);
+            json.append(fileIndex == 0 ? "\n" : ",\n");
+            json.append("    {\n      \"file\": ");
+            appendJsonString(json, assemblyStatistics.file);
+            json.append(",\n      \"succeeded\": ").append(assemblyStatistics.succeeded);
+            json.append(",\n      \"phases\": [");
+            for (int phaseIndex = 0; phaseIndex < assemblyStatistics.phaseStatistics.size(); phaseIndex++) {
+                final PhaseStatistics phaseStatistics = assemblyStatistics.phaseStatistics.get(phaseIndex);
+                json.append(phaseIndex == 0 ? "\n" : ",\n");
+                json.append("        {\"phase\": \"").append(phaseStatistics.getPhase().name().toLowerCase())
+                        .append("\", \"wallNanos\": ").append(phaseStatistics.getWallNanos())
+                        .append(", \"allocatedBytes\": ").append(phaseStatistics.getAllocatedBytes())
+                        .append(", \"counts\": {");
+                boolean firstCount = true;
+                for (Map.Entry<String, Long> countOfName : phaseStatistics.getCountsOfNames().entrySet()) {
+                    json.append(firstCount ? "" : ", ");
+                    appendJsonString(json, countOfName.getKey());
+                    json.append(": ").append(countOfName.getValue());
+                    firstCount = false;
+                }
+                json.append("}}");
+            }
+            json.append("\n      ]\n    }");
+        }
+        json.append("\n  ]\n}\n");
+        Files.writeString(path, json, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Appends the given {@link String} as a quoted and escaped JSON string.
+     *
+     * @param json   the JSON {@link StringBuilder}
+     * @param string the {@link String}
+     */
+    private static void appendJsonString(StringBuilder json, String string) {
+        json.append('"');
+        for (int index = 0; index < string.length(); index++) {
+            char character = string.charAt(index);
+            if (character == '"' || character == '\\') {
+                json.append('\\').append(character);
+            } else if (character < 0x20) {
+                json.append(String.format("\\u%04x", (int) character));
+            } else {
+                json.append(character);
+            }
+        }
+        json.append('"');
+    }
+
+    public String getFile() {
+        return file;
+    }
+
+    public List<PhaseStatistics> getPhaseStatistics() {
+        return Collections.unmodifiableList(phaseStatistics);
+    }
+
+    public boolean isSucceeded() {
+        return succeeded;
+    }
+
+    @Override
+    public String toString() {
+        return "AssemblyStatistics{" +
+                "file='" + file + '\'' +
+                ", phaseStatistics=" + phaseStatistics +
+                ", succeeded=" + succeeded +
+                '}';
+    }
+}
@@ -0,0 +1,40 @@
+package io.github.compactrisc16.assembler.stats;
+
+/**
+ * {@link Phase} defines the phases of assembling an assembly code file.
+ */
+public enum Phase {
+
+    /**
+     * Reading the assembly code file.
+     */
+    READ,
+    /**
+     * Looking up (and restoring) or storing output files in the assembly cache.
+     */
+    CACHE,
+    /**
+     * Decoding and cleaning the assembly code into lines.
+     */
+    CLEAN,
+    /**
+     * Processing <code>`define</code>s and <code>`macro</code>s.
+     */
+    DEFINES,
+    /**
+     * Rewriting redundant instructions with the peephole optimizer.
+     */
+    PEEPHOLE,
+    /**
+     * Processing labels, including jump relaxation.
+     */
+    LABELS,
+    /**
+     * Encoding lines into machine code words.
+     */
+    ENCODE,
+    /**
+     * Writing the output files.
+     */
+    WRITE
+}
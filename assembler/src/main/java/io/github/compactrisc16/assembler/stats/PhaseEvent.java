@@ -0,0 +1,43 @@
+package io.github.compactrisc16.assembler.stats;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * {@link PhaseEvent} is a JDK Flight Recorder {@link Event} for a {@link Phase} of assembling an assembly code file.
+ * Counts that don't apply to the {@link Phase} are <code>-1</code>.
+ */
+@Name("io.github.compactrisc16.assembler.Phase")
+@Label("Assembler Phase")
+@Category({"CompactRISC16", "Assembler"})
+@Description("A phase of assembling an assembly code file")
+@StackTrace(false)
+class PhaseEvent extends Event {
+
+    @Label("File")
+    String file;
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Allocated")
+    @DataAmount
+    long allocatedBytes;
+
+    @Label("Lines")
+    long lines;
+
+    @Label("Labels")
+    long labels;
+
+    @Label("Relaxed Jumps")
+    long relaxedJumps;
+
+    @Label("Words")
+    long words;
+}
@@ -0,0 +1,126 @@
+package io.github.compactrisc16.assembler.stats;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@link PhaseStatistics} contains the wall time, the bytes allocated by the assembling thread, and counts (e.g. of
+ * lines or words) of a single {@link Phase}. Allocations made by other threads (e.g. by parallel encoding on the
+ * common {@link java.util.concurrent.ForkJoinPool}) are not included.
+ */
+public class PhaseStatistics {
+
+    public static final String BYTES_COUNT = "bytes";
+    public static final String CACHE_HITS_COUNT = "cacheHits";
+    public static final String LINES_COUNT = "lines";
+    public static final String DEFINES_COUNT = "defines";
+    public static final String MACROS_COUNT = "macros";
+    public static final String PEEPHOLE_REWRITES_COUNT = "peepholeRewrites";
+    public static final String LABELS_COUNT = "labels";
+    public static final String LABEL_REFERENCES_COUNT = "labelReferences";
+    public static final String RELAXED_JUMPS_COUNT = "relaxedJumps";
+    public static final String RELAXATION_PASSES_COUNT = "relaxationPasses";
+    public static final String WORDS_COUNT = "words";
+    public static final String FILES_COUNT = "files";
+
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+    private final Phase phase;
+    private final Map<String, Long> countsOfNames;
+    private final PhaseEvent phaseEvent;
+    private final long startNanoTime;
+    private final long startAllocatedBytes;
+    private long wallNanos = -1;
+    private long allocatedBytes = -1;
+
+    /**
+     * Instantiates a new {@link PhaseStatistics} and starts measuring the {@link Phase}.
+     *
+     * @param phase the {@link Phase}
+     */
+    PhaseStatistics(Phase phase) {
+        this.phase = phase;
+        countsOfNames = new LinkedHashMap<>();
+        phaseEvent = new PhaseEvent();
+        phaseEvent.begin();
+        startAllocatedBytes = getCurrentThreadAllocatedBytes();
+        startNanoTime = System.nanoTime();
+    }
+
+    /**
+     * Stops measuring the {@link Phase} and commits its {@link PhaseEvent} (if it is enabled).
+     *
+     * @param file the assembly code file path
+     */
+    void end(String file) {
+        wallNanos = System.nanoTime() - startNanoTime;
+        final long endAllocatedBytes = getCurrentThreadAllocatedBytes();
+        allocatedBytes = startAllocatedBytes == -1 || endAllocatedBytes == -1 ? -1 :
+                         endAllocatedBytes - startAllocatedBytes;
+
+        phaseEvent.end();
+        if (phaseEvent.shouldCommit()) {
+            phaseEvent.file = file;
+            phaseEvent.phase = phase.name();
+            phaseEvent.allocatedBytes = allocatedBytes;
+            phaseEvent.lines = countsOfNames.getOrDefault(LINES_COUNT, -1L);
+            phaseEvent.labels = countsOfNames.getOrDefault(LABELS_COUNT, -1L);
+            phaseEvent.relaxedJumps = countsOfNames.getOrDefault(RELAXED_JUMPS_COUNT, -1L);
+            phaseEvent.words = countsOfNames.getOrDefault(WORDS_COUNT, -1L);
+            phaseEvent.commit();
+        }
+    }
+
+    /**
+     * Sets a count of this {@link Phase}.
+     *
+     * @param name  the count name (e.g. {@link #LINES_COUNT})
+     * @param count the count
+     */
+    public void setCount(String name, long count) {
+        countsOfNames.put(name, count);
+    }
+
+    /**
+     * Gets the bytes allocated by the current thread so far.
+     *
+     * @return the allocated bytes or <code>-1</code> if the JVM doesn't support measuring them
+     */
+    private static long getCurrentThreadAllocatedBytes() {
+        if (THREAD_MX_BEAN instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) THREAD_MX_BEAN;
+            if (threadMXBean.isThreadAllocatedMemorySupported() && threadMXBean.isThreadAllocatedMemoryEnabled()) {
+                return threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    public Phase getPhase() {
+        return phase;
+    }
+
+    public Map<String, Long> getCountsOfNames() {
+        return countsOfNames;
+    }
+
+    public long getWallNanos() {
+        return wallNanos;
+    }
+
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "PhaseStatistics{" +
+                "phase=" + phase +
+                ", countsOfNames=" + countsOfNames +
+                ", wallNanos=" + wallNanos +
+                ", allocatedBytes=" + allocatedBytes +
+                '}';
+    }
+}
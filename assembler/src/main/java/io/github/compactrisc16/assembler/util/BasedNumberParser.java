@@ -6,10 +6,14 @@ package io.github.compactrisc16.assembler.util;
  */
 public final class BasedNumberParser {
 
+    private static final char DIGIT_SEPARATOR = '_';
+    private static final long MAX_UNSIGNED_INT = 0xFFFF_FFFFL;
+
     /**
      * Parses a {@link String} into an int. If the given <code>number</code> starts with <code>0b</code>, then {@link
      * Integer#parseInt(String, int)} with <code>radix</code> of <code>2</code> is called, otherwise {@link
-     * Integer#decode(String)} is called.
+     * Integer#decode(String)} is called. Underscores are ignored. Well-formed numbers are parsed in place without
+     * allocating; anything else is handed to {@link Integer} so that the same {@link NumberFormatException} is thrown.
      *
      * @param number the number {@link String}
      *
@@ -18,6 +22,81 @@ public final class BasedNumberParser {
      * @throws NumberFormatException thrown for {@link NumberFormatException}s
      */
     public static int parseInt(String number) throws NumberFormatException {
+        final int length = number.length();
+        int index = skipDigitSeparators(number, 0);
+        int radix = 10;
+        boolean negative = false;
+        long limit = Integer.MAX_VALUE;
+
+        if (index < length && number.charAt(index) == '0') {
+            int prefixIndex = skipDigitSeparators(number, index + 1);
+            if (prefixIndex < length && (number.charAt(prefixIndex) == 'b' || number.charAt(prefixIndex) == 'B')) {
+                radix = 2;
+                limit = MAX_UNSIGNED_INT;
+                index = prefixIndex + 1;
+            }
+        }
+
+        if (radix != 2) {
+            if (index < length && (number.charAt(index) == '-' || number.charAt(index) == '+')) {
+                negative = number.charAt(index) == '-';
+                limit = negative ? -(long) Integer.MIN_VALUE : Integer.MAX_VALUE;
+                index = skipDigitSeparators(number, index + 1);
+            }
+
+            if (index < length && number.charAt(index) == '0') {
+                int prefixIndex = skipDigitSeparators(number, index + 1);
+                if (prefixIndex < length && (number.charAt(prefixIndex) == 'x' || number.charAt(prefixIndex) == 'X')) {
+                    radix = 16;
+                    index = prefixIndex + 1;
+                } else if (prefixIndex < length) {
+                    radix = 8;
+                    index = prefixIndex;
+                }
+            } else if (index < length && number.charAt(index) == '#') {
+                radix = 16;
+                index++;
+            }
+        }
+
+        long value = 0;
+        boolean hasDigits = false;
+        for (; index < length; index++) {
+            char character = number.charAt(index);
+            if (character == DIGIT_SEPARATOR) {
+                continue;
+            }
+
+            int digit = Character.digit(character, radix);
+            if (digit < 0) {
+                return parseIntWithInteger(number);
+            }
+
+            value = value * radix + digit;
+            if (value > limit) {
+                return parseIntWithInteger(number);
+            }
+            hasDigits = true;
+        }
+
+        if (!hasDigits) {
+            return parseIntWithInteger(number);
+        }
+
+        return (int) (negative ? -value : value);
+    }
+
+    /**
+     * Parses a {@link String} into an int using {@link Integer}.
+     *
+     * @param number the number {@link String}
+     *
+     * @return the int
+     *
+     * @throws NumberFormatException thrown for {@link NumberFormatException}s
+     * @see #parseInt(String)
+     */
+    private static int parseIntWithInteger(String number) throws NumberFormatException {
         number = number.replace("_", "");
 
         if (number.toLowerCase().startsWith("0b")) {
@@ -26,4 +105,19 @@ public final class BasedNumberParser {
             return Integer.decode(number);
         }
     }
+
+    /**
+     * Gets the index of the first character at or after <code>index</code> that isn't a digit separator.
+     *
+     * @param number the number {@link String}
+     * @param index  the index to start at
+     *
+     * @return the index
+     */
+    private static int skipDigitSeparators(String number, int index) {
+        while (index < number.length() && number.charAt(index) == DIGIT_SEPARATOR) {
+            index++;
+        }
+        return index;
+    }
 }
@@ -8,10 +8,34 @@
 # Authors: Nate Hansen, Jacob Peterson
 #
 
+# @cycles 190
+# @expect r0 0x00B4
+# @expect r2 0x0008
+# @expect r4 0x0003
+# @expect r9 0x00AF
+# @expect r10 0x0004
+# @expect r12 0x0004
+# @expect rsp 0x03FA
+# @expect mem[0x0B4] 0x0000
+# @expect mem[0x3FB] 0x0021
+# @expect mem[0x3FC] 0x0008
+# @expect mem[0x3FD] 0x000A
+# @expect mem[0x3FE] 0x0008
+# @expect mem[0x3FF] 0x0004
+# r0 and r9 hold code addresses, which move when the peephole optimizer removes the NOPs in .max
+# @no-peephole
+
 # The following is an example of `define (macro) syntax
 `define STACK_PTR_LOWER 0xFF
 `define STACK_PTR_UPPER 0x03
 
+# The following is an example of `macro (parameterized multi-line macro) syntax. A macro is used like an
+# instruction and every parameter in its body is replaced with the given argument when it is expanded.
+`macro MOVI16 rdest lower upper
+    MOVIL   rdest lower
+    MOVIU   rdest upper
+`endmacro
+
 ##
 # The program initialization.
 #
@@ -28,12 +52,9 @@
 # @return void
 ##
 .main
-    MOVIL   r0  0      # i
-    MOVIU   r0  0
-    MOVIL   r1  3      # x
-    MOVIU   r1  0
-    MOVIL   r2  4      # y
-    MOVIU   r2  0
+    MOVI16  r0  0 0    # i
+    MOVI16  r1  3 0    # x
+    MOVI16  r2  4 0    # y
     MOV     r11 r1
     MOV     r12 r2
     CALL    .max
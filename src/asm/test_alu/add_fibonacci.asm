@@ -1,3 +1,7 @@
+# @cycles 25
+# @expect r0 0x0015
+# @expect r1 0x000D
+
 ADDI  r0  1
 ADDI  r1  1
 ADD   r1  r0  # sum of 2
@@ -1,3 +1,8 @@
+# @cycles 34
+# @expect r3 0x0020
+# @expect r4 0x000C
+# @expect r5 0x0002
+
 ADDI  r3  15   # Load 000F into r3
 ADDI  r4  240  # Load FFF0 into r4
 OR    r3  r4   # r3 gets FFFF
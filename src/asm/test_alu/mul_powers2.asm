@@ -1,3 +1,7 @@
+# @cycles 25
+# @expect r0 0x0100
+# @expect r1 0x2000
+
 ADDI  r0  1
 ADDI  r1  2
 MUL   r0  r1  # product 2
@@ -1,3 +1,7 @@
+# @cycles 27
+# @expect r0 0x0004
+# @expect r1 0x0004
+
 .main
     MOVIL r0  5   # x = 5
     BUC   1
@@ -1,3 +1,8 @@
+# @cycles 74
+# @expect r0 0x0005
+# @expect r1 0x0005
+# @expect r14 0xFFFF
+
 .main
     ADDI  r0  0   # r0 = 0
     ADDI  r14 4   # int i = 4
@@ -1,3 +1,8 @@
+# @cycles 61
+# @expect r0 0x0004
+# @expect r1 0x0004
+# @expect r14 0x0004
+
 .main
     ADDI  r0  0   # r0 = 0
     ADDI  r14 0   # int i = 0
@@ -1,3 +1,10 @@
+# @cycles 46
+# @expect r0 0x8000
+# @expect r1 0xFFFB
+# @expect r2 0xFFFB
+# @expect r8 0x0030
+# @expect mem[0x030] 0xFFFB
+
     MOVIL r8  48     # Frame pointer = 48
 .main
     MOVIU r0  0x80   # Upper of 32768 is 1000_0000 or 0x80
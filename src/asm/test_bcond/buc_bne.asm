@@ -1,3 +1,8 @@
+# @cycles 110
+# @expect r0 0x0001
+# @expect r1 0x0001
+# @expect r2 0x0001
+
 .main
     MOVIL r0  1   # x = 1
     MOVIL r1  10  # y = 10
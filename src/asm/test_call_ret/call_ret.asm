@@ -1,3 +1,13 @@
+# @cycles 48
+# @expect r0 0x0010
+# @expect r7 0x000A
+# @expect r11 0x0002
+# @expect r12 0x0003
+# @expect rsp 0x00FF
+# @expect mem[0x00F] 0x0002
+# @expect mem[0x010] 0x0003
+# @expect mem[0x0FF] 0x0005
+
 .main
     MOVIL  rsp  0xFF   # rsp is 0xFF (0b1111_1111)
     MOVIL  r11  1      # First arg is 1
@@ -1,3 +1,12 @@
+# @cycles 44
+# @expect r0 0x000E
+# @expect r11 0x0002
+# @expect r12 0x0003
+# @expect rsp 0x00FF
+# @expect mem[0x00E] 0x0003
+# @expect mem[0x00F] 0x0002
+# @expect mem[0x0FF] 0x0004
+
 .main
     MOVIL  rsp  0xFF   # rsp is 0xFF (0b1111_1111)
     MOVIL  r11  1      # First arg is 1
@@ -1,3 +1,9 @@
+# @cycles 38
+# @expect r0 0x0004
+# @expect r1 0x0004
+# @expect r9 0x0004
+# @expect r10 0x0003
+
 .main
     MOVIL r0  5   # x = 5
     MOVIL r9  4
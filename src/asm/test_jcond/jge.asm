@@ -1,3 +1,9 @@
+# @cycles 93
+# @expect r0 0x0005
+# @expect r1 0x0005
+# @expect r9 0x0002
+# @expect r14 0xFFFF
+
 .main
     ADDI  r0  0   # r0 = 0
     ADDI  r14 4   # int i = 4
@@ -1,3 +1,9 @@
+# @cycles 76
+# @expect r0 0x0004
+# @expect r1 0x0004
+# @expect r9 0x0002
+# @expect r14 0x0004
+
 .main
     ADDI  r0  0  # r0 = 0
     ADDI  r14 0  # int i = 0
@@ -1,3 +1,10 @@
+# @cycles 78
+# @expect r0 0x8000
+# @expect r1 0x8000
+# @expect r8 0x0030
+# @expect r9 0x0008
+# @expect r10 0x0007
+
     MOVIL  r8  48     # Frame pointer = 48
 .main
     MOVIU  r0  0x80   # Upper of 32768 is 1000_0000 or 0x80
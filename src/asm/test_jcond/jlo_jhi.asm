@@ -1,3 +1,14 @@
+# @cycles 200
+# @expect r0 0x8000
+# @expect r1 0x7FFB
+# @expect r2 0x7FFB
+# @expect r8 0x0030
+# @expect r9 0x000A
+# @expect r10 0x0009
+# @expect r11 0x0010
+# @expect r12 0x000F
+# @expect mem[0x030] 0x7FFB
+
     MOVIL  r8  48    # Frame pointer = 48
 .main
     MOVIU  r0  0x80  # Upper of 32768 is 1000_0000 or 0x80
@@ -1,3 +1,12 @@
+# @cycles 44
+# @expect r0 0x0005
+# @expect r1 0x0003
+# @expect r8 0x0031
+# @expect r9 0x0007
+# @expect r10 0x000B
+# @expect mem[0x030] 0x0005
+# @expect mem[0x031] 0x0003
+
     MOVIL  r8  48  # frame pointer = 48
 .main
     MOVIL  r0  5   # x = 5
@@ -1,3 +1,10 @@
+# @cycles 153
+# @expect r0 0x0001
+# @expect r1 0x0001
+# @expect r2 0x0001
+# @expect r9 0x0005
+# @expect r10 0x0004
+
 .main
     MOVIL  r0  1   # x = 1
     MOVIL  r1  10  # y = 10
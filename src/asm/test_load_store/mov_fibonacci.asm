@@ -1,3 +1,20 @@
+# @cycles 70
+# @expect r1 0x0001
+# @expect r2 0x0001
+# @expect r3 0x0002
+# @expect r4 0x0003
+# @expect r5 0x0005
+# @expect r6 0x0008
+# @expect r7 0x000D
+# @expect r8 0x0015
+# @expect r9 0x0015
+# @expect r10 0x000D
+# @expect r11 0x0008
+# @expect r12 0x0005
+# @expect r13 0x0003
+# @expect r14 0x0002
+# @expect rsp 0x0001
+
 ADDI  r0  0
 ADDI  r1  1
 ADD   rsp r0
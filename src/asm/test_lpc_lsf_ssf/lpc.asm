@@ -1,3 +1,13 @@
+# @cycles 23
+# @expect r12 0x0004
+# @expect rsp 0x000A
+# @expect mem[0x00A] 0x0004
+# @expect N 0
+# @expect Z 1
+# @expect F 0
+# @expect L 0
+# @expect C 0
+
 ADD   r0  r0
 ADD   r0  r0
 ADD   r0  r0
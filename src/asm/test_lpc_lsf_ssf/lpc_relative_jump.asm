@@ -0,0 +1,13 @@
+# Jumps to an address computed from LPC, so the peephole optimizer must not remove the redundant MOV in between
+# @cycles 18
+# @expect r1 0x0005
+# @expect r2 0x0000
+# @expect r3 0x0000
+# @expect r4 0x0002
+
+LPC   r1
+ADDI  r1  5         # r1 = the address of 'MOVIL r4 2'
+MOV   r2  r2
+JUC   r1
+MOVIL r3  1         # Skipped
+MOVIL r4  2
@@ -1,3 +1,16 @@
+# @cycles 26
+# @expect r0 0x0006
+# @expect r1 0x0005
+# @expect r2 0x0013
+# @expect r3 0x000F
+# @expect r5 0x0005
+# @expect mem[0x00F] 0x0013
+# @expect N 0
+# @expect Z 0
+# @expect F 1
+# @expect L 0
+# @expect C 1
+
 ADDI  r0  0x6
 ADDI  r1  0x5
 CMP   r0  r1
@@ -1,3 +1,15 @@
+# @cycles 40
+# @expect r0 0x001F
+# @expect r1 0x001E
+# @expect r2 0x001E
+# @expect r3 0x001F
+# @expect r9 0x000E
+# @expect rsp 0x00FF
+# @expect mem[0x00E] 0x001F
+# @expect mem[0x00F] 0x001E
+# @expect mem[0x0FE] 0x001E
+# @expect mem[0x0FF] 0x001F
+
 MOVIL rsp 0xFF   # rsp is 0xFF (0b1111_1111)
 MOVIL r0  0x1F
 MOVIL r1  0x1E
@@ -0,0 +1,47 @@
+# Runs loops for longer than the translation threshold of the simulator's translator engine (32 executions of a
+# basic block) and then patches their code, first from the caller between two runs of a loop and then from the
+# translated loop itself, so every engine has to drop its decoded or translated copy of the patched code.
+
+# @cycles 2260
+# @expect r1 0x0078
+# @expect r7 0x0064
+# @expect rsp 0x00FF
+# @expect mem[0x002] 0x1102
+# @expect mem[0x080] 0x1102
+
+    JUC    .main
+.sum_loop_a
+    MOVIL  r2  40          # Loop 40 times
+.loop_a
+    ADDI   r1  1           # Patched to 'ADDI r1 2' by .main
+    SUBI   r2  1
+    JNE    .loop_a
+    RET
+
+.toggle_loop_b
+    MOVIL  r2  40          # Loop 40 times
+    MOVIL  r6  3           # 'ADDI r7 1' ^ 'ADDI r7 2'
+    JUC    .loop_b         # Enter the loop through a jump, so the first store is made by its own basic block
+.loop_b
+    XOR    r5  r6
+    STORE  r3  r5          # Toggle the word at r3
+.add_r7
+    ADDI   r7  1           # Toggled between 'ADDI r7 2' and 'ADDI r7 1' if r3 is .add_r7
+    SUBI   r2  1
+    JNE    .loop_b
+    RET
+
+.main
+    MOVIL  rsp 0xFF
+    MOV    r3  .loop_a
+    CALL   .sum_loop_a     # r1 = 40 * 1
+    LOAD   r5  r3
+    XORI   r5  3           # r5 = 'ADDI r1 2'
+    STORE  r3  r5
+    CALL   .sum_loop_a     # r1 = 40 * 1 + 40 * 2 = 120
+
+    MOVIL  r3  0x80        # A scratch word past the program
+    CALL   .toggle_loop_b  # r7 = 40 * 1 (and .loop_b is translated)
+    MOV    r3  .add_r7
+    LOAD   r5  r3          # r5 = 'ADDI r7 1'
+    CALL   .toggle_loop_b  # r7 = 40 + 20 * 2 + 20 * 1 = 100
@@ -1,3 +1,13 @@
+# @cycles 51
+# @expect r0 0xFFFF
+# @expect r1 0xFFFF
+# @expect r2 0x8003
+# @expect r3 0x0001
+# @expect r8 0x001F
+# @expect r9 0x0020
+# @expect mem[0x01F] 0xFFFF
+# @expect mem[0x020] 0xFFFF
+
 MOVIU r0  0x80
 MOVIL r0  0x02
 MOVIU r1  0x00
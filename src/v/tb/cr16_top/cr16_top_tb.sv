@@ -34,4 +34,30 @@ cr16_top uut
 
 // Use Modelsim's "run for 100ps" feature to advance the simulation of 'cr16_top'
 
+// Run with the '+trace' plusarg to log the writes and fetches of 'i_cr16' to 'cr16_top_trace.log',
+// which can be compared with a trace of the simulator ('simulator --trace') by 'simulator-compare'.
+// The events of each clock are logged in the order of the memory writes, the regfile writes, and
+// then the fetch, so the writes that follow an 'I' line belong to the instruction that it fetched.
+integer trace_file = 0;
+integer reg_index;
+
+initial begin
+    if ($test$plusargs("trace"))
+        trace_file = $fopen("cr16_top_trace.log", "w");
+end
+
+always @(posedge uut.i_cr16.I_CLK) begin
+    if (trace_file != 0 && uut.i_cr16.I_ENABLE) begin
+        if (uut.i_cr16.O_MEM_WRITE_ENABLE)
+            $fdisplay(trace_file, "M %h %h", uut.i_cr16.O_MEM_ADDRESS, uut.i_cr16.O_MEM_DATA);
+        if (uut.i_cr16.O_EXT_MEM_WRITE_ENABLE)
+            $fdisplay(trace_file, "X %h %h", uut.i_cr16.O_EXT_MEM_ADDRESS, uut.i_cr16.O_EXT_MEM_DATA);
+        for (reg_index = 0; reg_index < 16; reg_index = reg_index + 1)
+            if (uut.i_cr16.reg_write_enable[reg_index])
+                $fdisplay(trace_file, "R %0d %h", reg_index, uut.i_cr16.O_RESULT_BUS);
+        if (uut.i_cr16.state == 0) // S_FETCH
+            $fdisplay(trace_file, "I %h %b", uut.i_cr16.O_PC, uut.i_cr16.O_STATUS_FLAGS);
+    end
+end
+
 endmodule